@@ -0,0 +1,259 @@
+package com.dormitory.build;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * 原生镜像冒烟测试，并与 JVM 版本对比启动时间和内存
+ *
+ * 由 pom.xml 的 native 配置在 verify 阶段以单文件源码方式运行：
+ * <pre>
+ * java NativeSmokeCheck.java &lt;报告&gt; &lt;原生可执行文件&gt; &lt;可执行 jar&gt; [应用参数...]
+ * </pre>
+ * 先后启动原生可执行文件和 java -jar（H2 内存库，dev 配置的演示数据），各走一遍：学生、管理员登录并打开首页，
+ * 办理退宿后重新分配宿舍，提交维修申请、分配给管理员并完成，每步之后通过统计接口核对结果。
+ * 记录启动时间（Spring Boot 日志中的 process running for）、从启动进程到 /login 首次响应的时间，
+ * 以及走完流程后的常驻内存（/proc 中的 VmRSS）和峰值（VmHWM），写入报告。任一步骤失败时以非零状态退出。
+ * 流程中的 ID 对应演示数据（DatasetGenerator.generateDemo）。
+ */
+public class NativeSmokeCheck {
+    
+    private static final Pattern STARTED = Pattern.compile("Started \\S+ in [0-9.]+ seconds \\(process running for ([0-9.]+)\\)");
+    
+    private static final Duration TIMEOUT = Duration.ofMinutes(3);
+    
+    public static void main(String[] args) throws Exception {
+        Path report = Path.of(args[0]);
+        Path executable = Path.of(args[1]);
+        Path jar = Path.of(args[2]);
+        List<String> appArgs = List.of(args).subList(3, args.length);
+        Path logs = report.resolveSibling("native-smoke");
+        Files.createDirectories(logs);
+        
+        String javaCommand = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        Result nativeResult = run("native", List.of(executable.toString()), appArgs, logs);
+        Result jvmResult = run("jvm", List.of(javaCommand, "-jar", jar.toString()), appArgs, logs);
+        
+        Files.writeString(report, "{\n  \"native\": " + nativeResult.toJson() + ",\n  \"jvm\": " + jvmResult.toJson() + "\n}\n");
+        System.out.printf("%-8s %12s %14s %12s %12s%n", "", "启动 ms", "首个请求 ms", "RSS MB", "峰值 MB");
+        for (Result result : List.of(nativeResult, jvmResult)) {
+            System.out.printf("%-8s %12d %14d %12s %12s%n", result.name, result.startup, result.firstRequest,
+                    megabytes(result.rss), megabytes(result.peakRss));
+        }
+        System.out.println("报告见 " + report);
+    }
+    
+    private static Result run(String name, List<String> launcher, List<String> appArgs, Path logs) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>(launcher);
+        command.add("--server.port=" + port);
+        command.addAll(appArgs);
+        Path log = logs.resolve(name + ".log");
+        
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log.toFile()).start();
+        Session anonymous = new Session("http://localhost:" + port);
+        long deadline = start + TIMEOUT.toNanos();
+        while (true) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException(name + " 启动失败，退出码 " + process.exitValue() + "，见 " + log);
+            }
+            if (System.nanoTime() > deadline) {
+                process.destroyForcibly();
+                throw new IllegalStateException(name + " " + TIMEOUT.toSeconds() + " 秒内没有响应，见 " + log);
+            }
+            try {
+                if (anonymous.status("/login") == 200) {
+                    break;
+                }
+            } catch (IOException e) {
+                // 端口还没有打开
+            }
+            Thread.sleep(10);
+        }
+        Result result = new Result(name);
+        result.firstRequest = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        
+        try {
+            exercise(new Session(anonymous.base), new Session(anonymous.base));
+            result.rss = memory(process, "VmRSS");
+            result.peakRss = memory(process, "VmHWM");
+        } catch (Exception e) {
+            throw new IllegalStateException(name + " 冒烟测试失败：" + e.getMessage() + "，见 " + log, e);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(1, TimeUnit.MINUTES)) {
+                process.destroyForcibly();
+            }
+        }
+        
+        Matcher matcher = STARTED.matcher(Files.readString(log));
+        if (!matcher.find()) {
+            throw new IllegalStateException(name + " 日志中没有启动完成记录，见 " + log);
+        }
+        result.startup = Math.round(Double.parseDouble(matcher.group(1)) * 1000);
+        System.out.printf("%s：冒烟测试通过%n", name);
+        return result;
+    }
+    
+    /**
+     * 登录、宿舍分配和维修申请流程
+     */
+    private static void exercise(Session student, Session admin) throws Exception {
+        // Tomcat 先于 DataInitializer 开始接受请求，等演示数据写完（4 条入住记录）再开始
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (!admin.tryLogin("admin", "admin123")
+                || !admin.get("/api/v1/statistics/assignments").body().contains("[\"ACTIVE\",4]")) {
+            expect(System.nanoTime() < deadline, "演示数据没有写入");
+            Thread.sleep(100);
+        }
+        expect(admin.get("/").body().contains("系统管理员"), "管理员仪表板没有显示管理员姓名");
+        student.login("student", "student123");
+        expect(student.get("/").body().contains("张三"), "学生仪表板没有显示学生姓名");
+        
+        // 赵六（学生 5）从 C栋 301（分配记录 4）退宿，重新分配到 A栋 103（宿舍 3）
+        String today = LocalDate.now().toString();
+        admin.post("/assignments/4/checkout", Map.of("checkOutDate", today));
+        admin.post("/assignments/save", Map.of("studentId", "5", "dormitoryId", "3", "checkInDate", today));
+        String assignments = admin.get("/api/v1/statistics/assignments").body();
+        expect(assignments.contains("[\"COMPLETED\",1]") && assignments.contains("[\"A栋\",4]"),
+                "退宿和重新分配后的统计不正确：" + assignments);
+        
+        // 张三（学生 2）所在的 A栋 101 报修，分配给 admin（用户 1）后完成
+        admin.post("/repair-requests/save", Map.of("student.id", "2", "dormitory.id", "1",
+                "description", "水龙头漏水", "type", "PLUMBING", "priority", "HIGH"));
+        admin.post("/repair-requests/1/assign", Map.of("adminId", "1"));
+        admin.post("/repair-requests/1/complete", Map.of("adminNotes", "已更换水龙头", "repairCost", "30"));
+        String repairs = admin.get("/api/v1/statistics/repairs").body();
+        expect(repairs.contains("[\"COMPLETED\",1]") && repairs.contains("[\"PLUMBING\",1]"),
+                "维修申请完成后的统计不正确：" + repairs);
+    }
+    
+    private static void expect(boolean condition, String message) {
+        if (!condition) {
+            throw new IllegalStateException(message);
+        }
+    }
+    
+    /**
+     * /proc/&lt;pid&gt;/status 中的内存项（KB），不是 Linux 时返回 -1
+     */
+    private static long memory(Process process, String field) throws IOException {
+        Path status = Path.of("/proc", String.valueOf(process.pid()), "status");
+        if (!Files.isReadable(status)) {
+            return -1;
+        }
+        for (String line : Files.readAllLines(status)) {
+            if (line.startsWith(field + ":")) {
+                return Long.parseLong(line.replaceAll("[^0-9]", ""));
+            }
+        }
+        return -1;
+    }
+    
+    private static String megabytes(long kilobytes) {
+        return kilobytes >= 0 ? String.format(Locale.ROOT, "%.1f", kilobytes / 1024.0) : "未知";
+    }
+    
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+    
+    /**
+     * 一个用户的会话（各自的 Cookie）
+     */
+    private static class Session {
+        
+        final String base;
+        
+        final HttpClient client = HttpClient.newBuilder()
+                .cookieHandler(new CookieManager())
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(1))
+                .build();
+        
+        Session(String base) {
+            this.base = base;
+        }
+        
+        void login(String username, String password) throws Exception {
+            expect(tryLogin(username, password), username + " 登录失败");
+        }
+        
+        boolean tryLogin(String username, String password) throws Exception {
+            HttpResponse<String> response = post("/login", Map.of("username", username, "password", password));
+            return !response.headers().firstValue("Location").orElse("").contains("error");
+        }
+        
+        int status(String path) throws Exception {
+            return send(HttpRequest.newBuilder(URI.create(base + path)).GET()).statusCode();
+        }
+        
+        HttpResponse<String> get(String path) throws Exception {
+            HttpResponse<String> response = send(HttpRequest.newBuilder(URI.create(base + path)).GET());
+            expect(response.statusCode() == 200, "GET " + path + " 返回 " + response.statusCode());
+            return response;
+        }
+        
+        HttpResponse<String> post(String path, Map<String, String> form) throws Exception {
+            String body = form.entrySet().stream()
+                    .map(e -> URLEncoder.encode(e.getKey(), StandardCharsets.UTF_8) + "="
+                            + URLEncoder.encode(e.getValue(), StandardCharsets.UTF_8))
+                    .collect(Collectors.joining("&"));
+            HttpResponse<String> response = send(HttpRequest.newBuilder(URI.create(base + path))
+                    .header("Content-Type", "application/x-www-form-urlencoded")
+                    .POST(HttpRequest.BodyPublishers.ofString(body)));
+            // 表单提交成功或失败都重定向，结果由之后的统计接口核对
+            expect(response.statusCode() == 302, "POST " + path + " 返回 " + response.statusCode());
+            return response;
+        }
+        
+        private HttpResponse<String> send(HttpRequest.Builder request) throws Exception {
+            return client.send(request.timeout(Duration.ofSeconds(30)).build(),
+                    HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+        }
+    }
+    
+    private static class Result {
+        
+        final String name;
+        
+        long startup;
+        
+        long firstRequest;
+        
+        long rss = -1;
+        
+        long peakRss = -1;
+        
+        Result(String name) {
+            this.name = name;
+        }
+        
+        String toJson() {
+            return String.format(Locale.ROOT, "{\"startupMillis\": %d, \"firstRequestMillis\": %d, "
+                    + "\"rssKb\": %d, \"peakRssKb\": %d}", startup, firstRequest, rss, peakRss);
+        }
+    }
+}
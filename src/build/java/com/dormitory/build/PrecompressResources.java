@@ -0,0 +1,102 @@
+package com.dormitory.build;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 构建时预压缩静态资源
+ *
+ * 由 pom.xml 在 process-resources 阶段以单文件源码方式运行（java PrecompressResources.java &lt;目录&gt;），
+ * 为目录下的 css、js 等文本资源生成最高压缩级别的 .gz，PATH 中有 brotli 命令时再生成 .br；
+ * 压缩后不比原文件小的不生成。运行时由 spring.web.resources.chain.compressed 按 Accept-Encoding 选用。
+ */
+public class PrecompressResources {
+    
+    private static final Set<String> EXTENSIONS = Set.of("css", "js", "svg", "json", "txt", "map");
+    
+    public static void main(String[] args) throws Exception {
+        Path root = Path.of(args[0]);
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+        boolean brotli = brotliAvailable();
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(root)) {
+            files = walk.filter(Files::isRegularFile).filter(PrecompressResources::compressible).toList();
+        }
+        for (Path file : files) {
+            long size = Files.size(file);
+            long gzip = gzip(file, size);
+            long br = -1;
+            if (brotli) {
+                br = brotli(file, size);
+            } else {
+                // 上次构建留下的 .br 可能已过期
+                Files.deleteIfExists(file.resolveSibling(file.getFileName() + ".br"));
+            }
+            System.out.printf("%s: %d 字节，gzip %s，brotli %s%n", root.relativize(file), size, describe(gzip),
+                    brotli ? describe(br) : "未安装 brotli 命令，跳过");
+        }
+    }
+    
+    private static boolean compressible(Path file) {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return dot > 0 && EXTENSIONS.contains(name.substring(dot + 1));
+    }
+    
+    private static long gzip(Path file, long size) throws IOException {
+        Path target = file.resolveSibling(file.getFileName() + ".gz");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(target)) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            Files.copy(file, out);
+        }
+        return keepIfSmaller(target, size);
+    }
+    
+    private static long brotli(Path file, long size) throws IOException, InterruptedException {
+        Path target = file.resolveSibling(file.getFileName() + ".br");
+        Process process = new ProcessBuilder("brotli", "--best", "--force", "--output=" + target, file.toString())
+                .inheritIO().start();
+        if (!process.waitFor(60, TimeUnit.SECONDS) || process.exitValue() != 0) {
+            process.destroy();
+            Files.deleteIfExists(target);
+            return -1;
+        }
+        return keepIfSmaller(target, size);
+    }
+    
+    private static long keepIfSmaller(Path target, long size) throws IOException {
+        long compressed = Files.size(target);
+        if (compressed >= size) {
+            Files.delete(target);
+            return -1;
+        }
+        return compressed;
+    }
+    
+    private static boolean brotliAvailable() {
+        try {
+            Process process = new ProcessBuilder("brotli", "--version").redirectErrorStream(true).start();
+            process.getInputStream().transferTo(OutputStream.nullOutputStream());
+            return process.waitFor(10, TimeUnit.SECONDS) && process.exitValue() == 0;
+        } catch (IOException | InterruptedException e) {
+            return false;
+        }
+    }
+    
+    private static String describe(long compressed) {
+        return compressed >= 0 ? compressed + " 字节" : "未生成";
+    }
+}
@@ -0,0 +1,202 @@
+package com.dormitory.build;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 构建时训练类数据共享（AppCDS）归档并检查启动时间
+ *
+ * 由 pom.xml 的 startup 配置以单文件源码方式运行：
+ * <pre>
+ * java StartupCheck.java train   &lt;jar&gt; &lt;归档&gt; [应用参数...]
+ * java StartupCheck.java measure &lt;jar&gt; &lt;归档&gt; &lt;报告&gt; &lt;启动上限毫秒&gt; &lt;首个请求上限毫秒&gt; &lt;次数&gt; [应用参数...]
+ * </pre>
+ * train 以 -XX:ArchiveClassesAtExit 启动应用，等到能响应后登录并打开管理员仪表板（首页）（把处理请求用到的类也加载进来），
+ * 再正常停止进程，JVM 退出时写出归档。measure 以 -XX:SharedArchiveFile 启动若干次，记录 Spring Boot 日志中的
+ * 启动时间（process running for，含 JVM 启动）和从启动进程到 /login 首次响应的时间，取中位数写入报告；
+ * 任一中位数超过上限时以非零状态退出，构建失败。两种模式都开启 AOT（-Dspring.aot.enabled=true），
+ * 日志写在归档所在目录。
+ */
+public class StartupCheck {
+    
+    private static final Pattern STARTED = Pattern.compile("Started \\S+ in [0-9.]+ seconds \\(process running for ([0-9.]+)\\)");
+    
+    private static final Duration TIMEOUT = Duration.ofMinutes(3);
+    
+    private static final HttpClient CLIENT = HttpClient.newBuilder()
+            .cookieHandler(new CookieManager())
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .connectTimeout(Duration.ofSeconds(1))
+            .build();
+    
+    public static void main(String[] args) throws Exception {
+        String mode = args[0];
+        Path jar = Path.of(args[1]);
+        Path archive = Path.of(args[2]);
+        if ("train".equals(mode)) {
+            train(jar, archive, Arrays.asList(args).subList(3, args.length));
+        } else if ("measure".equals(mode)) {
+            Path report = Path.of(args[3]);
+            long maxStartup = Long.parseLong(args[4]);
+            long maxFirstRequest = Long.parseLong(args[5]);
+            int runs = Integer.parseInt(args[6]);
+            List<String> appArgs = Arrays.asList(args).subList(7, args.length);
+            if (!measure(jar, archive, report, maxStartup, maxFirstRequest, runs, appArgs)) {
+                System.exit(1);
+            }
+        } else {
+            throw new IllegalArgumentException("未知的模式: " + mode);
+        }
+    }
+    
+    private static void train(Path jar, Path archive, List<String> appArgs) throws Exception {
+        Files.deleteIfExists(archive);
+        Path log = archive.resolveSibling("train.log");
+        Run run = launch(jar, "-XX:ArchiveClassesAtExit=" + archive, appArgs, log);
+        String base = "http://localhost:" + run.port;
+        // 演示账号只在 dev 配置下存在，登录失败时只少加载一部分类
+        send(HttpRequest.newBuilder(URI.create(base + "/login"))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString("username=admin&password=admin123")));
+        send(HttpRequest.newBuilder(URI.create(base + "/")).GET());
+        send(HttpRequest.newBuilder(URI.create(base + "/css/style.css")).GET());
+        stop(run);
+        if (!Files.isRegularFile(archive)) {
+            throw new IllegalStateException("没有生成归档 " + archive + "，见 " + log);
+        }
+        System.out.printf("已生成 AppCDS 归档 %s（%d KB），训练运行启动 %d ms，首个请求 %d ms%n",
+                archive, Files.size(archive) / 1024, run.startup, run.firstRequest);
+    }
+    
+    private static boolean measure(Path jar, Path archive, Path report, long maxStartup, long maxFirstRequest,
+                                   int runs, List<String> appArgs) throws Exception {
+        long[] startup = new long[runs];
+        long[] firstRequest = new long[runs];
+        StringBuilder json = new StringBuilder("{\n  \"runs\": [");
+        for (int i = 0; i < runs; i++) {
+            Run run = launch(jar, "-XX:SharedArchiveFile=" + archive, appArgs,
+                    archive.resolveSibling("measure-" + (i + 1) + ".log"));
+            stop(run);
+            startup[i] = run.startup;
+            firstRequest[i] = run.firstRequest;
+            json.append(i == 0 ? "\n" : ",\n")
+                    .append(String.format(Locale.ROOT, "    {\"startupMillis\": %d, \"firstRequestMillis\": %d}",
+                            run.startup, run.firstRequest));
+            System.out.printf("第 %d 次：启动 %d ms，首个请求 %d ms%n", i + 1, run.startup, run.firstRequest);
+        }
+        long startupMedian = median(startup);
+        long firstRequestMedian = median(firstRequest);
+        json.append(String.format(Locale.ROOT, "\n  ],\n  \"startupMillis\": %d,\n  \"firstRequestMillis\": %d,"
+                        + "\n  \"maxStartupMillis\": %d,\n  \"maxFirstRequestMillis\": %d\n}\n",
+                startupMedian, firstRequestMedian, maxStartup, maxFirstRequest));
+        Files.writeString(report, json);
+        
+        boolean passed = startupMedian <= maxStartup && firstRequestMedian <= maxFirstRequest;
+        System.out.printf("启动时间中位数 %d ms（上限 %d ms），首个请求 %d ms（上限 %d ms）%s，报告见 %s%n",
+                startupMedian, maxStartup, firstRequestMedian, maxFirstRequest, passed ? "" : "，超过上限", report);
+        return passed;
+    }
+    
+    private static Run launch(Path jar, String archiveOption, List<String> appArgs, Path log) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>(List.of(
+                Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                archiveOption,
+                "-Dspring.aot.enabled=true",
+                "-jar", jar.toString(),
+                "--server.port=" + port));
+        command.addAll(appArgs);
+        
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true)
+                .redirectOutput(log.toFile()).start();
+        URI login = URI.create("http://localhost:" + port + "/login");
+        long deadline = start + TIMEOUT.toNanos();
+        while (true) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("应用启动失败，退出码 " + process.exitValue() + "，见 " + log);
+            }
+            if (System.nanoTime() > deadline) {
+                process.destroyForcibly();
+                throw new IllegalStateException("应用 " + TIMEOUT.toSeconds() + " 秒内没有响应，见 " + log);
+            }
+            try {
+                HttpResponse<Void> response = CLIENT.send(HttpRequest.newBuilder(login).GET().build(),
+                        HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() < 500) {
+                    break;
+                }
+            } catch (IOException e) {
+                // 端口还没有打开
+            }
+            Thread.sleep(10);
+        }
+        long firstRequest = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        return new Run(process, port, log, firstRequest);
+    }
+    
+    private static void stop(Run run) throws Exception {
+        // SIGTERM：Spring 正常关闭，JVM 退出时写出 AppCDS 归档
+        run.process.destroy();
+        if (!run.process.waitFor(2, TimeUnit.MINUTES)) {
+            run.process.destroyForcibly();
+            throw new IllegalStateException("应用没有正常停止，见 " + run.log);
+        }
+        Matcher matcher = STARTED.matcher(Files.readString(run.log));
+        if (!matcher.find()) {
+            throw new IllegalStateException("日志中没有启动完成记录，见 " + run.log);
+        }
+        run.startup = Math.round(Double.parseDouble(matcher.group(1)) * 1000);
+    }
+    
+    private static void send(HttpRequest.Builder request) throws Exception {
+        CLIENT.send(request.timeout(Duration.ofSeconds(30)).build(), HttpResponse.BodyHandlers.discarding());
+    }
+    
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+    
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+    
+    private static class Run {
+        
+        final Process process;
+        
+        final int port;
+        
+        final Path log;
+        
+        final long firstRequest;
+        
+        long startup;
+        
+        Run(Process process, int port, Path log, long firstRequest) {
+            this.process = process;
+            this.port = port;
+            this.log = log;
+            this.firstRequest = firstRequest;
+        }
+    }
+}
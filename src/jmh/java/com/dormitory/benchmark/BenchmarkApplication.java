@@ -0,0 +1,86 @@
+package com.dormitory.benchmark;
+
+import com.dormitory.DormitoryManagementApplication;
+import com.dormitory.service.DormitoryService;
+import com.dormitory.service.RepairRequestService;
+import com.dormitory.service.StudentDormitoryService;
+import com.dormitory.service.UserService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+
+/**
+ * 基准测试用的应用实例
+ *
+ * 每个基准方法在单独的 JVM 中启动一次完整应用（随机端口），database 参数选择 H2 内存库或文件库
+ * （target/jmh-db，数据在多次运行之间保留）。启动后写入基准数据，清空二级缓存，再重新发布
+ * ApplicationReadyEvent，使仪表板快照、维修统计、分析数据集等按写入后的数据重建。
+ */
+@State(Scope.Benchmark)
+public class BenchmarkApplication {
+    
+    @Param({"mem", "file"})
+    public String database;
+    
+    ConfigurableApplicationContext context;
+    
+    UserService userService;
+    
+    DormitoryService dormitoryService;
+    
+    StudentDormitoryService studentDormitoryService;
+    
+    RepairRequestService repairRequestService;
+    
+    long[] freeStudentIds;
+    
+    long[] emptyDormitoryIds;
+    
+    int port;
+    
+    @Setup(Level.Trial)
+    public void start() {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        String url = "mem".equals(database)
+                ? "jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE"
+                : "jdbc:h2:file:./target/jmh-db/dormitory;DB_CLOSE_ON_EXIT=FALSE";
+        String[] args = {
+                "--server.port=0",
+                "--spring.datasource.url=" + url,
+                "--logging.level.com.dormitory=WARN",
+                "--logging.level.org.springframework.security=WARN"
+        };
+        SpringApplication application = new SpringApplication(DormitoryManagementApplication.class);
+        context = application.run(args);
+        
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        if (BenchmarkData.seed(jdbcTemplate)) {
+            context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getCache().evictAllRegions();
+            context.publishEvent(new ApplicationReadyEvent(application, args, context, Duration.ZERO));
+        }
+        
+        userService = context.getBean(UserService.class);
+        dormitoryService = context.getBean(DormitoryService.class);
+        studentDormitoryService = context.getBean(StudentDormitoryService.class);
+        repairRequestService = context.getBean(RepairRequestService.class);
+        freeStudentIds = BenchmarkData.freeStudentIds(jdbcTemplate);
+        emptyDormitoryIds = BenchmarkData.emptyDormitoryIds(jdbcTemplate);
+        port = Integer.parseInt(context.getEnvironment().getRequiredProperty("local.server.port"));
+    }
+    
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+}
@@ -0,0 +1,141 @@
+package com.dormitory.benchmark;
+
+import com.dormitory.dataset.IdBlocks;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 基准数据
+ *
+ * 在初始化数据之外再写入 20 栋楼共 400 间宿舍、1200 名学生（其中 1000 名已入住，每间 3 人）和 5000 条维修申请，
+ * 使查询的数据量接近一个学院的规模。随机数种子固定，每次生成的数据相同，结果可在不同提交之间比较。
+ */
+final class BenchmarkData {
+    
+    static final String BUILDING_PREFIX = "基准楼";
+    
+    static final String FREE_STUDENT_PREFIX = "bench_free_";
+    
+    static final int BUILDINGS = 20;
+    
+    static final int ROOMS_PER_BUILDING = 20;
+    
+    static final int STUDENTS = 1200;
+    
+    static final int ASSIGNED_STUDENTS = 1000;
+    
+    static final int STUDENTS_PER_ROOM = 3;
+    
+    static final int REPAIR_REQUESTS = 5000;
+    
+    private static final String[] MAJORS = {"计算机科学与技术", "软件工程", "电子信息工程", "机械工程", "土木工程", "会计学"};
+    
+    private static final String[] PROBLEMS = {"水龙头漏水", "灯管不亮", "插座没电", "床板断裂", "空调不制冷", "门锁损坏"};
+    
+    private static final String[] TYPES = {"PLUMBING", "ELECTRICAL", "ELECTRICAL", "FURNITURE", "APPLIANCE", "OTHER"};
+    
+    private static final String[] PRIORITIES = {"LOW", "MEDIUM", "HIGH", "URGENT"};
+    
+    private BenchmarkData() {
+    }
+    
+    /**
+     * 写入基准数据；已有基准数据（文件库）时跳过
+     *
+     * @return 是否写入了数据
+     */
+    static boolean seed(JdbcTemplate jdbcTemplate) {
+        Integer existing = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM dormitories WHERE building_name LIKE ?", Integer.class, BUILDING_PREFIX + "%");
+        if (existing != null && existing > 0) {
+            return false;
+        }
+        
+        Random random = new Random(20240901L);
+        LocalDateTime now = LocalDateTime.now();
+        
+        List<Object[]> dormitories = new ArrayList<>();
+        for (int building = 1; building <= BUILDINGS; building++) {
+            for (int room = 1; room <= ROOMS_PER_BUILDING; room++) {
+                int index = (building - 1) * ROOMS_PER_BUILDING + room - 1;
+                int occupancy = index < ASSIGNED_STUDENTS / STUDENTS_PER_ROOM ? STUDENTS_PER_ROOM : 0;
+                dormitories.add(new Object[]{
+                        String.format("%s%02d", BUILDING_PREFIX, building),
+                        String.format("%d%02d", (room - 1) / 5 + 1, room), 4, occupancy, building % 2 == 0 ? "FEMALE" : "MALE", 800.0, "AVAILABLE",
+                        Timestamp.valueOf(now), Timestamp.valueOf(now)});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO dormitories (building_name, room_number, capacity, current_occupancy, "
+                + "type, monthly_rent, status, created_at, updated_at, id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                IdBlocks.withIds(jdbcTemplate, "dormitories", dormitories));
+        List<Long> dormitoryIds = jdbcTemplate.queryForList(
+                "SELECT id FROM dormitories WHERE building_name LIKE ? ORDER BY id", Long.class, BUILDING_PREFIX + "%");
+        
+        List<Object[]> students = new ArrayList<>();
+        for (int i = 0; i < STUDENTS; i++) {
+            String username = (i < ASSIGNED_STUDENTS ? "bench_" : FREE_STUDENT_PREFIX) + i;
+            String major = MAJORS[i % MAJORS.length];
+            students.add(new Object[]{
+                    username, "{noop}bench", "学生" + i, username + "@student.com", "STUDENT",
+                    Timestamp.valueOf(now), Timestamp.valueOf(now), String.format("B%05d", i),
+                    major + (i % 4 + 1) + "班", major});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (username, password, real_name, email, role, created_at, "
+                + "updated_at, student_id, class_name, major, id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                IdBlocks.withIds(jdbcTemplate, "users", students));
+        List<Long> studentIds = jdbcTemplate.queryForList(
+                "SELECT id FROM users WHERE username LIKE 'bench\\_%' ORDER BY student_id", Long.class);
+        
+        List<Object[]> assignments = new ArrayList<>();
+        for (int i = 0; i < ASSIGNED_STUDENTS; i++) {
+            LocalDate checkIn = LocalDate.of(2024, 9, 1).plusDays(random.nextInt(30));
+            assignments.add(new Object[]{
+                    studentIds.get(i), dormitoryIds.get(i / STUDENTS_PER_ROOM), checkIn, "ACTIVE", 800.0,
+                    Timestamp.valueOf(now), Timestamp.valueOf(now)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO student_dormitories (student_id, dormitory_id, check_in_date, status, "
+                + "monthly_fee, created_at, updated_at, id) VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                IdBlocks.withIds(jdbcTemplate, "student_dormitories", assignments));
+        
+        List<Object[]> repairs = new ArrayList<>();
+        for (int i = 0; i < REPAIR_REQUESTS; i++) {
+            int student = random.nextInt(ASSIGNED_STUDENTS);
+            int problem = random.nextInt(PROBLEMS.length);
+            int roll = random.nextInt(100);
+            String status = roll < 70 ? "COMPLETED" : roll < 85 ? "PENDING" : roll < 95 ? "IN_PROGRESS" : "CANCELLED";
+            LocalDateTime requestedAt = now.minusMinutes(random.nextInt(365 * 24 * 60));
+            repairs.add(new Object[]{
+                    studentIds.get(student), dormitoryIds.get(student / STUDENTS_PER_ROOM), PROBLEMS[problem],
+                    TYPES[problem], status, PRIORITIES[random.nextInt(PRIORITIES.length)],
+                    Timestamp.valueOf(requestedAt), Timestamp.valueOf(requestedAt), Timestamp.valueOf(requestedAt)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO repair_requests (student_id, dormitory_id, description, type, status, "
+                + "priority, requested_at, created_at, updated_at, id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                IdBlocks.withIds(jdbcTemplate, "repair_requests", repairs));
+        return true;
+    }
+    
+    /**
+     * 未入住的基准学生，用于反复办理入住、退宿（排除上次中断时未退宿的学生）
+     */
+    static long[] freeStudentIds(JdbcTemplate jdbcTemplate) {
+        return jdbcTemplate.queryForList("SELECT id FROM users WHERE username LIKE ? AND id NOT IN "
+                        + "(SELECT student_id FROM student_dormitories WHERE status = 'ACTIVE') ORDER BY id", Long.class,
+                FREE_STUDENT_PREFIX + "%").stream().mapToLong(Long::longValue).toArray();
+    }
+    
+    /**
+     * 无人入住的基准宿舍
+     */
+    static long[] emptyDormitoryIds(JdbcTemplate jdbcTemplate) {
+        return jdbcTemplate.queryForList("SELECT id FROM dormitories WHERE building_name LIKE ? "
+                        + "AND current_occupancy = 0 ORDER BY id", Long.class, BUILDING_PREFIX + "%")
+                .stream().mapToLong(Long::longValue).toArray();
+    }
+}
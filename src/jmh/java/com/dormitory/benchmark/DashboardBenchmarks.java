@@ -0,0 +1,90 @@
+package com.dormitory.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 仪表板页面渲染基准
+ *
+ * 以管理员和学生身份登录后请求首页，包含安全过滤器、控制器查询和 Thymeleaf 模板渲染的完整耗时。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DashboardBenchmarks {
+    
+    private HttpClient admin;
+    
+    private HttpClient student;
+    
+    private URI home;
+    
+    @Setup(Level.Trial)
+    public void login(BenchmarkApplication app) throws IOException, InterruptedException {
+        home = URI.create("http://localhost:" + app.port + "/");
+        admin = login(app.port, "admin", "admin123");
+        student = login(app.port, "student", "student123");
+    }
+    
+    @Benchmark
+    public int renderAdminDashboard() throws IOException, InterruptedException {
+        return get(admin);
+    }
+    
+    @Benchmark
+    public int renderStudentDashboard() throws IOException, InterruptedException {
+        return get(student);
+    }
+    
+    private int get(HttpClient client) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(home).build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("首页返回 " + response.statusCode());
+        }
+        return response.body().length();
+    }
+    
+    private static HttpClient login(int port, String username, String password)
+            throws IOException, InterruptedException {
+        HttpClient client = HttpClient.newBuilder()
+                .cookieHandler(new CookieManager())
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+        URI loginUri = URI.create("http://localhost:" + port + "/login");
+        String form = "username=" + URLEncoder.encode(username, StandardCharsets.UTF_8)
+                + "&password=" + URLEncoder.encode(password, StandardCharsets.UTF_8);
+        HttpResponse<Void> response = client.send(HttpRequest.newBuilder(loginUri)
+                        .header("Content-Type", "application/x-www-form-urlencoded")
+                        .POST(HttpRequest.BodyPublishers.ofString(form))
+                        .build(),
+                HttpResponse.BodyHandlers.discarding());
+        String location = response.headers().firstValue("Location").orElse("");
+        if (location.contains("error")) {
+            throw new IllegalStateException(username + " 登录失败");
+        }
+        return client;
+    }
+}
@@ -0,0 +1,76 @@
+package com.dormitory.benchmark;
+
+import com.dormitory.entity.Dormitory;
+import com.dormitory.entity.RepairRequest;
+import com.dormitory.entity.User;
+import com.dormitory.repository.DormitoryRepository;
+import com.dormitory.repository.RepairRequestRepository;
+import com.dormitory.repository.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 批量写入基准
+ *
+ * 在一个事务中通过 Repository 保存一批维修申请，结果为每秒写入的行数。主键生成方式决定 Hibernate 能否把 INSERT 合并为
+ * JDBC 批量语句：自增主键须逐条执行 INSERT 取回主键，表生成器预先分配主键后可按 hibernate.jdbc.batch_size 成批发送。
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InsertBenchmarks {
+    
+    private static final int ROWS = 200;
+    
+    private RepairRequestRepository repairRequestRepository;
+    
+    private TransactionTemplate transactionTemplate;
+    
+    private User student;
+    
+    private Dormitory dormitory;
+    
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkApplication app) {
+        repairRequestRepository = app.context.getBean(RepairRequestRepository.class);
+        transactionTemplate = app.context.getBean(TransactionTemplate.class);
+        student = app.context.getBean(UserRepository.class).getReferenceById(app.freeStudentIds[0]);
+        dormitory = app.context.getBean(DormitoryRepository.class).getReferenceById(app.emptyDormitoryIds[0]);
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public List<RepairRequest> saveRepairRequests() {
+        return transactionTemplate.execute(status -> {
+            List<RepairRequest> requests = new ArrayList<>(ROWS);
+            for (int i = 0; i < ROWS; i++) {
+                RepairRequest request = new RepairRequest();
+                request.setStudent(student);
+                request.setDormitory(dormitory);
+                request.setDescription("基准写入");
+                request.setType(RepairRequest.RepairType.OTHER);
+                request.setPriority(RepairRequest.RepairPriority.LOW);
+                requests.add(request);
+            }
+            return repairRequestRepository.saveAll(requests);
+        });
+    }
+}
@@ -0,0 +1,93 @@
+package com.dormitory.benchmark;
+
+import com.dormitory.monitor.MethodTimingPostProcessor;
+import com.dormitory.monitor.MethodTimingProperties;
+import com.dormitory.monitor.MethodTimings;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 方法耗时统计的开销
+ *
+ * 同一个 Service 方法分别经过不带拦截器的类代理和 MethodTimingPostProcessor 建立的代理（带 MethodTimingInterceptor）调用，
+ * 两者之差即每次调用的统计开销：计时、Timer 记录（按配置发布 0.5、0.99 分位数，Prometheus 注册表）和返回行数分布。
+ * 方法本身只返回一个固定的小列表，不访问数据库。percentiles=false 时不发布分位数，用于比较分位数的开销。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MethodTimingBenchmarks {
+    
+    @Param({"true", "false"})
+    public boolean percentiles;
+    
+    private LookupService plain;
+    
+    private LookupService timed;
+    
+    private long id;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        MethodTimingProperties properties = new MethodTimingProperties();
+        if (!percentiles) {
+            properties.setPercentiles(new double[0]);
+        }
+        // 不记入慢调用日志
+        properties.setSlowThreshold(Duration.ofHours(1));
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("registry", new PrometheusMeterRegistry(PrometheusConfig.DEFAULT));
+        beanFactory.registerSingleton("timings",
+                new MethodTimings(properties, beanFactory.getBeanProvider(MeterRegistry.class)));
+        
+        ProxyFactory proxyFactory = new ProxyFactory(new LookupService());
+        proxyFactory.setProxyTargetClass(true);
+        plain = (LookupService) proxyFactory.getProxy();
+        timed = (LookupService) new MethodTimingPostProcessor(beanFactory.getBeanProvider(MethodTimings.class))
+                .postProcessAfterInitialization(new LookupService(), "lookupService");
+    }
+    
+    @Benchmark
+    public List<Long> withoutTiming() {
+        return plain.findByOwner(id++);
+    }
+    
+    @Benchmark
+    public List<Long> withTiming() {
+        return timed.findByOwner(id++);
+    }
+    
+    /**
+     * 被统计的 Service
+     */
+    @Service
+    public static class LookupService {
+        
+        public List<Long> findByOwner(long ownerId) {
+            return List.of(ownerId, ownerId + 1, ownerId + 2);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.dormitory.benchmark;
+
+import com.dormitory.DormitoryManagementApplication;
+import com.dormitory.entity.StudentDormitory;
+import com.dormitory.service.AssignmentSummary;
+import com.dormitory.service.KeysetPage;
+import com.dormitory.service.KeysetPageRequest;
+import com.dormitory.service.StudentDormitoryService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 宿舍分配列表的游标分页和组合筛选基准
+ *
+ * 单独启动一个应用，由 DatasetGenerator 在 H2 内存库中写入 2 万名学生、2000 间宿舍和 20 万条分配记录（含退宿历史），
+ * 分别测量：无筛选的第一页、状态加宿舍楼筛选的第一页、只按状态筛选的第 200 页（游标在准备阶段逐页取得）。
+ * 每页 20 条，总数由第一页统计后随请求带回，与列表页翻页时一致。
+ * <pre>
+ * mvn -Pjmh compile exec:exec -Djmh.include=PagingBenchmarks
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PagingBenchmarks {
+    
+    private static final int PAGE_SIZE = 20;
+    
+    private static final int DEEP_PAGE = 200;
+    
+    private ConfigurableApplicationContext context;
+    
+    private StudentDormitoryService studentDormitoryService;
+    
+    private String building;
+    
+    private String deepCursor;
+    
+    private long activeTotal;
+    
+    @Setup(Level.Trial)
+    public void start() {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        context = new SpringApplication(DormitoryManagementApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:paging;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                "--dormitory.dataset.batch-size=5000",
+                "--dormitory.dataset.admins=10",
+                "--dormitory.dataset.students=20000",
+                "--dormitory.dataset.buildings=20",
+                "--dormitory.dataset.rooms=2000",
+                "--dormitory.dataset.assignments=200000",
+                "--dormitory.dataset.repair-requests=0",
+                "--logging.level.com.dormitory=WARN",
+                "--logging.level.org.springframework.security=WARN");
+        studentDormitoryService = context.getBean(StudentDormitoryService.class);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        Long assignments = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM student_dormitories", Long.class);
+        if (assignments == null || assignments < 200_000) {
+            throw new IllegalStateException("分配记录只有 " + assignments + " 条，数据集没有按配置生成");
+        }
+        building = jdbcTemplate.queryForObject(
+                "SELECT building_name FROM dormitories ORDER BY id DESC LIMIT 1", String.class);
+        
+        KeysetPage<AssignmentSummary> page = activePage(null, null);
+        activeTotal = page.getTotal();
+        for (int i = 1; i < DEEP_PAGE - 1 && page.isHasNext(); i++) {
+            page = activePage(page.getNextCursor(), activeTotal);
+        }
+        deepCursor = page.getNextCursor();
+        if (deepCursor == null) {
+            throw new IllegalStateException("活跃分配不足 " + DEEP_PAGE + " 页");
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+    
+    /**
+     * 无筛选的第一页（含 COUNT）
+     */
+    @Benchmark
+    public long firstPageUnfiltered() {
+        KeysetPage<AssignmentSummary> page = studentDormitoryService.findPage(null, null, null,
+                new KeysetPageRequest(null, PAGE_SIZE, null, null, null));
+        return page.getTotal();
+    }
+    
+    /**
+     * 状态加宿舍楼筛选的第一页（含 COUNT）
+     */
+    @Benchmark
+    public long firstPageStatusAndBuilding() {
+        KeysetPage<AssignmentSummary> page = studentDormitoryService.findPage(
+                StudentDormitory.AssignmentStatus.ACTIVE, building, null,
+                new KeysetPageRequest(null, PAGE_SIZE, null, null, null));
+        return page.getTotal();
+    }
+    
+    /**
+     * 只按状态筛选的第 200 页（总数随请求带回）
+     */
+    @Benchmark
+    public Object deepPageStatusOnly() {
+        return activePage(deepCursor, activeTotal);
+    }
+    
+    private KeysetPage<AssignmentSummary> activePage(String cursor, Long total) {
+        return studentDormitoryService.findPage(StudentDormitory.AssignmentStatus.ACTIVE, null, null,
+                new KeysetPageRequest(cursor, PAGE_SIZE, null, null, total));
+    }
+}
@@ -0,0 +1,98 @@
+package com.dormitory.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 业务热点路径基准
+ *
+ * 写操作会改变数据，每次调用后复原：办理入住后立即退宿，入住人数加一后下次减一，数据量不随测试时长增长
+ * （退宿留下的历史记录除外）。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ServiceBenchmarks {
+    
+    private int nextStudent;
+    
+    private int nextDormitory;
+    
+    private boolean occupied;
+    
+    /**
+     * 办理入住并退宿；轮流使用未入住的学生和空宿舍
+     */
+    @Benchmark
+    public Object assignStudentToDormitory(BenchmarkApplication app) {
+        long studentId = app.freeStudentIds[nextStudent++ % app.freeStudentIds.length];
+        long dormitoryId = app.emptyDormitoryIds[nextDormitory++ % app.emptyDormitoryIds.length];
+        Object assignment = app.studentDormitoryService.assignStudentToDormitory(studentId, dormitoryId, LocalDate.now());
+        app.studentDormitoryService.checkOutStudent(studentId, LocalDate.now());
+        return assignment;
+    }
+    
+    /**
+     * 入住人数交替加一、减一
+     */
+    @Benchmark
+    public void updateOccupancy(BenchmarkApplication app) {
+        app.dormitoryService.updateOccupancy(app.emptyDormitoryIds[0], occupied ? -1 : 1);
+        occupied = !occupied;
+    }
+    
+    /**
+     * 入住人数停在加一时复原（文件库的数据会保留到下次运行）
+     */
+    @TearDown(Level.Trial)
+    public void restoreOccupancy(BenchmarkApplication app) {
+        if (occupied) {
+            app.dormitoryService.updateOccupancy(app.emptyDormitoryIds[0], -1);
+            occupied = false;
+        }
+    }
+    
+    @Benchmark
+    public List<?> findPendingRequestsOrderByPriority(BenchmarkApplication app) {
+        return app.repairRequestService.findPendingRequestsOrderByPriority();
+    }
+    
+    @Benchmark
+    public List<?> searchDormitories(BenchmarkApplication app) {
+        return app.dormitoryService.searchDormitories("基准楼1");
+    }
+    
+    /**
+     * 按姓名查找（姓名含“学生1”的基准学生约 300 名）；用户搜索不含专业
+     */
+    @Benchmark
+    public List<?> searchUsers(BenchmarkApplication app) {
+        return app.userService.searchUsers("学生1");
+    }
+    
+    @Benchmark
+    public List<?> searchRepairRequests(BenchmarkApplication app) {
+        return app.repairRequestService.searchRepairRequests("漏水");
+    }
+    
+    @Benchmark
+    public List<?> getOccupancyRateByBuilding(BenchmarkApplication app) {
+        return app.dormitoryService.getOccupancyRateByBuilding();
+    }
+}
@@ -0,0 +1,128 @@
+package com.dormitory.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 压测结果
+ *
+ * 按请求类型记录响应时间（微秒，HdrHistogram 保留三位有效数字）、状态码分布和结果分类，
+ * 运行结束后汇总为报告。只统计计时开始之后的请求，爬坡阶段的登录也计入。
+ */
+final class LoadReport {
+    
+    /**
+     * 单次请求的结果
+     */
+    enum Outcome {
+        /** 状态码和跳转符合预期 */
+        OK,
+        /** 登录被限流 */
+        THROTTLED,
+        /** 403，当前角色无权访问 */
+        DENIED,
+        /** 4xx/5xx、会话丢失被跳转到登录页、登录失败或连接异常 */
+        ERROR
+    }
+    
+    private final Map<Scenario, ScenarioStats> scenarios = new EnumMap<>(Scenario.class);
+    
+    LoadReport() {
+        for (Scenario scenario : Scenario.values()) {
+            scenarios.put(scenario, new ScenarioStats());
+        }
+    }
+    
+    /**
+     * @param status HTTP 状态码，连接异常时为 -1
+     */
+    void record(Scenario scenario, long elapsedNanos, int status, Outcome outcome) {
+        ScenarioStats stats = scenarios.get(scenario);
+        stats.latency.recordValue(Math.max(1, TimeUnit.NANOSECONDS.toMicros(elapsedNanos)));
+        stats.outcomes.get(outcome).increment();
+        stats.statuses.computeIfAbsent(status, key -> new LongAdder()).increment();
+    }
+    
+    /**
+     * 汇总为可直接序列化的结构
+     *
+     * @param seconds 计时时长（秒），用于计算吞吐量
+     */
+    Map<String, Object> summarize(double seconds) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        Histogram total = new Histogram(3);
+        long errors = 0;
+        for (Map.Entry<Scenario, ScenarioStats> entry : scenarios.entrySet()) {
+            ScenarioStats stats = entry.getValue();
+            Histogram latency = stats.latency.copy();
+            if (latency.getTotalCount() == 0) {
+                continue;
+            }
+            total.add(latency);
+            errors += stats.outcomes.get(Outcome.ERROR).sum();
+            
+            Map<String, Object> scenario = new LinkedHashMap<>();
+            scenario.put("title", entry.getKey().getTitle());
+            scenario.putAll(describe(latency, seconds));
+            Map<String, Long> outcomes = new LinkedHashMap<>();
+            stats.outcomes.forEach((outcome, count) -> outcomes.put(outcome.name(), count.sum()));
+            scenario.put("outcomes", outcomes);
+            Map<String, Long> statuses = new TreeMap<>();
+            stats.statuses.forEach((status, count) -> statuses.put(status < 0 ? "IO" : String.valueOf(status), count.sum()));
+            scenario.put("statuses", statuses);
+            result.put(entry.getKey().name(), scenario);
+        }
+        
+        Map<String, Object> overall = describe(total, seconds);
+        overall.put("errors", errors);
+        overall.put("errorRate", total.getTotalCount() == 0 ? 0.0 : round((double) errors / total.getTotalCount()));
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("overall", overall);
+        summary.put("scenarios", result);
+        return summary;
+    }
+    
+    private static Map<String, Object> describe(Histogram latency, double seconds) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("requests", latency.getTotalCount());
+        result.put("throughput", round(latency.getTotalCount() / seconds));
+        result.put("meanMs", round(latency.getMean() / 1000.0));
+        result.put("p50Ms", millis(latency, 50));
+        result.put("p90Ms", millis(latency, 90));
+        result.put("p99Ms", millis(latency, 99));
+        result.put("p999Ms", millis(latency, 99.9));
+        result.put("maxMs", round(latency.getMaxValue() / 1000.0));
+        return result;
+    }
+    
+    private static double millis(Histogram latency, double percentile) {
+        return round(latency.getValueAtPercentile(percentile) / 1000.0);
+    }
+    
+    static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+    
+    private static final class ScenarioStats {
+        
+        final ConcurrentHistogram latency = new ConcurrentHistogram(3);
+        
+        final Map<Outcome, LongAdder> outcomes = new EnumMap<>(Outcome.class);
+        
+        final ConcurrentHashMap<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+        
+        ScenarioStats() {
+            for (Outcome outcome : Outcome.values()) {
+                outcomes.put(outcome, new LongAdder());
+            }
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.dormitory.loadtest;
+
+import com.dormitory.dataset.IdBlocks;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 迎新日数据
+ *
+ * 新生（movein_new_*）尚未分配宿舍，争抢“迎新楼”里少量空房间；老生（movein_old_*）住在“老生楼”，负责提交维修申请。
+ * 所有账号使用同一个密码，BCrypt 只计算一次。运行结束后直接查库核对超员、入住人数与分配记录不一致、
+ * 同一学生重复入住的情况。
+ */
+final class MoveInData {
+    
+    static final String PASSWORD = "movein123";
+    
+    static final String CONTESTED_BUILDING = "迎新楼";
+    
+    static final String RESIDENT_BUILDING = "老生楼";
+    
+    static final int CAPACITY = 4;
+    
+    /**
+     * 学生账号
+     *
+     * @param dormitoryId 已入住的宿舍，新生为 null
+     */
+    record Account(String username, long id, Long dormitoryId) {
+    }
+    
+    final List<Account> newcomers;
+    
+    final List<Account> residents;
+    
+    final long[] contestedRoomIds;
+    
+    private MoveInData(List<Account> newcomers, List<Account> residents, long[] contestedRoomIds) {
+        this.newcomers = newcomers;
+        this.residents = residents;
+        this.contestedRoomIds = contestedRoomIds;
+    }
+    
+    static MoveInData seed(JdbcTemplate jdbcTemplate, int newcomerCount, int residentCount, int contestedRooms) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int residentRooms = (residentCount + CAPACITY - 1) / CAPACITY;
+        
+        List<Object[]> dormitories = new ArrayList<>();
+        for (int i = 0; i < contestedRooms; i++) {
+            dormitories.add(new Object[]{CONTESTED_BUILDING, String.valueOf(101 + i), CAPACITY, 0, now, now});
+        }
+        for (int i = 0; i < residentRooms; i++) {
+            int occupancy = Math.min(CAPACITY, residentCount - i * CAPACITY);
+            dormitories.add(new Object[]{RESIDENT_BUILDING, String.valueOf(101 + i), CAPACITY, occupancy, now, now});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO dormitories (building_name, room_number, capacity, current_occupancy, type, "
+                + "monthly_rent, status, created_at, updated_at, id) VALUES (?, ?, ?, ?, 'MALE', 800.0, 'AVAILABLE', ?, ?, ?)",
+                IdBlocks.withIds(jdbcTemplate, "dormitories", dormitories));
+        long[] contested = ids(jdbcTemplate, "SELECT id FROM dormitories WHERE building_name = ? ORDER BY id", CONTESTED_BUILDING);
+        long[] residentRoomIds = ids(jdbcTemplate, "SELECT id FROM dormitories WHERE building_name = ? ORDER BY id", RESIDENT_BUILDING);
+        
+        String password = new BCryptPasswordEncoder().encode(PASSWORD);
+        List<Object[]> students = new ArrayList<>();
+        for (int i = 0; i < newcomerCount + residentCount; i++) {
+            String username = (i < newcomerCount ? "movein_new_" : "movein_old_") + i;
+            students.add(new Object[]{username, password, "学生" + i, username + "@student.com", now, now,
+                    String.format("M%05d", i), "软件工程" + (i % 4 + 1) + "班", "软件工程"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (username, password, real_name, email, role, created_at, updated_at, "
+                + "student_id, class_name, major, id) VALUES (?, ?, ?, ?, 'STUDENT', ?, ?, ?, ?, ?, ?)",
+                IdBlocks.withIds(jdbcTemplate, "users", students));
+        long[] newcomerIds = ids(jdbcTemplate, "SELECT id FROM users WHERE username LIKE ? ORDER BY student_id", "movein\\_new\\_%");
+        long[] residentIds = ids(jdbcTemplate, "SELECT id FROM users WHERE username LIKE ? ORDER BY student_id", "movein\\_old\\_%");
+        
+        List<Object[]> assignments = new ArrayList<>();
+        for (int i = 0; i < residentIds.length; i++) {
+            assignments.add(new Object[]{residentIds[i], residentRoomIds[i / CAPACITY], LocalDate.now().minusYears(1), now, now});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO student_dormitories (student_id, dormitory_id, check_in_date, status, "
+                + "monthly_fee, created_at, updated_at, id) VALUES (?, ?, ?, 'ACTIVE', 800.0, ?, ?, ?)",
+                IdBlocks.withIds(jdbcTemplate, "student_dormitories", assignments));
+        
+        List<Account> newcomers = new ArrayList<>();
+        for (int i = 0; i < newcomerIds.length; i++) {
+            newcomers.add(new Account("movein_new_" + i, newcomerIds[i], null));
+        }
+        List<Account> residents = new ArrayList<>();
+        for (int i = 0; i < residentIds.length; i++) {
+            residents.add(new Account("movein_old_" + (newcomerCount + i), residentIds[i], residentRoomIds[i / CAPACITY]));
+        }
+        return new MoveInData(newcomers, residents, contested);
+    }
+    
+    /**
+     * 核对迎新楼的入住情况
+     */
+    Map<String, Object> verify(JdbcTemplate jdbcTemplate) {
+        int overbookedRooms = 0;
+        int excessBeds = 0;
+        int occupancyMismatches = 0;
+        int assigned = 0;
+        for (long roomId : contestedRoomIds) {
+            Map<String, Object> room = jdbcTemplate.queryForMap("SELECT d.capacity, d.current_occupancy, "
+                    + "(SELECT COUNT(*) FROM student_dormitories sd WHERE sd.dormitory_id = d.id AND sd.status = 'ACTIVE') AS active "
+                    + "FROM dormitories d WHERE d.id = ?", roomId);
+            int capacity = ((Number) room.get("CAPACITY")).intValue();
+            int occupancy = ((Number) room.get("CURRENT_OCCUPANCY")).intValue();
+            int active = ((Number) room.get("ACTIVE")).intValue();
+            assigned += active;
+            if (active > capacity) {
+                overbookedRooms++;
+                excessBeds += active - capacity;
+            }
+            if (occupancy != active) {
+                occupancyMismatches++;
+            }
+        }
+        Integer doubleBooked = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM (SELECT student_id FROM student_dormitories "
+                + "WHERE status = 'ACTIVE' GROUP BY student_id HAVING COUNT(*) > 1) t", Integer.class);
+        
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("rooms", contestedRoomIds.length);
+        result.put("beds", contestedRoomIds.length * CAPACITY);
+        result.put("assigned", assigned);
+        result.put("overbookedRooms", overbookedRooms);
+        result.put("excessBeds", excessBeds);
+        result.put("occupancyMismatches", occupancyMismatches);
+        result.put("doubleBookedStudents", doubleBooked);
+        return result;
+    }
+    
+    private static long[] ids(JdbcTemplate jdbcTemplate, String sql, String parameter) {
+        return jdbcTemplate.queryForList(sql, Long.class, parameter).stream().mapToLong(Long::longValue).toArray();
+    }
+}
@@ -0,0 +1,357 @@
+package com.dormitory.loadtest;
+
+import com.dormitory.DormitoryManagementApplication;
+import com.dormitory.monitor.MethodTimings;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.File;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 迎新日压测
+ *
+ * 在本进程内启动一个完整应用（随机端口，默认 H2 内存库），写入迎新数据后由虚拟用户通过 HTTP 访问：
+ * <ul>
+ *     <li>所有学生在爬坡时间内集中登录（登录高峰，被限流时按 Retry-After 加随机延迟重试）</li>
+ *     <li>新生反复浏览可用宿舍、刷新仪表板；老生提交维修申请、浏览宿舍、刷新仪表板</li>
+ *     <li>多名管理员同时为新生办理入住，按顺序填满迎新楼的房间，最后一个床位会被并发争抢</li>
+ * </ul>
+ * 每个请求之间按指数分布停顿（平均 loadtest.think-time 毫秒）。结束后输出各类请求的响应时间分位数、吞吐量、
+ * 结果分类，查库核对超员和重复入住，并附上服务端方法耗时排名，写入 loadtest.report 指定的 JSON 文件。
+ * 命令行参数原样传给应用，可用来改数据源或限流配置。loadtest.virtual-threads=true 时应用的请求运行在虚拟线程上
+ * （需要 Java 21），报告中附上虚拟线程被固定的统计，两种模式各跑一次即可对比。
+ */
+public final class MoveInDaySimulator {
+    
+    private static final String ADMIN_USERNAME = "admin";
+    
+    private static final String ADMIN_PASSWORD = "admin123";
+    
+    private static final String IP_CAPACITY_PROPERTY = "dormitory.login-throttle.ip.capacity";
+    
+    private final int newcomerCount = Integer.getInteger("loadtest.newcomers", 60);
+    
+    private final int residentCount = Integer.getInteger("loadtest.residents", 30);
+    
+    private final int adminCount = Integer.getInteger("loadtest.admins", 4);
+    
+    private final int roomCount = Integer.getInteger("loadtest.rooms", 4);
+    
+    private final Duration duration = Duration.ofSeconds(Integer.getInteger("loadtest.duration", 60));
+    
+    private final Duration rampUp = Duration.ofSeconds(Integer.getInteger("loadtest.ramp-up", 10));
+    
+    private final long thinkTimeMillis = Integer.getInteger("loadtest.think-time", 1000);
+    
+    private final boolean virtualThreads = Boolean.getBoolean("loadtest.virtual-threads");
+    
+    private final File reportFile = new File(System.getProperty("loadtest.report", "target/loadtest-report.json"));
+    
+    private final LoadReport report = new LoadReport();
+    
+    private final AtomicInteger assignAttempts = new AtomicInteger();
+    
+    private final LongAdder sessions = new LongAdder();
+    
+    private final LongAdder failedSessions = new LongAdder();
+    
+    private MoveInData data;
+    
+    /** 全部虚拟用户停止发起请求的时间（System.nanoTime） */
+    private long end;
+    
+    private String baseUrl;
+    
+    private HttpClient client;
+    
+    private MoveInDaySimulator() {
+    }
+    
+    public static void main(String[] args) throws Exception {
+        new MoveInDaySimulator().run(args);
+    }
+    
+    private void run(String[] args) throws Exception {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        List<String> appArgs = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--logging.level.com.dormitory=WARN",
+                "--logging.level.com.dormitory.monitor.MethodTimings=ERROR",
+                "--logging.level.org.hibernate.SQL_SLOW=ERROR",
+                "--logging.level.org.springframework.security=WARN"));
+        // 虚拟用户都从本机发起请求，按 IP 的登录限额放大到虚拟用户数，否则登录高峰几乎全部被 IP 限流挡住；
+        // 按用户名的限流不变。传入同名参数可改回或压测限流本身
+        if (Arrays.stream(args).noneMatch(arg -> arg.startsWith("--" + IP_CAPACITY_PROPERTY + "="))) {
+            appArgs.add("--" + IP_CAPACITY_PROPERTY + "=" + (newcomerCount + residentCount + adminCount));
+        }
+        if (virtualThreads) {
+            if (Runtime.version().feature() < 21) {
+                System.out.println("当前 Java " + Runtime.version().feature() + " 不支持虚拟线程，仍使用平台线程");
+            }
+            appArgs.add("--spring.threads.virtual.enabled=true");
+        }
+        appArgs.addAll(List.of(args));
+        String[] applicationArgs = appArgs.toArray(String[]::new);
+        SpringApplication application = new SpringApplication(DormitoryManagementApplication.class);
+        ConfigurableApplicationContext context = application.run(applicationArgs);
+        try {
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            data = MoveInData.seed(jdbcTemplate, newcomerCount, residentCount, roomCount);
+            context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getCache().evictAllRegions();
+            context.publishEvent(new ApplicationReadyEvent(application, applicationArgs, context, Duration.ZERO));
+            
+            baseUrl = "http://localhost:" + context.getEnvironment().getRequiredProperty("local.server.port");
+            client = HttpClient.newBuilder()
+                    .followRedirects(HttpClient.Redirect.NEVER)
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .build();
+            
+            double seconds = simulate();
+            
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("config", config());
+            result.put("seconds", LoadReport.round(seconds));
+            result.put("sessions", Map.of("loggedIn", sessions.sum(), "failed", failedSessions.sum()));
+            result.putAll(report.summarize(seconds));
+            result.put("assignAttempts", assignAttempts.get());
+            result.put("overbooking", data.verify(jdbcTemplate));
+            result.put("serverMethods", slowestMethods(context.getBean(MethodTimings.class)));
+            result.put("connectionPools", connectionPools(context.getBean(MeterRegistry.class), seconds));
+            result.put("pinnedThreads", pinnedThreads(context.getBean(MeterRegistry.class)));
+            
+            File parent = reportFile.getAbsoluteFile().getParentFile();
+            if (!parent.isDirectory() && !parent.mkdirs()) {
+                throw new IllegalStateException("无法创建目录 " + parent);
+            }
+            ObjectMapper mapper = new ObjectMapper();
+            mapper.writerWithDefaultPrettyPrinter().writeValue(reportFile, result);
+            System.out.println(mapper.writerWithDefaultPrettyPrinter().writeValueAsString(result));
+            System.out.println("报告已写入 " + reportFile.getAbsolutePath());
+        } finally {
+            context.close();
+        }
+    }
+    
+    /**
+     * 启动全部虚拟用户并等待结束
+     *
+     * @return 实际运行的秒数
+     */
+    private double simulate() throws InterruptedException {
+        List<Runnable> users = new ArrayList<>();
+        for (MoveInData.Account account : data.newcomers) {
+            users.add(() -> student(user(account), false));
+        }
+        for (MoveInData.Account account : data.residents) {
+            users.add(() -> student(user(account), true));
+        }
+        for (int i = 0; i < adminCount; i++) {
+            users.add(() -> admin(new VirtualUser(ADMIN_USERNAME, 0, null, client, baseUrl, report)));
+        }
+        
+        long start = System.nanoTime();
+        end = start + duration.toNanos();
+        ExecutorService executor = Executors.newFixedThreadPool(users.size());
+        for (Runnable user : users) {
+            long loginAt = start + ThreadLocalRandom.current().nextLong(Math.max(1, rampUp.toNanos()));
+            executor.execute(() -> {
+                LockSupport.parkNanos(loginAt - System.nanoTime());
+                if (System.nanoTime() < end) {
+                    user.run();
+                }
+            });
+        }
+        executor.shutdown();
+        if (!executor.awaitTermination(duration.plusMinutes(1).toSeconds(), TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+        return (System.nanoTime() - start) / 1e9;
+    }
+    
+    private VirtualUser user(MoveInData.Account account) {
+        return new VirtualUser(account.username(), account.id(), account.dormitoryId(), client, baseUrl, report);
+    }
+    
+    /**
+     * 学生：新生以浏览为主，老生提交维修申请
+     */
+    private void student(VirtualUser user, boolean resident) {
+        if (!login(user, MoveInData.PASSWORD, end)) {
+            return;
+        }
+        while (System.nanoTime() < end) {
+            int roll = ThreadLocalRandom.current().nextInt(100);
+            if (resident && roll < 35) {
+                user.post(Scenario.SUBMIT_REPAIR, "/repair-requests/save", Map.of(
+                        "student.id", String.valueOf(user.userId),
+                        "dormitory.id", String.valueOf(user.dormitoryId),
+                        "description", "迎新日压测：水龙头漏水",
+                        "type", "PLUMBING",
+                        "priority", "MEDIUM"));
+            } else if (roll < (resident ? 60 : 70)) {
+                user.get(Scenario.BROWSE_AVAILABLE, browsePath());
+            } else {
+                user.get(Scenario.STUDENT_DASHBOARD, "/");
+            }
+            think();
+        }
+    }
+    
+    /**
+     * 管理员：按顺序填满迎新楼的房间，每满 CAPACITY 次尝试换下一间，多名管理员会同时争抢同一间的最后床位
+     */
+    private void admin(VirtualUser user) {
+        if (!login(user, ADMIN_PASSWORD, end)) {
+            return;
+        }
+        while (System.nanoTime() < end) {
+            if (ThreadLocalRandom.current().nextInt(100) < 60) {
+                int attempt = assignAttempts.getAndIncrement();
+                long roomId = data.contestedRoomIds[(attempt / MoveInData.CAPACITY) % data.contestedRoomIds.length];
+                MoveInData.Account newcomer = data.newcomers.get(ThreadLocalRandom.current().nextInt(data.newcomers.size()));
+                user.post(Scenario.ASSIGN, "/assignments/save", Map.of(
+                        "studentId", String.valueOf(newcomer.id()),
+                        "dormitoryId", String.valueOf(roomId),
+                        "checkInDate", LocalDate.now().toString()));
+            } else {
+                user.get(Scenario.ADMIN_DASHBOARD, "/");
+            }
+            think();
+        }
+    }
+    
+    private boolean login(VirtualUser user, String password, long end) {
+        try {
+            if (user.login(password, end)) {
+                sessions.increment();
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        failedSessions.increment();
+        return false;
+    }
+    
+    private String browsePath() {
+        return switch (ThreadLocalRandom.current().nextInt(3)) {
+            case 0 -> "/dormitories/available?building=" + MoveInData.CONTESTED_BUILDING;
+            case 1 -> "/dormitories/available?type=MALE";
+            default -> "/dormitories/available";
+        };
+    }
+    
+    /**
+     * 指数分布的停顿，最长为平均值的 5 倍
+     */
+    private void think() {
+        double pause = -thinkTimeMillis * Math.log(1 - ThreadLocalRandom.current().nextDouble());
+        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos((long) Math.min(pause, thinkTimeMillis * 5)));
+    }
+    
+    private Map<String, Object> config() {
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("newcomers", newcomerCount);
+        config.put("residents", residentCount);
+        config.put("admins", adminCount);
+        config.put("rooms", roomCount);
+        config.put("durationSeconds", duration.toSeconds());
+        config.put("rampUpSeconds", rampUp.toSeconds());
+        config.put("thinkTimeMillis", thinkTimeMillis);
+        config.put("threads", virtualThreads && Runtime.version().feature() >= 21 ? "virtual" : "platform");
+        config.put("javaVersion", Runtime.version().toString());
+        return config;
+    }
+    
+    /**
+     * 各连接池的占用情况（HikariCP 指标，开启读写分离时分 primary、replica 两个连接池）
+     *
+     * 按 Little 定律，平均占用连接数 = 连接借出总时长 / 运行时长；获取连接的等待时间大于 0 说明连接池偏小，
+     * 平均占用远小于连接池大小则说明连接池偏大。
+     */
+    private static Map<String, Object> connectionPools(MeterRegistry registry, double seconds) {
+        Map<String, Object> pools = new LinkedHashMap<>();
+        for (Gauge max : registry.find("hikaricp.connections.max").gauges()) {
+            String name = max.getId().getTag("pool");
+            Timer usage = registry.find("hikaricp.connections.usage").tag("pool", name).timer();
+            Timer acquire = registry.find("hikaricp.connections.acquire").tag("pool", name).timer();
+            if (usage == null || acquire == null) {
+                continue;
+            }
+            Map<String, Object> pool = new LinkedHashMap<>();
+            pool.put("maximumPoolSize", (int) max.value());
+            pool.put("borrows", usage.count());
+            pool.put("meanConnectionsInUse", LoadReport.round(usage.totalTime(TimeUnit.SECONDS) / seconds));
+            pool.put("meanUsageMs", LoadReport.round(usage.mean(TimeUnit.MILLISECONDS)));
+            pool.put("maxUsageMs", LoadReport.round(usage.max(TimeUnit.MILLISECONDS)));
+            pool.put("meanAcquireMs", LoadReport.round(acquire.mean(TimeUnit.MILLISECONDS)));
+            pool.put("maxAcquireMs", LoadReport.round(acquire.max(TimeUnit.MILLISECONDS)));
+            pools.put(name, pool);
+        }
+        return pools;
+    }
+    
+    /**
+     * 虚拟线程被固定的位置（见 PinnedThreadRecorder），按累计时长排序
+     */
+    private static List<Map<String, Object>> pinnedThreads(MeterRegistry registry) {
+        List<Map<String, Object>> result = new ArrayList<>();
+        registry.find("dormitory.threads.pinned").timers().stream()
+                .sorted(Comparator.comparingDouble((Timer timer) -> timer.totalTime(TimeUnit.MILLISECONDS)).reversed())
+                .forEach(timer -> {
+                    Map<String, Object> pinned = new LinkedHashMap<>();
+                    pinned.put("frame", timer.getId().getTag("frame"));
+                    pinned.put("count", timer.count());
+                    pinned.put("totalMs", LoadReport.round(timer.totalTime(TimeUnit.MILLISECONDS)));
+                    pinned.put("maxMs", LoadReport.round(timer.max(TimeUnit.MILLISECONDS)));
+                    result.add(pinned);
+                });
+        return result;
+    }
+    
+    /**
+     * 服务端累计耗时最多的 10 个 Repository/Service 方法
+     */
+    private static List<Map<String, Object>> slowestMethods(MethodTimings timings) {
+        List<Map<String, Object>> result = new ArrayList<>();
+        timings.getMethods().stream()
+                .sorted(Comparator.comparingDouble((MethodTimings.MethodStats stats) ->
+                        stats.getTimer().totalTime(TimeUnit.MILLISECONDS)).reversed())
+                .limit(10)
+                .forEach(stats -> {
+                    Timer timer = stats.getTimer();
+                    Map<String, Object> method = new LinkedHashMap<>();
+                    method.put("method", stats.getType() + "." + stats.getMethod());
+                    method.put("calls", timer.count());
+                    method.put("totalMs", LoadReport.round(timer.totalTime(TimeUnit.MILLISECONDS)));
+                    method.put("meanMs", LoadReport.round(timer.mean(TimeUnit.MILLISECONDS)));
+                    method.put("maxMs", LoadReport.round(timer.max(TimeUnit.MILLISECONDS)));
+                    result.add(method);
+                });
+        return result;
+    }
+}
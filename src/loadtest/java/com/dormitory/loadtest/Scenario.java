@@ -0,0 +1,24 @@
+package com.dormitory.loadtest;
+
+/**
+ * 迎新日的请求类型
+ */
+enum Scenario {
+    
+    LOGIN("登录"),
+    BROWSE_AVAILABLE("浏览可用宿舍"),
+    STUDENT_DASHBOARD("学生仪表板"),
+    SUBMIT_REPAIR("提交维修申请"),
+    ASSIGN("办理入住"),
+    ADMIN_DASHBOARD("管理员仪表板");
+    
+    private final String title;
+    
+    Scenario(String title) {
+        this.title = title;
+    }
+    
+    String getTitle() {
+        return title;
+    }
+}
@@ -0,0 +1,134 @@
+package com.dormitory.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 虚拟用户
+ *
+ * 所有虚拟用户共用一个 HttpClient（不跟随跳转），各自保存 JSESSIONID，登录后 Spring Security 更换的会话标识
+ * 从响应的 Set-Cookie 中更新。请求的结果按状态码和跳转地址分类后记入报告。
+ */
+final class VirtualUser {
+    
+    private static final String SESSION_COOKIE = "JSESSIONID";
+    
+    final String username;
+    
+    final long userId;
+    
+    /** 学生当前入住的宿舍，未入住或管理员为 null */
+    final Long dormitoryId;
+    
+    private final HttpClient client;
+    
+    private final String baseUrl;
+    
+    private final LoadReport report;
+    
+    private String session;
+    
+    VirtualUser(String username, long userId, Long dormitoryId, HttpClient client, String baseUrl, LoadReport report) {
+        this.username = username;
+        this.userId = userId;
+        this.dormitoryId = dormitoryId;
+        this.client = client;
+        this.baseUrl = baseUrl;
+        this.report = report;
+    }
+    
+    /**
+     * 登录；被限流时等待后重试，直到 deadline
+     *
+     * @return 是否登录成功
+     */
+    boolean login(String password, long deadline) throws InterruptedException {
+        while (System.nanoTime() < deadline) {
+            session = null;
+            HttpResponse<Void> response = send(Scenario.LOGIN,
+                    form(baseUrl + "/login", Map.of("username", username, "password", password)));
+            if (response == null) {
+                return false;
+            }
+            String location = response.headers().firstValue("Location").orElse("");
+            if (!location.contains("throttled")) {
+                return session != null && !location.contains("error");
+            }
+            // 在 Retry-After 的基础上随机多等一段，避免被限流的用户同时重试
+            long retryAfter = Duration.ofSeconds(Math.max(1, response.headers().firstValueAsLong("Retry-After").orElse(1))).toMillis();
+            Thread.sleep(retryAfter + ThreadLocalRandom.current().nextLong(retryAfter));
+        }
+        return false;
+    }
+    
+    void get(Scenario scenario, String path) {
+        send(scenario, HttpRequest.newBuilder(URI.create(baseUrl + path)).GET());
+    }
+    
+    void post(Scenario scenario, String path, Map<String, String> parameters) {
+        send(scenario, form(baseUrl + path, parameters));
+    }
+    
+    private HttpResponse<Void> send(Scenario scenario, HttpRequest.Builder builder) {
+        if (session != null) {
+            builder.header("Cookie", SESSION_COOKIE + "=" + session);
+        }
+        long start = System.nanoTime();
+        HttpResponse<Void> response;
+        try {
+            response = client.send(builder.timeout(Duration.ofSeconds(30)).build(), HttpResponse.BodyHandlers.discarding());
+        } catch (IOException e) {
+            report.record(scenario, System.nanoTime() - start, -1, LoadReport.Outcome.ERROR);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        long elapsed = System.nanoTime() - start;
+        
+        for (String cookie : response.headers().allValues("Set-Cookie")) {
+            if (cookie.startsWith(SESSION_COOKIE + "=")) {
+                session = cookie.substring(SESSION_COOKIE.length() + 1, cookie.indexOf(';') > 0 ? cookie.indexOf(';') : cookie.length());
+            }
+        }
+        report.record(scenario, elapsed, response.statusCode(), classify(scenario, response));
+        return response;
+    }
+    
+    private static LoadReport.Outcome classify(Scenario scenario, HttpResponse<Void> response) {
+        int status = response.statusCode();
+        if (status == 403) {
+            return LoadReport.Outcome.DENIED;
+        }
+        if (status >= 400) {
+            return LoadReport.Outcome.ERROR;
+        }
+        String location = response.headers().firstValue("Location").orElse("");
+        if (scenario == Scenario.LOGIN) {
+            if (location.contains("throttled")) {
+                return LoadReport.Outcome.THROTTLED;
+            }
+            return location.contains("error") ? LoadReport.Outcome.ERROR : LoadReport.Outcome.OK;
+        }
+        // 已登录的请求被跳回登录页，说明会话丢失
+        return location.contains("/login") ? LoadReport.Outcome.ERROR : LoadReport.Outcome.OK;
+    }
+    
+    private static HttpRequest.Builder form(String url, Map<String, String> parameters) {
+        StringJoiner body = new StringJoiner("&");
+        parameters.forEach((name, value) -> body.add(URLEncoder.encode(name, StandardCharsets.UTF_8) + "="
+                + URLEncoder.encode(value, StandardCharsets.UTF_8)));
+        return HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()));
+    }
+}
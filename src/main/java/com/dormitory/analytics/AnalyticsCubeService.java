@@ -0,0 +1,266 @@
+package com.dormitory.analytics;
+
+import com.dormitory.event.AssignmentChangedEvent;
+import com.dormitory.event.ChangeType;
+import com.dormitory.event.DormitoryChangedEvent;
+import com.dormitory.event.DormitoryState;
+import com.dormitory.event.RepairRequestChangedEvent;
+import com.dormitory.event.RepairRequestState;
+import com.dormitory.event.UserChangedEvent;
+import com.dormitory.repository.RepairRequestRepository;
+import com.dormitory.repository.StudentDormitoryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.YearMonth;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayDeque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 多维分析服务
+ *
+ * 在内存中维护两个列式数据集：活跃的宿舍分配（宿舍楼、宿舍类型、专业、班级、入住月份）
+ * 和维修申请（宿舍楼、类型、优先级、状态、申请月份、处理管理员），可按任意维度组合分组统计，
+ * 不必为每种统计口径新增分组查询。各类变更事件在事务提交后增量更新数据集，并定时全量重建。
+ */
+@Service
+public class AnalyticsCubeService {
+    
+    private static final Logger log = LoggerFactory.getLogger(AnalyticsCubeService.class);
+    
+    public static final String ASSIGNMENTS = "assignments";
+    
+    public static final String REPAIRS = "repairs";
+    
+    private static final List<String> ASSIGNMENT_DIMENSIONS =
+            List.of("building", "dormitoryType", "major", "className", "checkInMonth");
+    
+    private static final List<String> REPAIR_DIMENSIONS =
+            List.of("building", "type", "priority", "status", "month", "admin");
+    
+    @Autowired
+    private StudentDormitoryRepository studentDormitoryRepository;
+    
+    @Autowired
+    private RepairRequestRepository repairRequestRepository;
+    
+    private volatile ColumnarCube assignmentCube = new ColumnarCube(ASSIGNMENTS, ASSIGNMENT_DIMENSIONS);
+    
+    private volatile ColumnarCube repairCube = new ColumnarCube(REPAIRS, REPAIR_DIMENSIONS);
+    
+    // 重建期间到达的变更，重建完成后回放
+    private final Queue<Runnable> pendingChanges = new ArrayDeque<>();
+    
+    private boolean rebuilding;
+    
+    // 启动时和定时任务的全量重建不重叠；持有期间查询数据库，时间较长
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    
+    // 保护 rebuilding 和 pendingChanges，使增量变更与重建结束时的替换、回放互斥；只在内存操作期间持有
+    private final ReentrantLock changeLock = new ReentrantLock();
+    
+    private volatile boolean ready;
+    
+    /**
+     * 应用启动完成后全量构建数据集
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+    
+    /**
+     * 从数据库全量重建数据集
+     */
+    @Scheduled(initialDelayString = "${dormitory.analytics.rebuild-interval:PT30M}",
+               fixedDelayString = "${dormitory.analytics.rebuild-interval:PT30M}")
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            changeLock.lock();
+            try {
+                rebuilding = true;
+            } finally {
+                changeLock.unlock();
+            }
+            
+            long startedAt = System.currentTimeMillis();
+            ColumnarCube assignments = new ColumnarCube(ASSIGNMENTS, ASSIGNMENT_DIMENSIONS);
+            ColumnarCube repairs = new ColumnarCube(REPAIRS, REPAIR_DIMENSIONS);
+            boolean loaded = false;
+            try {
+                for (Object[] row : studentDormitoryRepository.findActiveCubeRows()) {
+                    upsertAssignment(assignments, row);
+                }
+                for (Object[] row : repairRequestRepository.findCubeRows()) {
+                    upsertRepair(repairs, row);
+                }
+                loaded = true;
+            } finally {
+                changeLock.lock();
+                try {
+                    if (loaded) {
+                        assignmentCube = assignments;
+                        repairCube = repairs;
+                    }
+                    Runnable change;
+                    while ((change = pendingChanges.poll()) != null) {
+                        change.run();
+                    }
+                    rebuilding = false;
+                } finally {
+                    changeLock.unlock();
+                }
+            }
+            
+            ready = true;
+            log.info("多维分析数据集重建完成：分配 {} 行，维修申请 {} 行，耗时 {} ms",
+                    assignments.size(), repairs.size(), System.currentTimeMillis() - startedAt);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+    
+    /**
+     * 数据集是否已可用
+     */
+    public boolean isReady() {
+        return ready;
+    }
+    
+    /**
+     * 各数据集及其维度
+     */
+    public Map<String, List<String>> getDimensions() {
+        Map<String, List<String>> dimensions = new LinkedHashMap<>();
+        dimensions.put(ASSIGNMENTS, ASSIGNMENT_DIMENSIONS);
+        dimensions.put(REPAIRS, REPAIR_DIMENSIONS);
+        return dimensions;
+    }
+    
+    /**
+     * 按维度组合分组计数
+     */
+    public CubeResult query(String cube, List<String> dimensions, Map<String, String> filters) {
+        ColumnarCube target = switch (cube) {
+            case ASSIGNMENTS -> assignmentCube;
+            case REPAIRS -> repairCube;
+            default -> throw new IllegalArgumentException("数据集不存在：" + cube);
+        };
+        return target.groupBy(dimensions, filters);
+    }
+    
+    /**
+     * 宿舍分配变更：重新加载该学生的活跃分配
+     */
+    @TransactionalEventListener
+    public void onAssignmentChanged(AssignmentChangedEvent event) {
+        List<Object[]> rows = studentDormitoryRepository.findActiveCubeRowsByStudentId(event.getStudentId());
+        apply(() -> {
+            if (!event.isActive()) {
+                assignmentCube.remove(event.getAssignmentId());
+            }
+            rows.forEach(row -> upsertAssignment(assignmentCube, row));
+        });
+    }
+    
+    /**
+     * 维修申请变更
+     */
+    @TransactionalEventListener
+    public void onRepairRequestChanged(RepairRequestChangedEvent event) {
+        long id = event.getRepairRequestId();
+        RepairRequestState current = event.getCurrent();
+        apply(() -> {
+            if (current == null) {
+                repairCube.remove(id);
+            } else {
+                repairCube.upsert(id, current.getBuildingName(), name(current.getType()), name(current.getPriority()),
+                        name(current.getStatus()), month(current.getRequestedAt()), current.getAssignedAdminName());
+            }
+        });
+    }
+    
+    /**
+     * 宿舍变更：楼名或类型变化时重新加载该宿舍的分配和维修申请
+     *
+     * 删除宿舍不影响数据集：有人入住的宿舍不能删除（没有活跃分配），有维修申请的宿舍受外键约束也删除不了。
+     */
+    @TransactionalEventListener
+    public void onDormitoryChanged(DormitoryChangedEvent event) {
+        DormitoryState previous = event.getPrevious();
+        DormitoryState current = event.getCurrent();
+        if (previous == null || current == null) {
+            return;
+        }
+        if (Objects.equals(previous.getBuildingName(), current.getBuildingName()) && previous.getType() == current.getType()) {
+            return;
+        }
+        
+        List<Object[]> assignmentRows = studentDormitoryRepository.findActiveCubeRowsByDormitoryId(event.getDormitoryId());
+        List<Object[]> repairRows = repairRequestRepository.findCubeRowsByDormitoryId(event.getDormitoryId());
+        apply(() -> {
+            assignmentRows.forEach(row -> upsertAssignment(assignmentCube, row));
+            repairRows.forEach(row -> upsertRepair(repairCube, row));
+        });
+    }
+    
+    /**
+     * 用户变更：学生专业、班级变化时重新加载其分配；管理员姓名可能变化，重新加载其处理的维修申请
+     */
+    @TransactionalEventListener
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.getChangeType() != ChangeType.UPDATED) {
+            return;
+        }
+        if (!event.isStudent()) {
+            List<Object[]> rows = repairRequestRepository.findCubeRowsByAssignedAdminId(event.getUserId());
+            apply(() -> rows.forEach(row -> upsertRepair(repairCube, row)));
+            return;
+        }
+        List<Object[]> rows = studentDormitoryRepository.findActiveCubeRowsByStudentId(event.getUserId());
+        apply(() -> rows.forEach(row -> upsertAssignment(assignmentCube, row)));
+    }
+    
+    private void apply(Runnable change) {
+        changeLock.lock();
+        try {
+            if (rebuilding) {
+                pendingChanges.add(change);
+            } else {
+                change.run();
+            }
+        } finally {
+            changeLock.unlock();
+        }
+    }
+    
+    private static void upsertAssignment(ColumnarCube cube, Object[] row) {
+        cube.upsert((Long) row[0], (String) row[1], name(row[2]), (String) row[3], (String) row[4], month(row[5]));
+    }
+    
+    private static void upsertRepair(ColumnarCube cube, Object[] row) {
+        cube.upsert((Long) row[0], (String) row[1], name(row[2]), name(row[3]), name(row[4]), month(row[5]),
+                (String) row[6]);
+    }
+    
+    private static String name(Object value) {
+        return value != null ? ((Enum<?>) value).name() : null;
+    }
+    
+    private static String month(Object value) {
+        return value != null ? YearMonth.from((TemporalAccessor) value).toString() : null;
+    }
+}
@@ -0,0 +1,425 @@
+package com.dormitory.analytics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 列式多维数据集
+ *
+ * 每个维度一列，取值经字典编码后存放在 int 数组中；每行以业务主键（分配ID、维修申请ID）标识，
+ * 支持按主键增量插入、修改、删除。分组统计时把各维度编码按混合进制合成一个 long 作为分组键，
+ * 用 fork-join 按行区间并行计数后合并。
+ */
+public class ColumnarCube {
+    
+    private static final int INITIAL_CAPACITY = 1024;
+    
+    // 每个并行任务处理的最少行数
+    private static final int PARALLEL_THRESHOLD = 16 * 1024;
+    
+    // 分组组合数不超过该值时使用数组计数，否则使用哈希表
+    private static final long DENSE_LIMIT = 1 << 16;
+    
+    private final String name;
+    
+    private final List<String> dimensions;
+    
+    private final Dictionary[] dictionaries;
+    
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    
+    private final Map<Long, Integer> rowByKey = new HashMap<>();
+    
+    // columns[维度][行]
+    private int[][] columns;
+    
+    private long[] keys;
+    
+    private boolean[] live;
+    
+    // 已使用的行数（含已删除的行）
+    private int size;
+    
+    private int liveCount;
+    
+    public ColumnarCube(String name, List<String> dimensions) {
+        this.name = name;
+        this.dimensions = List.copyOf(dimensions);
+        this.dictionaries = new Dictionary[dimensions.size()];
+        for (int i = 0; i < dictionaries.length; i++) {
+            dictionaries[i] = new Dictionary();
+        }
+        this.columns = new int[dimensions.size()][INITIAL_CAPACITY];
+        this.keys = new long[INITIAL_CAPACITY];
+        this.live = new boolean[INITIAL_CAPACITY];
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public List<String> getDimensions() {
+        return dimensions;
+    }
+    
+    /**
+     * 有效行数
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * 插入或覆盖一行，取值顺序与维度顺序一致
+     */
+    public void upsert(long key, String... values) {
+        if (values.length != dimensions.size()) {
+            throw new IllegalArgumentException("维度数量不匹配：" + name);
+        }
+        lock.writeLock().lock();
+        try {
+            Integer row = rowByKey.get(key);
+            if (row == null) {
+                ensureCapacity(size + 1);
+                row = size++;
+                keys[row] = key;
+                live[row] = true;
+                rowByKey.put(key, row);
+                liveCount++;
+            }
+            for (int d = 0; d < values.length; d++) {
+                columns[d][row] = dictionaries[d].encode(values[d]);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * 删除一行
+     */
+    public void remove(long key) {
+        lock.writeLock().lock();
+        try {
+            Integer row = rowByKey.remove(key);
+            if (row == null) {
+                return;
+            }
+            live[row] = false;
+            liveCount--;
+            // 已删除的行过多时压缩
+            if (size > INITIAL_CAPACITY && liveCount < size / 2) {
+                compact();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * 按指定维度分组计数，filters 为维度取值过滤条件（等值匹配）
+     */
+    public CubeResult groupBy(List<String> groupDimensions, Map<String, String> filters) {
+        long startedAt = System.nanoTime();
+        int[] groupIndexes = indexesOf(groupDimensions);
+        
+        lock.readLock().lock();
+        try {
+            List<Object[]> rows = new ArrayList<>();
+            
+            int[] filterIndexes = indexesOf(new ArrayList<>(filters.keySet()));
+            int[] filterCodes = new int[filterIndexes.length];
+            int f = 0;
+            for (String value : filters.values()) {
+                filterCodes[f] = dictionaries[filterIndexes[f]].lookup(value);
+                if (filterCodes[f] < 0) {
+                    // 过滤取值不存在，结果为空
+                    return new CubeResult(name, groupDimensions, rows, 0, liveCount, elapsedMillis(startedAt));
+                }
+                f++;
+            }
+            
+            long[] radixes = new long[groupIndexes.length];
+            long cells = 1;
+            for (int i = 0; i < groupIndexes.length; i++) {
+                radixes[i] = dictionaries[groupIndexes[i]].size();
+                try {
+                    cells = Math.multiplyExact(cells, radixes[i]);
+                } catch (ArithmeticException e) {
+                    throw new IllegalArgumentException("分组维度组合过多");
+                }
+            }
+            
+            GroupByTask task = new GroupByTask(0, size, groupIndexes, radixes, cells, filterIndexes, filterCodes);
+            Counts counts = size <= PARALLEL_THRESHOLD ? task.compute() : ForkJoinPool.commonPool().invoke(task);
+            
+            long[] total = new long[1];
+            counts.forEach((cell, count) -> {
+                Object[] row = new Object[groupIndexes.length + 1];
+                for (int i = groupIndexes.length - 1; i >= 0; i--) {
+                    row[i] = dictionaries[groupIndexes[i]].decode((int) (cell % radixes[i]));
+                    cell /= radixes[i];
+                }
+                row[groupIndexes.length] = count;
+                total[0] += count;
+                rows.add(row);
+            });
+            rows.sort((a, b) -> Long.compare((Long) b[b.length - 1], (Long) a[a.length - 1]));
+            return new CubeResult(name, groupDimensions, rows, total[0], liveCount, elapsedMillis(startedAt));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    private int[] indexesOf(List<String> names) {
+        int[] indexes = new int[names.size()];
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = dimensions.indexOf(names.get(i));
+            if (indexes[i] < 0) {
+                throw new IllegalArgumentException("维度不存在：" + names.get(i));
+            }
+        }
+        return indexes;
+    }
+    
+    private void ensureCapacity(int capacity) {
+        if (capacity <= keys.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, keys.length + (keys.length >> 1));
+        for (int d = 0; d < columns.length; d++) {
+            columns[d] = Arrays.copyOf(columns[d], newCapacity);
+        }
+        keys = Arrays.copyOf(keys, newCapacity);
+        live = Arrays.copyOf(live, newCapacity);
+    }
+    
+    private void compact() {
+        int target = 0;
+        for (int row = 0; row < size; row++) {
+            if (!live[row]) {
+                continue;
+            }
+            if (target != row) {
+                for (int[] column : columns) {
+                    column[target] = column[row];
+                }
+                keys[target] = keys[row];
+                live[target] = true;
+                rowByKey.put(keys[target], target);
+            }
+            target++;
+        }
+        Arrays.fill(live, target, size, false);
+        size = target;
+    }
+    
+    private static long elapsedMillis(long startedAt) {
+        return (System.nanoTime() - startedAt) / 1_000_000;
+    }
+    
+    /**
+     * 按行区间并行分组计数
+     */
+    private class GroupByTask extends RecursiveTask<Counts> {
+        
+        private final int from;
+        
+        private final int to;
+        
+        private final int[] groupIndexes;
+        
+        private final long[] radixes;
+        
+        private final long cells;
+        
+        private final int[] filterIndexes;
+        
+        private final int[] filterCodes;
+        
+        GroupByTask(int from, int to, int[] groupIndexes, long[] radixes, long cells,
+                    int[] filterIndexes, int[] filterCodes) {
+            this.from = from;
+            this.to = to;
+            this.groupIndexes = groupIndexes;
+            this.radixes = radixes;
+            this.cells = cells;
+            this.filterIndexes = filterIndexes;
+            this.filterCodes = filterCodes;
+        }
+        
+        @Override
+        protected Counts compute() {
+            if (to - from > PARALLEL_THRESHOLD) {
+                int middle = (from + to) >>> 1;
+                GroupByTask left = new GroupByTask(from, middle, groupIndexes, radixes, cells, filterIndexes, filterCodes);
+                GroupByTask right = new GroupByTask(middle, to, groupIndexes, radixes, cells, filterIndexes, filterCodes);
+                left.fork();
+                Counts rightCounts = right.compute();
+                return left.join().merge(rightCounts);
+            }
+            
+            Counts counts = cells <= DENSE_LIMIT ? new DenseCounts((int) cells) : new SparseCounts();
+            rows:
+            for (int row = from; row < to; row++) {
+                if (!live[row]) {
+                    continue;
+                }
+                for (int i = 0; i < filterIndexes.length; i++) {
+                    if (columns[filterIndexes[i]][row] != filterCodes[i]) {
+                        continue rows;
+                    }
+                }
+                long cell = 0;
+                for (int i = 0; i < groupIndexes.length; i++) {
+                    cell = cell * radixes[i] + columns[groupIndexes[i]][row];
+                }
+                counts.add(cell);
+            }
+            return counts;
+        }
+    }
+    
+    /**
+     * 分组计数结果
+     */
+    private interface Counts {
+        
+        void add(long cell);
+        
+        Counts merge(Counts other);
+        
+        /**
+         * 遍历非零的分组及计数
+         */
+        void forEach(CellConsumer consumer);
+    }
+    
+    @FunctionalInterface
+    private interface CellConsumer {
+        
+        void accept(long cell, long count);
+    }
+    
+    /**
+     * 数组计数，适用于组合数较少的分组
+     */
+    private static class DenseCounts implements Counts {
+        
+        private final long[] counts;
+        
+        DenseCounts(int cells) {
+            this.counts = new long[cells];
+        }
+        
+        @Override
+        public void add(long cell) {
+            counts[(int) cell]++;
+        }
+        
+        @Override
+        public Counts merge(Counts other) {
+            long[] otherCounts = ((DenseCounts) other).counts;
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] += otherCounts[i];
+            }
+            return this;
+        }
+        
+        @Override
+        public void forEach(CellConsumer consumer) {
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] > 0) {
+                    consumer.accept(i, counts[i]);
+                }
+            }
+        }
+    }
+    
+    /**
+     * 开放寻址哈希表计数，适用于组合数较多的分组；分组键和计数都存放在 long 数组中，避免装箱
+     */
+    private static class SparseCounts implements Counts {
+        
+        private static final long EMPTY = -1L;
+        
+        private long[] cells = newCells(256);
+        
+        private long[] counts = new long[256];
+        
+        private int size;
+        
+        @Override
+        public void add(long cell) {
+            add(cell, 1);
+        }
+        
+        private void add(long cell, long count) {
+            int mask = cells.length - 1;
+            int slot = hash(cell) & mask;
+            while (cells[slot] != EMPTY) {
+                if (cells[slot] == cell) {
+                    counts[slot] += count;
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+            cells[slot] = cell;
+            counts[slot] = count;
+            // 装载因子超过 1/2 时扩容
+            if (++size > cells.length >> 1) {
+                resize();
+            }
+        }
+        
+        @Override
+        public Counts merge(Counts other) {
+            other.forEach(this::add);
+            return this;
+        }
+        
+        @Override
+        public void forEach(CellConsumer consumer) {
+            for (int slot = 0; slot < cells.length; slot++) {
+                if (cells[slot] != EMPTY) {
+                    consumer.accept(cells[slot], counts[slot]);
+                }
+            }
+        }
+        
+        private void resize() {
+            long[] oldCells = cells;
+            long[] oldCounts = counts;
+            cells = newCells(oldCells.length << 1);
+            counts = new long[oldCells.length << 1];
+            size = 0;
+            for (int slot = 0; slot < oldCells.length; slot++) {
+                if (oldCells[slot] != EMPTY) {
+                    add(oldCells[slot], oldCounts[slot]);
+                }
+            }
+        }
+        
+        private static long[] newCells(int capacity) {
+            long[] cells = new long[capacity];
+            Arrays.fill(cells, EMPTY);
+            return cells;
+        }
+        
+        private static int hash(long cell) {
+            long h = cell * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.dormitory.analytics;
+
+import java.util.List;
+
+/**
+ * 多维数据集分组统计结果
+ */
+public class CubeResult {
+    
+    private final String cube;
+    
+    private final List<String> dimensions;
+    
+    // 每行为各维度取值加上计数：[维度1, 维度2, ..., 数量]，按数量降序
+    private final List<Object[]> rows;
+    
+    private final long total;
+    
+    // 数据集中的有效行数
+    private final long scannedRows;
+    
+    private final long elapsedMillis;
+    
+    public CubeResult(String cube, List<String> dimensions, List<Object[]> rows,
+                      long total, long scannedRows, long elapsedMillis) {
+        this.cube = cube;
+        this.dimensions = dimensions;
+        this.rows = rows;
+        this.total = total;
+        this.scannedRows = scannedRows;
+        this.elapsedMillis = elapsedMillis;
+    }
+    
+    public String getCube() {
+        return cube;
+    }
+    
+    public List<String> getDimensions() {
+        return dimensions;
+    }
+    
+    public List<Object[]> getRows() {
+        return rows;
+    }
+    
+    public long getTotal() {
+        return total;
+    }
+    
+    public long getScannedRows() {
+        return scannedRows;
+    }
+    
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+}
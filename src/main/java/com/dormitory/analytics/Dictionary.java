@@ -0,0 +1,59 @@
+package com.dormitory.analytics;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 维度字典：把维度取值编码为连续的整数，编码 0 固定表示空值
+ *
+ * 非线程安全，由所属的 ColumnarCube 加锁保护。
+ */
+class Dictionary {
+    
+    private final Map<String, Integer> codes = new HashMap<>();
+    
+    private final List<String> values = new ArrayList<>();
+    
+    Dictionary() {
+        values.add(null);
+    }
+    
+    /**
+     * 编码取值，新取值分配新编码
+     */
+    int encode(String value) {
+        if (value == null) {
+            return 0;
+        }
+        Integer code = codes.get(value);
+        if (code == null) {
+            code = values.size();
+            codes.put(value, code);
+            values.add(value);
+        }
+        return code;
+    }
+    
+    /**
+     * 查找已有取值的编码，不存在时返回 -1
+     */
+    int lookup(String value) {
+        if (value == null) {
+            return 0;
+        }
+        return codes.getOrDefault(value, -1);
+    }
+    
+    String decode(int code) {
+        return values.get(code);
+    }
+    
+    /**
+     * 编码数量（含空值）
+     */
+    int size() {
+        return values.size();
+    }
+}
@@ -0,0 +1,24 @@
+package com.dormitory.config;
+
+import com.dormitory.service.DashboardSnapshotService;
+import com.dormitory.service.DashboardStreamProperties;
+import com.dormitory.service.DashboardStreamService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 仪表板实时推送配置
+ */
+@Configuration
+@EnableConfigurationProperties(DashboardStreamProperties.class)
+public class DashboardStreamConfig {
+    
+    @Bean
+    public DashboardStreamService dashboardStreamService(DashboardSnapshotService dashboardSnapshotService,
+                                                         MeterRegistry meterRegistry,
+                                                         DashboardStreamProperties properties) {
+        return new DashboardStreamService(dashboardSnapshotService, meterRegistry, properties);
+    }
+}
@@ -0,0 +1,24 @@
+package com.dormitory.config;
+
+import com.dormitory.dataset.DatasetGenerator;
+import com.dormitory.dataset.DatasetProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 初始数据生成配置
+ */
+@Configuration
+@EnableConfigurationProperties(DatasetProperties.class)
+public class DatasetConfig {
+    
+    @Bean
+    public DatasetGenerator datasetGenerator(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                             PasswordEncoder passwordEncoder, DatasetProperties properties) {
+        return new DatasetGenerator(jdbcTemplate, transactionTemplate, passwordEncoder, properties);
+    }
+}
@@ -0,0 +1,32 @@
+package com.dormitory.config;
+
+import com.dormitory.service.StatisticsVersionService;
+import com.dormitory.view.FragmentCache;
+import com.dormitory.view.FragmentCacheDialect;
+import com.dormitory.view.FragmentCacheProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 页面片段缓存配置
+ */
+@Configuration
+@EnableConfigurationProperties(FragmentCacheProperties.class)
+public class FragmentCacheConfig {
+    
+    @Bean
+    public FragmentCache fragmentCache(StatisticsVersionService statisticsVersionService, MeterRegistry registry,
+                                       FragmentCacheProperties properties) {
+        return new FragmentCache(statisticsVersionService, registry, properties.getMaxEntries());
+    }
+    
+    /**
+     * Spring Boot 将容器中的方言注册到模板引擎
+     */
+    @Bean
+    public FragmentCacheDialect fragmentCacheDialect(FragmentCache fragmentCache, FragmentCacheProperties properties) {
+        return new FragmentCacheDialect(fragmentCache, properties);
+    }
+}
@@ -0,0 +1,40 @@
+package com.dormitory.config;
+
+import com.dormitory.monitor.MethodTimingPostProcessor;
+import com.dormitory.monitor.MethodTimingProperties;
+import com.dormitory.monitor.MethodTimings;
+import com.dormitory.monitor.MethodTimingsEndpoint;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Repository、Service 方法耗时统计配置
+ */
+@Configuration
+@EnableConfigurationProperties(MethodTimingProperties.class)
+public class MethodTimingConfig {
+    
+    /**
+     * 指标注册表在首次调用时才取，避免后处理器提前初始化注册表
+     */
+    @Bean
+    public MethodTimings methodTimings(MethodTimingProperties properties, ObjectProvider<MeterRegistry> registry) {
+        return new MethodTimings(properties, registry);
+    }
+    
+    /**
+     * 后处理器须为静态方法，不提前初始化本配置类
+     */
+    @Bean
+    public static MethodTimingPostProcessor methodTimingPostProcessor(ObjectProvider<MethodTimings> timings) {
+        return new MethodTimingPostProcessor(timings);
+    }
+    
+    @Bean
+    public MethodTimingsEndpoint methodTimingsEndpoint(MethodTimings timings) {
+        return new MethodTimingsEndpoint(timings);
+    }
+}
@@ -0,0 +1,69 @@
+package com.dormitory.config;
+
+import com.dormitory.entity.Dormitory;
+import com.dormitory.entity.RepairRequest;
+import com.dormitory.entity.RepairStatistic;
+import com.dormitory.entity.StudentDormitory;
+import com.dormitory.entity.User;
+import com.dormitory.service.AssignmentSummary;
+import com.dormitory.service.KeysetPage;
+import com.dormitory.service.RepairRequestSummary;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.web.access.expression.WebSecurityExpressionRoot;
+
+import java.util.List;
+
+/**
+ * 原生镜像的运行时提示（mvn -Pnative package）
+ *
+ * Spring AOT 已为 Bean、Controller 方法的参数和返回值、JPA 实体的字段、Repository 生成提示，
+ * 这里补充它看不到的部分：模板中 SpEL 按名称访问的模型属性和安全表达式，Hibernate 按配置中的名称创建的类，
+ * 以及按资源路径读取的模板和 Ehcache 配置。
+ */
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+    
+    // 放入模型、在模板中访问属性的类型（连同其中的枚举）
+    private static final List<Class<?>> MODEL_TYPES = List.of(
+            User.class,
+            Dormitory.class,
+            StudentDormitory.class,
+            RepairRequest.class,
+            RepairStatistic.class,
+            KeysetPage.class,
+            AssignmentSummary.class,
+            RepairRequestSummary.class);
+    
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        hints.resources()
+                .registerPattern("templates/**/*.html")
+                .registerPattern("ehcache.xml");
+        
+        for (Class<?> type : MODEL_TYPES) {
+            hints.reflection().registerType(type, MemberCategory.INVOKE_PUBLIC_METHODS);
+            for (Class<?> nested : type.getDeclaredClasses()) {
+                hints.reflection().registerType(nested, MemberCategory.INVOKE_PUBLIC_METHODS);
+            }
+        }
+        
+        // sec:authorize 在 WebSecurityExpressionRoot 上求值，sec:authentication、#authentication 访问认证对象和权限
+        hints.reflection()
+                .registerType(WebSecurityExpressionRoot.class, MemberCategory.INVOKE_PUBLIC_METHODS)
+                .registerType(UsernamePasswordAuthenticationToken.class, MemberCategory.INVOKE_PUBLIC_METHODS)
+                .registerType(SimpleGrantedAuthority.class, MemberCategory.INVOKE_PUBLIC_METHODS);
+        
+        // Hibernate 按名称创建：二级缓存 region factory（jcache）、JCache 实现、表生成器的 pooled-lo 优化器
+        hints.reflection()
+                .registerType(TypeReference.of("org.hibernate.cache.jcache.internal.JCacheRegionFactory"),
+                        MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS)
+                .registerType(EhcacheCachingProvider.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS)
+                .registerType(TypeReference.of("org.hibernate.id.enhanced.PooledLoOptimizer"),
+                        MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+    }
+}
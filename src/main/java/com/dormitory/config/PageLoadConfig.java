@@ -0,0 +1,23 @@
+package com.dormitory.config;
+
+import com.dormitory.monitor.StatementCounter;
+import com.dormitory.service.PageDataLoader;
+import com.dormitory.service.PageLoadProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 页面数据并行加载配置
+ */
+@Configuration
+@EnableConfigurationProperties(PageLoadProperties.class)
+public class PageLoadConfig {
+    
+    @Bean
+    public PageDataLoader pageDataLoader(PageLoadProperties properties, StatementCounter statementCounter,
+                                         MeterRegistry registry) {
+        return new PageDataLoader(properties, statementCounter, registry);
+    }
+}
@@ -0,0 +1,47 @@
+package com.dormitory.config;
+
+import com.dormitory.monitor.QueryBudgetFilter;
+import com.dormitory.monitor.QueryBudgetProperties;
+import com.dormitory.monitor.StatementCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * SQL语句数预算配置
+ */
+@Configuration
+@EnableConfigurationProperties(QueryBudgetProperties.class)
+public class QueryBudgetConfig {
+    
+    @Bean
+    public StatementCounter statementCounter() {
+        return new StatementCounter();
+    }
+    
+    /**
+     * 将计数器注册为 Hibernate 的 StatementInspector
+     */
+    @Bean
+    public HibernatePropertiesCustomizer statementCounterCustomizer(StatementCounter statementCounter) {
+        return hibernateProperties -> hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, statementCounter);
+    }
+    
+    /**
+     * 位于所有过滤器之前，安全过滤器中的查询也计入
+     */
+    @Bean
+    public FilterRegistrationBean<QueryBudgetFilter> queryBudgetFilter(StatementCounter statementCounter,
+                                                                       QueryBudgetProperties properties,
+                                                                       MeterRegistry registry) {
+        FilterRegistrationBean<QueryBudgetFilter> registration =
+                new FilterRegistrationBean<>(new QueryBudgetFilter(statementCounter, properties, registry));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -0,0 +1,91 @@
+package com.dormitory.config;
+
+import com.dormitory.datasource.ReadWriteRoutingDataSource;
+import com.dormitory.datasource.ReplicaLagMonitor;
+import com.dormitory.datasource.ReplicaProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * 读写分离配置（dormitory.datasource.replica.enabled=true 时生效）
+ *
+ * 主库连接池沿用 spring.datasource，从库连接池取 dormitory.datasource.replica；两个连接池分别命名为 primary、replica，
+ * hikaricp.* 指标按 pool 区分。应用使用的数据源按事务路由到其中一个（ReadWriteRoutingDataSource）。
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "dormitory.datasource.replica", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(ReplicaProperties.class)
+public class ReadReplicaConfig {
+    
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+    
+    /**
+     * 从库连接设为只读，写语句误发到从库时由数据库拒绝
+     */
+    @Bean
+    @ConfigurationProperties("dormitory.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(ReplicaProperties properties) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(properties.getUrl());
+        dataSource.setUsername(properties.getUsername());
+        dataSource.setPassword(properties.getPassword());
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+    
+    @Bean
+    public ReadWriteRoutingDataSource routingDataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                                       @Qualifier("replicaDataSource") DataSource replica,
+                                                       ReplicaProperties properties, MeterRegistry registry) {
+        return new ReadWriteRoutingDataSource(primary, replica, properties.getStickyWindow(), registry);
+    }
+    
+    /**
+     * Hibernate 开始事务时就取连接关闭自动提交，此时事务的只读标记还没有设置；
+     * 延迟到执行第一条语句时才真正取连接，路由才能看到只读标记
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+    
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("primaryDataSource") DataSource primary,
+                                               @Qualifier("replicaDataSource") DataSource replica,
+                                               ReadWriteRoutingDataSource routingDataSource,
+                                               ReplicaProperties properties, MeterRegistry registry) {
+        return new ReplicaLagMonitor(primary, replica, routingDataSource, properties, registry);
+    }
+    
+    /**
+     * 默认的连接释放方式（会话关闭时释放）下，开启 open-in-view 后一个请求内的所有事务共用第一次取到的连接，
+     * 写事务可能用上从库连接；改为每个事务结束后释放，下一个事务重新按只读标记选择数据源
+     */
+    @Bean
+    public HibernatePropertiesCustomizer replicaConnectionHandlingCustomizer() {
+        return hibernateProperties -> hibernateProperties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+}
@@ -1,7 +1,10 @@
 package com.dormitory.config;
 
+import com.dormitory.security.LoginThrottleFilter;
+import com.dormitory.security.LoginThrottleProperties;
+import com.dormitory.security.LoginThrottleService;
 import com.dormitory.service.UserService;
-import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -12,17 +15,16 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 /**
  * Spring Security 配置类
  */
 @Configuration
 @EnableWebSecurity
+@EnableConfigurationProperties(LoginThrottleProperties.class)
 public class SecurityConfig {
     
-    @Autowired
-    private UserService userService;
-    
     /**
      * 密码编码器
      */
@@ -35,10 +37,10 @@ public class SecurityConfig {
      * 认证提供者
      */
     @Bean
-    public DaoAuthenticationProvider authenticationProvider() {
+    public DaoAuthenticationProvider authenticationProvider(UserService userService, PasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userService);
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setPasswordEncoder(passwordEncoder);
         return authProvider;
     }
     
@@ -54,13 +56,19 @@ public class SecurityConfig {
      * 安全过滤器链
      */
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http,
+                                           DaoAuthenticationProvider authenticationProvider,
+                                           LoginThrottleService loginThrottleService) throws Exception {
         http
             .authorizeHttpRequests(authz -> authz
                 // 公开访问的路径
                 .requestMatchers("/", "/login", "/register", "/about", "/css/**", "/js/**", "/images/**", "/h2-console/**").permitAll()
+                // 监控端点
+                .requestMatchers("/actuator/health").permitAll()
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
                 // 管理员权限
                 .requestMatchers("/admin/**", "/users/**", "/dormitories/**", "/assignments/**", "/repair-requests/**").hasRole("ADMIN")
+                .requestMatchers("/api/v1/statistics/**", "/api/v1/analytics/**").hasRole("ADMIN")
                 // 学生权限
                 .requestMatchers("/student/**", "/assignments/my-dormitory", "/assignments/apply-checkout", 
                                "/repair-requests/create", "/repair-requests/my-requests", "/dormitories/available").hasRole("STUDENT")
@@ -83,7 +91,10 @@ public class SecurityConfig {
             .exceptionHandling(ex -> ex
                 .accessDeniedPage("/access-denied")
             )
-            .authenticationProvider(authenticationProvider())
+            // 登录限流，在校验密码之前拒绝超限的登录尝试
+            .addFilterBefore(new LoginThrottleFilter(loginThrottleService, "/login", "/login?throttled=true"),
+                    UsernamePasswordAuthenticationFilter.class)
+            .authenticationProvider(authenticationProvider)
             // 禁用CSRF（开发环境）
             .csrf(csrf -> csrf.disable())
             // 允许H2控制台访问
@@ -0,0 +1,45 @@
+package com.dormitory.config;
+
+import com.dormitory.monitor.PinnedThreadRecorder;
+import jakarta.persistence.EntityManagerFactory;
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationInitializer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * 启动配置
+ *
+ * spring.main.lazy-initialization=true 时 Bean 在首次使用时才创建，启动只做必要的工作；以下 Bean 仍在启动时创建：
+ * 数据库迁移、连接池和 EntityManagerFactory（迁移失败或实体与表结构不一致时启动即失败，而不是第一个请求失败），
+ * 虚拟线程固定记录。带 @Scheduled 方法的 Bean 由 Spring Boot 保持立即创建；
+ * 启动完成后预热的索引和快照由 ApplicationReadyEvent 监听器触发，不受影响。
+ * 原生镜像需要的运行时提示见 NativeRuntimeHints。
+ */
+@Configuration
+@ImportRuntimeHints(NativeRuntimeHints.class)
+public class StartupConfig {
+    
+    private static final List<Class<?>> EAGER_TYPES = List.of(
+            DataSource.class,
+            Flyway.class,
+            FlywayMigrationInitializer.class,
+            EntityManagerFactory.class,
+            AbstractEntityManagerFactoryBean.class,
+            PinnedThreadRecorder.class);
+    
+    /**
+     * 延迟初始化时仍立即创建的 Bean
+     */
+    @Bean
+    public static LazyInitializationExcludeFilter eagerInfrastructureFilter() {
+        return (beanName, beanDefinition, beanType) ->
+                EAGER_TYPES.stream().anyMatch(type -> type.isAssignableFrom(beanType));
+    }
+}
@@ -0,0 +1,85 @@
+package com.dormitory.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.regex.Pattern;
+
+/**
+ * 静态资源缓存策略
+ *
+ * 带内容指纹的地址（模板中的 @{/css/style.css} 输出为 /css/style-&lt;MD5&gt;.css）内容不会变，
+ * 浏览器缓存一年且不再验证；不带指纹的地址每次向服务器验证（304）。须在 Spring Security 写入默认的
+ * no-store 之前设置，Spring Security 见到已有 Cache-Control 时不再覆盖。
+ *
+ * 长期缓存只用于成功的响应：滚动发布期间请求可能带着另一节点构建的指纹到达，本节点返回 404，
+ * 这样的响应不能被浏览器和 CDN 缓存一年。先按需验证设置，开始写响应体时状态为 2xx 才换成长期缓存。
+ */
+public class StaticResourceCacheFilter extends OncePerRequestFilter {
+    
+    // VersionResourceResolver 内容版本的文件名格式：名称-<32位MD5>.扩展名
+    private static final Pattern FINGERPRINTED = Pattern.compile("-[0-9a-f]{32}\\.[^/]+$");
+    
+    private static final String IMMUTABLE = "public, max-age=31536000, immutable";
+    
+    private static final String REVALIDATE = "no-cache";
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        response.setHeader(HttpHeaders.CACHE_CONTROL, REVALIDATE);
+        // 同一地址有预压缩版本，未压缩的响应也要声明按 Accept-Encoding 区分（压缩的响应由 Spring 设置）
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (!FINGERPRINTED.matcher(request.getRequestURI()).find()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        ImmutableWhenSuccessful wrapped = new ImmutableWhenSuccessful(response);
+        filterChain.doFilter(request, wrapped);
+        // 没有响应体（HEAD 请求）时在这里设置
+        wrapped.markIfSuccessful();
+    }
+    
+    /**
+     * 开始写响应体时按状态码决定是否长期缓存（此后响应头可能已经发出）
+     */
+    private static final class ImmutableWhenSuccessful extends HttpServletResponseWrapper {
+        
+        ImmutableWhenSuccessful(HttpServletResponse response) {
+            super(response);
+        }
+        
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            markIfSuccessful();
+            return super.getOutputStream();
+        }
+        
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            markIfSuccessful();
+            return super.getWriter();
+        }
+        
+        @Override
+        public void flushBuffer() throws IOException {
+            markIfSuccessful();
+            super.flushBuffer();
+        }
+        
+        void markIfSuccessful() {
+            if (!isCommitted() && HttpStatus.valueOf(getStatus()).is2xxSuccessful()) {
+                setHeader(HttpHeaders.CACHE_CONTROL, IMMUTABLE);
+            }
+        }
+    }
+}
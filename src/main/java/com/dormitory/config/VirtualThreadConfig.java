@@ -0,0 +1,52 @@
+package com.dormitory.config;
+
+import com.dormitory.datasource.ConnectionLimitingDataSource;
+import com.dormitory.monitor.PinnedThreadRecorder;
+import com.dormitory.monitor.VirtualThreadProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 虚拟线程模式配置
+ *
+ * spring.threads.virtual.enabled=true 且运行在 Java 21 及以上时，Spring Boot 让 Tomcat 请求、@Async 和异步请求
+ * （流式导出等）、定时任务都运行在虚拟线程上；本配置再为每个连接池加上按连接池大小排队的许可，并记录虚拟线程固定事件。
+ * Java 17 上该属性不起作用，仍使用平台线程，本配置也不生效。
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+@EnableConfigurationProperties(VirtualThreadProperties.class)
+public class VirtualThreadConfig {
+    
+    /**
+     * 包装每个 HikariCP 连接池（包括读写分离的主库、从库连接池），许可数取连接池的 maximum-pool-size；
+     * 后处理器须为静态方法，依赖在首次使用时才取
+     */
+    @Bean
+    public static BeanPostProcessor connectionLimitingPostProcessor(ObjectProvider<VirtualThreadProperties> properties,
+                                                                    ObjectProvider<MeterRegistry> registry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource hikari) {
+                    String name = hikari.getPoolName() != null ? hikari.getPoolName() : beanName;
+                    return new ConnectionLimitingDataSource(hikari, name, hikari.getMaximumPoolSize(),
+                            properties.getObject().getJdbcAcquireTimeout(), registry.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+    
+    @Bean
+    public PinnedThreadRecorder pinnedThreadRecorder(MeterRegistry registry, VirtualThreadProperties properties) {
+        return new PinnedThreadRecorder(registry, properties.getPinnedThreshold());
+    }
+}
@@ -1,6 +1,9 @@
 package com.dormitory.config;
 
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
 import org.springframework.web.servlet.config.annotation.ViewControllerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
@@ -21,4 +24,16 @@ public class WebConfig implements WebMvcConfigurer {
         // 错误页面
         registry.addViewController("/error").setViewName("error/error");
     }
+    
+    /**
+     * 静态资源缓存策略，位于安全过滤器之前
+     */
+    @Bean
+    public FilterRegistrationBean<StaticResourceCacheFilter> staticResourceCacheFilter() {
+        FilterRegistrationBean<StaticResourceCacheFilter> registration =
+                new FilterRegistrationBean<>(new StaticResourceCacheFilter());
+        registration.addUrlPatterns("/css/*", "/js/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
 }
@@ -0,0 +1,56 @@
+package com.dormitory.controller;
+
+import com.dormitory.analytics.AnalyticsCubeService;
+import com.dormitory.analytics.CubeResult;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 多维分析接口控制器
+ *
+ * 例：/api/v1/analytics/assignments?dimensions=building,dormitoryType,major&checkInMonth=2024-09
+ * dimensions 为分组维度，其余参数按维度取值过滤。
+ */
+@RestController
+@RequestMapping("/api/v1/analytics")
+public class AnalyticsApiController {
+    
+    @Autowired
+    private AnalyticsCubeService analyticsCubeService;
+    
+    /**
+     * 可用的数据集及维度
+     */
+    @GetMapping
+    public Map<String, List<String>> dimensions() {
+        return analyticsCubeService.getDimensions();
+    }
+    
+    /**
+     * 按维度组合分组统计
+     */
+    @GetMapping("/{cube}")
+    public ResponseEntity<?> query(@PathVariable String cube,
+                                   @RequestParam(required = false) List<String> dimensions,
+                                   @RequestParam Map<String, String> parameters) {
+        Map<String, String> filters = new LinkedHashMap<>(parameters);
+        filters.remove("dimensions");
+        try {
+            CubeResult result = analyticsCubeService.query(cube,
+                    dimensions != null ? dimensions : new ArrayList<>(), filters);
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+}
@@ -1,14 +1,20 @@
 package com.dormitory.controller;
 
 import com.dormitory.entity.Dormitory;
+import com.dormitory.service.KeysetPage;
+import com.dormitory.service.KeysetPageRequest;
 import com.dormitory.service.DormitoryService;
+import com.dormitory.service.PageDataLoader;
+import com.dormitory.view.LazyAttributes;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 宿舍控制器
@@ -20,6 +26,9 @@ public class DormitoryController {
     @Autowired
     private DormitoryService dormitoryService;
     
+    @Autowired
+    private PageDataLoader pageDataLoader;
+    
     /**
      * 宿舍列表页面
      */
@@ -28,30 +37,26 @@ public class DormitoryController {
                                 @RequestParam(required = false) String type,
                                 @RequestParam(required = false) String status,
                                 @RequestParam(required = false) String keyword,
+                                @RequestParam(required = false) String cursor,
+                                @RequestParam(required = false) Integer size,
+                                @RequestParam(required = false) String sort,
+                                @RequestParam(required = false) String direction,
+                                @RequestParam(required = false) String total,
                                 Model model) {
-        List<Dormitory> dormitories;
-        
-        if (keyword != null && !keyword.trim().isEmpty()) {
-            dormitories = dormitoryService.searchDormitories(keyword);
-        } else if (building != null && !building.trim().isEmpty()) {
-            dormitories = dormitoryService.findByBuildingName(building);
-        } else if (type != null && !type.trim().isEmpty()) {
-            dormitories = dormitoryService.findByType(Dormitory.DormitoryType.valueOf(type.toUpperCase()));
-        } else if (status != null && !status.trim().isEmpty()) {
-            dormitories = dormitoryService.findByStatus(Dormitory.DormitoryStatus.valueOf(status.toUpperCase()));
-        } else {
-            dormitories = dormitoryService.findAll();
-        }
+        KeysetPage<Dormitory> page = dormitoryService.findPage(building,
+                type != null && !type.trim().isEmpty() ? Dormitory.DormitoryType.valueOf(type.toUpperCase()) : null,
+                status != null && !status.trim().isEmpty() ? Dormitory.DormitoryStatus.valueOf(status.toUpperCase()) : null,
+                keyword, new KeysetPageRequest(cursor, size, sort, direction, KeysetPageLinks.total(total)));
         
-        model.addAttribute("dormitories", dormitories);
+        model.addAttribute("dormitories", page.getContent());
+        KeysetPageLinks.addTo(model, page);
         model.addAttribute("currentBuilding", building);
         model.addAttribute("currentType", type);
         model.addAttribute("currentStatus", status);
         model.addAttribute("keyword", keyword);
         
-        // 获取所有宿舍楼名称用于筛选
-        List<Object[]> buildingStats = dormitoryService.countDormitoriesByBuilding();
-        model.addAttribute("buildings", buildingStats);
+        // 获取所有宿舍楼名称用于筛选（筛选框命中片段缓存时不查询）
+        model.addAttribute("buildings", LazyAttributes.of(dormitoryService::countDormitoriesByBuilding));
         
         return "admin/dormitories/list";
     }
@@ -151,9 +156,8 @@ public class DormitoryController {
         model.addAttribute("currentBuilding", building);
         model.addAttribute("currentType", type);
         
-        // 获取所有宿舍楼名称用于筛选
-        List<Object[]> buildingStats = dormitoryService.countDormitoriesByBuilding();
-        model.addAttribute("buildings", buildingStats);
+        // 获取所有宿舍楼名称用于筛选（筛选框命中片段缓存时不查询）
+        model.addAttribute("buildings", LazyAttributes.of(dormitoryService::countDormitoriesByBuilding));
         
         return "student/dormitories/available";
     }
@@ -163,17 +167,27 @@ public class DormitoryController {
      */
     @GetMapping("/statistics")
     public String dormitoryStatistics(Model model) {
+        PageDataLoader.PageLoad load = pageDataLoader.start();
+        
         // 各宿舍楼统计
-        model.addAttribute("buildingStats", dormitoryService.countDormitoriesByBuilding());
+        load.add("buildingStats", dormitoryService::countDormitoriesByBuilding, List.of());
         
         // 入住率统计
-        model.addAttribute("occupancyStats", dormitoryService.getOccupancyRateByBuilding());
+        load.add("occupancyStats", dormitoryService::getOccupancyRateByBuilding, List.of());
+        
+        // 宿舍状态统计（按状态分组计数，不加载宿舍）
+        PageDataLoader.Section<List<Object[]>> statusStats =
+                load.add("statusStats", dormitoryService::countDormitoriesByStatus, List.of());
         
-        // 宿舍状态统计
-        model.addAttribute("availableCount", dormitoryService.findByStatus(Dormitory.DormitoryStatus.AVAILABLE).size());
-        model.addAttribute("fullCount", dormitoryService.findByStatus(Dormitory.DormitoryStatus.FULL).size());
-        model.addAttribute("maintenanceCount", dormitoryService.findByStatus(Dormitory.DormitoryStatus.MAINTENANCE).size());
-        model.addAttribute("closedCount", dormitoryService.findByStatus(Dormitory.DormitoryStatus.CLOSED).size());
+        load.into(model);
+        Map<Dormitory.DormitoryStatus, Long> statusCounts = new EnumMap<>(Dormitory.DormitoryStatus.class);
+        for (Object[] row : statusStats.get()) {
+            statusCounts.put((Dormitory.DormitoryStatus) row[0], (Long) row[1]);
+        }
+        model.addAttribute("availableCount", statusCounts.getOrDefault(Dormitory.DormitoryStatus.AVAILABLE, 0L));
+        model.addAttribute("fullCount", statusCounts.getOrDefault(Dormitory.DormitoryStatus.FULL, 0L));
+        model.addAttribute("maintenanceCount", statusCounts.getOrDefault(Dormitory.DormitoryStatus.MAINTENANCE, 0L));
+        model.addAttribute("closedCount", statusCounts.getOrDefault(Dormitory.DormitoryStatus.CLOSED, 0L));
         
         return "admin/dormitories/statistics";
     }
@@ -0,0 +1,79 @@
+package com.dormitory.controller;
+
+import com.dormitory.export.ExportFormat;
+import com.dormitory.export.ExportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 数据导出控制器
+ *
+ * 例：/admin/export/assignments?format=xlsx。响应体边查询边写出，客户端声明支持 gzip 时 CSV 压缩传输。
+ */
+@RestController
+@RequestMapping("/admin/export")
+public class ExportController {
+    
+    @Autowired
+    private ExportService exportService;
+    
+    /**
+     * 导出宿舍分配（assignments）、维修申请（repairs）或用户（users）
+     */
+    @GetMapping("/{dataset}")
+    public ResponseEntity<StreamingResponseBody> export(@PathVariable String dataset,
+                                                        @RequestParam(defaultValue = "csv") String format,
+                                                        @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+                                                        String acceptEncoding) {
+        ExportService.Dataset target;
+        ExportFormat exportFormat;
+        try {
+            target = ExportService.Dataset.fromName(dataset);
+            exportFormat = ExportFormat.fromExtension(format);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        
+        boolean gzip = exportFormat.isCompressible() && acceptEncoding != null && acceptEncoding.contains("gzip");
+        String filename = target.getTitle() + "-" + LocalDate.now().format(DateTimeFormatter.BASIC_ISO_DATE)
+                + "." + exportFormat.getExtension();
+        
+        StreamingResponseBody body = outputStream -> {
+            if (gzip) {
+                GZIPOutputStream gzipStream = new GZIPOutputStream(StreamUtils.nonClosing(outputStream), 8 * 1024);
+                exportService.export(target, exportFormat, gzipStream);
+                gzipStream.finish();
+            } else {
+                exportService.export(target, exportFormat, outputStream);
+            }
+        };
+        
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(filename, StandardCharsets.UTF_8).build().toString())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+}
@@ -1,15 +1,20 @@
 package com.dormitory.controller;
 
 import com.dormitory.entity.User;
-import com.dormitory.service.UserService;
-import com.dormitory.service.DormitoryService;
+import com.dormitory.service.DashboardSnapshot;
+import com.dormitory.service.DashboardSnapshotService;
+import com.dormitory.service.DashboardStreamService;
+import com.dormitory.service.PageDataLoader;
 import com.dormitory.service.StudentDormitoryService;
 import com.dormitory.service.RepairRequestService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -20,10 +25,10 @@ import java.util.List;
 public class HomeController {
     
     @Autowired
-    private UserService userService;
+    private DashboardSnapshotService dashboardSnapshotService;
     
     @Autowired
-    private DormitoryService dormitoryService;
+    private DashboardStreamService dashboardStreamService;
     
     @Autowired
     private StudentDormitoryService studentDormitoryService;
@@ -31,6 +36,9 @@ public class HomeController {
     @Autowired
     private RepairRequestService repairRequestService;
     
+    @Autowired
+    private PageDataLoader pageDataLoader;
+    
     /**
      * 首页
      */
@@ -42,23 +50,27 @@ public class HomeController {
             
             // 根据用户角色显示不同的统计信息
             if (user.getRole() == User.Role.ADMIN) {
-                // 管理员统计信息
-                model.addAttribute("totalStudents", userService.findByRole(User.Role.STUDENT).size());
-                model.addAttribute("totalDormitories", dormitoryService.findAll().size());
-                model.addAttribute("availableDormitories", dormitoryService.findAvailableDormitories().size());
-                model.addAttribute("pendingRepairRequests", repairRequestService.findByStatus(RepairRequest.RepairStatus.PENDING).size());
+                // 管理员统计信息（来自预计算的仪表板快照）；快照的版本号作为统计卡片片段缓存的 key
+                DashboardSnapshot snapshot = dashboardSnapshotService.getSnapshot();
+                model.addAttribute("dashboardVersion", snapshot.getVersion());
+                model.addAttribute("totalStudents", snapshot.getTotalStudents());
+                model.addAttribute("totalDormitories", snapshot.getTotalDormitories());
+                model.addAttribute("availableDormitories", snapshot.getAvailableDormitories());
+                model.addAttribute("pendingRepairRequests", snapshot.getPendingRepairRequests());
                 
                 // 各宿舍楼入住率统计
-                model.addAttribute("occupancyStats", dormitoryService.getOccupancyRateByBuilding());
+                model.addAttribute("occupancyStats", snapshot.getOccupancyStats());
                 
                 // 维修申请统计
-                model.addAttribute("repairStats", repairRequestService.countByStatus());
+                model.addAttribute("repairStats", snapshot.getRepairStats());
                 
                 return "admin/dashboard";
             } else {
-                // 学生统计信息
-                model.addAttribute("myDormitory", studentDormitoryService.findActiveByStudent(user).orElse(null));
-                model.addAttribute("myRepairRequests", repairRequestService.findByStudent(user));
+                // 学生统计信息（两个查询并行加载）
+                PageDataLoader.PageLoad load = pageDataLoader.start();
+                load.add("myDormitory", () -> studentDormitoryService.findActiveSummaryByStudent(user).orElse(null), null);
+                load.add("myRepairRequests", () -> repairRequestService.findByStudent(user), List.of());
+                load.into(model);
                 
                 return "student/dashboard";
             }
@@ -67,6 +79,15 @@ public class HomeController {
         return "index";
     }
     
+    /**
+     * 管理员仪表板实时推送（Server-Sent Events）
+     */
+    @GetMapping(value = "/admin/dashboard/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ResponseBody
+    public SseEmitter dashboardStream() {
+        return dashboardStreamService.subscribe();
+    }
+    
     /**
      * 登录页面
      */
@@ -0,0 +1,124 @@
+package com.dormitory.controller;
+
+import com.dormitory.service.KeysetPage;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.ui.Model;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * 列表页游标分页链接
+ *
+ * 在当前请求的筛选、排序参数上替换游标，放入 page、firstUrl、previousUrl、nextUrl 供 layout/pagination 片段使用。
+ * 第一页算出的总数随链接传递，形如 total=128.签名：签名覆盖请求路径、筛选排序参数和总数，
+ * 被修改或换了筛选条件的总数校验不通过，由服务重新统计。签名密钥每次启动随机生成，重启后旧链接重新统计一次。
+ */
+final class KeysetPageLinks {
+    
+    private static final Set<String> PAGE_PARAMETERS = Set.of("cursor", "total");
+    
+    private static final String SIGNATURE_ALGORITHM = "HmacSHA256";
+    
+    private static final SecretKeySpec TOTAL_KEY = new SecretKeySpec(randomKey(), SIGNATURE_ALGORITHM);
+    
+    private KeysetPageLinks() {
+    }
+    
+    static void addTo(Model model, KeysetPage<?> page) {
+        HttpServletRequest request = currentRequest();
+        model.addAttribute("page", page);
+        model.addAttribute("firstUrl", link(request, null, null));
+        // 总数只在第一页计算一次，之后随翻页链接传递
+        Long total = page.isTotalKnown() || !page.isHasPrevious() ? page.getTotal() : null;
+        model.addAttribute("previousUrl", page.isHasPrevious() ? link(request, page.getPreviousCursor(), total) : null);
+        model.addAttribute("nextUrl", page.isHasNext() ? link(request, page.getNextCursor(), total) : null);
+    }
+    
+    /**
+     * 翻页链接带回的总数；没有带、格式不对或签名与当前请求不符时返回 null
+     */
+    static Long total(String token) {
+        if (token == null) {
+            return null;
+        }
+        int separator = token.indexOf('.');
+        if (separator <= 0) {
+            return null;
+        }
+        long total;
+        try {
+            total = Long.parseLong(token.substring(0, separator));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        if (total < 0) {
+            return null;
+        }
+        byte[] expected = sign(currentRequest(), total).getBytes(StandardCharsets.US_ASCII);
+        byte[] actual = token.substring(separator + 1).getBytes(StandardCharsets.US_ASCII);
+        return MessageDigest.isEqual(expected, actual) ? total : null;
+    }
+    
+    private static String link(HttpServletRequest request, String cursor, Long total) {
+        UriComponentsBuilder builder = UriComponentsBuilder.fromPath(request.getRequestURI());
+        request.getParameterMap().forEach((name, values) -> {
+            if (!PAGE_PARAMETERS.contains(name)) {
+                builder.queryParam(name, (Object[]) values);
+            }
+        });
+        if (cursor != null) {
+            builder.queryParam("cursor", cursor);
+        }
+        if (total != null) {
+            builder.queryParam("total", total + "." + sign(request, total));
+        }
+        return builder.encode().build().toUriString();
+    }
+    
+    /**
+     * 总数的签名，覆盖请求路径和除游标、总数以外的全部参数（按参数名排序）
+     */
+    private static String sign(HttpServletRequest request, long total) {
+        StringBuilder content = new StringBuilder(request.getRequestURI()).append('\n').append(total);
+        Map<String, String[]> parameters = new TreeMap<>(request.getParameterMap());
+        parameters.forEach((name, values) -> {
+            if (!PAGE_PARAMETERS.contains(name)) {
+                for (String value : values) {
+                    content.append('\n').append(name).append('=').append(value);
+                }
+            }
+        });
+        try {
+            Mac mac = Mac.getInstance(SIGNATURE_ALGORITHM);
+            mac.init(TOTAL_KEY);
+            byte[] signature = mac.doFinal(content.toString().getBytes(StandardCharsets.UTF_8));
+            // 截取前 16 字节，链接不必太长
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(signature, 16));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("无法计算分页总数签名", e);
+        }
+    }
+    
+    private static HttpServletRequest currentRequest() {
+        return ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes()).getRequest();
+    }
+    
+    private static byte[] randomKey() {
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        return key;
+    }
+}
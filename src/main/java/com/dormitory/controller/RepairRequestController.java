@@ -3,7 +3,12 @@ package com.dormitory.controller;
 import com.dormitory.entity.RepairRequest;
 import com.dormitory.entity.User;
 import com.dormitory.entity.Dormitory;
+import com.dormitory.entity.StudentDormitory;
+import com.dormitory.service.KeysetPage;
+import com.dormitory.service.KeysetPageRequest;
 import com.dormitory.service.RepairRequestService;
+import com.dormitory.service.RepairRequestSummary;
+import com.dormitory.service.RepairStatisticsService;
 import com.dormitory.service.UserService;
 import com.dormitory.service.DormitoryService;
 import com.dormitory.service.StudentDormitoryService;
@@ -26,6 +31,9 @@ public class RepairRequestController {
     @Autowired
     private RepairRequestService repairRequestService;
     
+    @Autowired
+    private RepairStatisticsService repairStatisticsService;
+    
     @Autowired
     private UserService userService;
     
@@ -43,22 +51,22 @@ public class RepairRequestController {
                                    @RequestParam(required = false) String type,
                                    @RequestParam(required = false) String priority,
                                    @RequestParam(required = false) String keyword,
+                                   @RequestParam(required = false) String cursor,
+                                   @RequestParam(required = false) Integer size,
+                                   @RequestParam(required = false) String sort,
+                                   @RequestParam(required = false) String direction,
+                                   @RequestParam(required = false) String total,
                                    Model model) {
-        List<RepairRequest> repairRequests;
-        
-        if (keyword != null && !keyword.trim().isEmpty()) {
-            repairRequests = repairRequestService.searchRepairRequests(keyword);
-        } else if (status != null && !status.trim().isEmpty()) {
-            repairRequests = repairRequestService.findByStatus(RepairRequest.RepairStatus.valueOf(status.toUpperCase()));
-        } else if (type != null && !type.trim().isEmpty()) {
-            repairRequests = repairRequestService.findByType(RepairRequest.RepairType.valueOf(type.toUpperCase()));
-        } else if (priority != null && !priority.trim().isEmpty()) {
-            repairRequests = repairRequestService.findByPriority(RepairRequest.RepairPriority.valueOf(priority.toUpperCase()));
-        } else {
-            repairRequests = repairRequestService.findAll();
-        }
-        
-        model.addAttribute("repairRequests", repairRequests);
+        KeysetPage<RepairRequestSummary> page = repairRequestService.findPage(
+                status != null && !status.trim().isEmpty()
+                        ? RepairRequest.RepairStatus.valueOf(status.toUpperCase()) : null,
+                type != null && !type.trim().isEmpty() ? RepairRequest.RepairType.valueOf(type.toUpperCase()) : null,
+                priority != null && !priority.trim().isEmpty()
+                        ? RepairRequest.RepairPriority.valueOf(priority.toUpperCase()) : null,
+                keyword, new KeysetPageRequest(cursor, size, sort, direction, KeysetPageLinks.total(total)));
+        
+        model.addAttribute("repairRequests", page.getContent());
+        KeysetPageLinks.addTo(model, page);
         model.addAttribute("currentStatus", status);
         model.addAttribute("currentType", type);
         model.addAttribute("currentPriority", priority);
@@ -72,7 +80,7 @@ public class RepairRequestController {
      */
     @GetMapping("/{id}")
     public String repairRequestDetail(@PathVariable Long id, Model model) {
-        RepairRequest repairRequest = repairRequestService.findById(id)
+        RepairRequest repairRequest = repairRequestService.findDetailById(id)
                 .orElseThrow(() -> new RuntimeException("维修申请不存在"));
         
         model.addAttribute("repairRequest", repairRequest);
@@ -172,7 +180,7 @@ public class RepairRequestController {
     @GetMapping("/my-requests")
     public String myRepairRequests(Authentication authentication, Model model) {
         User currentUser = (User) authentication.getPrincipal();
-        List<RepairRequest> repairRequests = repairRequestService.findByStudent(currentUser);
+        List<RepairRequestSummary> repairRequests = repairRequestService.findByStudent(currentUser);
         
         model.addAttribute("repairRequests", repairRequests);
         return "student/repair-requests/my-requests";
@@ -183,7 +191,7 @@ public class RepairRequestController {
      */
     @GetMapping("/pending")
     public String pendingRepairRequests(Model model) {
-        List<RepairRequest> repairRequests = repairRequestService.findPendingRequestsOrderByPriority();
+        List<RepairRequestSummary> repairRequests = repairRequestService.findPendingRequestsOrderByPriority();
         model.addAttribute("repairRequests", repairRequests);
         return "admin/repair-requests/pending";
     }
@@ -193,7 +201,7 @@ public class RepairRequestController {
      */
     @GetMapping("/high-priority")
     public String highPriorityRepairRequests(Model model) {
-        List<RepairRequest> repairRequests = repairRequestService.findHighPriorityPendingRequests();
+        List<RepairRequestSummary> repairRequests = repairRequestService.findHighPriorityPendingRequests();
         model.addAttribute("repairRequests", repairRequests);
         return "admin/repair-requests/high-priority";
     }
@@ -204,19 +212,19 @@ public class RepairRequestController {
     @GetMapping("/statistics")
     public String repairStatistics(Model model) {
         // 状态统计
-        model.addAttribute("statusStats", repairRequestService.countByStatus());
+        model.addAttribute("statusStats", repairStatisticsService.countByStatus());
         
         // 类型统计
-        model.addAttribute("typeStats", repairRequestService.countByType());
+        model.addAttribute("typeStats", repairStatisticsService.countByType());
         
         // 优先级统计
-        model.addAttribute("priorityStats", repairRequestService.countByPriority());
+        model.addAttribute("priorityStats", repairStatisticsService.countByPriority());
         
         // 宿舍楼统计
-        model.addAttribute("buildingStats", repairRequestService.countByBuilding());
+        model.addAttribute("buildingStats", repairStatisticsService.countByBuilding());
         
         // 管理员处理统计
-        model.addAttribute("adminStats", repairRequestService.countByAssignedAdmin());
+        model.addAttribute("adminStats", repairStatisticsService.countByAssignedAdmin());
         
         return "admin/repair-requests/statistics";
     }
@@ -0,0 +1,131 @@
+package com.dormitory.controller;
+
+import com.dormitory.service.DormitoryService;
+import com.dormitory.service.RepairStatisticsService;
+import com.dormitory.service.StatisticsVersionService;
+import com.dormitory.service.StudentDormitoryService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 统计数据接口控制器
+ *
+ * 以 JSON 返回宿舍、分配、维修统计。每类数据带版本号和强 ETag，数据未变化时返回 304，不执行统计查询。
+ */
+@RestController
+@RequestMapping("/api/v1/statistics")
+public class StatisticsApiController {
+    
+    @Autowired
+    private StatisticsVersionService statisticsVersionService;
+    
+    @Autowired
+    private DormitoryService dormitoryService;
+    
+    @Autowired
+    private StudentDormitoryService studentDormitoryService;
+    
+    @Autowired
+    private RepairStatisticsService repairStatisticsService;
+    
+    // 客户端可直接复用结果的时长，过期后带 If-None-Match 重新校验
+    @Value("${dormitory.statistics-api.max-age:PT0S}")
+    private Duration maxAge;
+    
+    // 是否允许共享缓存（本地反向代理）缓存结果
+    @Value("${dormitory.statistics-api.shared-cache:false}")
+    private boolean sharedCache;
+    
+    /**
+     * 宿舍统计
+     */
+    @GetMapping("/dormitories")
+    public ResponseEntity<Map<String, Object>> dormitoryStatistics(WebRequest request) {
+        return conditional(request, StatisticsVersionService.Dataset.DORMITORIES, payload -> {
+            payload.put("buildingStats", dormitoryService.countDormitoriesByBuilding());
+            payload.put("occupancyStats", dormitoryService.getOccupancyRateByBuilding());
+            payload.put("statusStats", dormitoryService.countDormitoriesByStatus());
+        });
+    }
+    
+    /**
+     * 宿舍分配统计
+     */
+    @GetMapping("/assignments")
+    public ResponseEntity<Map<String, Object>> assignmentStatistics(WebRequest request) {
+        return conditional(request, StatisticsVersionService.Dataset.ASSIGNMENTS, payload -> {
+            payload.put("buildingStats", studentDormitoryService.countActiveStudentsByBuilding());
+            payload.put("majorStats", studentDormitoryService.countActiveStudentsByMajor());
+            payload.put("classStats", studentDormitoryService.countActiveStudentsByClass());
+            payload.put("statusStats", studentDormitoryService.countAssignmentsByStatus());
+        });
+    }
+    
+    /**
+     * 维修申请统计
+     */
+    @GetMapping("/repairs")
+    public ResponseEntity<Map<String, Object>> repairStatistics(WebRequest request) {
+        return conditional(request, StatisticsVersionService.Dataset.REPAIRS, payload -> {
+            payload.put("statusStats", repairStatisticsService.countByStatus());
+            payload.put("typeStats", repairStatisticsService.countByType());
+            payload.put("priorityStats", repairStatisticsService.countByPriority());
+            payload.put("buildingStats", repairStatisticsService.countByBuilding());
+            payload.put("adminStats", repairStatisticsService.countByAssignedAdmin());
+        });
+    }
+    
+    /**
+     * 请求携带的 ETag 与当前版本一致时直接返回 304，否则执行统计查询
+     */
+    private ResponseEntity<Map<String, Object>> conditional(WebRequest request, StatisticsVersionService.Dataset dataset,
+                                                            StatisticsWriter writer) {
+        // 先取版本再查询：查询期间有写入时结果比版本新，下次请求仍会因版本变化而重新获取
+        long version = statisticsVersionService.getVersion(dataset);
+        String eTag = statisticsVersionService.toETag(dataset, version);
+        CacheControl cacheControl = cacheControl();
+        
+        if (request.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(eTag)
+                    .cacheControl(cacheControl)
+                    .header(HttpHeaders.VARY, HttpHeaders.COOKIE)
+                    .build();
+        }
+        
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("version", version);
+        writer.write(payload);
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(cacheControl)
+                .header(HttpHeaders.VARY, HttpHeaders.COOKIE)
+                .body(payload);
+    }
+    
+    private CacheControl cacheControl() {
+        CacheControl cacheControl = CacheControl.maxAge(maxAge).mustRevalidate();
+        return sharedCache ? cacheControl.cachePublic() : cacheControl.cachePrivate();
+    }
+    
+    /**
+     * 填充统计结果
+     */
+    @FunctionalInterface
+    private interface StatisticsWriter {
+        
+        void write(Map<String, Object> payload);
+    }
+}
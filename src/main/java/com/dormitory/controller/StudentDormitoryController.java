@@ -2,9 +2,14 @@ package com.dormitory.controller;
 
 import com.dormitory.entity.StudentDormitory;
 import com.dormitory.entity.User;
+import com.dormitory.service.AssignmentSummary;
+import com.dormitory.service.KeysetPage;
+import com.dormitory.service.KeysetPageRequest;
+import com.dormitory.service.PageDataLoader;
 import com.dormitory.service.StudentDormitoryService;
 import com.dormitory.service.UserService;
 import com.dormitory.service.DormitoryService;
+import com.dormitory.view.LazyAttributes;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
@@ -13,7 +18,9 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.time.LocalDate;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 学生宿舍分配控制器
@@ -31,32 +38,35 @@ public class StudentDormitoryController {
     @Autowired
     private DormitoryService dormitoryService;
     
+    @Autowired
+    private PageDataLoader pageDataLoader;
+    
     /**
      * 分配记录列表页面
      */
     @GetMapping
     public String assignmentList(@RequestParam(required = false) String status,
                                 @RequestParam(required = false) String building,
+                                @RequestParam(required = false) String keyword,
+                                @RequestParam(required = false) String cursor,
+                                @RequestParam(required = false) Integer size,
+                                @RequestParam(required = false) String sort,
+                                @RequestParam(required = false) String direction,
+                                @RequestParam(required = false) String total,
                                 Model model) {
-        List<StudentDormitory> assignments;
-        
-        if (status != null && !status.trim().isEmpty()) {
-            assignments = studentDormitoryService.findByStatus(
-                    StudentDormitory.AssignmentStatus.valueOf(status.toUpperCase()));
-        } else if (building != null && !building.trim().isEmpty()) {
-            assignments = studentDormitoryService.findAll();
-            assignments.removeIf(a -> !a.getDormitory().getBuildingName().equals(building));
-        } else {
-            assignments = studentDormitoryService.findAll();
-        }
+        KeysetPage<AssignmentSummary> page = studentDormitoryService.findPage(
+                status != null && !status.trim().isEmpty()
+                        ? StudentDormitory.AssignmentStatus.valueOf(status.toUpperCase()) : null,
+                building, keyword, new KeysetPageRequest(cursor, size, sort, direction, KeysetPageLinks.total(total)));
         
-        model.addAttribute("assignments", assignments);
+        model.addAttribute("assignments", page.getContent());
+        KeysetPageLinks.addTo(model, page);
         model.addAttribute("currentStatus", status);
         model.addAttribute("currentBuilding", building);
+        model.addAttribute("keyword", keyword);
         
-        // 获取所有宿舍楼名称用于筛选
-        List<Object[]> buildingStats = dormitoryService.countDormitoriesByBuilding();
-        model.addAttribute("buildings", buildingStats);
+        // 获取所有宿舍楼名称用于筛选（筛选框命中片段缓存时不查询）
+        model.addAttribute("buildings", LazyAttributes.of(dormitoryService::countDormitoriesByBuilding));
         
         return "admin/assignments/list";
     }
@@ -67,7 +77,7 @@ public class StudentDormitoryController {
     @GetMapping("/create")
     public String createAssignmentForm(Model model) {
         model.addAttribute("assignment", new StudentDormitory());
-        model.addAttribute("students", userService.findByRole(User.Role.STUDENT));
+        model.addAttribute("students", userService.findStudentsWithoutDormitory());
         model.addAttribute("dormitories", dormitoryService.findAvailableDormitories());
         
         return "admin/assignments/form";
@@ -181,19 +191,29 @@ public class StudentDormitoryController {
      */
     @GetMapping("/statistics")
     public String assignmentStatistics(Model model) {
+        PageDataLoader.PageLoad load = pageDataLoader.start();
+        
         // 各宿舍楼入住学生统计
-        model.addAttribute("buildingStats", studentDormitoryService.countActiveStudentsByBuilding());
+        load.add("buildingStats", studentDormitoryService::countActiveStudentsByBuilding, List.of());
         
         // 各专业入住学生统计
-        model.addAttribute("majorStats", studentDormitoryService.countActiveStudentsByMajor());
+        load.add("majorStats", studentDormitoryService::countActiveStudentsByMajor, List.of());
         
         // 各班级入住学生统计
-        model.addAttribute("classStats", studentDormitoryService.countActiveStudentsByClass());
+        load.add("classStats", studentDormitoryService::countActiveStudentsByClass, List.of());
+        
+        // 分配状态统计（按状态分组计数，不加载分配记录）
+        PageDataLoader.Section<List<Object[]>> statusStats =
+                load.add("statusStats", studentDormitoryService::countAssignmentsByStatus, List.of());
         
-        // 分配状态统计
-        model.addAttribute("activeCount", studentDormitoryService.findByStatus(StudentDormitory.AssignmentStatus.ACTIVE).size());
-        model.addAttribute("completedCount", studentDormitoryService.findByStatus(StudentDormitory.AssignmentStatus.COMPLETED).size());
-        model.addAttribute("cancelledCount", studentDormitoryService.findByStatus(StudentDormitory.AssignmentStatus.CANCELLED).size());
+        load.into(model);
+        Map<StudentDormitory.AssignmentStatus, Long> statusCounts = new EnumMap<>(StudentDormitory.AssignmentStatus.class);
+        for (Object[] row : statusStats.get()) {
+            statusCounts.put((StudentDormitory.AssignmentStatus) row[0], (Long) row[1]);
+        }
+        model.addAttribute("activeCount", statusCounts.getOrDefault(StudentDormitory.AssignmentStatus.ACTIVE, 0L));
+        model.addAttribute("completedCount", statusCounts.getOrDefault(StudentDormitory.AssignmentStatus.COMPLETED, 0L));
+        model.addAttribute("cancelledCount", statusCounts.getOrDefault(StudentDormitory.AssignmentStatus.CANCELLED, 0L));
         
         return "admin/assignments/statistics";
     }
@@ -1,6 +1,8 @@
 package com.dormitory.controller;
 
 import com.dormitory.entity.User;
+import com.dormitory.service.KeysetPage;
+import com.dormitory.service.KeysetPageRequest;
 import com.dormitory.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
@@ -27,18 +29,18 @@ public class UserController {
     @GetMapping
     public String userList(@RequestParam(required = false) String role,
                           @RequestParam(required = false) String keyword,
+                          @RequestParam(required = false) String cursor,
+                          @RequestParam(required = false) Integer size,
+                          @RequestParam(required = false) String sort,
+                          @RequestParam(required = false) String direction,
+                          @RequestParam(required = false) String total,
                           Model model) {
-        List<User> users;
+        KeysetPage<User> page = userService.findPage(
+                role != null && !role.trim().isEmpty() ? User.Role.valueOf(role.toUpperCase()) : null,
+                keyword, new KeysetPageRequest(cursor, size, sort, direction, KeysetPageLinks.total(total)));
         
-        if (keyword != null && !keyword.trim().isEmpty()) {
-            users = userService.searchUsers(keyword);
-        } else if (role != null && !role.trim().isEmpty()) {
-            users = userService.findByRole(User.Role.valueOf(role.toUpperCase()));
-        } else {
-            users = userService.findAll();
-        }
-        
-        model.addAttribute("users", users);
+        model.addAttribute("users", page.getContent());
+        KeysetPageLinks.addTo(model, page);
         model.addAttribute("currentRole", role);
         model.addAttribute("keyword", keyword);
         
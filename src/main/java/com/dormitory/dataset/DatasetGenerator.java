@@ -0,0 +1,606 @@
+package com.dormitory.dataset;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+/**
+ * 数据集生成器
+ *
+ * 通过 JDBC 批量插入写入演示账号、演示宿舍，以及按 {@link DatasetProperties} 规模生成的模拟数据，每种密码的哈希只计算一次。
+ * 模拟数据先在内存中规划再分批写入，保证：
+ * <ul>
+ *     <li>当前入住的学生每人只有一条有效分配，宿舍入住人数与有效分配一致，住满的宿舍状态为 FULL</li>
+ *     <li>历史分配按学年入住、次年七月退宿，少数中途取消</li>
+ *     <li>维修申请落在学生入住该宿舍期间，开学季多、暑假少；处理状态随申请时间远近变化</li>
+ * </ul>
+ * 维修申请边生成边写入，内存占用与申请数量无关。随机数种子固定，相同配置生成的数据相同。
+ */
+public class DatasetGenerator {
+    
+    private static final Logger log = LoggerFactory.getLogger(DatasetGenerator.class);
+    
+    static final String ADMIN_PASSWORD = "admin123";
+    
+    static final String STUDENT_PASSWORD = "student123";
+    
+    private static final int ROOMS_PER_FLOOR = 30;
+    
+    private static final Weighted<String> MAJORS = new Weighted<>(
+            new String[]{"计算机科学与技术", "软件工程", "网络工程", "电子信息工程", "通信工程", "机械工程",
+                    "土木工程", "会计学", "金融学", "英语", "法学", "临床医学"},
+            new int[]{14, 12, 6, 8, 6, 10, 8, 9, 7, 6, 6, 8});
+    
+    private static final String[] SURNAMES = {"王", "李", "张", "刘", "陈", "杨", "黄", "赵", "吴", "周",
+            "徐", "孙", "马", "朱", "胡", "郭", "何", "高", "林", "罗"};
+    
+    private static final String[] GIVEN_NAMES = {"伟", "芳", "娜", "敏", "静", "磊", "洋", "艳", "勇", "军",
+            "杰", "娟", "涛", "明", "超", "秀", "霞", "平", "刚", "桂", "晨", "宇", "浩", "婷", "欣", "博", "雪", "睿"};
+    
+    // 各宿舍楼统一的房型：床位数及对应的月租、描述
+    private static final Weighted<Integer> ROOM_SIZES = new Weighted<>(new Integer[]{4, 6, 2, 1}, new int[]{60, 20, 15, 5});
+    
+    private static final Weighted<String> REPAIR_TYPES = new Weighted<>(
+            new String[]{"PLUMBING", "ELECTRICAL", "FURNITURE", "APPLIANCE", "OTHER"}, new int[]{28, 26, 16, 20, 10});
+    
+    private static final Weighted<String> PRIORITIES = new Weighted<>(
+            new String[]{"LOW", "MEDIUM", "HIGH", "URGENT"}, new int[]{30, 45, 20, 5});
+    
+    private static final String[][] PROBLEMS = {
+            {"水龙头漏水", "下水道堵塞", "马桶冲水故障", "淋浴喷头损坏", "洗手池排水慢"},
+            {"灯管不亮", "插座没电", "空气开关频繁跳闸", "开关损坏", "网络端口无信号"},
+            {"床板断裂", "衣柜门脱落", "书桌抽屉损坏", "椅子腿松动", "门锁损坏"},
+            {"空调不制冷", "空调漏水", "热水器不出热水", "风扇不转", "饮水机不加热"},
+            {"窗户关不严", "墙皮脱落", "纱窗破损", "天花板渗水", "门禁卡失效"}};
+    
+    private static final double[] REPAIR_BASE_COST = {80, 60, 150, 200, 50};
+    
+    // 各月维修申请的相对数量（1 月至 12 月），开学季最多，暑假最少
+    private static final double[] MONTH_WEIGHTS = {0.5, 0.6, 1.4, 1.1, 1.0, 1.0, 0.4, 0.3, 1.6, 1.3, 1.1, 0.9};
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    private final TransactionTemplate transactionTemplate;
+    
+    private final PasswordEncoder passwordEncoder;
+    
+    private final DatasetProperties properties;
+    
+    public DatasetGenerator(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                            PasswordEncoder passwordEncoder, DatasetProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.passwordEncoder = passwordEncoder;
+        this.properties = properties;
+    }
+    
+    /**
+     * 数据库中是否还没有用户
+     */
+    public boolean isEmpty() {
+        Integer users = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Integer.class);
+        return users == null || users == 0;
+    }
+    
+    /**
+     * 写入演示数据和模拟数据
+     */
+    public void generate() {
+        long start = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+        String adminPassword = passwordEncoder.encode(ADMIN_PASSWORD);
+        String studentPassword = passwordEncoder.encode(STUDENT_PASSWORD);
+        
+        long demoAdminId = generateDemo(now, adminPassword, studentPassword);
+        if (properties.getStudents() > 0 && properties.getRooms() > 0) {
+            new Plan(new Random(properties.getSeed()), now).write(demoAdminId, adminPassword, studentPassword);
+        }
+        log.info("数据集生成完成，耗时 {} 秒", (System.nanoTime() - start) / 1_000_000_000);
+    }
+    
+    /**
+     * 演示账号和宿舍：admin、student～student4，A、B、C 栋共 6 间宿舍，4 名学生已入住
+     *
+     * @return 演示管理员的 ID
+     */
+    private long generateDemo(LocalDateTime now, String adminPassword, String studentPassword) {
+        Timestamp time = Timestamp.valueOf(now);
+        List<Object[]> users = List.of(
+                new Object[]{"admin", adminPassword, "系统管理员", "admin@dormitory.com", "13800138000", "ADMIN",
+                        time, time, null, null, null, "后勤管理处", "系统管理员"},
+                new Object[]{"student", studentPassword, "张三", "zhangsan@student.com", "13800138001", "STUDENT",
+                        time, time, "2024001", "计算机科学与技术1班", "计算机科学与技术", null, null},
+                new Object[]{"student2", studentPassword, "李四", "lisi@student.com", "13800138002", "STUDENT",
+                        time, time, "2024002", "软件工程1班", "软件工程", null, null},
+                new Object[]{"student3", studentPassword, "王五", "wangwu@student.com", "13800138003", "STUDENT",
+                        time, time, "2024003", "网络工程1班", "网络工程", null, null},
+                new Object[]{"student4", studentPassword, "赵六", "zhaoliu@student.com", "13800138004", "STUDENT",
+                        time, time, "2024004", "计算机科学与技术1班", "计算机科学与技术", null, null});
+        long[] userIds = insertRows("users", "INSERT INTO users (username, password, real_name, email, phone, role, "
+                + "created_at, updated_at, student_id, class_name, major, department, position, id) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", users);
+        
+        String quad = "四人间，配备空调、热水器、独立卫生间";
+        List<Object[]> dormitories = List.of(
+                new Object[]{"A栋", "101", 4, 2, "MALE", 500.0, quad, time, time},
+                new Object[]{"A栋", "102", 4, 1, "MALE", 500.0, quad, time, time},
+                new Object[]{"A栋", "103", 4, 0, "MALE", 500.0, quad, time, time},
+                new Object[]{"B栋", "201", 4, 0, "FEMALE", 500.0, quad, time, time},
+                new Object[]{"B栋", "202", 4, 0, "FEMALE", 500.0, quad, time, time},
+                new Object[]{"C栋", "301", 2, 1, "MALE", 800.0, "双人间，配备空调、热水器、独立卫生间、阳台", time, time});
+        long[] dormitoryIds = insertRows("dormitories", "INSERT INTO dormitories (building_name, room_number, capacity, "
+                + "current_occupancy, type, monthly_rent, description, status, created_at, updated_at, id) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, 'AVAILABLE', ?, ?, ?)", dormitories);
+        
+        LocalDate today = now.toLocalDate();
+        List<Object[]> assignments = List.of(
+                new Object[]{userIds[1], dormitoryIds[0], Date.valueOf(today.minusDays(30)), 500.0, time, time},
+                new Object[]{userIds[2], dormitoryIds[0], Date.valueOf(today.minusDays(25)), 500.0, time, time},
+                new Object[]{userIds[3], dormitoryIds[1], Date.valueOf(today.minusDays(20)), 500.0, time, time},
+                new Object[]{userIds[4], dormitoryIds[5], Date.valueOf(today.minusDays(15)), 800.0, time, time});
+        insertRows("student_dormitories", "INSERT INTO student_dormitories (student_id, dormitory_id, check_in_date, "
+                + "status, monthly_fee, created_at, updated_at, id) VALUES (?, ?, ?, 'ACTIVE', ?, ?, ?, ?)", assignments);
+        return userIds[0];
+    }
+    
+    /**
+     * 模拟数据的规划和写入
+     */
+    private final class Plan {
+        
+        private final Random random;
+        
+        private final LocalDateTime now;
+        
+        private final LocalDate today;
+        
+        // 当前学年开始的年份（九月开学）
+        private final int academicYear;
+        
+        // 宿舍：按下标对应
+        private String[] roomBuilding;
+        
+        private String[] roomNumber;
+        
+        private String[] roomType;
+        
+        private String[] roomStatus;
+        
+        private int[] roomCapacity;
+        
+        private int[] roomOccupancy;
+        
+        private long[] roomIds;
+        
+        // 学生：入学年份和 ID
+        private int[] studentCohort;
+        
+        private long[] studentIds;
+        
+        // 分配记录：前 activeCount 条为当前入住
+        private int assignmentCount;
+        
+        private int activeCount;
+        
+        private int[] assignmentStudent;
+        
+        private int[] assignmentRoom;
+        
+        private int[] assignmentCheckIn;
+        
+        private int[] assignmentCheckOut;
+        
+        private boolean[] assignmentCancelled;
+        
+        Plan(Random random, LocalDateTime now) {
+            this.random = random;
+            this.now = now;
+            this.today = now.toLocalDate();
+            this.academicYear = today.getMonthValue() >= 9 ? today.getYear() : today.getYear() - 1;
+        }
+        
+        void write(long demoAdminId, String adminPassword, String studentPassword) {
+            long[] adminIds = writeAdmins(demoAdminId, adminPassword);
+            writeStudents(studentPassword);
+            log.info("已写入 {} 名学生", studentIds.length);
+            planRooms();
+            planAssignments();
+            writeRooms();
+            log.info("已写入 {} 间宿舍", roomIds.length);
+            writeAssignments();
+            log.info("已写入 {} 条分配记录，其中当前入住 {} 条", assignmentCount, activeCount);
+            if (assignmentCount > 0) {
+                writeRepairRequests(adminIds);
+                log.info("已写入 {} 条维修申请", properties.getRepairRequests());
+            }
+        }
+        
+        private long[] writeAdmins(long demoAdminId, String adminPassword) {
+            Timestamp time = Timestamp.valueOf(now);
+            List<Object[]> admins = new ArrayList<>();
+            for (int i = 1; i <= properties.getAdmins(); i++) {
+                String username = String.format("admin%03d", i);
+                admins.add(new Object[]{username, adminPassword, name(), username + "@dormitory.com", phone(),
+                        time, time, "后勤管理处", i % 5 == 0 ? "宿舍管理员" : "维修员"});
+            }
+            long[] ids = insertRows("users", "INSERT INTO users (username, password, real_name, email, phone, role, "
+                    + "created_at, updated_at, department, position, id) VALUES (?, ?, ?, ?, ?, 'ADMIN', ?, ?, ?, ?, ?)", admins);
+            long[] adminIds = Arrays.copyOf(ids, ids.length + 1);
+            adminIds[ids.length] = demoAdminId;
+            return adminIds;
+        }
+        
+        /**
+         * 学生分四个年级，学号为入学年份 + 专业编号 + 序号
+         */
+        private void writeStudents(String studentPassword) {
+            int count = properties.getStudents();
+            Weighted<Integer> cohorts = new Weighted<>(
+                    new Integer[]{academicYear - 3, academicYear - 2, academicYear - 1, academicYear}, new int[]{23, 24, 26, 27});
+            studentCohort = new int[count];
+            int[] major = new int[count];
+            for (int i = 0; i < count; i++) {
+                studentCohort[i] = cohorts.pick(random);
+                major[i] = MAJORS.pickIndex(random);
+            }
+            Timestamp time = Timestamp.valueOf(now);
+            studentIds = insertBatches("users", "INSERT INTO users (username, password, real_name, email, phone, role, "
+                    + "created_at, updated_at, student_id, class_name, major, id) "
+                    + "VALUES (?, ?, ?, ?, ?, 'STUDENT', ?, ?, ?, ?, ?, ?)", count, (ps, i) -> {
+                String studentNumber = String.format("%d%02d%06d", studentCohort[i], major[i] + 1, i);
+                String username = "s" + studentNumber;
+                ps.setString(1, username);
+                ps.setString(2, studentPassword);
+                ps.setString(3, name());
+                ps.setString(4, username + "@student.com");
+                ps.setString(5, phone());
+                ps.setTimestamp(6, time);
+                ps.setTimestamp(7, time);
+                ps.setString(8, studentNumber);
+                ps.setString(9, String.format("%s%02d级%d班", MAJORS.values[major[i]], studentCohort[i] % 100, random.nextInt(6) + 1));
+                ps.setString(10, MAJORS.values[major[i]]);
+            });
+        }
+        
+        /**
+         * 宿舍平均分到各楼，同一栋楼房型相同，每 10 栋中有 1 栋混合楼，其余男女交替；少数宿舍维修中或停用
+         */
+        private void planRooms() {
+            int rooms = properties.getRooms();
+            int buildings = Math.max(1, Math.min(properties.getBuildings(), rooms));
+            roomBuilding = new String[rooms];
+            roomNumber = new String[rooms];
+            roomType = new String[rooms];
+            roomStatus = new String[rooms];
+            roomCapacity = new int[rooms];
+            roomOccupancy = new int[rooms];
+            int index = 0;
+            for (int building = 0; building < buildings; building++) {
+                int count = rooms / buildings + (building < rooms % buildings ? 1 : 0);
+                int capacity = ROOM_SIZES.pick(random);
+                String type = building % 10 == 9 ? "MIXED" : building % 2 == 0 ? "MALE" : "FEMALE";
+                for (int k = 0; k < count; k++, index++) {
+                    roomBuilding[index] = (building + 1) + "号楼";
+                    roomNumber[index] = String.valueOf((k / ROOMS_PER_FLOOR + 1) * 100 + k % ROOMS_PER_FLOOR + 1);
+                    roomType[index] = type;
+                    roomCapacity[index] = capacity;
+                    int roll = random.nextInt(1000);
+                    roomStatus[index] = roll < 20 ? "MAINTENANCE" : roll < 25 ? "CLOSED" : "AVAILABLE";
+                }
+            }
+        }
+        
+        /**
+         * 当前入住：可用床位按入住率安排学生，先随机填充各宿舍，再补满直到人数够；
+         * 历史记录：往届学年入住、次年七月退宿，约 8% 在入住后一两个月内取消
+         */
+        private void planAssignments() {
+            int[] availableRooms = indexes(roomStatus.length, i -> "AVAILABLE".equals(roomStatus[i]));
+            long beds = Arrays.stream(availableRooms).mapToLong(i -> roomCapacity[i]).sum();
+            int students = studentCohort.length;
+            activeCount = (int) Math.min(Math.min(students, properties.getAssignments()),
+                    Math.round(beds * properties.getOccupancyRate()));
+            
+            int[] olderStudents = indexes(students, i -> studentCohort[i] < academicYear);
+            int[] openRooms = indexes(roomStatus.length, i -> !"CLOSED".equals(roomStatus[i]));
+            int historyCount = olderStudents.length == 0 ? 0 : Math.max(0, properties.getAssignments() - activeCount);
+            assignmentCount = activeCount + historyCount;
+            assignmentStudent = new int[assignmentCount];
+            assignmentRoom = new int[assignmentCount];
+            assignmentCheckIn = new int[assignmentCount];
+            assignmentCheckOut = new int[assignmentCount];
+            assignmentCancelled = new boolean[assignmentCount];
+            
+            int[] activeStudents = shuffle(indexes(students, i -> true));
+            shuffle(availableRooms);
+            int assigned = 0;
+            for (int pass = 0; pass < 2 && assigned < activeCount; pass++) {
+                for (int room : availableRooms) {
+                    int target = pass == 0 && random.nextInt(10) >= 7 ? random.nextInt(roomCapacity[room]) : roomCapacity[room];
+                    while (roomOccupancy[room] < target && assigned < activeCount) {
+                        LocalDate checkIn = LocalDate.of(academicYear, 9, 1).plusDays(random.nextInt(14));
+                        assignmentStudent[assigned] = activeStudents[assigned];
+                        assignmentRoom[assigned] = room;
+                        assignmentCheckIn[assigned] = (int) (checkIn.isAfter(today) ? today : checkIn).toEpochDay();
+                        assignmentCheckOut[assigned] = (int) today.toEpochDay();
+                        roomOccupancy[room]++;
+                        assigned++;
+                    }
+                }
+            }
+            activeCount = assigned;
+            assignmentCount = activeCount + historyCount;
+            
+            for (int i = activeCount; i < assignmentCount; i++) {
+                int student = olderStudents[random.nextInt(olderStudents.length)];
+                int year = studentCohort[student] + random.nextInt(academicYear - studentCohort[student]);
+                LocalDate checkIn = LocalDate.of(year, 9, 1).plusDays(random.nextInt(14));
+                boolean cancelled = random.nextInt(100) < 8;
+                LocalDate checkOut = cancelled ? checkIn.plusDays(10 + random.nextInt(50))
+                        : LocalDate.of(year + 1, 7, 1).plusDays(random.nextInt(14));
+                assignmentStudent[i] = student;
+                assignmentRoom[i] = openRooms[random.nextInt(openRooms.length)];
+                assignmentCheckIn[i] = (int) checkIn.toEpochDay();
+                assignmentCheckOut[i] = (int) (checkOut.isAfter(today) ? today : checkOut).toEpochDay();
+                assignmentCancelled[i] = cancelled;
+            }
+        }
+        
+        private void writeRooms() {
+            Timestamp time = Timestamp.valueOf(now);
+            roomIds = insertBatches("dormitories", "INSERT INTO dormitories (building_name, room_number, capacity, "
+                    + "current_occupancy, type, monthly_rent, description, status, created_at, updated_at, id) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", roomBuilding.length, (ps, i) -> {
+                boolean full = "AVAILABLE".equals(roomStatus[i]) && roomOccupancy[i] >= roomCapacity[i];
+                ps.setString(1, roomBuilding[i]);
+                ps.setString(2, roomNumber[i]);
+                ps.setInt(3, roomCapacity[i]);
+                ps.setInt(4, roomOccupancy[i]);
+                ps.setString(5, roomType[i]);
+                ps.setDouble(6, rent(roomCapacity[i]));
+                ps.setString(7, description(roomCapacity[i]));
+                ps.setString(8, full ? "FULL" : roomStatus[i]);
+                ps.setTimestamp(9, time);
+                ps.setTimestamp(10, time);
+            });
+        }
+        
+        private void writeAssignments() {
+            insertBatches("student_dormitories", "INSERT INTO student_dormitories (student_id, dormitory_id, check_in_date, "
+                    + "check_out_date, status, monthly_fee, notes, created_at, updated_at, id) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", assignmentCount, (ps, i) -> {
+                boolean active = i < activeCount;
+                LocalDate checkIn = LocalDate.ofEpochDay(assignmentCheckIn[i]);
+                LocalDate checkOut = LocalDate.ofEpochDay(assignmentCheckOut[i]);
+                ps.setLong(1, studentIds[assignmentStudent[i]]);
+                ps.setLong(2, roomIds[assignmentRoom[i]]);
+                ps.setDate(3, Date.valueOf(checkIn));
+                if (active) {
+                    ps.setNull(4, Types.DATE);
+                } else {
+                    ps.setDate(4, Date.valueOf(checkOut));
+                }
+                ps.setString(5, active ? "ACTIVE" : assignmentCancelled[i] ? "CANCELLED" : "COMPLETED");
+                ps.setDouble(6, rent(roomCapacity[assignmentRoom[i]]));
+                ps.setString(7, assignmentCancelled[i] ? "学生申请取消住宿" : null);
+                ps.setTimestamp(8, Timestamp.valueOf(checkIn.atTime(9, 0)));
+                ps.setTimestamp(9, Timestamp.valueOf((active ? checkIn : checkOut).atTime(9, 0)));
+            });
+        }
+        
+        /**
+         * 维修申请：随机选一条分配记录，在其入住期间按月份权重取申请日期
+         */
+        private void writeRepairRequests(long[] adminIds) {
+            insertBatches("repair_requests", "INSERT INTO repair_requests (student_id, dormitory_id, description, type, "
+                    + "status, priority, admin_notes, repair_cost, requested_at, assigned_at, completed_at, "
+                    + "assigned_admin_id, created_at, updated_at, id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                    properties.getRepairRequests(), (ps, i) -> {
+                int assignment = random.nextInt(assignmentCount);
+                LocalDateTime requestedAt = requestTime(assignmentCheckIn[assignment], assignmentCheckOut[assignment]);
+                int type = REPAIR_TYPES.pickIndex(random);
+                String status = repairStatus(ChronoUnit.DAYS.between(requestedAt, now));
+                boolean handled = "IN_PROGRESS".equals(status) || "COMPLETED".equals(status);
+                LocalDateTime assignedAt = handled ? before(requestedAt.plusMinutes(30 + random.nextInt(48 * 60))) : null;
+                LocalDateTime completedAt = "COMPLETED".equals(status)
+                        ? before(assignedAt.plusMinutes(60 + random.nextInt(5 * 24 * 60))) : null;
+                LocalDateTime updatedAt = completedAt != null ? completedAt : assignedAt != null ? assignedAt : requestedAt;
+                
+                ps.setLong(1, studentIds[assignmentStudent[assignment]]);
+                ps.setLong(2, roomIds[assignmentRoom[assignment]]);
+                ps.setString(3, PROBLEMS[type][random.nextInt(PROBLEMS[type].length)]);
+                ps.setString(4, REPAIR_TYPES.values[type]);
+                ps.setString(5, status);
+                ps.setString(6, PRIORITIES.pick(random));
+                ps.setString(7, "COMPLETED".equals(status) ? "已处理完毕" : "CANCELLED".equals(status) ? "学生撤销申请" : null);
+                if (completedAt != null) {
+                    ps.setDouble(8, Math.round(REPAIR_BASE_COST[type] * (0.5 + random.nextDouble())));
+                } else {
+                    ps.setNull(8, Types.DOUBLE);
+                }
+                ps.setTimestamp(9, Timestamp.valueOf(requestedAt));
+                ps.setTimestamp(10, assignedAt == null ? null : Timestamp.valueOf(assignedAt));
+                ps.setTimestamp(11, completedAt == null ? null : Timestamp.valueOf(completedAt));
+                if (handled) {
+                    ps.setLong(12, adminIds[random.nextInt(adminIds.length)]);
+                } else {
+                    ps.setNull(12, Types.BIGINT);
+                }
+                ps.setTimestamp(13, Timestamp.valueOf(requestedAt));
+                ps.setTimestamp(14, Timestamp.valueOf(updatedAt));
+            });
+        }
+        
+        /**
+         * 在 [from, to] 的日期范围内按月份权重取一天，时间在 8 点至 22 点之间，不晚于当前时间
+         */
+        private LocalDateTime requestTime(int from, int to) {
+            LocalDate day = LocalDate.ofEpochDay(from);
+            for (int attempt = 0; attempt < 8; attempt++) {
+                day = LocalDate.ofEpochDay(from + random.nextInt(to - from + 1));
+                if (random.nextDouble() * 1.6 < MONTH_WEIGHTS[day.getMonthValue() - 1]) {
+                    break;
+                }
+            }
+            return before(day.atTime(8, 0).plusMinutes(random.nextInt(14 * 60)));
+        }
+        
+        /**
+         * 一个月前的申请基本已处理完；一周内的多数还在等待或处理中
+         */
+        private String repairStatus(long ageDays) {
+            int roll = random.nextInt(100);
+            if (ageDays > 30) {
+                return roll < 90 ? "COMPLETED" : "CANCELLED";
+            }
+            if (ageDays > 7) {
+                return roll < 60 ? "COMPLETED" : roll < 85 ? "IN_PROGRESS" : roll < 95 ? "PENDING" : "CANCELLED";
+            }
+            return roll < 50 ? "PENDING" : roll < 85 ? "IN_PROGRESS" : "COMPLETED";
+        }
+        
+        private LocalDateTime before(LocalDateTime time) {
+            return time.isAfter(now) ? now.minusMinutes(random.nextInt(60)) : time;
+        }
+        
+        private String name() {
+            String given = GIVEN_NAMES[random.nextInt(GIVEN_NAMES.length)];
+            if (random.nextBoolean()) {
+                given += GIVEN_NAMES[random.nextInt(GIVEN_NAMES.length)];
+            }
+            return SURNAMES[random.nextInt(SURNAMES.length)] + given;
+        }
+        
+        private String phone() {
+            return String.format("1%d%09d", 3 + random.nextInt(7), random.nextInt(1_000_000_000));
+        }
+        
+        private int[] shuffle(int[] values) {
+            for (int i = values.length - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int value = values[i];
+                values[i] = values[j];
+                values[j] = value;
+            }
+            return values;
+        }
+    }
+    
+    private static double rent(int capacity) {
+        return switch (capacity) {
+            case 1 -> 1500.0;
+            case 2 -> 1000.0;
+            case 6 -> 450.0;
+            default -> 600.0;
+        };
+    }
+    
+    private static String description(int capacity) {
+        return switch (capacity) {
+            case 1 -> "单人间，配备空调、热水器、独立卫生间、书桌";
+            case 2 -> "双人间，配备空调、热水器、独立卫生间、阳台";
+            case 6 -> "六人间，配备空调、公共卫生间";
+            default -> "四人间，配备空调、热水器、独立卫生间";
+        };
+    }
+    
+    private static int[] indexes(int size, IntPredicate filter) {
+        return IntStream.range(0, size).filter(filter).toArray();
+    }
+    
+    /**
+     * 插入少量行；SQL 的最后一个参数为主键，从 id_generators 预留
+     *
+     * @return 按行顺序的主键
+     */
+    private long[] insertRows(String table, String sql, List<Object[]> rows) {
+        return insertBatches(table, sql, rows.size(), (ps, i) -> {
+            Object[] row = rows.get(i);
+            for (int column = 0; column < row.length; column++) {
+                ps.setObject(column + 1, row[column]);
+            }
+        });
+    }
+    
+    /**
+     * 分批插入，每批一个事务；SQL 的最后一个参数为主键，先从 id_generators 一次预留全部主键
+     *
+     * @return 按行顺序的主键
+     */
+    private long[] insertBatches(String table, String sql, int rows, RowBinder binder) {
+        long first = transactionTemplate.execute(status -> IdBlocks.reserve(jdbcTemplate, table, rows));
+        int idIndex = (int) sql.chars().filter(c -> c == '?').count();
+        int batchSize = Math.max(1, properties.getBatchSize());
+        for (int from = 0; from < rows; from += batchSize) {
+            int offset = from;
+            int size = Math.min(batchSize, rows - from);
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    binder.bind(ps, offset + i);
+                    ps.setLong(idIndex, first + offset + i);
+                }
+                
+                @Override
+                public int getBatchSize() {
+                    return size;
+                }
+            }));
+        }
+        return LongStream.range(first, first + rows).toArray();
+    }
+    
+    @FunctionalInterface
+    private interface RowBinder {
+        void bind(PreparedStatement ps, int row) throws SQLException;
+    }
+    
+    /**
+     * 按权重随机取值
+     */
+    private static final class Weighted<T> {
+        
+        private final T[] values;
+        
+        private final int[] cumulative;
+        
+        Weighted(T[] values, int[] weights) {
+            this.values = values;
+            this.cumulative = new int[weights.length];
+            int total = 0;
+            for (int i = 0; i < weights.length; i++) {
+                total += weights[i];
+                cumulative[i] = total;
+            }
+        }
+        
+        T pick(Random random) {
+            return values[pickIndex(random)];
+        }
+        
+        int pickIndex(Random random) {
+            int roll = random.nextInt(cumulative[cumulative.length - 1]);
+            int index = Arrays.binarySearch(cumulative, roll + 1);
+            return index >= 0 ? index : -index - 1;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.dormitory.dataset;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 模拟数据生成配置
+ *
+ * 数量均为 0 时只写入演示账号和宿舍；生产规模的数据见 application-large.yml。
+ */
+@ConfigurationProperties(prefix = "dormitory.dataset")
+public class DatasetProperties {
+    
+    // 随机数种子，相同配置生成的数据相同
+    private long seed = 20240901L;
+    
+    // 每批插入的行数，每批一个事务
+    private int batchSize = 1000;
+    
+    // 模拟管理员数量（处理维修申请）
+    private int admins;
+    
+    // 模拟学生数量
+    private int students;
+    
+    // 宿舍楼数量
+    private int buildings;
+    
+    // 宿舍数量，平均分到各宿舍楼
+    private int rooms;
+    
+    // 分配记录总数（含当前入住和历史记录）
+    private int assignments;
+    
+    // 维修申请数量
+    private int repairRequests;
+    
+    // 可用宿舍床位的入住率，决定当前入住的学生数
+    private double occupancyRate = 0.85;
+    
+    public long getSeed() {
+        return seed;
+    }
+    
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+    
+    public int getBatchSize() {
+        return batchSize;
+    }
+    
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+    
+    public int getAdmins() {
+        return admins;
+    }
+    
+    public void setAdmins(int admins) {
+        this.admins = admins;
+    }
+    
+    public int getStudents() {
+        return students;
+    }
+    
+    public void setStudents(int students) {
+        this.students = students;
+    }
+    
+    public int getBuildings() {
+        return buildings;
+    }
+    
+    public void setBuildings(int buildings) {
+        this.buildings = buildings;
+    }
+    
+    public int getRooms() {
+        return rooms;
+    }
+    
+    public void setRooms(int rooms) {
+        this.rooms = rooms;
+    }
+    
+    public int getAssignments() {
+        return assignments;
+    }
+    
+    public void setAssignments(int assignments) {
+        this.assignments = assignments;
+    }
+    
+    public int getRepairRequests() {
+        return repairRequests;
+    }
+    
+    public void setRepairRequests(int repairRequests) {
+        this.repairRequests = repairRequests;
+    }
+    
+    public double getOccupancyRate() {
+        return occupancyRate;
+    }
+    
+    public void setOccupancyRate(double occupancyRate) {
+        this.occupancyRate = occupancyRate;
+    }
+}
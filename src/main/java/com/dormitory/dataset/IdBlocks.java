@@ -0,0 +1,45 @@
+package com.dormitory.dataset;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 主键号段
+ *
+ * 实体主键由 Hibernate 表生成器从 id_generators 表按号段分配，绕过 Hibernate 直接插入数据的程序也从同一张表预留号段，
+ * 写入显式主键，避免与 Hibernate 已分配的主键冲突。表中保存的是下一个可用主键。
+ */
+public final class IdBlocks {
+    
+    private IdBlocks() {
+    }
+    
+    /**
+     * 为表预留 count 个连续主键；先加行锁再更新，并发写入时应在事务中调用
+     *
+     * @return 第一个主键
+     */
+    public static long reserve(JdbcTemplate jdbcTemplate, String table, int count) {
+        long next = jdbcTemplate.queryForObject(
+                "SELECT next_val FROM id_generators WHERE sequence_name = ? FOR UPDATE", Long.class, table);
+        jdbcTemplate.update("UPDATE id_generators SET next_val = ? WHERE sequence_name = ?", next + count, table);
+        return next;
+    }
+    
+    /**
+     * 为每行参数末尾追加预留的主键，对应 INSERT 语句最后一列 id
+     */
+    public static List<Object[]> withIds(JdbcTemplate jdbcTemplate, String table, List<Object[]> rows) {
+        long first = reserve(jdbcTemplate, table, rows.size());
+        List<Object[]> result = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            Object[] row = Arrays.copyOf(rows.get(i), rows.get(i).length + 1);
+            row[row.length - 1] = first + i;
+            result.add(row);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,110 @@
+package com.dormitory.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 按连接池大小限制并发取连接的数据源
+ *
+ * 虚拟线程模式下请求数不再受 Tomcat 线程池限制，成百上千个虚拟线程会同时向连接池要连接，连接池的等待超时较短，
+ * 高峰时大量请求直接失败。这里用公平信号量（许可数等于连接池大小）让它们按到达顺序排队，
+ * 拿到许可时连接池一定有空闲连接；连接关闭时归还许可。排队人数输出为 dormitory.jdbc.permits.waiting。
+ * 只由 VirtualThreadConfig 创建，Java 17 上没有虚拟线程模式，连接池不会被包装。
+ */
+public class ConnectionLimitingDataSource extends DelegatingDataSource implements AutoCloseable {
+    
+    private final Semaphore permits;
+    
+    private final long timeoutNanos;
+    
+    public ConnectionLimitingDataSource(DataSource target, String name, int maxConnections, Duration timeout,
+                                        MeterRegistry registry) {
+        super(target);
+        this.permits = new Semaphore(maxConnections, true);
+        this.timeoutNanos = timeout.toNanos();
+        Gauge.builder("dormitory.jdbc.permits.waiting", permits, Semaphore::getQueueLength)
+                .tag("pool", name)
+                .description("等待数据库连接许可的线程数")
+                .register(registry);
+    }
+    
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return releasing(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+    
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return releasing(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+    
+    private void acquire() throws SQLException {
+        try {
+            if (!permits.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS)) {
+                throw new SQLTransientConnectionException("等待数据库连接许可超时（" + Duration.ofNanos(timeoutNanos) + "）");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("等待数据库连接许可时被中断", e);
+        }
+    }
+    
+    /**
+     * 连接关闭时归还许可，重复关闭只归还一次
+     */
+    private Connection releasing(Connection connection) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if ("close".equals(method.getName()) && released.compareAndSet(false, true)) {
+                        try {
+                            connection.close();
+                        } finally {
+                            permits.release();
+                        }
+                        return null;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+    
+    /**
+     * 关闭应用时关闭底层连接池（HikariDataSource 实现 Closeable）
+     */
+    @Override
+    public void close() throws IOException {
+        if (getTargetDataSource() instanceof Closeable closeable) {
+            closeable.close();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.dormitory.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 读写分离数据源
+ *
+ * 每次取连接时按当前事务选择主库或从库：
+ * <ul>
+ *     <li>非只读事务和事务外的访问走主库；当前用户的写事务提交后记下时间</li>
+ *     <li>只读事务走从库，但当前用户在 sticky-window 内提交过写事务时走主库（读到自己刚写入的数据）</li>
+ *     <li>从库延迟超限或不可用时，只读事务也走主库</li>
+ * </ul>
+ * 须在事务开始之后才真正取连接，否则看不到事务的只读标记，因此外面包一层 LazyConnectionDataSourceProxy，
+ * 并把 Hibernate 的连接释放方式设为事务结束后释放（见 ReadReplicaConfig）。每次选择计入 dormitory.datasource.routing（target、reason）。
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+    
+    static final String PRIMARY = "primary";
+    
+    static final String REPLICA = "replica";
+    
+    private final long stickyWindowNanos;
+    
+    // 用户名 -> 最近一次提交写事务的时间（System.nanoTime）
+    private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+    
+    private final Counter writes;
+    
+    private final Counter reads;
+    
+    private final Counter stickyReads;
+    
+    private final Counter fallbackReads;
+    
+    private volatile boolean replicaAvailable = true;
+    
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, Duration stickyWindow,
+                                      MeterRegistry registry) {
+        setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        this.stickyWindowNanos = stickyWindow.toNanos();
+        this.writes = routing(registry, PRIMARY, "write", "写事务或事务外访问");
+        this.reads = routing(registry, REPLICA, "read", "只读事务");
+        this.stickyReads = routing(registry, PRIMARY, "sticky", "用户刚提交过写事务的只读事务");
+        this.fallbackReads = routing(registry, PRIMARY, "lag", "从库延迟超限或不可用时的只读事务");
+    }
+    
+    private static Counter routing(MeterRegistry registry, String target, String reason, String description) {
+        return Counter.builder("dormitory.datasource.routing")
+                .tag("target", target)
+                .tag("reason", reason)
+                .description("取连接时选择的数据库：" + description)
+                .register(registry);
+    }
+    
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String user = currentUser();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            writes.increment();
+            if (user != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        lastWrites.put(user, System.nanoTime());
+                    }
+                });
+            }
+            return PRIMARY;
+        }
+        if (!replicaAvailable) {
+            fallbackReads.increment();
+            return PRIMARY;
+        }
+        Long lastWrite = user != null ? lastWrites.get(user) : null;
+        if (lastWrite != null && System.nanoTime() - lastWrite < stickyWindowNanos) {
+            stickyReads.increment();
+            return PRIMARY;
+        }
+        reads.increment();
+        return REPLICA;
+    }
+    
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() ? authentication.getName() : null;
+    }
+    
+    /**
+     * 从库延迟检测结果
+     */
+    void setReplicaAvailable(boolean replicaAvailable) {
+        this.replicaAvailable = replicaAvailable;
+    }
+    
+    boolean isReplicaAvailable() {
+        return replicaAvailable;
+    }
+    
+    /**
+     * 清理已超出 sticky-window 的写入记录
+     */
+    void sweep() {
+        long now = System.nanoTime();
+        lastWrites.values().removeIf(lastWrite -> now - lastWrite >= stickyWindowNanos);
+    }
+}
@@ -0,0 +1,70 @@
+package com.dormitory.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+
+/**
+ * 从库复制延迟检测
+ *
+ * 按 lag-check-interval 在主库 replication_heartbeat 表写入当前时间，再从从库读回；两者之差即复制延迟，
+ * 精度为一个检测间隔。延迟超过 max-lag 或从库查询失败时，只读事务改回主库，下次检测正常后再切回。
+ * 延迟输出为 dormitory.datasource.replica.lag（秒），检测失败时为 NaN。
+ */
+public class ReplicaLagMonitor {
+    
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+    
+    private final JdbcTemplate primary;
+    
+    private final JdbcTemplate replica;
+    
+    private final ReadWriteRoutingDataSource routingDataSource;
+    
+    private final long maxLagMillis;
+    
+    private volatile double lagSeconds = Double.NaN;
+    
+    public ReplicaLagMonitor(DataSource primary, DataSource replica, ReadWriteRoutingDataSource routingDataSource,
+                             ReplicaProperties properties, MeterRegistry registry) {
+        this.primary = new JdbcTemplate(primary);
+        this.replica = new JdbcTemplate(replica);
+        this.routingDataSource = routingDataSource;
+        this.maxLagMillis = properties.getMaxLag().toMillis();
+        Gauge.builder("dormitory.datasource.replica.lag", this, monitor -> monitor.lagSeconds)
+                .description("从库复制延迟（秒）")
+                .baseUnit("seconds")
+                .register(registry);
+    }
+    
+    @Scheduled(fixedDelayString = "${dormitory.datasource.replica.lag-check-interval:PT1S}")
+    public void check() {
+        routingDataSource.sweep();
+        boolean available;
+        try {
+            primary.update("UPDATE replication_heartbeat SET beat_at = ? WHERE id = 1", System.currentTimeMillis());
+            Long beatAt = replica.queryForObject("SELECT beat_at FROM replication_heartbeat WHERE id = 1", Long.class);
+            long lag = Math.max(0, System.currentTimeMillis() - (beatAt != null ? beatAt : 0));
+            lagSeconds = lag / 1000.0;
+            available = lag <= maxLagMillis;
+            if (!available && routingDataSource.isReplicaAvailable()) {
+                log.warn("从库复制延迟 {} ms，超过 {} ms，只读事务改回主库", lag, maxLagMillis);
+            }
+        } catch (RuntimeException e) {
+            lagSeconds = Double.NaN;
+            available = false;
+            if (routingDataSource.isReplicaAvailable()) {
+                log.warn("从库延迟检测失败，只读事务改回主库: {}", e.getMessage());
+            }
+        }
+        if (available && !routingDataSource.isReplicaAvailable()) {
+            log.info("从库复制延迟恢复正常，只读事务切回从库");
+        }
+        routingDataSource.setReplicaAvailable(available);
+    }
+}
@@ -0,0 +1,89 @@
+package com.dormitory.datasource;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 读写分离配置
+ *
+ * 开启后只读事务访问从库，其余访问主库；从库连接池的 HikariCP 参数写在 dormitory.datasource.replica.hikari 下。
+ */
+@ConfigurationProperties(prefix = "dormitory.datasource.replica")
+public class ReplicaProperties {
+    
+    // 是否开启读写分离
+    private boolean enabled;
+    
+    // 从库连接地址
+    private String url;
+    
+    private String username;
+    
+    private String password;
+    
+    // 用户提交写事务后，此时间内的只读事务仍访问主库，保证用户能读到自己刚写入的数据
+    private Duration stickyWindow = Duration.ofSeconds(5);
+    
+    // 复制延迟超过此值（或检测失败）时只读事务改回主库，恢复后再切回从库
+    private Duration maxLag = Duration.ofSeconds(3);
+    
+    // 复制延迟检测间隔，也是延迟的检测精度
+    private Duration lagCheckInterval = Duration.ofSeconds(1);
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+    
+    public String getUrl() {
+        return url;
+    }
+    
+    public void setUrl(String url) {
+        this.url = url;
+    }
+    
+    public String getUsername() {
+        return username;
+    }
+    
+    public void setUsername(String username) {
+        this.username = username;
+    }
+    
+    public String getPassword() {
+        return password;
+    }
+    
+    public void setPassword(String password) {
+        this.password = password;
+    }
+    
+    public Duration getStickyWindow() {
+        return stickyWindow;
+    }
+    
+    public void setStickyWindow(Duration stickyWindow) {
+        this.stickyWindow = stickyWindow;
+    }
+    
+    public Duration getMaxLag() {
+        return maxLag;
+    }
+    
+    public void setMaxLag(Duration maxLag) {
+        this.maxLag = maxLag;
+    }
+    
+    public Duration getLagCheckInterval() {
+        return lagCheckInterval;
+    }
+    
+    public void setLagCheckInterval(Duration lagCheckInterval) {
+        this.lagCheckInterval = lagCheckInterval;
+    }
+}
@@ -4,6 +4,8 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -11,13 +13,19 @@ import java.util.List;
 
 /**
  * 宿舍实体类
+ *
+ * 宿舍很少变动，却在更新入住人数、创建维修申请等处频繁按ID读取，因此放入二级缓存（区域配置见 ehcache.xml）。
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "dormitory")
 @Table(name = "dormitories")
 public class Dormitory {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "dormitories")
+    @TableGenerator(name = "dormitories", table = "id_generators", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "dormitories", allocationSize = 50)
     private Long id;
     
     @NotBlank(message = "宿舍楼不能为空")
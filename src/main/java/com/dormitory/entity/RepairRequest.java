@@ -14,7 +14,9 @@ import java.time.LocalDateTime;
 public class RepairRequest {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "repair_requests")
+    @TableGenerator(name = "repair_requests", table = "id_generators", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "repair_requests", allocationSize = 50)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
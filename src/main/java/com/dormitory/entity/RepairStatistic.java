@@ -0,0 +1,94 @@
+package com.dormitory.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 维修申请统计计数实体类
+ *
+ * 每行保存某一统计维度下某个取值的维修申请数量，随维修申请的变更在同一事务中增量更新。
+ */
+@Entity
+@Table(name = "repair_statistics",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"dimension", "dimension_key"}))
+public class RepairStatistic {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "repair_statistics")
+    @TableGenerator(name = "repair_statistics", table = "id_generators", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "repair_statistics", allocationSize = 50)
+    private Long id;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Dimension dimension;
+    
+    // 维度取值：状态、类型、优先级为枚举名，宿舍楼为楼名，管理员为管理员ID
+    @Column(name = "dimension_key", nullable = false, length = 100)
+    private String dimensionKey;
+    
+    @Column(name = "request_count", nullable = false)
+    private Long requestCount = 0L;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    // 构造函数
+    public RepairStatistic() {
+        this.updatedAt = LocalDateTime.now();
+    }
+    
+    public RepairStatistic(Dimension dimension, String dimensionKey, Long requestCount) {
+        this();
+        this.dimension = dimension;
+        this.dimensionKey = dimensionKey;
+        this.requestCount = requestCount;
+    }
+    
+    // Getter和Setter方法
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Dimension getDimension() {
+        return dimension;
+    }
+    
+    public void setDimension(Dimension dimension) {
+        this.dimension = dimension;
+    }
+    
+    public String getDimensionKey() {
+        return dimensionKey;
+    }
+    
+    public void setDimensionKey(String dimensionKey) {
+        this.dimensionKey = dimensionKey;
+    }
+    
+    public Long getRequestCount() {
+        return requestCount;
+    }
+    
+    public void setRequestCount(Long requestCount) {
+        this.requestCount = requestCount;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+    
+    // 统计维度枚举
+    public enum Dimension {
+        STATUS, TYPE, PRIORITY, BUILDING, ADMIN
+    }
+}
@@ -14,7 +14,9 @@ import java.time.LocalDateTime;
 public class StudentDormitory {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "student_dormitories")
+    @TableGenerator(name = "student_dormitories", table = "id_generators", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "student_dormitories", allocationSize = 50)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
@@ -0,0 +1,57 @@
+package com.dormitory.event;
+
+import com.dormitory.entity.StudentDormitory;
+
+/**
+ * 宿舍分配变更事件（分配、退宿、取消）
+ */
+public class AssignmentChangedEvent {
+    
+    private final Long assignmentId;
+    
+    private final Long studentId;
+    
+    private final Long dormitoryId;
+    
+    // 变更前的状态（新建分配时为空）
+    private final StudentDormitory.AssignmentStatus previousStatus;
+    
+    private final StudentDormitory.AssignmentStatus status;
+    
+    public AssignmentChangedEvent(Long assignmentId, Long studentId, Long dormitoryId,
+                                  StudentDormitory.AssignmentStatus previousStatus,
+                                  StudentDormitory.AssignmentStatus status) {
+        this.assignmentId = assignmentId;
+        this.studentId = studentId;
+        this.dormitoryId = dormitoryId;
+        this.previousStatus = previousStatus;
+        this.status = status;
+    }
+    
+    /**
+     * 变更后学生是否仍有活跃分配
+     */
+    public boolean isActive() {
+        return status == StudentDormitory.AssignmentStatus.ACTIVE;
+    }
+    
+    public Long getAssignmentId() {
+        return assignmentId;
+    }
+    
+    public Long getStudentId() {
+        return studentId;
+    }
+    
+    public Long getDormitoryId() {
+        return dormitoryId;
+    }
+    
+    public StudentDormitory.AssignmentStatus getPreviousStatus() {
+        return previousStatus;
+    }
+    
+    public StudentDormitory.AssignmentStatus getStatus() {
+        return status;
+    }
+}
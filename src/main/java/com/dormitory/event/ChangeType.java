@@ -0,0 +1,8 @@
+package com.dormitory.event;
+
+/**
+ * 数据变更类型
+ */
+public enum ChangeType {
+    CREATED, UPDATED, DELETED
+}
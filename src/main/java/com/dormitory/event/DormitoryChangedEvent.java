@@ -0,0 +1,54 @@
+package com.dormitory.event;
+
+import com.dormitory.entity.Dormitory;
+
+/**
+ * 宿舍变更事件（新建、修改、入住人数变化、删除）
+ */
+public class DormitoryChangedEvent {
+    
+    private final Long dormitoryId;
+    
+    private final ChangeType changeType;
+    
+    // 变更前的状态（新建时为空）
+    private final DormitoryState previous;
+    
+    // 变更后的状态（删除时为空）
+    private final DormitoryState current;
+    
+    public DormitoryChangedEvent(Long dormitoryId, ChangeType changeType, DormitoryState previous, DormitoryState current) {
+        this.dormitoryId = dormitoryId;
+        this.changeType = changeType;
+        this.previous = previous;
+        this.current = current;
+    }
+    
+    public static DormitoryChangedEvent created(Dormitory dormitory) {
+        return new DormitoryChangedEvent(dormitory.getId(), ChangeType.CREATED, null, DormitoryState.of(dormitory));
+    }
+    
+    public static DormitoryChangedEvent updated(Dormitory dormitory, DormitoryState previous) {
+        return new DormitoryChangedEvent(dormitory.getId(), ChangeType.UPDATED, previous, DormitoryState.of(dormitory));
+    }
+    
+    public static DormitoryChangedEvent deleted(Dormitory dormitory) {
+        return new DormitoryChangedEvent(dormitory.getId(), ChangeType.DELETED, DormitoryState.of(dormitory), null);
+    }
+    
+    public Long getDormitoryId() {
+        return dormitoryId;
+    }
+    
+    public ChangeType getChangeType() {
+        return changeType;
+    }
+    
+    public DormitoryState getPrevious() {
+        return previous;
+    }
+    
+    public DormitoryState getCurrent() {
+        return current;
+    }
+}
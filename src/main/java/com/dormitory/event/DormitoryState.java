@@ -0,0 +1,62 @@
+package com.dormitory.event;
+
+import com.dormitory.entity.Dormitory;
+
+/**
+ * 宿舍在某一时刻的状态快照（用于变更事件）
+ */
+public class DormitoryState {
+    
+    private final String buildingName;
+    
+    private final Dormitory.DormitoryType type;
+    
+    private final Dormitory.DormitoryStatus status;
+    
+    private final int capacity;
+    
+    private final int currentOccupancy;
+    
+    private final boolean available;
+    
+    public DormitoryState(String buildingName, Dormitory.DormitoryType type, Dormitory.DormitoryStatus status,
+                          int capacity, int currentOccupancy, boolean available) {
+        this.buildingName = buildingName;
+        this.type = type;
+        this.status = status;
+        this.capacity = capacity;
+        this.currentOccupancy = currentOccupancy;
+        this.available = available;
+    }
+    
+    public static DormitoryState of(Dormitory dormitory) {
+        return new DormitoryState(dormitory.getBuildingName(), dormitory.getType(), dormitory.getStatus(),
+                dormitory.getCapacity() != null ? dormitory.getCapacity() : 0,
+                dormitory.getCurrentOccupancy() != null ? dormitory.getCurrentOccupancy() : 0,
+                dormitory.isAvailable());
+    }
+    
+    public String getBuildingName() {
+        return buildingName;
+    }
+    
+    public Dormitory.DormitoryType getType() {
+        return type;
+    }
+    
+    public Dormitory.DormitoryStatus getStatus() {
+        return status;
+    }
+    
+    public int getCapacity() {
+        return capacity;
+    }
+    
+    public int getCurrentOccupancy() {
+        return currentOccupancy;
+    }
+    
+    public boolean isAvailable() {
+        return available;
+    }
+}
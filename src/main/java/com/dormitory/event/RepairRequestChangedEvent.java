@@ -0,0 +1,58 @@
+package com.dormitory.event;
+
+import com.dormitory.entity.RepairRequest;
+
+/**
+ * 维修申请变更事件（提交、分配、完成、取消、修改、删除）
+ */
+public class RepairRequestChangedEvent {
+    
+    private final Long repairRequestId;
+    
+    private final ChangeType changeType;
+    
+    // 变更前的状态（新建时为空）
+    private final RepairRequestState previous;
+    
+    // 变更后的状态（删除时为空）
+    private final RepairRequestState current;
+    
+    public RepairRequestChangedEvent(Long repairRequestId, ChangeType changeType,
+                                     RepairRequestState previous, RepairRequestState current) {
+        this.repairRequestId = repairRequestId;
+        this.changeType = changeType;
+        this.previous = previous;
+        this.current = current;
+    }
+    
+    public static RepairRequestChangedEvent created(RepairRequest repairRequest) {
+        return new RepairRequestChangedEvent(repairRequest.getId(), ChangeType.CREATED,
+                null, RepairRequestState.of(repairRequest));
+    }
+    
+    public static RepairRequestChangedEvent updated(RepairRequest repairRequest, RepairRequestState previous) {
+        return new RepairRequestChangedEvent(repairRequest.getId(), ChangeType.UPDATED,
+                previous, RepairRequestState.of(repairRequest));
+    }
+    
+    public static RepairRequestChangedEvent deleted(RepairRequest repairRequest) {
+        return new RepairRequestChangedEvent(repairRequest.getId(), ChangeType.DELETED,
+                RepairRequestState.of(repairRequest), null);
+    }
+    
+    public Long getRepairRequestId() {
+        return repairRequestId;
+    }
+    
+    public ChangeType getChangeType() {
+        return changeType;
+    }
+    
+    public RepairRequestState getPrevious() {
+        return previous;
+    }
+    
+    public RepairRequestState getCurrent() {
+        return current;
+    }
+}
@@ -0,0 +1,75 @@
+package com.dormitory.event;
+
+import com.dormitory.entity.RepairRequest;
+import com.dormitory.entity.User;
+
+import java.time.LocalDateTime;
+
+/**
+ * 维修申请在某一时刻的状态快照（用于变更事件）
+ */
+public class RepairRequestState {
+    
+    private final RepairRequest.RepairStatus status;
+    
+    private final RepairRequest.RepairType type;
+    
+    private final RepairRequest.RepairPriority priority;
+    
+    private final String buildingName;
+    
+    // 处理该申请的管理员ID和姓名（未分配时为空）
+    private final Long assignedAdminId;
+    
+    private final String assignedAdminName;
+    
+    private final LocalDateTime requestedAt;
+    
+    public RepairRequestState(RepairRequest.RepairStatus status, RepairRequest.RepairType type,
+                              RepairRequest.RepairPriority priority, String buildingName,
+                              Long assignedAdminId, String assignedAdminName, LocalDateTime requestedAt) {
+        this.status = status;
+        this.type = type;
+        this.priority = priority;
+        this.buildingName = buildingName;
+        this.assignedAdminId = assignedAdminId;
+        this.assignedAdminName = assignedAdminName;
+        this.requestedAt = requestedAt;
+    }
+    
+    public static RepairRequestState of(RepairRequest repairRequest) {
+        User admin = repairRequest.getAssignedAdmin();
+        return new RepairRequestState(repairRequest.getStatus(), repairRequest.getType(), repairRequest.getPriority(),
+                repairRequest.getDormitory().getBuildingName(),
+                admin != null ? admin.getId() : null, admin != null ? admin.getRealName() : null,
+                repairRequest.getRequestedAt());
+    }
+    
+    public RepairRequest.RepairStatus getStatus() {
+        return status;
+    }
+    
+    public RepairRequest.RepairType getType() {
+        return type;
+    }
+    
+    public RepairRequest.RepairPriority getPriority() {
+        return priority;
+    }
+    
+    public String getBuildingName() {
+        return buildingName;
+    }
+    
+    public Long getAssignedAdminId() {
+        return assignedAdminId;
+    }
+    
+    public String getAssignedAdminName() {
+        return assignedAdminName;
+    }
+    
+    public LocalDateTime getRequestedAt() {
+        return requestedAt;
+    }
+}
@@ -0,0 +1,26 @@
+package com.dormitory.event;
+
+import com.dormitory.service.StatisticsVersionService;
+
+/**
+ * 统计数据变化事件（相关写操作提交后，统计数据版本号递增时发布）
+ */
+public class StatisticsChangedEvent {
+    
+    private final StatisticsVersionService.Dataset dataset;
+    
+    private final long version;
+    
+    public StatisticsChangedEvent(StatisticsVersionService.Dataset dataset, long version) {
+        this.dataset = dataset;
+        this.version = version;
+    }
+    
+    public StatisticsVersionService.Dataset getDataset() {
+        return dataset;
+    }
+    
+    public long getVersion() {
+        return version;
+    }
+}
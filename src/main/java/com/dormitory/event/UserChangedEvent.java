@@ -0,0 +1,84 @@
+package com.dormitory.event;
+
+import com.dormitory.entity.User;
+
+/**
+ * 用户变更事件
+ */
+public class UserChangedEvent {
+    
+    private final Long userId;
+    
+    private final User.Role role;
+    
+    private final ChangeType changeType;
+    
+    // 变更前的专业和班级（新建时为空）
+    private final String previousMajor;
+    
+    private final String previousClassName;
+    
+    // 变更后的专业和班级（删除时为空）
+    private final String major;
+    
+    private final String className;
+    
+    public UserChangedEvent(Long userId, User.Role role, ChangeType changeType,
+                            String previousMajor, String previousClassName,
+                            String major, String className) {
+        this.userId = userId;
+        this.role = role;
+        this.changeType = changeType;
+        this.previousMajor = previousMajor;
+        this.previousClassName = previousClassName;
+        this.major = major;
+        this.className = className;
+    }
+    
+    public static UserChangedEvent created(User user) {
+        return new UserChangedEvent(user.getId(), user.getRole(), ChangeType.CREATED,
+                null, null, user.getMajor(), user.getClassName());
+    }
+    
+    public static UserChangedEvent updated(User user, String previousMajor, String previousClassName) {
+        return new UserChangedEvent(user.getId(), user.getRole(), ChangeType.UPDATED,
+                previousMajor, previousClassName, user.getMajor(), user.getClassName());
+    }
+    
+    public static UserChangedEvent deleted(User user) {
+        return new UserChangedEvent(user.getId(), user.getRole(), ChangeType.DELETED,
+                user.getMajor(), user.getClassName(), null, null);
+    }
+    
+    public boolean isStudent() {
+        return role == User.Role.STUDENT;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public User.Role getRole() {
+        return role;
+    }
+    
+    public ChangeType getChangeType() {
+        return changeType;
+    }
+    
+    public String getPreviousMajor() {
+        return previousMajor;
+    }
+    
+    public String getPreviousClassName() {
+        return previousClassName;
+    }
+    
+    public String getMajor() {
+        return major;
+    }
+    
+    public String getClassName() {
+        return className;
+    }
+}
@@ -0,0 +1,50 @@
+package com.dormitory.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * CSV 写入器（RFC 4180）
+ *
+ * 文件开头写 UTF-8 BOM，Excel 打开时中文不乱码；以 = + - @ 开头的文本前加单引号，防止被当作公式执行。
+ */
+public class CsvRowWriter implements RowWriter {
+    
+    private final BufferedWriter writer;
+    
+    public CsvRowWriter(OutputStream outputStream) throws IOException {
+        this.writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), 16 * 1024);
+        writer.write('\uFEFF');
+    }
+    
+    @Override
+    public void writeRow(List<?> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            Object value = values.get(i);
+            writer.write(value instanceof Number ? value.toString() : escape(RowWriter.text(value)));
+        }
+        writer.write("\r\n");
+    }
+    
+    @Override
+    public void close() throws IOException {
+        writer.flush();
+    }
+    
+    private static String escape(String text) {
+        if (!text.isEmpty() && "=+-@".indexOf(text.charAt(0)) >= 0) {
+            text = "'" + text;
+        }
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return "\"" + text.replace("\"", "\"\"") + "\"";
+    }
+}
@@ -0,0 +1,61 @@
+package com.dormitory.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * 导出文件格式
+ */
+public enum ExportFormat {
+    
+    CSV("csv", "text/csv;charset=UTF-8", true),
+    
+    XLSX("xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", false);
+    
+    private final String extension;
+    
+    private final String contentType;
+    
+    // XLSX 本身已是 zip 压缩，不再 gzip
+    private final boolean compressible;
+    
+    ExportFormat(String extension, String contentType, boolean compressible) {
+        this.extension = extension;
+        this.contentType = contentType;
+        this.compressible = compressible;
+    }
+    
+    public String getExtension() {
+        return extension;
+    }
+    
+    public String getContentType() {
+        return contentType;
+    }
+    
+    public boolean isCompressible() {
+        return compressible;
+    }
+    
+    /**
+     * 创建写入器，sheetName 仅用于 XLSX
+     */
+    public RowWriter open(OutputStream outputStream, String sheetName) throws IOException {
+        return switch (this) {
+            case CSV -> new CsvRowWriter(outputStream);
+            case XLSX -> new XlsxRowWriter(outputStream, sheetName);
+        };
+    }
+    
+    /**
+     * 按扩展名查找格式
+     */
+    public static ExportFormat fromExtension(String extension) {
+        for (ExportFormat format : values()) {
+            if (format.extension.equalsIgnoreCase(extension)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("不支持的导出格式：" + extension);
+    }
+}
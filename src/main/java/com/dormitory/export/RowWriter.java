@@ -0,0 +1,38 @@
+package com.dormitory.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * 导出文件的逐行写入器
+ *
+ * 每行写出后不再持有该行数据，内存占用与导出行数无关。close 时写出文件结尾，但不关闭底层输出流。
+ */
+public interface RowWriter extends Closeable {
+    
+    DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    
+    /**
+     * 写出一行，第一行为表头
+     */
+    void writeRow(List<?> values) throws IOException;
+    
+    /**
+     * 单元格文本：空值为空串，时间格式化到秒，枚举取名称
+     */
+    static String text(Object value) {
+        if (value == null) {
+            return "";
+        }
+        if (value instanceof LocalDateTime dateTime) {
+            return DATE_TIME_FORMATTER.format(dateTime);
+        }
+        if (value instanceof Enum<?> e) {
+            return e.name();
+        }
+        return value.toString();
+    }
+}
@@ -0,0 +1,191 @@
+package com.dormitory.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * XLSX 写入器
+ *
+ * 直接按 Office Open XML 格式边写边压缩：工作表 XML 逐行写入 zip 条目，文本使用内联字符串，
+ * 不需要共享字符串表，因此不必在内存中保留任何行。单个工作表写满后自动新建工作表，工作簿清单在结束时写出。
+ */
+public class XlsxRowWriter implements RowWriter {
+    
+    // 单个工作表最多行数（含表头）
+    private static final int MAX_SHEET_ROWS = 1_048_576;
+    
+    private static final String XML_HEADER = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n";
+    
+    private static final String SPREADSHEET_NS = "http://schemas.openxmlformats.org/spreadsheetml/2006/main";
+    
+    private static final String RELATIONSHIPS_NS = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+    
+    private static final String PACKAGE_RELATIONSHIPS_NS = "http://schemas.openxmlformats.org/package/2006/relationships";
+    
+    private final ZipOutputStream zip;
+    
+    private final Writer writer;
+    
+    private final String sheetName;
+    
+    private List<?> header;
+    
+    private int sheetCount;
+    
+    // 当前工作表已写行数
+    private int sheetRows;
+    
+    public XlsxRowWriter(OutputStream outputStream, String sheetName) {
+        this.zip = new ZipOutputStream(outputStream, StandardCharsets.UTF_8);
+        this.writer = new BufferedWriter(new OutputStreamWriter(zip, StandardCharsets.UTF_8), 16 * 1024);
+        this.sheetName = sheetName;
+    }
+    
+    @Override
+    public void writeRow(List<?> values) throws IOException {
+        if (header == null) {
+            header = List.copyOf(values);
+        }
+        if (sheetCount == 0 || sheetRows == MAX_SHEET_ROWS) {
+            startSheet();
+            if (sheetCount > 1) {
+                // 续表重复表头
+                writeCells(header);
+            }
+        }
+        writeCells(values);
+    }
+    
+    @Override
+    public void close() throws IOException {
+        if (sheetCount == 0) {
+            startSheet();
+        }
+        endSheet();
+        writeEntry("xl/workbook.xml", workbook());
+        writeEntry("xl/_rels/workbook.xml.rels", workbookRelationships());
+        writeEntry("_rels/.rels", XML_HEADER
+                + "<Relationships xmlns=\"" + PACKAGE_RELATIONSHIPS_NS + "\">"
+                + "<Relationship Id=\"rId1\" Type=\"" + RELATIONSHIPS_NS + "/officeDocument\" Target=\"xl/workbook.xml\"/>"
+                + "</Relationships>");
+        writeEntry("[Content_Types].xml", contentTypes());
+        zip.finish();
+        zip.flush();
+    }
+    
+    private void writeCells(List<?> values) throws IOException {
+        sheetRows++;
+        writer.write("<row r=\"");
+        writer.write(Integer.toString(sheetRows));
+        writer.write("\">");
+        for (Object value : values) {
+            if (value == null) {
+                writer.write("<c/>");
+            } else if (value instanceof Number) {
+                writer.write("<c><v>");
+                writer.write(value.toString());
+                writer.write("</v></c>");
+            } else {
+                writer.write("<c t=\"inlineStr\"><is><t xml:space=\"preserve\">");
+                writer.write(escape(RowWriter.text(value)));
+                writer.write("</t></is></c>");
+            }
+        }
+        writer.write("</row>");
+    }
+    
+    private void startSheet() throws IOException {
+        if (sheetCount > 0) {
+            endSheet();
+        }
+        sheetCount++;
+        sheetRows = 0;
+        zip.putNextEntry(new ZipEntry("xl/worksheets/sheet" + sheetCount + ".xml"));
+        writer.write(XML_HEADER);
+        writer.write("<worksheet xmlns=\"" + SPREADSHEET_NS + "\"><sheetData>");
+    }
+    
+    private void endSheet() throws IOException {
+        writer.write("</sheetData></worksheet>");
+        writer.flush();
+        zip.closeEntry();
+    }
+    
+    private void writeEntry(String name, String content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        writer.write(content);
+        writer.flush();
+        zip.closeEntry();
+    }
+    
+    private String workbook() {
+        StringBuilder xml = new StringBuilder(XML_HEADER)
+                .append("<workbook xmlns=\"").append(SPREADSHEET_NS).append("\" xmlns:r=\"").append(RELATIONSHIPS_NS)
+                .append("\"><sheets>");
+        for (int i = 1; i <= sheetCount; i++) {
+            String name = sheetCount == 1 ? sheetName : sheetName + i;
+            xml.append("<sheet name=\"").append(escape(name)).append("\" sheetId=\"").append(i)
+                    .append("\" r:id=\"rId").append(i).append("\"/>");
+        }
+        return xml.append("</sheets></workbook>").toString();
+    }
+    
+    private String workbookRelationships() {
+        StringBuilder xml = new StringBuilder(XML_HEADER)
+                .append("<Relationships xmlns=\"").append(PACKAGE_RELATIONSHIPS_NS).append("\">");
+        for (int i = 1; i <= sheetCount; i++) {
+            xml.append("<Relationship Id=\"rId").append(i).append("\" Type=\"").append(RELATIONSHIPS_NS)
+                    .append("/worksheet\" Target=\"worksheets/sheet").append(i).append(".xml\"/>");
+        }
+        return xml.append("</Relationships>").toString();
+    }
+    
+    private String contentTypes() {
+        StringBuilder xml = new StringBuilder(XML_HEADER)
+                .append("<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">")
+                .append("<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>")
+                .append("<Default Extension=\"xml\" ContentType=\"application/xml\"/>")
+                .append("<Override PartName=\"/xl/workbook.xml\" ")
+                .append("ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml\"/>");
+        for (int i = 1; i <= sheetCount; i++) {
+            xml.append("<Override PartName=\"/xl/worksheets/sheet").append(i).append(".xml\" ")
+                    .append("ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml\"/>");
+        }
+        return xml.append("</Types>").toString();
+    }
+    
+    /**
+     * XML 转义，并去掉 XML 1.0 不允许的控制字符
+     */
+    private static String escape(String text) {
+        StringBuilder escaped = null;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            String replacement = switch (c) {
+                case '&' -> "&amp;";
+                case '<' -> "&lt;";
+                case '>' -> "&gt;";
+                case '"' -> "&quot;";
+                default -> c < 0x20 && c != '\t' && c != '\n' && c != '\r' ? "" : null;
+            };
+            if (replacement != null && escaped == null) {
+                escaped = new StringBuilder(text.length() + 16).append(text, 0, i);
+            }
+            if (escaped != null) {
+                if (replacement != null) {
+                    escaped.append(replacement);
+                } else {
+                    escaped.append(c);
+                }
+            }
+        }
+        return escaped != null ? escaped.toString() : text;
+    }
+}
@@ -0,0 +1,70 @@
+package com.dormitory.monitor;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * 二级缓存各区域的命中指标
+ *
+ * 按区域输出 hibernate.cache.requests（result=hit/miss）、hibernate.cache.puts 和 hibernate.cache.hit.ratio，
+ * 可在 /actuator/metrics 查看。数据来自 Hibernate 统计信息，需开启 hibernate.generate_statistics。
+ */
+@Component
+public class CacheRegionMetrics implements MeterBinder {
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            FunctionCounter.builder("hibernate.cache.requests", statistics,
+                            count(region, CacheRegionStatistics::getHitCount))
+                    .tag("region", region)
+                    .tag("result", "hit")
+                    .description("二级缓存命中次数")
+                    .register(registry);
+            FunctionCounter.builder("hibernate.cache.requests", statistics,
+                            count(region, CacheRegionStatistics::getMissCount))
+                    .tag("region", region)
+                    .tag("result", "miss")
+                    .description("二级缓存未命中次数")
+                    .register(registry);
+            FunctionCounter.builder("hibernate.cache.puts", statistics,
+                            count(region, CacheRegionStatistics::getPutCount))
+                    .tag("region", region)
+                    .description("写入二级缓存的次数")
+                    .register(registry);
+            Gauge.builder("hibernate.cache.hit.ratio", statistics, s -> hitRatio(s.getCacheRegionStatistics(region)))
+                    .tag("region", region)
+                    .description("二级缓存命中率（启动以来）")
+                    .register(registry);
+        }
+    }
+    
+    private static ToDoubleFunction<Statistics> count(String region, ToDoubleFunction<CacheRegionStatistics> value) {
+        return statistics -> {
+            CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+            return regionStatistics != null ? value.applyAsDouble(regionStatistics) : 0;
+        };
+    }
+    
+    private static double hitRatio(CacheRegionStatistics regionStatistics) {
+        if (regionStatistics == null) {
+            return Double.NaN;
+        }
+        long requests = regionStatistics.getHitCount() + regionStatistics.getMissCount();
+        return requests > 0 ? (double) regionStatistics.getHitCount() / requests : Double.NaN;
+    }
+}
@@ -0,0 +1,86 @@
+package com.dormitory.monitor;
+
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.aop.SpringProxy;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.target.EmptyTargetSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.SmartInstantiationAwareBeanPostProcessor;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Service;
+import org.springframework.util.ClassUtils;
+
+/**
+ * 为所有 Repository 和 Service 加上方法耗时统计
+ *
+ * 已经是代理的 Bean（Repository 本身、带事务的 Service）把拦截器加在最外层，耗时包含事务提交；
+ * 其他 Service 另建类代理。只拦截外部调用，Service 内部的方法互调不单独统计。
+ * AOT 处理时通过 determineBeanType 预先生成类代理，原生镜像运行时不能再生成类。
+ */
+public class MethodTimingPostProcessor implements SmartInstantiationAwareBeanPostProcessor {
+    
+    private final ObjectProvider<MethodTimings> timings;
+    
+    public MethodTimingPostProcessor(ObjectProvider<MethodTimings> timings) {
+        this.timings = timings;
+    }
+    
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        String layer;
+        String type;
+        if (bean instanceof Repository<?, ?>) {
+            layer = "repository";
+            type = repositoryInterface(bean).getSimpleName();
+        } else if (AnnotationUtils.findAnnotation(AopUtils.getTargetClass(bean), Service.class) != null) {
+            layer = "service";
+            type = ClassUtils.getUserClass(AopUtils.getTargetClass(bean)).getSimpleName();
+        } else {
+            return bean;
+        }
+        
+        MethodTimingInterceptor interceptor = new MethodTimingInterceptor(timings.getObject(), layer, type);
+        if (bean instanceof Advised advised && !advised.isFrozen()) {
+            advised.addAdvice(0, interceptor);
+            return bean;
+        }
+        ProxyFactory proxyFactory = new ProxyFactory(bean);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice(interceptor);
+        return proxyFactory.getProxy(ClassUtils.getDefaultClassLoader());
+    }
+    
+    /**
+     * 与 postProcessAfterInitialization 建立的类代理结构相同（同样的接口和一个拦截器），运行时按名称加载预先生成的类；
+     * 已经是代理的 Service 只追加拦截器，不需要新的类
+     */
+    @Override
+    public Class<?> determineBeanType(Class<?> beanClass, String beanName) {
+        if (SpringProxy.class.isAssignableFrom(beanClass)
+                || AnnotationUtils.findAnnotation(beanClass, Service.class) == null) {
+            return beanClass;
+        }
+        ProxyFactory proxyFactory = new ProxyFactory();
+        proxyFactory.setTargetSource(EmptyTargetSource.forClass(beanClass));
+        proxyFactory.setInterfaces(ClassUtils.getAllInterfacesForClass(beanClass));
+        proxyFactory.setProxyTargetClass(true);
+        // 只用于生成代理类，不会被调用
+        proxyFactory.addAdvice(new MethodTimingInterceptor(null, "service", beanClass.getSimpleName()));
+        return proxyFactory.getProxyClass(ClassUtils.getDefaultClassLoader());
+    }
+    
+    /**
+     * Repository 代理实现的第一个业务接口，如 DormitoryRepository
+     */
+    private static Class<?> repositoryInterface(Object repository) {
+        for (Class<?> proxied : AopProxyUtils.proxiedUserInterfaces(repository)) {
+            if (Repository.class.isAssignableFrom(proxied) && proxied != Repository.class) {
+                return proxied;
+            }
+        }
+        return AopUtils.getTargetClass(repository);
+    }
+}
@@ -0,0 +1,56 @@
+package com.dormitory.monitor;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Repository、Service 方法耗时统计配置
+ */
+@ConfigurationProperties(prefix = "dormitory.method-timing")
+public class MethodTimingProperties {
+    
+    // 是否统计方法耗时
+    private boolean enabled = true;
+    
+    // 耗时达到此值的调用记入慢调用日志
+    private Duration slowThreshold = Duration.ofMillis(200);
+    
+    // 输出的耗时分位数
+    private double[] percentiles = {0.5, 0.99};
+    
+    // 端点中保留的最近慢调用条数
+    private int slowCallsRetained = 100;
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+    
+    public Duration getSlowThreshold() {
+        return slowThreshold;
+    }
+    
+    public void setSlowThreshold(Duration slowThreshold) {
+        this.slowThreshold = slowThreshold;
+    }
+    
+    public double[] getPercentiles() {
+        return percentiles;
+    }
+    
+    public void setPercentiles(double[] percentiles) {
+        this.percentiles = percentiles;
+    }
+    
+    public int getSlowCallsRetained() {
+        return slowCallsRetained;
+    }
+    
+    public void setSlowCallsRetained(int slowCallsRetained) {
+        this.slowCallsRetained = slowCallsRetained;
+    }
+}
@@ -0,0 +1,238 @@
+package com.dormitory.monitor;
+
+import com.dormitory.service.KeysetPage;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.Entity;
+import org.hibernate.proxy.HibernateProxy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Slice;
+
+import java.lang.reflect.Method;
+import java.time.LocalDateTime;
+import java.time.temporal.Temporal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 方法耗时统计
+ *
+ * 每个方法一个 Timer（dormitory.method.invocations，标签 layer、class、method），分位数由 Micrometer 的
+ * HdrHistogram 滑动窗口计算；返回集合、Optional 或分页的方法另有返回行数分布（dormitory.method.rows）。
+ * 耗时超过阈值的调用连同参数写入慢调用日志，并保留最近若干条供 methodtimings 端点查看。
+ */
+public class MethodTimings {
+    
+    private static final Logger log = LoggerFactory.getLogger(MethodTimings.class);
+    
+    private final MethodTimingProperties properties;
+    
+    private final ObjectProvider<MeterRegistry> registryProvider;
+    
+    private final Map<Method, MethodStats> methods = new ConcurrentHashMap<>();
+    
+    private final Deque<SlowCall> slowCalls = new ArrayDeque<>();
+    
+    public MethodTimings(MethodTimingProperties properties, ObjectProvider<MeterRegistry> registryProvider) {
+        this.properties = properties;
+        this.registryProvider = registryProvider;
+    }
+    
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+    
+    /**
+     * 取方法的统计项，首次调用时注册指标
+     *
+     * @param layer repository 或 service
+     * @param type  Repository 接口或 Service 类的简单类名
+     */
+    MethodStats stats(String layer, String type, Method method) {
+        return methods.computeIfAbsent(method, key -> new MethodStats(layer, type, method));
+    }
+    
+    /**
+     * 记录一次调用
+     */
+    void record(MethodStats stats, Object[] arguments, Object result, long elapsedNanos) {
+        stats.timer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        int rows = stats.rows != null ? rows(result) : -1;
+        if (rows >= 0) {
+            stats.rows.record(rows);
+        }
+        if (elapsedNanos >= properties.getSlowThreshold().toNanos()) {
+            slowCall(stats, arguments, rows, elapsedNanos);
+        }
+    }
+    
+    private void slowCall(MethodStats stats, Object[] arguments, int rows, long elapsedNanos) {
+        String call = stats.type + "." + stats.method + "(" + describe(arguments) + ")";
+        double millis = elapsedNanos / 1_000_000.0;
+        log.warn("慢调用 [{}] {} 耗时 {} ms{}", stats.layer, call, String.format("%.1f", millis),
+                rows >= 0 ? "，返回 " + rows + " 行" : "");
+        synchronized (slowCalls) {
+            slowCalls.addFirst(new SlowCall(LocalDateTime.now(), stats.layer, call, millis, rows));
+            while (slowCalls.size() > properties.getSlowCallsRetained()) {
+                slowCalls.removeLast();
+            }
+        }
+    }
+    
+    /**
+     * 所有已调用过的方法，按累计耗时倒序
+     */
+    public List<MethodStats> getMethods() {
+        List<MethodStats> result = new ArrayList<>(methods.values());
+        result.sort((a, b) -> Double.compare(b.timer.totalTime(TimeUnit.NANOSECONDS),
+                a.timer.totalTime(TimeUnit.NANOSECONDS)));
+        return result;
+    }
+    
+    /**
+     * 最近的慢调用，新的在前
+     */
+    public List<SlowCall> getSlowCalls() {
+        synchronized (slowCalls) {
+            return new ArrayList<>(slowCalls);
+        }
+    }
+    
+    /**
+     * 返回值的行数；不是集合、Optional 或分页时返回 -1
+     */
+    private static int rows(Object result) {
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof KeysetPage<?> page) {
+            return page.getContent().size();
+        }
+        return -1;
+    }
+    
+    private static boolean returnsRows(Class<?> returnType) {
+        return Collection.class.isAssignableFrom(returnType) || Optional.class == returnType
+                || Slice.class.isAssignableFrom(returnType) || KeysetPage.class == returnType;
+    }
+    
+    /**
+     * 参数描述：实体只写类名和ID（不触发延迟加载），集合只写元素个数，字符串只写长度（可能是密码等敏感内容，
+     * 不写入日志和端点），数值、布尔、枚举和时间写原值
+     */
+    private static String describe(Object[] arguments) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < arguments.length; i++) {
+            if (i > 0) {
+                text.append(", ");
+            }
+            text.append(describe(arguments[i]));
+        }
+        return text.toString();
+    }
+    
+    private static String describe(Object argument) {
+        if (argument == null) {
+            return "null";
+        }
+        if (argument instanceof HibernateProxy proxy) {
+            return proxy.getHibernateLazyInitializer().getEntityName() + "#"
+                    + proxy.getHibernateLazyInitializer().getInternalIdentifier();
+        }
+        if (argument.getClass().isAnnotationPresent(Entity.class)) {
+            return argument.getClass().getSimpleName() + "#" + new BeanWrapperImpl(argument).getPropertyValue("id");
+        }
+        if (argument instanceof Collection<?> collection) {
+            return argument.getClass().getSimpleName() + "[" + collection.size() + "]";
+        }
+        if (argument instanceof CharSequence text) {
+            return argument.getClass().getSimpleName() + "[" + text.length() + "]";
+        }
+        if (argument instanceof Number || argument instanceof Boolean || argument instanceof Enum<?>
+                || argument instanceof Temporal) {
+            return argument.toString();
+        }
+        return argument.getClass().getSimpleName();
+    }
+    
+    /**
+     * 单个方法的指标
+     */
+    public final class MethodStats {
+        
+        private final String layer;
+        
+        private final String type;
+        
+        private final String method;
+        
+        private final Timer timer;
+        
+        private final DistributionSummary rows;
+        
+        private MethodStats(String layer, String type, Method method) {
+            this.layer = layer;
+            this.type = type;
+            this.method = method.getName();
+            MeterRegistry registry = registryProvider.getObject();
+            this.timer = Timer.builder("dormitory.method.invocations")
+                    .tag("layer", layer)
+                    .tag("class", type)
+                    .tag("method", this.method)
+                    .description("方法耗时")
+                    .publishPercentiles(properties.getPercentiles())
+                    .register(registry);
+            this.rows = returnsRows(method.getReturnType())
+                    ? DistributionSummary.builder("dormitory.method.rows")
+                            .tag("layer", layer)
+                            .tag("class", type)
+                            .tag("method", this.method)
+                            .description("方法返回的行数")
+                            .register(registry)
+                    : null;
+        }
+        
+        public String getLayer() {
+            return layer;
+        }
+        
+        public String getType() {
+            return type;
+        }
+        
+        public String getMethod() {
+            return method;
+        }
+        
+        public Timer getTimer() {
+            return timer;
+        }
+        
+        public DistributionSummary getRows() {
+            return rows;
+        }
+    }
+    
+    /**
+     * 一次慢调用
+     */
+    public record SlowCall(LocalDateTime time, String layer, String call, double millis, int rows) {
+    }
+}
@@ -0,0 +1,61 @@
+package com.dormitory.monitor;
+
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 方法耗时端点（/actuator/methodtimings）
+ *
+ * 按累计耗时倒序列出各方法的调用次数、平均/分位/最大耗时（毫秒）和平均返回行数，以及最近的慢调用。
+ * 同样的指标也可在 /actuator/metrics/dormitory.method.invocations 和 /actuator/prometheus 中取得。
+ */
+@Endpoint(id = "methodtimings")
+public class MethodTimingsEndpoint {
+    
+    private final MethodTimings timings;
+    
+    public MethodTimingsEndpoint(MethodTimings timings) {
+        this.timings = timings;
+    }
+    
+    @ReadOperation
+    public Map<String, Object> timings() {
+        List<Map<String, Object>> methods = new ArrayList<>();
+        for (MethodTimings.MethodStats stats : timings.getMethods()) {
+            HistogramSnapshot snapshot = stats.getTimer().takeSnapshot();
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("layer", stats.getLayer());
+            row.put("class", stats.getType());
+            row.put("method", stats.getMethod());
+            row.put("count", snapshot.count());
+            row.put("totalMs", round(snapshot.total(TimeUnit.MILLISECONDS)));
+            row.put("meanMs", round(snapshot.mean(TimeUnit.MILLISECONDS)));
+            for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+                row.put("p" + Math.round(percentile.percentile() * 100) + "Ms",
+                        round(percentile.value(TimeUnit.MILLISECONDS)));
+            }
+            row.put("maxMs", round(snapshot.max(TimeUnit.MILLISECONDS)));
+            if (stats.getRows() != null) {
+                row.put("meanRows", round(stats.getRows().mean()));
+            }
+            methods.add(row);
+        }
+        
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("methods", methods);
+        result.put("slowCalls", timings.getSlowCalls());
+        return result;
+    }
+    
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+}
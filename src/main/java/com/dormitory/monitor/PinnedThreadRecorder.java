@@ -0,0 +1,94 @@
+package com.dormitory.monitor;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 虚拟线程固定（pinning）记录
+ *
+ * 虚拟线程在 synchronized 块或本地方法中阻塞时无法从载体线程上卸下，载体线程数（默认等于 CPU 核数）很快被占满。
+ * 这里在进程内订阅 JFR 事件 jdk.VirtualThreadPinned，按发生固定的第一个应用或驱动栈帧（跳过 JDK 自身的栈帧）
+ * 计入 dormitory.threads.pinned（次数和持续时间），并记录调试日志（含栈顶几帧），数据库驱动中的
+ * synchronized 一般会在这里出现。需要完整栈时可另加 -XX:StartFlightRecording 启动参数，用 JDK Mission Control 查看。
+ * 只由 VirtualThreadConfig 创建，Java 17 上不会创建（也没有这个事件）。
+ */
+public class PinnedThreadRecorder implements InitializingBean, DisposableBean {
+    
+    private static final Logger log = LoggerFactory.getLogger(PinnedThreadRecorder.class);
+    
+    private static final String EVENT = "jdk.VirtualThreadPinned";
+    
+    private static final int LOGGED_FRAMES = 8;
+    
+    private final MeterRegistry registry;
+    
+    private final Duration threshold;
+    
+    private RecordingStream stream;
+    
+    public PinnedThreadRecorder(MeterRegistry registry, Duration threshold) {
+        this.registry = registry;
+        this.threshold = threshold;
+    }
+    
+    @Override
+    public void afterPropertiesSet() {
+        stream = new RecordingStream();
+        stream.enable(EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(EVENT, this::record);
+        stream.startAsync();
+        log.info("已开启虚拟线程固定记录，阈值 {} ms", threshold.toMillis());
+    }
+    
+    private void record(RecordedEvent event) {
+        List<RecordedFrame> frames = event.getStackTrace() != null
+                ? event.getStackTrace().getFrames() : List.of();
+        String frame = frames.stream()
+                .filter(RecordedFrame::isJavaFrame)
+                .map(PinnedThreadRecorder::describe)
+                .filter(name -> !name.startsWith("java.") && !name.startsWith("jdk.") && !name.startsWith("sun."))
+                .findFirst()
+                .orElse("unknown");
+        Timer.builder("dormitory.threads.pinned")
+                .tag("frame", frame)
+                .description("虚拟线程被固定在载体线程上的次数和持续时间")
+                .register(registry)
+                .record(event.getDuration());
+        if (log.isDebugEnabled()) {
+            log.debug("虚拟线程被固定 {} ms：{}", event.getDuration().toMillis(), stackTop(event.getStackTrace()));
+        }
+    }
+    
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName();
+    }
+    
+    private static String stackTop(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "无栈信息";
+        }
+        return stackTrace.getFrames().stream()
+                .limit(LOGGED_FRAMES)
+                .map(frame -> describe(frame) + ":" + frame.getLineNumber())
+                .collect(Collectors.joining(" <- "));
+    }
+    
+    @Override
+    public void destroy() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.dormitory.monitor;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * SQL语句数预算过滤器
+ *
+ * 统计整个请求（包括视图渲染时的延迟加载）执行的SQL语句数，记入 dormitory.request.statements 分布，
+ * 超出预算时记录警告；不影响请求本身。语句数同时存入请求属性 {@link #STATEMENTS_ATTRIBUTE}，
+ * 测试据此断言各页面的语句数不超过预算。
+ */
+public class QueryBudgetFilter extends OncePerRequestFilter {
+    
+    /**
+     * 请求执行的SQL语句数（Integer）
+     */
+    public static final String STATEMENTS_ATTRIBUTE = QueryBudgetFilter.class.getName() + ".statements";
+    
+    private static final Logger log = LoggerFactory.getLogger(QueryBudgetFilter.class);
+    
+    private final StatementCounter statementCounter;
+    
+    private final QueryBudgetProperties properties;
+    
+    private final DistributionSummary statementsPerRequest;
+    
+    public QueryBudgetFilter(StatementCounter statementCounter, QueryBudgetProperties properties,
+                             MeterRegistry registry) {
+        this.statementCounter = statementCounter;
+        this.properties = properties;
+        this.statementsPerRequest = DistributionSummary.builder("dormitory.request.statements")
+                .description("单个请求执行的SQL语句数")
+                .register(registry);
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled();
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        statementCounter.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            int statements = statementCounter.stop();
+            request.setAttribute(STATEMENTS_ATTRIBUTE, statements);
+            statementsPerRequest.record(statements);
+            if (statements > properties.getMaxStatements()) {
+                log.warn("{} {} 执行了 {} 条SQL语句，超出预算 {}，可能存在逐行加载关联",
+                        request.getMethod(), request.getRequestURI(), statements, properties.getMaxStatements());
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.dormitory.monitor;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 单个请求的SQL语句数预算配置
+ */
+@ConfigurationProperties(prefix = "dormitory.query-budget")
+public class QueryBudgetProperties {
+    
+    // 是否统计每个请求执行的SQL语句数
+    private boolean enabled = true;
+    
+    // 单个请求允许执行的SQL语句数
+    private int maxStatements = 10;
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+    
+    public int getMaxStatements() {
+        return maxStatements;
+    }
+    
+    public void setMaxStatements(int maxStatements) {
+        this.maxStatements = maxStatements;
+    }
+}
@@ -0,0 +1,65 @@
+package com.dormitory.monitor;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * SQL语句计数器
+ *
+ * 注册为 Hibernate 的 StatementInspector，Hibernate 每准备一条语句调用一次。只在 {@link #start()} 与
+ * {@link #stop()} 之间计数，计数按线程隔离，只计数不拦截语句。请求分派到其他线程的查询经
+ * {@link #propagate(Runnable)} 计入同一请求。
+ */
+public class StatementCounter implements StatementInspector {
+    
+    private static final ThreadLocal<AtomicInteger> COUNT = new ThreadLocal<>();
+    
+    /**
+     * 开始为当前线程计数
+     */
+    public void start() {
+        COUNT.set(new AtomicInteger());
+    }
+    
+    /**
+     * 结束计数，返回期间执行的语句数
+     */
+    public int stop() {
+        AtomicInteger count = COUNT.get();
+        COUNT.remove();
+        return count != null ? count.get() : 0;
+    }
+    
+    /**
+     * 包装当前线程提交到其他线程的任务，任务执行的语句计入当前线程的计数
+     */
+    public Runnable propagate(Runnable task) {
+        AtomicInteger count = COUNT.get();
+        if (count == null) {
+            return task;
+        }
+        return () -> {
+            AtomicInteger previous = COUNT.get();
+            COUNT.set(count);
+            try {
+                task.run();
+            } finally {
+                if (previous != null) {
+                    COUNT.set(previous);
+                } else {
+                    COUNT.remove();
+                }
+            }
+        };
+    }
+    
+    @Override
+    public String inspect(String sql) {
+        AtomicInteger count = COUNT.get();
+        if (count != null) {
+            count.incrementAndGet();
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,34 @@
+package com.dormitory.monitor;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 虚拟线程模式配置（spring.threads.virtual.enabled=true 且运行在 Java 21 及以上时生效）
+ */
+@ConfigurationProperties(prefix = "dormitory.virtual-threads")
+public class VirtualThreadProperties {
+    
+    // 等待数据库连接许可的最长时间；许可数等于连接池大小，超时后抛出 SQLTransientConnectionException
+    private Duration jdbcAcquireTimeout = Duration.ofSeconds(30);
+    
+    // 虚拟线程被固定在载体线程上超过此时间时记录（JFR 事件 jdk.VirtualThreadPinned）
+    private Duration pinnedThreshold = Duration.ofMillis(20);
+    
+    public Duration getJdbcAcquireTimeout() {
+        return jdbcAcquireTimeout;
+    }
+    
+    public void setJdbcAcquireTimeout(Duration jdbcAcquireTimeout) {
+        this.jdbcAcquireTimeout = jdbcAcquireTimeout;
+    }
+    
+    public Duration getPinnedThreshold() {
+        return pinnedThreshold;
+    }
+    
+    public void setPinnedThreshold(Duration pinnedThreshold) {
+        this.pinnedThreshold = pinnedThreshold;
+    }
+}
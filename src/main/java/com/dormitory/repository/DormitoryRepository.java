@@ -1,8 +1,14 @@
 package com.dormitory.repository;
 
 import com.dormitory.entity.Dormitory;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -13,7 +19,14 @@ import java.util.Optional;
  * 宿舍数据访问层
  */
 @Repository
-public interface DormitoryRepository extends JpaRepository<Dormitory, Long> {
+public interface DormitoryRepository extends JpaRepository<Dormitory, Long>, JpaSpecificationExecutor<Dormitory> {
+    
+    /**
+     * 根据ID查找宿舍并锁定该行至事务结束，同一宿舍的分配、退宿和入住人数修改依次执行
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT d FROM Dormitory d WHERE d.id = :id")
+    Optional<Dormitory> findByIdForUpdate(@Param("id") Long id);
     
     /**
      * 根据宿舍楼和房间号查找宿舍
@@ -36,14 +49,23 @@ public interface DormitoryRepository extends JpaRepository<Dormitory, Long> {
     List<Dormitory> findByStatus(Dormitory.DormitoryStatus status);
     
     /**
-     * 查找可用的宿舍
+     * 查找可用的宿舍（查询缓存，宿舍表有修改时失效）
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT d FROM Dormitory d WHERE d.status = 'AVAILABLE' AND d.currentOccupancy < d.capacity")
     List<Dormitory> findAvailableDormitories();
     
     /**
-     * 根据宿舍楼和类型查找可用宿舍
+     * 统计可用的宿舍数量（查询缓存）
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT COUNT(d) FROM Dormitory d WHERE d.status = 'AVAILABLE' AND d.currentOccupancy < d.capacity")
+    long countAvailableDormitories();
+    
+    /**
+     * 根据宿舍楼和类型查找可用宿舍（查询缓存）
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT d FROM Dormitory d WHERE d.buildingName = :buildingName AND d.type = :type " +
            "AND d.status = 'AVAILABLE' AND d.currentOccupancy < d.capacity")
     List<Dormitory> findAvailableDormitoriesByBuildingAndType(
@@ -71,11 +93,18 @@ public interface DormitoryRepository extends JpaRepository<Dormitory, Long> {
                                    @Param("maxRent") Double maxRent);
     
     /**
-     * 统计各宿舍楼的宿舍数量
+     * 统计各宿舍楼的宿舍数量（查询缓存，分配列表每次打开都用于宿舍楼筛选项）
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT d.buildingName, COUNT(d) FROM Dormitory d GROUP BY d.buildingName")
     List<Object[]> countDormitoriesByBuilding();
     
+    /**
+     * 统计各状态的宿舍数量
+     */
+    @Query("SELECT d.status, COUNT(d) FROM Dormitory d GROUP BY d.status")
+    List<Object[]> countDormitoriesByStatus();
+    
     /**
      * 统计各宿舍楼的入住率
      */
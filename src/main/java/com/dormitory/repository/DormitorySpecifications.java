@@ -0,0 +1,66 @@
+package com.dormitory.repository;
+
+import com.dormitory.entity.Dormitory;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * 宿舍查询条件
+ */
+public final class DormitorySpecifications {
+    
+    private DormitorySpecifications() {
+    }
+    
+    /**
+     * 组合筛选：各条件为空时忽略，非空条件以 AND 合并为一条查询
+     */
+    public static Specification<Dormitory> matching(String building, Dormitory.DormitoryType type,
+                                                    Dormitory.DormitoryStatus status, String keyword) {
+        Specification<Dormitory> specification = Specification.where(null);
+        if (building != null && !building.trim().isEmpty()) {
+            specification = specification.and(buildingName(building.trim()));
+        }
+        if (type != null) {
+            specification = specification.and(type(type));
+        }
+        if (status != null) {
+            specification = specification.and(status(status));
+        }
+        if (keyword != null && !keyword.trim().isEmpty()) {
+            specification = specification.and(keyword(keyword.trim()));
+        }
+        return specification;
+    }
+    
+    /**
+     * 宿舍楼、房间号或描述包含关键词
+     */
+    public static Specification<Dormitory> keyword(String keyword) {
+        String pattern = SpecificationSupport.containsPattern(keyword);
+        return (root, query, cb) -> cb.or(
+                SpecificationSupport.like(cb, root.get("buildingName"), pattern),
+                SpecificationSupport.like(cb, root.get("roomNumber"), pattern),
+                SpecificationSupport.like(cb, root.get("description"), pattern));
+    }
+    
+    /**
+     * 指定宿舍楼
+     */
+    public static Specification<Dormitory> buildingName(String buildingName) {
+        return (root, query, cb) -> cb.equal(root.get("buildingName"), buildingName);
+    }
+    
+    /**
+     * 指定宿舍类型
+     */
+    public static Specification<Dormitory> type(Dormitory.DormitoryType type) {
+        return (root, query, cb) -> cb.equal(root.get("type"), type);
+    }
+    
+    /**
+     * 指定宿舍状态
+     */
+    public static Specification<Dormitory> status(Dormitory.DormitoryStatus status) {
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+}
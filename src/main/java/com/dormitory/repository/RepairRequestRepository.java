@@ -3,25 +3,41 @@ package com.dormitory.repository;
 import com.dormitory.entity.RepairRequest;
 import com.dormitory.entity.User;
 import com.dormitory.entity.Dormitory;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * 维修申请数据访问层
  */
 @Repository
-public interface RepairRequestRepository extends JpaRepository<RepairRequest, Long> {
+public interface RepairRequestRepository extends JpaRepository<RepairRequest, Long>,
+        JpaSpecificationExecutor<RepairRequest> {
     
     /**
-     * 根据学生查找维修申请
+     * 根据学生查找维修申请（同时取出学生、宿舍和处理管理员）
      */
+    @EntityGraph(attributePaths = {"student", "dormitory", "assignedAdmin"})
     List<RepairRequest> findByStudentOrderByRequestedAtDesc(User student);
     
+    /**
+     * 根据ID查找维修申请（同时取出学生、宿舍和处理管理员，详情页显示用）
+     */
+    @EntityGraph(attributePaths = {"student", "dormitory", "assignedAdmin"})
+    @Query("SELECT rr FROM RepairRequest rr WHERE rr.id = :id")
+    Optional<RepairRequest> findDetailById(@Param("id") Long id);
+    
     /**
      * 根据宿舍查找维修申请
      */
@@ -48,8 +64,9 @@ public interface RepairRequestRepository extends JpaRepository<RepairRequest, Lo
     List<RepairRequest> findByAssignedAdminOrderByRequestedAtDesc(User assignedAdmin);
     
     /**
-     * 查找待处理的维修申请
+     * 查找待处理的维修申请（同时取出学生、宿舍和处理管理员）
      */
+    @EntityGraph(attributePaths = {"student", "dormitory", "assignedAdmin"})
     @Query("SELECT rr FROM RepairRequest rr WHERE rr.status = 'PENDING' ORDER BY " +
            "CASE rr.priority " +
            "WHEN 'URGENT' THEN 1 " +
@@ -77,6 +94,39 @@ public interface RepairRequestRepository extends JpaRepository<RepairRequest, Lo
     @Query("SELECT rr.status, COUNT(rr) FROM RepairRequest rr GROUP BY rr.status")
     List<Object[]> countByStatus();
     
+    /**
+     * 统计指定状态的维修申请数量
+     */
+    @Query("SELECT COUNT(rr) FROM RepairRequest rr WHERE rr.status = :status")
+    long countRequestsByStatus(@Param("status") RepairRequest.RepairStatus status);
+    
+    /**
+     * 统计指定宿舍的维修申请数量
+     */
+    @Query("SELECT COUNT(rr) FROM RepairRequest rr WHERE rr.dormitory.id = :dormitoryId")
+    long countByDormitoryId(@Param("dormitoryId") Long dormitoryId);
+    
+    /**
+     * 查询维修申请的分析维度：[申请ID, 宿舍楼, 类型, 优先级, 状态, 申请时间, 处理管理员]
+     */
+    @Query("SELECT rr.id, d.buildingName, rr.type, rr.priority, rr.status, rr.requestedAt, a.realName " +
+           "FROM RepairRequest rr JOIN rr.dormitory d LEFT JOIN rr.assignedAdmin a")
+    List<Object[]> findCubeRows();
+    
+    /**
+     * 查询指定宿舍维修申请的分析维度
+     */
+    @Query("SELECT rr.id, d.buildingName, rr.type, rr.priority, rr.status, rr.requestedAt, a.realName " +
+           "FROM RepairRequest rr JOIN rr.dormitory d LEFT JOIN rr.assignedAdmin a WHERE d.id = :dormitoryId")
+    List<Object[]> findCubeRowsByDormitoryId(@Param("dormitoryId") Long dormitoryId);
+    
+    /**
+     * 查询指定管理员处理的维修申请的分析维度
+     */
+    @Query("SELECT rr.id, d.buildingName, rr.type, rr.priority, rr.status, rr.requestedAt, a.realName " +
+           "FROM RepairRequest rr JOIN rr.dormitory d JOIN rr.assignedAdmin a WHERE a.id = :adminId")
+    List<Object[]> findCubeRowsByAssignedAdminId(@Param("adminId") Long adminId);
+    
     /**
      * 统计各类型的维修申请数量
      */
@@ -99,19 +149,34 @@ public interface RepairRequestRepository extends JpaRepository<RepairRequest, Lo
      * 统计各管理员的维修申请处理数量
      */
     @Query("SELECT rr.assignedAdmin.realName, COUNT(rr) FROM RepairRequest rr " +
-           "WHERE rr.assignedAdmin IS NOT NULL GROUP BY rr.assignedAdmin.realName")
+           "WHERE rr.assignedAdmin IS NOT NULL GROUP BY rr.assignedAdmin.id, rr.assignedAdmin.realName")
     List<Object[]> countByAssignedAdmin();
     
     /**
-     * 查找超时的维修申请（超过指定天数未处理）
+     * 按管理员ID统计维修申请处理数量（维修统计计数表的管理员维度）
+     */
+    @Query("SELECT rr.assignedAdmin.id, COUNT(rr) FROM RepairRequest rr " +
+           "WHERE rr.assignedAdmin IS NOT NULL GROUP BY rr.assignedAdmin.id")
+    List<Object[]> countByAssignedAdminId();
+    
+    /**
+     * 查找指定时间（含）之前提交且尚未完成的维修申请
      */
     @Query("SELECT rr FROM RepairRequest rr WHERE rr.status IN ('PENDING', 'IN_PROGRESS') AND " +
-           "DATEDIFF(CURRENT_TIMESTAMP, rr.requestedAt) >= :days")
-    List<RepairRequest> findOverdueRequests(@Param("days") Long days);
+           "rr.requestedAt <= :time")
+    List<RepairRequest> findUnfinishedRequestedOnOrBefore(@Param("time") LocalDateTime time);
     
     /**
-     * 查找高优先级的待处理申请
+     * 查找超时的维修申请（超过指定天数未处理）
+     */
+    default List<RepairRequest> findOverdueRequests(Long days) {
+        return findUnfinishedRequestedOnOrBefore(LocalDateTime.now().minusDays(days));
+    }
+    
+    /**
+     * 查找高优先级的待处理申请（同时取出学生、宿舍和处理管理员）
      */
+    @EntityGraph(attributePaths = {"student", "dormitory", "assignedAdmin"})
     @Query("SELECT rr FROM RepairRequest rr WHERE rr.status = 'PENDING' AND " +
            "rr.priority IN ('URGENT', 'HIGH') ORDER BY rr.priority, rr.requestedAt ASC")
     List<RepairRequest> findHighPriorityPendingRequests();
@@ -126,4 +191,15 @@ public interface RepairRequestRepository extends JpaRepository<RepairRequest, Lo
            "rr.dormitory.buildingName LIKE %:keyword% OR " +
            "rr.dormitory.roomNumber LIKE %:keyword%")
     List<RepairRequest> searchRepairRequests(@Param("keyword") String keyword);
+    
+    /**
+     * 流式读取全部维修申请（用于导出），须在事务内消费并关闭
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT rr FROM RepairRequest rr JOIN FETCH rr.student JOIN FETCH rr.dormitory " +
+           "LEFT JOIN FETCH rr.assignedAdmin ORDER BY rr.id")
+    Stream<RepairRequest> streamAllForExport();
 }
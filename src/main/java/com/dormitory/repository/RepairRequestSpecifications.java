@@ -0,0 +1,64 @@
+package com.dormitory.repository;
+
+import com.dormitory.entity.RepairRequest;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * 维修申请查询条件
+ */
+public final class RepairRequestSpecifications {
+    
+    private RepairRequestSpecifications() {
+    }
+    
+    /**
+     * 问题描述、处理备注、学生姓名、宿舍楼或房间号包含关键词
+     */
+    public static Specification<RepairRequest> keyword(String keyword) {
+        String pattern = SpecificationSupport.containsPattern(keyword);
+        return (root, query, cb) -> {
+            Join<?, ?> dormitory = SpecificationSupport.join(root, "dormitory");
+            return cb.or(
+                    SpecificationSupport.like(cb, root.get("description"), pattern),
+                    SpecificationSupport.like(cb, root.get("adminNotes"), pattern),
+                    SpecificationSupport.like(cb, SpecificationSupport.join(root, "student").get("realName"), pattern),
+                    SpecificationSupport.like(cb, dormitory.get("buildingName"), pattern),
+                    SpecificationSupport.like(cb, dormitory.get("roomNumber"), pattern));
+        };
+    }
+    
+    /**
+     * 指定处理状态
+     */
+    public static Specification<RepairRequest> status(RepairRequest.RepairStatus status) {
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+    
+    /**
+     * 指定维修类型
+     */
+    public static Specification<RepairRequest> type(RepairRequest.RepairType type) {
+        return (root, query, cb) -> cb.equal(root.get("type"), type);
+    }
+    
+    /**
+     * 指定优先级
+     */
+    public static Specification<RepairRequest> priority(RepairRequest.RepairPriority priority) {
+        return (root, query, cb) -> cb.equal(root.get("priority"), priority);
+    }
+    
+    /**
+     * 同一条查询中取出学生、宿舍和处理管理员，列表逐行显示时不再按行加载关联；须放在其他条件之前
+     */
+    public static Specification<RepairRequest> fetchDetails() {
+        return (root, query, cb) -> {
+            SpecificationSupport.fetch(root, query, "student", JoinType.INNER);
+            SpecificationSupport.fetch(root, query, "dormitory", JoinType.INNER);
+            SpecificationSupport.fetch(root, query, "assignedAdmin", JoinType.LEFT);
+            return null;
+        };
+    }
+}
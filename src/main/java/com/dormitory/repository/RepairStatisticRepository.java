@@ -0,0 +1,28 @@
+package com.dormitory.repository;
+
+import com.dormitory.entity.RepairStatistic;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * 维修申请统计计数数据访问层
+ */
+@Repository
+public interface RepairStatisticRepository extends JpaRepository<RepairStatistic, Long> {
+    
+    /**
+     * 累加指定维度取值的计数，返回更新的行数（计数行不存在时为0）
+     */
+    @Modifying
+    @Query("UPDATE RepairStatistic s SET s.requestCount = s.requestCount + :delta, s.updatedAt = :updatedAt " +
+           "WHERE s.dimension = :dimension AND s.dimensionKey = :dimensionKey")
+    int addToCount(@Param("dimension") RepairStatistic.Dimension dimension,
+                   @Param("dimensionKey") String dimensionKey,
+                   @Param("delta") long delta,
+                   @Param("updatedAt") LocalDateTime updatedAt);
+}
@@ -0,0 +1,74 @@
+package com.dormitory.repository;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Fetch;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+
+/**
+ * 查询条件公共方法
+ */
+final class SpecificationSupport {
+    
+    // LIKE 的转义字符；不用反斜杠，MySQL 字符串字面量中反斜杠本身也要转义
+    private static final char LIKE_ESCAPE = '!';
+    
+    private SpecificationSupport() {
+    }
+    
+    /**
+     * 包含关键词的 LIKE 模式；关键词中的 % 和 _ 按普通字符匹配
+     */
+    static String containsPattern(String keyword) {
+        StringBuilder pattern = new StringBuilder(keyword.length() + 2).append('%');
+        for (int i = 0; i < keyword.length(); i++) {
+            char c = keyword.charAt(i);
+            if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+                pattern.append(LIKE_ESCAPE);
+            }
+            pattern.append(c);
+        }
+        return pattern.append('%').toString();
+    }
+    
+    /**
+     * 字段匹配 {@link #containsPattern} 生成的模式
+     */
+    static Predicate like(CriteriaBuilder cb, Expression<String> expression, String pattern) {
+        return cb.like(expression, pattern, LIKE_ESCAPE);
+    }
+    
+    /**
+     * 复用已有的关联（包括抓取关联），多个条件引用同一关联时只关联一次
+     */
+    static Join<?, ?> join(From<?, ?> from, String attribute) {
+        for (Join<?, ?> join : from.getJoins()) {
+            if (join.getAttribute().getName().equals(attribute)) {
+                return join;
+            }
+        }
+        for (Fetch<?, ?> fetch : from.getFetches()) {
+            if (fetch.getAttribute().getName().equals(attribute) && fetch instanceof Join<?, ?> join) {
+                return join;
+            }
+        }
+        return from.join(attribute);
+    }
+    
+    /**
+     * 抓取关联；统计总数的查询不需要关联数据，也不能抓取
+     */
+    static void fetch(From<?, ?> from, CriteriaQuery<?> query, String attribute, JoinType joinType) {
+        if (!isCountQuery(query)) {
+            from.fetch(attribute, joinType);
+        }
+    }
+    
+    private static boolean isCountQuery(CriteriaQuery<?> query) {
+        return query.getResultType() == Long.class || query.getResultType() == long.class;
+    }
+}
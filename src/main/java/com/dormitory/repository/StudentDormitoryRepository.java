@@ -3,24 +3,32 @@ package com.dormitory.repository;
 import com.dormitory.entity.StudentDormitory;
 import com.dormitory.entity.User;
 import com.dormitory.entity.Dormitory;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * 学生宿舍关联数据访问层
  */
 @Repository
-public interface StudentDormitoryRepository extends JpaRepository<StudentDormitory, Long> {
+public interface StudentDormitoryRepository extends JpaRepository<StudentDormitory, Long>,
+        JpaSpecificationExecutor<StudentDormitory> {
     
     /**
-     * 根据学生查找当前活跃的宿舍分配
+     * 根据学生查找当前活跃的宿舍分配（同时取出学生和宿舍）
      */
+    @EntityGraph(attributePaths = {"student", "dormitory"})
     @Query("SELECT sd FROM StudentDormitory sd WHERE sd.student = :student AND sd.status = 'ACTIVE'")
     Optional<StudentDormitory> findActiveByStudent(@Param("student") User student);
     
@@ -42,6 +50,12 @@ public interface StudentDormitoryRepository extends JpaRepository<StudentDormito
     @Query("SELECT sd FROM StudentDormitory sd WHERE sd.dormitory.id = :dormitoryId AND sd.status = 'ACTIVE'")
     List<StudentDormitory> findActiveByDormitoryId(@Param("dormitoryId") Long dormitoryId);
     
+    /**
+     * 查询所有有活跃分配的学生ID
+     */
+    @Query("SELECT sd.student.id FROM StudentDormitory sd WHERE sd.status = 'ACTIVE'")
+    List<Long> findActiveStudentIds();
+    
     /**
      * 根据状态查找分配记录
      */
@@ -92,12 +106,47 @@ public interface StudentDormitoryRepository extends JpaRepository<StudentDormito
            "WHERE sd.status = 'ACTIVE' GROUP BY sd.student.className")
     List<Object[]> countActiveStudentsByClass();
     
+    /**
+     * 统计各状态的分配记录数量
+     */
+    @Query("SELECT sd.status, COUNT(sd) FROM StudentDormitory sd GROUP BY sd.status")
+    List<Object[]> countAssignmentsByStatus();
+    
+    /**
+     * 查询活跃分配的分析维度：[分配ID, 宿舍楼, 宿舍类型, 专业, 班级, 入住日期]
+     */
+    @Query("SELECT sd.id, d.buildingName, d.type, s.major, s.className, sd.checkInDate " +
+           "FROM StudentDormitory sd JOIN sd.dormitory d JOIN sd.student s WHERE sd.status = 'ACTIVE'")
+    List<Object[]> findActiveCubeRows();
+    
+    /**
+     * 查询指定学生活跃分配的分析维度
+     */
+    @Query("SELECT sd.id, d.buildingName, d.type, s.major, s.className, sd.checkInDate " +
+           "FROM StudentDormitory sd JOIN sd.dormitory d JOIN sd.student s " +
+           "WHERE sd.status = 'ACTIVE' AND s.id = :studentId")
+    List<Object[]> findActiveCubeRowsByStudentId(@Param("studentId") Long studentId);
+    
+    /**
+     * 查询指定宿舍活跃分配的分析维度
+     */
+    @Query("SELECT sd.id, d.buildingName, d.type, s.major, s.className, sd.checkInDate " +
+           "FROM StudentDormitory sd JOIN sd.dormitory d JOIN sd.student s " +
+           "WHERE sd.status = 'ACTIVE' AND d.id = :dormitoryId")
+    List<Object[]> findActiveCubeRowsByDormitoryId(@Param("dormitoryId") Long dormitoryId);
+    
+    /**
+     * 查找指定日期（含）之前入住的活跃分配记录
+     */
+    @Query("SELECT sd FROM StudentDormitory sd WHERE sd.status = 'ACTIVE' AND sd.checkInDate <= :date")
+    List<StudentDormitory> findActiveCheckedInOnOrBefore(@Param("date") LocalDate date);
+    
     /**
      * 查找即将到期的分配记录（入住超过指定天数）
      */
-    @Query("SELECT sd FROM StudentDormitory sd WHERE sd.status = 'ACTIVE' AND " +
-           "DATEDIFF(CURRENT_DATE, sd.checkInDate) >= :days")
-    List<StudentDormitory> findLongTermAssignments(@Param("days") Long days);
+    default List<StudentDormitory> findLongTermAssignments(Long days) {
+        return findActiveCheckedInOnOrBefore(LocalDate.now().minusDays(days));
+    }
     
     /**
      * 检查学生是否已有活跃的宿舍分配
@@ -108,7 +157,17 @@ public interface StudentDormitoryRepository extends JpaRepository<StudentDormito
     /**
      * 检查宿舍是否已满
      */
-    @Query("SELECT COUNT(sd) >= d.capacity FROM StudentDormitory sd JOIN sd.dormitory d " +
-           "WHERE sd.dormitory.id = :dormitoryId AND sd.status = 'ACTIVE'")
+    @Query("SELECT COUNT(sd) >= (SELECT d.capacity FROM Dormitory d WHERE d.id = :dormitoryId) " +
+           "FROM StudentDormitory sd WHERE sd.dormitory.id = :dormitoryId AND sd.status = 'ACTIVE'")
     boolean isDormitoryFull(@Param("dormitoryId") Long dormitoryId);
+    
+    /**
+     * 流式读取全部分配记录（用于导出），须在事务内消费并关闭
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT sd FROM StudentDormitory sd JOIN FETCH sd.student JOIN FETCH sd.dormitory ORDER BY sd.id")
+    Stream<StudentDormitory> streamAllForExport();
 }
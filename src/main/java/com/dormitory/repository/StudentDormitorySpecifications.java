@@ -0,0 +1,74 @@
+package com.dormitory.repository;
+
+import com.dormitory.entity.StudentDormitory;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * 宿舍分配查询条件
+ */
+public final class StudentDormitorySpecifications {
+    
+    private StudentDormitorySpecifications() {
+    }
+    
+    /**
+     * 组合筛选：各条件为空时忽略，非空条件以 AND 合并为一条查询
+     */
+    public static Specification<StudentDormitory> matching(StudentDormitory.AssignmentStatus status, String building,
+                                                           String keyword) {
+        Specification<StudentDormitory> specification = Specification.where(null);
+        if (status != null) {
+            specification = specification.and(status(status));
+        }
+        if (building != null && !building.trim().isEmpty()) {
+            specification = specification.and(buildingName(building.trim()));
+        }
+        if (keyword != null && !keyword.trim().isEmpty()) {
+            specification = specification.and(keyword(keyword.trim()));
+        }
+        return specification;
+    }
+    
+    /**
+     * 指定分配状态
+     */
+    public static Specification<StudentDormitory> status(StudentDormitory.AssignmentStatus status) {
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+    
+    /**
+     * 宿舍位于指定宿舍楼（在 SQL 中关联宿舍表过滤）
+     */
+    public static Specification<StudentDormitory> buildingName(String buildingName) {
+        return (root, query, cb) ->
+                cb.equal(SpecificationSupport.join(root, "dormitory").get("buildingName"), buildingName);
+    }
+    
+    /**
+     * 学生姓名、学号或房间号包含关键词
+     */
+    public static Specification<StudentDormitory> keyword(String keyword) {
+        String pattern = SpecificationSupport.containsPattern(keyword);
+        return (root, query, cb) -> {
+            Join<?, ?> student = SpecificationSupport.join(root, "student");
+            return cb.or(
+                    SpecificationSupport.like(cb, student.get("realName"), pattern),
+                    SpecificationSupport.like(cb, student.get("studentId"), pattern),
+                    SpecificationSupport.like(cb, SpecificationSupport.join(root, "dormitory").get("roomNumber"),
+                            pattern));
+        };
+    }
+    
+    /**
+     * 同一条查询中取出学生和宿舍，列表逐行显示时不再按行加载关联；须放在其他条件之前，使条件复用抓取的关联
+     */
+    public static Specification<StudentDormitory> fetchStudentAndDormitory() {
+        return (root, query, cb) -> {
+            SpecificationSupport.fetch(root, query, "student", JoinType.INNER);
+            SpecificationSupport.fetch(root, query, "dormitory", JoinType.INNER);
+            return null;
+        };
+    }
+}
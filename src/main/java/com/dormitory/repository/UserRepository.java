@@ -1,19 +1,24 @@
 package com.dormitory.repository;
 
 import com.dormitory.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * 用户数据访问层
  */
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificationExecutor<User> {
     
     /**
      * 根据用户名查找用户
@@ -35,6 +40,11 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     List<User> findByRole(User.Role role);
     
+    /**
+     * 统计指定角色的用户数量
+     */
+    long countByRole(User.Role role);
+    
     /**
      * 根据班级查找学生
      */
@@ -78,6 +88,12 @@ public interface UserRepository extends JpaRepository<User, Long> {
            "(SELECT sd.student.id FROM StudentDormitory sd WHERE sd.status = 'ACTIVE')")
     List<User> findStudentsWithoutDormitory();
     
+    /**
+     * 查询所有学生的ID、专业和班级（用于构建未分配学生索引）
+     */
+    @Query("SELECT u.id, u.major, u.className FROM User u WHERE u.role = 'STUDENT'")
+    List<Object[]> findStudentIndexRows();
+    
     /**
      * 根据关键词搜索用户
      */
@@ -88,4 +104,14 @@ public interface UserRepository extends JpaRepository<User, Long> {
            "u.phone LIKE %:keyword% OR " +
            "u.studentId LIKE %:keyword%")
     List<User> searchUsers(@Param("keyword") String keyword);
+    
+    /**
+     * 流式读取全部用户（用于导出），须在事务内消费并关闭
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT u FROM User u ORDER BY u.id")
+    Stream<User> streamAllForExport();
 }
@@ -0,0 +1,33 @@
+package com.dormitory.repository;
+
+import com.dormitory.entity.User;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * 用户查询条件
+ */
+public final class UserSpecifications {
+    
+    private UserSpecifications() {
+    }
+    
+    /**
+     * 用户名、姓名、邮箱、电话或学号包含关键词
+     */
+    public static Specification<User> keyword(String keyword) {
+        String pattern = SpecificationSupport.containsPattern(keyword);
+        return (root, query, cb) -> cb.or(
+                SpecificationSupport.like(cb, root.get("username"), pattern),
+                SpecificationSupport.like(cb, root.get("realName"), pattern),
+                SpecificationSupport.like(cb, root.get("email"), pattern),
+                SpecificationSupport.like(cb, root.get("phone"), pattern),
+                SpecificationSupport.like(cb, root.get("studentId"), pattern));
+    }
+    
+    /**
+     * 指定角色
+     */
+    public static Specification<User> role(User.Role role) {
+        return (root, query, cb) -> cb.equal(root.get("role"), role);
+    }
+}
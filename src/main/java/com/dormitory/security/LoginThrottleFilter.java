@@ -0,0 +1,49 @@
+package com.dormitory.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * 登录限流过滤器
+ *
+ * 位于表单登录过滤器之前，超出限额的登录请求在查询用户和校验密码之前即被拒绝。
+ */
+public class LoginThrottleFilter extends OncePerRequestFilter {
+    
+    private final LoginThrottleService loginThrottleService;
+    
+    private final String loginProcessingUrl;
+    
+    private final String throttledUrl;
+    
+    public LoginThrottleFilter(LoginThrottleService loginThrottleService, String loginProcessingUrl, String throttledUrl) {
+        this.loginThrottleService = loginThrottleService;
+        this.loginProcessingUrl = loginProcessingUrl;
+        this.throttledUrl = throttledUrl;
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !"POST".equals(request.getMethod()) || !loginProcessingUrl.equals(path);
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        long retryAfter = loginThrottleService.tryAttempt(request.getParameter("username"), request.getRemoteAddr());
+        if (retryAfter > 0) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+            response.sendRedirect(request.getContextPath() + throttledUrl);
+            return;
+        }
+        
+        filterChain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,123 @@
+package com.dormitory.security;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 登录限流配置
+ */
+@ConfigurationProperties(prefix = "dormitory.login-throttle")
+public class LoginThrottleProperties {
+    
+    // 是否启用登录限流
+    private boolean enabled = true;
+    
+    // 按用户名限流
+    private Limit username = new Limit(5, Duration.ofSeconds(12));
+    
+    // 按客户端IP限流
+    private Limit ip = new Limit(30, Duration.ofSeconds(2));
+    
+    // 分段数量
+    private int stripes = 16;
+    
+    // 每类令牌桶的最大数量
+    private int maxEntries = 100_000;
+    
+    // 令牌桶空闲多久后淘汰
+    private Duration idleTimeout = Duration.ofMinutes(10);
+    
+    // 空闲令牌桶的清理间隔
+    private Duration sweepInterval = Duration.ofMinutes(1);
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+    
+    public Limit getUsername() {
+        return username;
+    }
+    
+    public void setUsername(Limit username) {
+        this.username = username;
+    }
+    
+    public Limit getIp() {
+        return ip;
+    }
+    
+    public void setIp(Limit ip) {
+        this.ip = ip;
+    }
+    
+    public int getStripes() {
+        return stripes;
+    }
+    
+    public void setStripes(int stripes) {
+        this.stripes = stripes;
+    }
+    
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+    
+    public void setMaxEntries(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+    
+    public Duration getIdleTimeout() {
+        return idleTimeout;
+    }
+    
+    public void setIdleTimeout(Duration idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+    
+    public Duration getSweepInterval() {
+        return sweepInterval;
+    }
+    
+    public void setSweepInterval(Duration sweepInterval) {
+        this.sweepInterval = sweepInterval;
+    }
+    
+    /**
+     * 令牌桶参数：容量及每个令牌的补充间隔
+     */
+    public static class Limit {
+        
+        private int capacity;
+        
+        private Duration refillInterval;
+        
+        public Limit() {
+        }
+        
+        public Limit(int capacity, Duration refillInterval) {
+            this.capacity = capacity;
+            this.refillInterval = refillInterval;
+        }
+        
+        public int getCapacity() {
+            return capacity;
+        }
+        
+        public void setCapacity(int capacity) {
+            this.capacity = capacity;
+        }
+        
+        public Duration getRefillInterval() {
+            return refillInterval;
+        }
+        
+        public void setRefillInterval(Duration refillInterval) {
+            this.refillInterval = refillInterval;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.dormitory.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 登录限流服务
+ *
+ * 分别按用户名和客户端IP维护令牌桶，两者都有令牌时才放行登录尝试。
+ */
+@Service
+public class LoginThrottleService {
+    
+    // 用户名键的最大长度，防止超长用户名占用内存
+    private static final int MAX_KEY_LENGTH = 64;
+    
+    private final LoginThrottleProperties properties;
+    
+    private final StripedBucketMap usernameBuckets;
+    
+    private final StripedBucketMap ipBuckets;
+    
+    private final Counter allowedCounter;
+    
+    private final Counter usernameRejectedCounter;
+    
+    private final Counter ipRejectedCounter;
+    
+    @Autowired
+    public LoginThrottleService(LoginThrottleProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.usernameBuckets = createBucketMap(properties.getUsername());
+        this.ipBuckets = createBucketMap(properties.getIp());
+        
+        this.allowedCounter = Counter.builder("dormitory.login.throttle.attempts")
+                .description("登录尝试次数（按限流结果区分）")
+                .tag("result", "allowed")
+                .register(meterRegistry);
+        this.usernameRejectedCounter = Counter.builder("dormitory.login.throttle.attempts")
+                .description("登录尝试次数（按限流结果区分）")
+                .tag("result", "rejected_username")
+                .register(meterRegistry);
+        this.ipRejectedCounter = Counter.builder("dormitory.login.throttle.attempts")
+                .description("登录尝试次数（按限流结果区分）")
+                .tag("result", "rejected_ip")
+                .register(meterRegistry);
+        Gauge.builder("dormitory.login.throttle.buckets", usernameBuckets, StripedBucketMap::size)
+                .description("当前令牌桶数量")
+                .tag("key", "username")
+                .register(meterRegistry);
+        Gauge.builder("dormitory.login.throttle.buckets", ipBuckets, StripedBucketMap::size)
+                .description("当前令牌桶数量")
+                .tag("key", "ip")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * 尝试登录，返回需要等待的秒数；0 表示放行
+     */
+    public long tryAttempt(String username, String clientIp) {
+        if (!properties.isEnabled()) {
+            return 0;
+        }
+        
+        long now = System.nanoTime();
+        TokenBucket ipBucket = ipBuckets.bucketFor(clientIp, now);
+        if (!ipBucket.tryAcquire(now)) {
+            ipRejectedCounter.increment();
+            return retryAfterSeconds(ipBucket, now);
+        }
+        
+        TokenBucket usernameBucket = usernameBuckets.bucketFor(normalizeUsername(username), now);
+        if (!usernameBucket.tryAcquire(now)) {
+            usernameRejectedCounter.increment();
+            return retryAfterSeconds(usernameBucket, now);
+        }
+        
+        allowedCounter.increment();
+        return 0;
+    }
+    
+    /**
+     * 定期淘汰空闲的令牌桶
+     */
+    @Scheduled(fixedDelayString = "${dormitory.login-throttle.sweep-interval:PT1M}")
+    public void evictIdleBuckets() {
+        long now = System.nanoTime();
+        usernameBuckets.evictIdle(now);
+        ipBuckets.evictIdle(now);
+    }
+    
+    private StripedBucketMap createBucketMap(LoginThrottleProperties.Limit limit) {
+        long refillNanos = limit.getRefillInterval().toNanos();
+        return new StripedBucketMap(properties.getStripes(), properties.getMaxEntries(),
+                properties.getIdleTimeout().toNanos(),
+                now -> new TokenBucket(limit.getCapacity(), refillNanos, now));
+    }
+    
+    private static String normalizeUsername(String username) {
+        if (username == null) {
+            return "";
+        }
+        String key = username.trim().toLowerCase(Locale.ROOT);
+        return key.length() > MAX_KEY_LENGTH ? key.substring(0, MAX_KEY_LENGTH) : key;
+    }
+    
+    private static long retryAfterSeconds(TokenBucket bucket, long now) {
+        return Math.max(TimeUnit.NANOSECONDS.toSeconds(bucket.nanosUntilAvailable(now)), 1);
+    }
+}
@@ -0,0 +1,145 @@
+package com.dormitory.security;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongFunction;
+
+/**
+ * 分段、有界的令牌桶映射
+ *
+ * 键按哈希分散到多个分段，每个分段独立计数并限制容量。分段写满时先淘汰
+ * 空闲令牌桶；仍然没有空位时，新键共享该分段的溢出令牌桶，因此即使被
+ * 大量随机键灌满，限流依然有效且内存占用有上限。
+ *
+ * 淘汰要扫描整个分段，每个分段每个空闲时长内最多扫描一次：被随机键灌满时，
+ * 其余新键直接使用溢出令牌桶，单次请求的开销与分段大小无关。
+ */
+public class StripedBucketMap {
+    
+    private final Stripe[] stripes;
+    
+    private final int maxEntriesPerStripe;
+    
+    private final long idleNanos;
+    
+    private final LongFunction<TokenBucket> bucketFactory;
+    
+    public StripedBucketMap(int stripeCount, int maxEntries, long idleNanos, LongFunction<TokenBucket> bucketFactory) {
+        int count = Integer.highestOneBit(Math.max(stripeCount, 1) * 2 - 1);
+        this.stripes = new Stripe[count];
+        this.maxEntriesPerStripe = Math.max(maxEntries / count, 1);
+        this.idleNanos = idleNanos;
+        this.bucketFactory = bucketFactory;
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+    
+    /**
+     * 获取键对应的令牌桶，不存在时创建
+     */
+    public TokenBucket bucketFor(String key, long nowNanos) {
+        Stripe stripe = stripeFor(key);
+        TokenBucket bucket = stripe.buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        
+        if (stripe.size.get() >= maxEntriesPerStripe) {
+            if (stripe.claimEviction(nowNanos, idleNanos)) {
+                evictIdle(stripe, nowNanos);
+            }
+            if (stripe.size.get() >= maxEntriesPerStripe) {
+                return stripe.overflow(bucketFactory, nowNanos);
+            }
+        }
+        
+        TokenBucket created = bucketFactory.apply(nowNanos);
+        TokenBucket existing = stripe.buckets.putIfAbsent(key, created);
+        if (existing != null) {
+            return existing;
+        }
+        stripe.size.incrementAndGet();
+        return created;
+    }
+    
+    /**
+     * 淘汰所有分段中的空闲令牌桶
+     */
+    public int evictIdle(long nowNanos) {
+        int evicted = 0;
+        for (Stripe stripe : stripes) {
+            evicted += evictIdle(stripe, nowNanos);
+        }
+        return evicted;
+    }
+    
+    /**
+     * 当前令牌桶数量
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.size.get();
+        }
+        return size;
+    }
+    
+    private int evictIdle(Stripe stripe, long nowNanos) {
+        int evicted = 0;
+        Iterator<Map.Entry<String, TokenBucket>> iterator = stripe.buckets.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, TokenBucket> entry = iterator.next();
+            if (entry.getValue().isIdle(nowNanos, idleNanos)
+                    && stripe.buckets.remove(entry.getKey(), entry.getValue())) {
+                stripe.size.decrementAndGet();
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+    
+    private Stripe stripeFor(String key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        return stripes[h & (stripes.length - 1)];
+    }
+    
+    /**
+     * 分段
+     */
+    private static class Stripe {
+        
+        private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+        
+        private final AtomicInteger size = new AtomicInteger();
+        
+        private final AtomicReference<TokenBucket> overflowBucket = new AtomicReference<>();
+        
+        // 下次允许写满时淘汰的时间，从未淘汰过时为空
+        private final AtomicReference<Long> nextEvictionAt = new AtomicReference<>();
+        
+        /**
+         * 到了允许淘汰的时间且由当前线程抢到时返回 true，同时推迟下次淘汰时间
+         */
+        boolean claimEviction(long nowNanos, long intervalNanos) {
+            Long next = nextEvictionAt.get();
+            if (next != null && nowNanos - next < 0) {
+                return false;
+            }
+            return nextEvictionAt.compareAndSet(next, nowNanos + intervalNanos);
+        }
+        
+        TokenBucket overflow(LongFunction<TokenBucket> bucketFactory, long nowNanos) {
+            TokenBucket bucket = overflowBucket.get();
+            if (bucket == null) {
+                overflowBucket.compareAndSet(null, bucketFactory.apply(nowNanos));
+                bucket = overflowBucket.get();
+            }
+            return bucket;
+        }
+    }
+}
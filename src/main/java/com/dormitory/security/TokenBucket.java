@@ -0,0 +1,66 @@
+package com.dormitory.security;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 无锁令牌桶
+ *
+ * 采用 GCRA（通用信元速率算法）实现，与令牌桶等价：只保存一个
+ * "理论到达时间"，每次获取令牌时通过 CAS 推进，无需加锁。
+ */
+public class TokenBucket {
+    
+    // 每个令牌的补充间隔（纳秒）
+    private final long refillIntervalNanos;
+    
+    // 允许超前的最大时长，即 (容量 - 1) * 补充间隔
+    private final long burstToleranceNanos;
+    
+    // 理论到达时间
+    private final AtomicLong theoreticalArrival;
+    
+    // 最近一次访问时间，用于空闲淘汰
+    private volatile long lastAccessNanos;
+    
+    public TokenBucket(int capacity, long refillIntervalNanos, long nowNanos) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("令牌桶容量必须大于0");
+        }
+        this.refillIntervalNanos = refillIntervalNanos;
+        this.burstToleranceNanos = (capacity - 1) * refillIntervalNanos;
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+        this.lastAccessNanos = nowNanos;
+    }
+    
+    /**
+     * 尝试获取一个令牌
+     */
+    public boolean tryAcquire(long nowNanos) {
+        lastAccessNanos = nowNanos;
+        while (true) {
+            long current = theoreticalArrival.get();
+            long tat = Math.max(current, nowNanos);
+            if (tat - nowNanos > burstToleranceNanos) {
+                return false;
+            }
+            if (theoreticalArrival.compareAndSet(current, tat + refillIntervalNanos)) {
+                return true;
+            }
+        }
+    }
+    
+    /**
+     * 距离下一个令牌可用的等待时间（纳秒），当前有令牌时返回0
+     */
+    public long nanosUntilAvailable(long nowNanos) {
+        long wait = theoreticalArrival.get() - nowNanos - burstToleranceNanos;
+        return Math.max(wait, 0);
+    }
+    
+    /**
+     * 令牌桶是否已空闲（已补满且超过指定时长未被访问）
+     */
+    public boolean isIdle(long nowNanos, long idleNanos) {
+        return theoreticalArrival.get() <= nowNanos && nowNanos - lastAccessNanos >= idleNanos;
+    }
+}
@@ -0,0 +1,115 @@
+package com.dormitory.service;
+
+import com.dormitory.entity.Dormitory;
+import com.dormitory.entity.StudentDormitory;
+import com.dormitory.entity.User;
+
+import java.time.LocalDate;
+
+/**
+ * 分配记录列表行
+ *
+ * 只含页面显示的扁平字段，在服务层事务内由已抓取学生和宿舍的分配记录构造，页面渲染时不会再触发关联加载。
+ */
+public class AssignmentSummary {
+    
+    private final Long id;
+    
+    private final Long studentUserId;
+    
+    private final String studentName;
+    
+    private final String studentNumber;
+    
+    private final Long dormitoryId;
+    
+    private final String buildingName;
+    
+    private final String roomNumber;
+    
+    private final Dormitory.DormitoryType dormitoryType;
+    
+    private final LocalDate checkInDate;
+    
+    private final LocalDate checkOutDate;
+    
+    private final StudentDormitory.AssignmentStatus status;
+    
+    private final Double monthlyFee;
+    
+    private final long daysStayed;
+    
+    public AssignmentSummary(StudentDormitory assignment) {
+        User student = assignment.getStudent();
+        Dormitory dormitory = assignment.getDormitory();
+        this.id = assignment.getId();
+        this.studentUserId = student.getId();
+        this.studentName = student.getRealName();
+        this.studentNumber = student.getStudentId();
+        this.dormitoryId = dormitory.getId();
+        this.buildingName = dormitory.getBuildingName();
+        this.roomNumber = dormitory.getRoomNumber();
+        this.dormitoryType = dormitory.getType();
+        this.checkInDate = assignment.getCheckInDate();
+        this.checkOutDate = assignment.getCheckOutDate();
+        this.status = assignment.getStatus();
+        this.monthlyFee = assignment.getMonthlyFee();
+        this.daysStayed = assignment.getDaysStayed();
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public Long getStudentUserId() {
+        return studentUserId;
+    }
+    
+    public String getStudentName() {
+        return studentName;
+    }
+    
+    public String getStudentNumber() {
+        return studentNumber;
+    }
+    
+    public Long getDormitoryId() {
+        return dormitoryId;
+    }
+    
+    public String getBuildingName() {
+        return buildingName;
+    }
+    
+    public String getRoomNumber() {
+        return roomNumber;
+    }
+    
+    public Dormitory.DormitoryType getDormitoryType() {
+        return dormitoryType;
+    }
+    
+    public LocalDate getCheckInDate() {
+        return checkInDate;
+    }
+    
+    public LocalDate getCheckOutDate() {
+        return checkOutDate;
+    }
+    
+    public StudentDormitory.AssignmentStatus getStatus() {
+        return status;
+    }
+    
+    public Double getMonthlyFee() {
+        return monthlyFee;
+    }
+    
+    public long getDaysStayed() {
+        return daysStayed;
+    }
+    
+    public boolean isActive() {
+        return status == StudentDormitory.AssignmentStatus.ACTIVE;
+    }
+}
@@ -0,0 +1,74 @@
+package com.dormitory.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 管理员仪表板统计快照
+ */
+public class DashboardSnapshot {
+    
+    // 构建时读取的快照版本号，快照至少包含该版本之前的全部变更
+    private final long version;
+    
+    private final long totalStudents;
+    
+    private final long totalDormitories;
+    
+    private final long availableDormitories;
+    
+    private final long pendingRepairRequests;
+    
+    // 各宿舍楼入住率：[宿舍楼, 入住人数, 总容量, 入住率]
+    private final List<Object[]> occupancyStats;
+    
+    // 各状态维修申请数量：[状态, 数量]
+    private final List<Object[]> repairStats;
+    
+    private final LocalDateTime verifiedAt;
+    
+    public DashboardSnapshot(long version, long totalStudents, long totalDormitories, long availableDormitories,
+                             long pendingRepairRequests, List<Object[]> occupancyStats,
+                             List<Object[]> repairStats, LocalDateTime verifiedAt) {
+        this.version = version;
+        this.totalStudents = totalStudents;
+        this.totalDormitories = totalDormitories;
+        this.availableDormitories = availableDormitories;
+        this.pendingRepairRequests = pendingRepairRequests;
+        this.occupancyStats = occupancyStats;
+        this.repairStats = repairStats;
+        this.verifiedAt = verifiedAt;
+    }
+    
+    public long getVersion() {
+        return version;
+    }
+    
+    public long getTotalStudents() {
+        return totalStudents;
+    }
+    
+    public long getTotalDormitories() {
+        return totalDormitories;
+    }
+    
+    public long getAvailableDormitories() {
+        return availableDormitories;
+    }
+    
+    public long getPendingRepairRequests() {
+        return pendingRepairRequests;
+    }
+    
+    public List<Object[]> getOccupancyStats() {
+        return occupancyStats;
+    }
+    
+    public List<Object[]> getRepairStats() {
+        return repairStats;
+    }
+    
+    public LocalDateTime getVerifiedAt() {
+        return verifiedAt;
+    }
+}
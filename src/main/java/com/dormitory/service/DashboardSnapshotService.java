@@ -0,0 +1,334 @@
+package com.dormitory.service;
+
+import com.dormitory.entity.RepairRequest;
+import com.dormitory.entity.User;
+import com.dormitory.event.DormitoryChangedEvent;
+import com.dormitory.event.DormitoryState;
+import com.dormitory.event.RepairRequestChangedEvent;
+import com.dormitory.event.UserChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 管理员仪表板统计快照服务
+ *
+ * 各项指标保存在原子计数器中，由各业务服务发布的变更事件在事务提交后增量更新；
+ * 定时用 COUNT 查询校验并修正偏差。仪表板读取时直接返回缓存的快照，不访问数据库。
+ * 计数器先于版本号更新；快照带上构建前读取的版本号，只有版本号更大的快照才能替换缓存中的快照，
+ * 构建较慢的读取方不会用变更之前的快照覆盖已经更新的快照。
+ */
+@Service
+public class DashboardSnapshotService {
+    
+    private static final Logger log = LoggerFactory.getLogger(DashboardSnapshotService.class);
+    
+    @Autowired
+    private UserService userService;
+    
+    @Autowired
+    private DormitoryService dormitoryService;
+    
+    @Autowired
+    private RepairRequestService repairRequestService;
+    
+    private final AtomicLong totalStudents = new AtomicLong();
+    
+    private final AtomicLong totalDormitories = new AtomicLong();
+    
+    private final AtomicLong availableDormitories = new AtomicLong();
+    
+    // 各宿舍楼入住统计，校验时整体替换，读取方不会看到清空后尚未填入的中间状态
+    private volatile Map<String, BuildingOccupancy> occupancyByBuilding = new ConcurrentSkipListMap<>();
+    
+    private final Map<RepairRequest.RepairStatus, AtomicLong> repairCountByStatus = new EnumMap<>(RepairRequest.RepairStatus.class);
+    
+    // 已处理的变更数量，校验期间有变更时跳过本次修正
+    private final AtomicLong changeSequence = new AtomicLong();
+    
+    // 快照版本号，每次计数变化（含校验修正）时递增
+    private final AtomicLong version = new AtomicLong();
+    
+    private final AtomicReference<DashboardSnapshot> cachedSnapshot = new AtomicReference<>();
+    
+    private volatile boolean initialized;
+    
+    private volatile LocalDateTime verifiedAt;
+    
+    // 首次请求、启动完成事件和定时任务都可能触发校验，同一时间只做一次：两次校验交错时，先查询的一次可能后写入，用旧的计数覆盖新的
+    private final ReentrantLock verifyLock = new ReentrantLock();
+    
+    public DashboardSnapshotService() {
+        for (RepairRequest.RepairStatus status : RepairRequest.RepairStatus.values()) {
+            repairCountByStatus.put(status, new AtomicLong());
+        }
+    }
+    
+    /**
+     * 获取仪表板快照
+     */
+    public DashboardSnapshot getSnapshot() {
+        if (!initialized) {
+            verify();
+        }
+        
+        long current = version.get();
+        DashboardSnapshot snapshot = cachedSnapshot.get();
+        if (snapshot != null && snapshot.getVersion() >= current) {
+            return snapshot;
+        }
+        return cachedSnapshot.accumulateAndGet(buildSnapshot(current), DashboardSnapshotService::newer);
+    }
+    
+    /**
+     * 当前快照版本号，用于判断快照是否有变化
+     */
+    public long getVersion() {
+        return version.get();
+    }
+    
+    /**
+     * 应用启动完成后加载初始数据
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        verify();
+    }
+    
+    /**
+     * 用 COUNT 查询校验计数器，发现偏差时修正
+     */
+    @Scheduled(initialDelayString = "${dormitory.dashboard.verify-interval:PT5M}",
+               fixedDelayString = "${dormitory.dashboard.verify-interval:PT5M}")
+    public void verify() {
+        verifyLock.lock();
+        try {
+            verifyLocked();
+        } finally {
+            verifyLock.unlock();
+        }
+    }
+    
+    private void verifyLocked() {
+        long sequence = changeSequence.get();
+        
+        long students = userService.countByRole(User.Role.STUDENT);
+        long dormitories = dormitoryService.count();
+        long available = dormitoryService.countAvailableDormitories();
+        List<Object[]> occupancyRows = dormitoryService.getOccupancyRateByBuilding();
+        List<Object[]> repairRows = repairRequestService.countByStatus();
+        
+        if (initialized && changeSequence.get() != sequence) {
+            log.debug("仪表板校验期间数据发生变更，跳过本次修正");
+            return;
+        }
+        
+        boolean drifted = correct(totalStudents, students, "学生总数")
+                | correct(totalDormitories, dormitories, "宿舍总数")
+                | correct(availableDormitories, available, "可用宿舍");
+        
+        Map<String, BuildingOccupancy> expectedOccupancy = new ConcurrentSkipListMap<>();
+        for (Object[] row : occupancyRows) {
+            BuildingOccupancy occupancy = new BuildingOccupancy();
+            occupancy.occupancy.set(((Number) row[1]).longValue());
+            occupancy.capacity.set(((Number) row[2]).longValue());
+            expectedOccupancy.put((String) row[0], occupancy);
+        }
+        Map<String, BuildingOccupancy> currentOccupancy = new ConcurrentSkipListMap<>(occupancyByBuilding);
+        currentOccupancy.values().removeIf(BuildingOccupancy::isEmpty);
+        if (!expectedOccupancy.equals(currentOccupancy)) {
+            drifted |= initialized;
+            occupancyByBuilding = expectedOccupancy;
+        }
+        
+        Map<RepairRequest.RepairStatus, Long> expectedRepairs = new EnumMap<>(RepairRequest.RepairStatus.class);
+        for (Object[] row : repairRows) {
+            expectedRepairs.put((RepairRequest.RepairStatus) row[0], ((Number) row[1]).longValue());
+        }
+        for (Map.Entry<RepairRequest.RepairStatus, AtomicLong> entry : repairCountByStatus.entrySet()) {
+            drifted |= correct(entry.getValue(), expectedRepairs.getOrDefault(entry.getKey(), 0L),
+                    "维修申请(" + entry.getKey() + ")");
+        }
+        
+        if (drifted && initialized) {
+            log.warn("仪表板计数器与数据库不一致，已按数据库修正");
+        }
+        if (drifted || !initialized) {
+            version.incrementAndGet();
+        }
+        verifiedAt = LocalDateTime.now();
+        initialized = true;
+        // 没有偏差时版本号不变，清空缓存让下次读取带上新的校验时间
+        cachedSnapshot.set(null);
+    }
+    
+    /**
+     * 用户变更
+     */
+    @TransactionalEventListener
+    @Order(StatisticsVersionService.DERIVED_DATA_ORDER)
+    public void onUserChanged(UserChangedEvent event) {
+        if (!event.isStudent()) {
+            return;
+        }
+        switch (event.getChangeType()) {
+            case CREATED -> totalStudents.incrementAndGet();
+            case DELETED -> totalStudents.decrementAndGet();
+            default -> {
+                return;
+            }
+        }
+        changed();
+    }
+    
+    /**
+     * 宿舍变更
+     */
+    @TransactionalEventListener
+    @Order(StatisticsVersionService.DERIVED_DATA_ORDER)
+    public void onDormitoryChanged(DormitoryChangedEvent event) {
+        DormitoryState previous = event.getPrevious();
+        DormitoryState current = event.getCurrent();
+        
+        if (previous == null) {
+            totalDormitories.incrementAndGet();
+        }
+        if (current == null) {
+            totalDormitories.decrementAndGet();
+        }
+        
+        int availableDelta = (current != null && current.isAvailable() ? 1 : 0)
+                - (previous != null && previous.isAvailable() ? 1 : 0);
+        if (availableDelta != 0) {
+            availableDormitories.addAndGet(availableDelta);
+        }
+        
+        if (previous != null) {
+            occupancyFor(previous.getBuildingName()).add(-previous.getCurrentOccupancy(), -previous.getCapacity());
+        }
+        if (current != null) {
+            occupancyFor(current.getBuildingName()).add(current.getCurrentOccupancy(), current.getCapacity());
+        }
+        changed();
+    }
+    
+    /**
+     * 维修申请变更
+     */
+    @TransactionalEventListener
+    @Order(StatisticsVersionService.DERIVED_DATA_ORDER)
+    public void onRepairRequestChanged(RepairRequestChangedEvent event) {
+        RepairRequest.RepairStatus previous = event.getPrevious() != null ? event.getPrevious().getStatus() : null;
+        RepairRequest.RepairStatus current = event.getCurrent() != null ? event.getCurrent().getStatus() : null;
+        if (previous == current) {
+            return;
+        }
+        if (previous != null) {
+            repairCountByStatus.get(previous).decrementAndGet();
+        }
+        if (current != null) {
+            repairCountByStatus.get(current).incrementAndGet();
+        }
+        changed();
+    }
+    
+    private DashboardSnapshot buildSnapshot(long snapshotVersion) {
+        List<Object[]> occupancyStats = new ArrayList<>();
+        for (Map.Entry<String, BuildingOccupancy> entry : occupancyByBuilding.entrySet()) {
+            if (entry.getValue().isEmpty()) {
+                continue;
+            }
+            long occupancy = entry.getValue().occupancy.get();
+            long capacity = entry.getValue().capacity.get();
+            double rate = capacity > 0 ? (double) occupancy / capacity * 100 : 0;
+            occupancyStats.add(new Object[]{entry.getKey(), occupancy, capacity, rate});
+        }
+        
+        List<Object[]> repairStats = new ArrayList<>();
+        for (Map.Entry<RepairRequest.RepairStatus, AtomicLong> entry : repairCountByStatus.entrySet()) {
+            long count = entry.getValue().get();
+            if (count > 0) {
+                repairStats.add(new Object[]{entry.getKey(), count});
+            }
+        }
+        
+        return new DashboardSnapshot(snapshotVersion, totalStudents.get(), totalDormitories.get(),
+                availableDormitories.get(), repairCountByStatus.get(RepairRequest.RepairStatus.PENDING).get(),
+                Collections.unmodifiableList(occupancyStats), Collections.unmodifiableList(repairStats), verifiedAt);
+    }
+    
+    private BuildingOccupancy occupancyFor(String buildingName) {
+        return occupancyByBuilding.computeIfAbsent(buildingName, building -> new BuildingOccupancy());
+    }
+    
+    private void changed() {
+        changeSequence.incrementAndGet();
+        version.incrementAndGet();
+    }
+    
+    private static DashboardSnapshot newer(DashboardSnapshot cached, DashboardSnapshot built) {
+        return cached != null && cached.getVersion() >= built.getVersion() ? cached : built;
+    }
+    
+    private static boolean correct(AtomicLong counter, long expected, String name) {
+        long actual = counter.getAndSet(expected);
+        if (actual != expected) {
+            log.debug("{} 计数器偏差：{} -> {}", name, actual, expected);
+            return true;
+        }
+        return false;
+    }
+    
+    /**
+     * 宿舍楼入住统计
+     */
+    private static class BuildingOccupancy {
+        
+        private final AtomicLong occupancy = new AtomicLong();
+        
+        private final AtomicLong capacity = new AtomicLong();
+        
+        void add(long occupancyDelta, long capacityDelta) {
+            occupancy.addAndGet(occupancyDelta);
+            capacity.addAndGet(capacityDelta);
+        }
+        
+        // 宿舍楼下已没有宿舍
+        boolean isEmpty() {
+            return capacity.get() <= 0 && occupancy.get() == 0;
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof BuildingOccupancy other)) {
+                return false;
+            }
+            return occupancy.get() == other.occupancy.get() && capacity.get() == other.capacity.get();
+        }
+        
+        @Override
+        public int hashCode() {
+            return Long.hashCode(occupancy.get()) * 31 + Long.hashCode(capacity.get());
+        }
+    }
+}
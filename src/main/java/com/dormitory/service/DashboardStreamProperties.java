@@ -0,0 +1,81 @@
+package com.dormitory.service;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+/**
+ * 仪表板实时推送配置
+ */
+@ConfigurationProperties(prefix = "dormitory.dashboard.stream")
+@Validated
+public class DashboardStreamProperties {
+    
+    // 每秒最多推送次数，推送间隔为 1000 / 此值 毫秒
+    @Min(1)
+    @Max(1000)
+    private int maxUpdatesPerSecond = 2;
+    
+    // 没有数据变化时发送心跳注释行的间隔
+    private Duration heartbeatInterval = Duration.ofSeconds(20);
+    
+    // 推送连接的最长保持时间
+    private Duration timeout = Duration.ofMinutes(30);
+    
+    // 发送线程数：慢连接只占用发送线程，不拖慢其他连接和定时任务
+    @Min(1)
+    private int senderThreads = 2;
+    
+    // 一次发送超过此时间未完成的连接视为已失去响应，断开
+    private Duration sendTimeout = Duration.ofSeconds(10);
+    
+    /**
+     * 推送间隔
+     */
+    public Duration getFlushInterval() {
+        return Duration.ofMillis(1000 / maxUpdatesPerSecond);
+    }
+    
+    public int getMaxUpdatesPerSecond() {
+        return maxUpdatesPerSecond;
+    }
+    
+    public void setMaxUpdatesPerSecond(int maxUpdatesPerSecond) {
+        this.maxUpdatesPerSecond = maxUpdatesPerSecond;
+    }
+    
+    public Duration getHeartbeatInterval() {
+        return heartbeatInterval;
+    }
+    
+    public void setHeartbeatInterval(Duration heartbeatInterval) {
+        this.heartbeatInterval = heartbeatInterval;
+    }
+    
+    public Duration getTimeout() {
+        return timeout;
+    }
+    
+    public void setTimeout(Duration timeout) {
+        this.timeout = timeout;
+    }
+    
+    public int getSenderThreads() {
+        return senderThreads;
+    }
+    
+    public void setSenderThreads(int senderThreads) {
+        this.senderThreads = senderThreads;
+    }
+    
+    public Duration getSendTimeout() {
+        return sendTimeout;
+    }
+    
+    public void setSendTimeout(Duration sendTimeout) {
+        this.sendTimeout = sendTimeout;
+    }
+}
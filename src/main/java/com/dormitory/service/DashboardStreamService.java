@@ -0,0 +1,288 @@
+package com.dormitory.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 管理员仪表板实时推送服务
+ *
+ * 通过 Server-Sent Events 向打开仪表板的管理员推送统计变化。快照变化后不立即发送，
+ * 由定时任务合并后统一发送（每秒最多 max-updates-per-second 次），且只发送与上次相比
+ * 有变化的统计卡片、宿舍楼入住率和维修状态数量。新连接在下一次发送时收到完整快照。
+ *
+ * 定时任务和发送使用自己的线程，不占用共享的定时任务线程。每个连接同一时间只有一次发送：
+ * 上一次还没发完的连接跳过本次增量，发完后改发完整快照；一次发送超过 send-timeout 的连接断开。
+ */
+public class DashboardStreamService implements InitializingBean, DisposableBean {
+    
+    private static final Logger log = LoggerFactory.getLogger(DashboardStreamService.class);
+    
+    private final DashboardSnapshotService dashboardSnapshotService;
+    
+    private final DashboardStreamProperties properties;
+    
+    private final List<Client> clients = new CopyOnWriteArrayList<>();
+    
+    private final Timer sendLagTimer;
+    
+    // 上次推送时的快照及版本，仅由定时任务线程访问
+    private DashboardSnapshot lastSnapshot;
+    
+    private long lastVersion = -1;
+    
+    private long lastSentAt = System.nanoTime();
+    
+    // 不注册为 Bean：容器中出现 TaskScheduler、Executor 时 Spring Boot 不再创建默认的定时任务线程池和 applicationTaskExecutor
+    private final ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+    
+    private final ThreadPoolTaskExecutor sender = new ThreadPoolTaskExecutor();
+    
+    public DashboardStreamService(DashboardSnapshotService dashboardSnapshotService, MeterRegistry meterRegistry,
+                                  DashboardStreamProperties properties) {
+        this.dashboardSnapshotService = dashboardSnapshotService;
+        this.properties = properties;
+        
+        Gauge.builder("dormitory.dashboard.stream.connections", clients, List::size)
+                .description("仪表板实时推送连接数")
+                .register(meterRegistry);
+        this.sendLagTimer = Timer.builder("dormitory.dashboard.stream.send.lag")
+                .description("仪表板推送从开始发送到该连接发送完成的耗时")
+                .register(meterRegistry);
+    }
+    
+    @Override
+    public void afterPropertiesSet() {
+        sender.setCorePoolSize(properties.getSenderThreads());
+        sender.setMaxPoolSize(properties.getSenderThreads());
+        sender.setThreadNamePrefix("dashboard-stream-send-");
+        sender.initialize();
+        scheduler.setThreadNamePrefix("dashboard-stream-");
+        scheduler.initialize();
+        scheduler.scheduleAtFixedRate(this::flush, properties.getFlushInterval());
+    }
+    
+    @Override
+    public void destroy() {
+        scheduler.shutdown();
+        sender.shutdown();
+    }
+    
+    /**
+     * 建立推送连接
+     */
+    public SseEmitter subscribe() {
+        return subscribe(new SseEmitter(properties.getTimeout().toMillis()));
+    }
+    
+    SseEmitter subscribe(SseEmitter emitter) {
+        Client client = new Client(emitter);
+        emitter.onCompletion(() -> clients.remove(client));
+        emitter.onTimeout(() -> {
+            clients.remove(client);
+            emitter.complete();
+        });
+        emitter.onError(e -> clients.remove(client));
+        clients.add(client);
+        return emitter;
+    }
+    
+    /**
+     * 当前连接数
+     */
+    public int getConnectionCount() {
+        return clients.size();
+    }
+    
+    /**
+     * 合并快照变化并推送给所有连接（只由定时任务线程调用）
+     */
+    void flush() {
+        if (clients.isEmpty()) {
+            lastSnapshot = null;
+            lastVersion = -1;
+            return;
+        }
+        
+        long version = dashboardSnapshotService.getVersion();
+        DashboardSnapshot snapshot = version != lastVersion || lastSnapshot == null
+                ? dashboardSnapshotService.getSnapshot() : lastSnapshot;
+        Map<String, Object> delta = lastSnapshot != null && snapshot != lastSnapshot ? diff(lastSnapshot, snapshot) : null;
+        Map<String, Object> full = null;
+        
+        long startedAt = System.nanoTime();
+        boolean heartbeatDue = startedAt - lastSentAt >= properties.getHeartbeatInterval().toNanos();
+        boolean sent = false;
+        for (Client client : clients) {
+            long sendingSince = client.sendingSince;
+            if (sendingSince != 0) {
+                if (startedAt - sendingSince >= properties.getSendTimeout().toNanos()) {
+                    disconnect(client, new TimeoutException("发送超过 " + properties.getSendTimeout()));
+                } else {
+                    // 错过本次增量，发完后改发完整快照
+                    client.initialized = false;
+                }
+                continue;
+            }
+            if (!client.initialized) {
+                if (full == null) {
+                    full = full(snapshot);
+                }
+                client.initialized = true;
+                send(client, SseEmitter.event().name("snapshot").data(full, MediaType.APPLICATION_JSON), startedAt);
+                sent = true;
+            } else if (delta != null && !delta.isEmpty()) {
+                send(client, SseEmitter.event().name("delta").data(delta, MediaType.APPLICATION_JSON), startedAt);
+                sent = true;
+            } else if (heartbeatDue) {
+                // 定期发送注释行，及时发现已断开的连接
+                send(client, SseEmitter.event().comment("heartbeat"), startedAt);
+                sent = true;
+            }
+        }
+        
+        if (sent) {
+            lastSentAt = startedAt;
+        }
+        lastSnapshot = snapshot;
+        lastVersion = snapshot.getVersion();
+    }
+    
+    /**
+     * 在发送线程中发送
+     */
+    private void send(Client client, SseEmitter.SseEventBuilder event, long startedAt) {
+        client.sendingSince = startedAt;
+        sender.execute(() -> {
+            try {
+                client.emitter.send(event);
+                sendLagTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            } catch (IOException | IllegalStateException e) {
+                disconnect(client, e);
+            } finally {
+                client.sendingSince = 0;
+            }
+        });
+    }
+    
+    private void disconnect(Client client, Exception cause) {
+        log.debug("仪表板推送连接已断开：{}", cause.getMessage());
+        clients.remove(client);
+        try {
+            client.emitter.completeWithError(cause);
+        } catch (IllegalStateException ignored) {
+            // 连接已结束
+        }
+    }
+    
+    /**
+     * 完整快照：统计卡片、各宿舍楼入住率 [宿舍楼, 入住人数, 总容量, 入住率]、各状态维修数量 [状态, 数量]
+     */
+    private static Map<String, Object> full(DashboardSnapshot snapshot) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        Map<String, Object> kpis = new LinkedHashMap<>();
+        kpis.put("totalStudents", snapshot.getTotalStudents());
+        kpis.put("totalDormitories", snapshot.getTotalDormitories());
+        kpis.put("availableDormitories", snapshot.getAvailableDormitories());
+        kpis.put("pendingRepairRequests", snapshot.getPendingRepairRequests());
+        payload.put("kpis", kpis);
+        payload.put("occupancy", snapshot.getOccupancyStats());
+        payload.put("repairs", snapshot.getRepairStats());
+        return payload;
+    }
+    
+    /**
+     * 两次快照之间的变化：变化的统计卡片，以及图表中新增/修改的行（upsert）和消失的行（remove）
+     */
+    private static Map<String, Object> diff(DashboardSnapshot previous, DashboardSnapshot current) {
+        Map<String, Object> delta = new LinkedHashMap<>();
+        
+        Map<String, Object> kpis = new LinkedHashMap<>();
+        putIfChanged(kpis, "totalStudents", previous.getTotalStudents(), current.getTotalStudents());
+        putIfChanged(kpis, "totalDormitories", previous.getTotalDormitories(), current.getTotalDormitories());
+        putIfChanged(kpis, "availableDormitories", previous.getAvailableDormitories(), current.getAvailableDormitories());
+        putIfChanged(kpis, "pendingRepairRequests", previous.getPendingRepairRequests(), current.getPendingRepairRequests());
+        if (!kpis.isEmpty()) {
+            delta.put("kpis", kpis);
+        }
+        
+        Map<String, Object> occupancy = diffRows(previous.getOccupancyStats(), current.getOccupancyStats());
+        if (!occupancy.isEmpty()) {
+            delta.put("occupancy", occupancy);
+        }
+        Map<String, Object> repairs = diffRows(previous.getRepairStats(), current.getRepairStats());
+        if (!repairs.isEmpty()) {
+            delta.put("repairs", repairs);
+        }
+        return delta;
+    }
+    
+    private static void putIfChanged(Map<String, Object> kpis, String name, long previous, long current) {
+        if (previous != current) {
+            kpis.put(name, current);
+        }
+    }
+    
+    /**
+     * 按首列比较两组统计行
+     */
+    private static Map<String, Object> diffRows(List<Object[]> previous, List<Object[]> current) {
+        Map<String, Object[]> previousRows = new LinkedHashMap<>();
+        for (Object[] row : previous) {
+            previousRows.put(String.valueOf(row[0]), row);
+        }
+        
+        List<Object[]> upsert = new ArrayList<>();
+        for (Object[] row : current) {
+            Object[] old = previousRows.remove(String.valueOf(row[0]));
+            if (old == null || !Arrays.equals(old, row)) {
+                upsert.add(row);
+            }
+        }
+        
+        Map<String, Object> changes = new LinkedHashMap<>();
+        if (!upsert.isEmpty()) {
+            changes.put("upsert", upsert);
+        }
+        if (!previousRows.isEmpty()) {
+            changes.put("remove", new ArrayList<>(previousRows.keySet()));
+        }
+        return changes;
+    }
+    
+    /**
+     * 推送连接
+     */
+    private static class Client {
+        
+        private final SseEmitter emitter;
+        
+        // 是否已发送完整快照
+        private volatile boolean initialized;
+        
+        // 正在进行的发送开始的时间（System.nanoTime），没有发送时为 0
+        private volatile long sendingSince;
+        
+        Client(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+    }
+}
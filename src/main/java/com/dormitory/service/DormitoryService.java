@@ -1,13 +1,20 @@
 package com.dormitory.service;
 
 import com.dormitory.entity.Dormitory;
+import com.dormitory.event.DormitoryChangedEvent;
+import com.dormitory.event.DormitoryState;
 import com.dormitory.repository.DormitoryRepository;
+import com.dormitory.repository.DormitorySpecifications;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -20,6 +27,9 @@ public class DormitoryService {
     @Autowired
     private DormitoryRepository dormitoryRepository;
     
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
     /**
      * 创建宿舍
      */
@@ -34,7 +44,9 @@ public class DormitoryService {
         dormitory.setUpdatedAt(LocalDateTime.now());
         dormitory.setCurrentOccupancy(0);
         
-        return dormitoryRepository.save(dormitory);
+        Dormitory saved = dormitoryRepository.save(dormitory);
+        eventPublisher.publishEvent(DormitoryChangedEvent.created(saved));
+        return saved;
     }
     
     /**
@@ -53,6 +65,8 @@ public class DormitoryService {
             }
         }
         
+        DormitoryState previous = DormitoryState.of(dormitory);
+        
         // 更新宿舍信息
         dormitory.setBuildingName(dormitoryDetails.getBuildingName());
         dormitory.setRoomNumber(dormitoryDetails.getRoomNumber());
@@ -63,7 +77,9 @@ public class DormitoryService {
         dormitory.setStatus(dormitoryDetails.getStatus());
         dormitory.setUpdatedAt(LocalDateTime.now());
         
-        return dormitoryRepository.save(dormitory);
+        Dormitory saved = dormitoryRepository.save(dormitory);
+        eventPublisher.publishEvent(DormitoryChangedEvent.updated(saved, previous));
+        return saved;
     }
     
     /**
@@ -82,6 +98,18 @@ public class DormitoryService {
         return dormitoryRepository.findByBuildingNameAndRoomNumber(buildingName, roomNumber);
     }
     
+    /**
+     * 分页查询宿舍列表，宿舍楼、类型、状态、关键词可任意组合
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<Dormitory> findPage(String building, Dormitory.DormitoryType type,
+                                          Dormitory.DormitoryStatus status, String keyword,
+                                          KeysetPageRequest pageRequest) {
+        Specification<Dormitory> specification = DormitorySpecifications.matching(building, type, status, keyword);
+        return KeysetSupport.scroll(dormitoryRepository, specification, pageRequest,
+                Map.of("id", Long.class), "id", Sort.Direction.ASC);
+    }
+    
     /**
      * 获取所有宿舍
      */
@@ -170,6 +198,14 @@ public class DormitoryService {
         return dormitoryRepository.countDormitoriesByBuilding();
     }
     
+    /**
+     * 统计各状态的宿舍数量
+     */
+    @Transactional(readOnly = true)
+    public List<Object[]> countDormitoriesByStatus() {
+        return dormitoryRepository.countDormitoriesByStatus();
+    }
+    
     /**
      * 统计各宿舍楼的入住率
      */
@@ -178,11 +214,27 @@ public class DormitoryService {
         return dormitoryRepository.getOccupancyRateByBuilding();
     }
     
+    /**
+     * 统计宿舍总数
+     */
+    @Transactional(readOnly = true)
+    public long count() {
+        return dormitoryRepository.count();
+    }
+    
+    /**
+     * 统计可用宿舍数量
+     */
+    @Transactional(readOnly = true)
+    public long countAvailableDormitories() {
+        return dormitoryRepository.countAvailableDormitories();
+    }
+    
     /**
      * 更新宿舍入住人数
      */
     public void updateOccupancy(Long dormitoryId, int change) {
-        Dormitory dormitory = dormitoryRepository.findById(dormitoryId)
+        Dormitory dormitory = dormitoryRepository.findByIdForUpdate(dormitoryId)
                 .orElseThrow(() -> new RuntimeException("宿舍不存在"));
         
         int newOccupancy = dormitory.getCurrentOccupancy() + change;
@@ -190,6 +242,7 @@ public class DormitoryService {
             throw new RuntimeException("入住人数超出范围");
         }
         
+        DormitoryState previous = DormitoryState.of(dormitory);
         dormitory.setCurrentOccupancy(newOccupancy);
         
         // 更新宿舍状态
@@ -201,6 +254,7 @@ public class DormitoryService {
         
         dormitory.setUpdatedAt(LocalDateTime.now());
         dormitoryRepository.save(dormitory);
+        eventPublisher.publishEvent(DormitoryChangedEvent.updated(dormitory, previous));
     }
     
     /**
@@ -215,7 +269,8 @@ public class DormitoryService {
             throw new RuntimeException("宿舍仍有学生入住，无法删除");
         }
         
-        dormitoryRepository.deleteById(id);
+        dormitoryRepository.delete(dormitory);
+        eventPublisher.publishEvent(DormitoryChangedEvent.deleted(dormitory));
     }
     
     /**
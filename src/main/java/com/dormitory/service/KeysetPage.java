@@ -0,0 +1,98 @@
+package com.dormitory.service;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * 游标分页结果
+ *
+ * 总数延迟计算：只有页面用到时才执行 COUNT，且翻页时由请求带回第一页的结果。
+ */
+public class KeysetPage<T> {
+    
+    private final List<T> content;
+    
+    private final String sort;
+    
+    private final String direction;
+    
+    private final int size;
+    
+    private final String nextCursor;
+    
+    private final String previousCursor;
+    
+    private final LongSupplier totalSupplier;
+    
+    private Long total;
+    
+    KeysetPage(List<T> content, String sort, String direction, int size, String nextCursor, String previousCursor,
+               Long total, LongSupplier totalSupplier) {
+        this.content = content;
+        this.sort = sort;
+        this.direction = direction;
+        this.size = size;
+        this.nextCursor = nextCursor;
+        this.previousCursor = previousCursor;
+        this.total = total;
+        this.totalSupplier = totalSupplier;
+    }
+    
+    public List<T> getContent() {
+        return content;
+    }
+    
+    public String getSort() {
+        return sort;
+    }
+    
+    public String getDirection() {
+        return direction;
+    }
+    
+    public int getSize() {
+        return size;
+    }
+    
+    public String getNextCursor() {
+        return nextCursor;
+    }
+    
+    public String getPreviousCursor() {
+        return previousCursor;
+    }
+    
+    public boolean isHasNext() {
+        return nextCursor != null;
+    }
+    
+    public boolean isHasPrevious() {
+        return previousCursor != null;
+    }
+    
+    /**
+     * 转换本页内容（如转换为列表行），游标和总数不变
+     */
+    public <R> KeysetPage<R> map(Function<? super T, ? extends R> mapper) {
+        List<R> mapped = content.stream().<R>map(mapper).toList();
+        return new KeysetPage<>(mapped, sort, direction, size, nextCursor, previousCursor, total, totalSupplier);
+    }
+    
+    /**
+     * 符合条件的总数，首次调用时计算
+     */
+    public long getTotal() {
+        if (total == null) {
+            total = totalSupplier.getAsLong();
+        }
+        return total;
+    }
+    
+    /**
+     * 总数是否已计算（已计算的总数可带到下一页）
+     */
+    public boolean isTotalKnown() {
+        return total != null;
+    }
+}
@@ -0,0 +1,52 @@
+package com.dormitory.service;
+
+/**
+ * 游标分页请求
+ *
+ * cursor 为上一页返回的游标，为空时取第一页；total 为第一页算出的总数，翻页时随链接带回（签名校验见
+ * KeysetPageLinks，校验不通过时为空），避免每页都执行 COUNT；为空时重新统计。
+ */
+public class KeysetPageRequest {
+    
+    public static final int DEFAULT_SIZE = 20;
+    
+    public static final int MAX_SIZE = 100;
+    
+    private final String cursor;
+    
+    private final int size;
+    
+    private final String sort;
+    
+    private final String direction;
+    
+    private final Long total;
+    
+    public KeysetPageRequest(String cursor, Integer size, String sort, String direction, Long total) {
+        this.cursor = cursor != null && !cursor.isBlank() ? cursor : null;
+        this.size = size == null || size <= 0 ? DEFAULT_SIZE : Math.min(size, MAX_SIZE);
+        this.sort = sort != null && !sort.isBlank() ? sort : null;
+        this.direction = direction != null && !direction.isBlank() ? direction : null;
+        this.total = total;
+    }
+    
+    public String getCursor() {
+        return cursor;
+    }
+    
+    public int getSize() {
+        return size;
+    }
+    
+    public String getSort() {
+        return sort;
+    }
+    
+    public String getDirection() {
+        return direction;
+    }
+    
+    public Long getTotal() {
+        return total;
+    }
+}
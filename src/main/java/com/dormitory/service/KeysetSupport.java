@@ -0,0 +1,182 @@
+package com.dormitory.service;
+
+import jakarta.persistence.criteria.Path;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 游标（keyset）分页
+ *
+ * 按“排序字段 + id”排序，下一页条件为 k <= v AND (k < v OR id < 上一页最后一行id)（升序时方向相反），
+ * 冗余的 k <= v 使数据库可以在 (排序字段, id) 索引上做范围扫描，不像 OFFSET 那样越往后扫描的行越多。
+ * 多取一行判断是否还有下一页。游标为 Base64 编码的方向和边界行的排序键。
+ */
+final class KeysetSupport {
+    
+    private static final String FORWARD = "f";
+    
+    private static final String BACKWARD = "b";
+    
+    private KeysetSupport() {
+    }
+    
+    /**
+     * 取一页
+     *
+     * @param sortTypes        可排序字段及其类型，须包含 id
+     * @param defaultSort      默认排序字段
+     * @param defaultDirection 默认排序方向
+     */
+    static <T> KeysetPage<T> scroll(JpaSpecificationExecutor<T> repository, Specification<T> specification,
+                                    KeysetPageRequest request, Map<String, Class<?>> sortTypes,
+                                    String defaultSort, Sort.Direction defaultDirection) {
+        Specification<T> spec = specification != null ? specification : Specification.where(null);
+        String sortProperty = request.getSort() != null && sortTypes.containsKey(request.getSort())
+                ? request.getSort() : defaultSort;
+        Sort.Direction direction = Sort.Direction.fromOptionalString(request.getDirection()).orElse(defaultDirection);
+        Cursor cursor = Cursor.decode(request.getCursor(), sortProperty, sortTypes);
+        
+        // 向前翻页时反向排序取边界之前的行，再倒回正常顺序
+        boolean backward = cursor != null && cursor.backward;
+        Sort.Direction scanDirection = backward
+                ? (direction.isAscending() ? Sort.Direction.DESC : Sort.Direction.ASC)
+                : direction;
+        Specification<T> scanSpec = cursor != null
+                ? spec.and(after(sortProperty, cursor.value, cursor.id, scanDirection))
+                : spec;
+        
+        // 排序写在条件里而不用 sortBy：Spring Data 3.2 的 findBy 会把 sortBy 的排序键重复拼两遍，H2 因此用不上排序索引
+        List<T> rows = new ArrayList<>(repository.findBy(scanSpec.and(orderBy(sortProperty, scanDirection)),
+                query -> query.limit(request.getSize() + 1).all()));
+        boolean more = rows.size() > request.getSize();
+        if (more) {
+            rows.remove(rows.size() - 1);
+        }
+        if (backward) {
+            Collections.reverse(rows);
+        }
+        
+        String nextCursor = null;
+        String previousCursor = null;
+        if (!rows.isEmpty()) {
+            BeanWrapper first = new BeanWrapperImpl(rows.get(0));
+            BeanWrapper last = new BeanWrapperImpl(rows.get(rows.size() - 1));
+            if (backward || more) {
+                nextCursor = Cursor.encode(FORWARD, sortProperty, last);
+            }
+            if (backward ? more : cursor != null) {
+                previousCursor = Cursor.encode(BACKWARD, sortProperty, first);
+            }
+        }
+        
+        return new KeysetPage<>(rows, sortProperty, direction.name().toLowerCase(), request.getSize(),
+                nextCursor, previousCursor, request.getTotal(), () -> repository.count(spec));
+    }
+    
+    /**
+     * 按 (排序字段, id) 排序，不附加条件
+     */
+    private static <T> Specification<T> orderBy(String property, Sort.Direction direction) {
+        return (root, query, cb) -> {
+            List<Path<?>> keys = "id".equals(property)
+                    ? List.of(root.get("id"))
+                    : List.of(root.get(property), root.get("id"));
+            query.orderBy(keys.stream()
+                    .map(key -> direction.isAscending() ? cb.asc(key) : cb.desc(key))
+                    .toList());
+            return null;
+        };
+    }
+    
+    /**
+     * 排在边界行 (value, id) 之后的行
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <T> Specification<T> after(String property, Comparable value, long id, Sort.Direction direction) {
+        return (root, query, cb) -> {
+            Path<Long> idPath = root.get("id");
+            if ("id".equals(property)) {
+                return direction.isAscending() ? cb.greaterThan(idPath, id) : cb.lessThan(idPath, id);
+            }
+            Path<Comparable> key = root.get(property);
+            if (direction.isAscending()) {
+                return cb.and(cb.greaterThanOrEqualTo(key, value),
+                        cb.or(cb.greaterThan(key, value), cb.greaterThan(idPath, id)));
+            }
+            return cb.and(cb.lessThanOrEqualTo(key, value),
+                    cb.or(cb.lessThan(key, value), cb.lessThan(idPath, id)));
+        };
+    }
+    
+    /**
+     * 分页游标：翻页方向和边界行的排序键
+     */
+    private static final class Cursor {
+        
+        private final boolean backward;
+        
+        private final Comparable<?> value;
+        
+        private final long id;
+        
+        private Cursor(boolean backward, Comparable<?> value, long id) {
+            this.backward = backward;
+            this.value = value;
+            this.id = id;
+        }
+        
+        static String encode(String scrollDirection, String sortProperty, BeanWrapper row) {
+            String text = scrollDirection + ";" + row.getPropertyValue("id");
+            if (!"id".equals(sortProperty)) {
+                text += ";" + row.getPropertyValue(sortProperty);
+            }
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(text.getBytes(StandardCharsets.UTF_8));
+        }
+        
+        /**
+         * 解析游标；游标无效或与当前排序字段不符时返回 null，即从第一页开始
+         */
+        static Cursor decode(String cursor, String sortProperty, Map<String, Class<?>> sortTypes) {
+            if (cursor == null) {
+                return null;
+            }
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(";");
+                boolean idOnly = "id".equals(sortProperty);
+                if (parts.length != (idOnly ? 2 : 3) || !(FORWARD.equals(parts[0]) || BACKWARD.equals(parts[0]))) {
+                    return null;
+                }
+                long id = Long.parseLong(parts[1]);
+                Comparable<?> value = idOnly ? id : parse(sortTypes.get(sortProperty), parts[2]);
+                return new Cursor(BACKWARD.equals(parts[0]), value, id);
+            } catch (RuntimeException e) {
+                return null;
+            }
+        }
+        
+        private static Comparable<?> parse(Class<?> type, String value) {
+            if (type == Long.class) {
+                return Long.valueOf(value);
+            }
+            if (type == LocalDate.class) {
+                return LocalDate.parse(value);
+            }
+            if (type == LocalDateTime.class) {
+                return LocalDateTime.parse(value);
+            }
+            return value;
+        }
+    }
+}
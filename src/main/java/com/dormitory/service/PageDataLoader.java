@@ -0,0 +1,161 @@
+package com.dormitory.service;
+
+import com.dormitory.monitor.StatementCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+import org.springframework.ui.Model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * 页面数据并行加载
+ *
+ * 页面上互不依赖的查询分别提交到有界线程池并行执行，每个查询调用各自的只读事务方法，使用各自的连接；
+ * 请求线程按同一截止时间等待全部结果。超时或失败的部分取默认值，名称放入模型属性 unavailableSections，
+ * 页面据此显示“暂不可用”，其余部分照常渲染；同时计入 dormitory.page-load.degraded（按 section 标签）。
+ * 查询线程继承请求的登录信息（读写分离按用户粘滞主库）和SQL语句计数。
+ */
+public class PageDataLoader implements InitializingBean, DisposableBean {
+    
+    private static final Logger log = LoggerFactory.getLogger(PageDataLoader.class);
+    
+    public static final String UNAVAILABLE_SECTIONS = "unavailableSections";
+    
+    private final PageLoadProperties properties;
+    
+    private final StatementCounter statementCounter;
+    
+    private final MeterRegistry registry;
+    
+    // 不注册为 Bean：容器中出现 Executor 时 Spring Boot 不再创建默认的 applicationTaskExecutor
+    private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    
+    public PageDataLoader(PageLoadProperties properties, StatementCounter statementCounter, MeterRegistry registry) {
+        this.properties = properties;
+        this.statementCounter = statementCounter;
+        this.registry = registry;
+    }
+    
+    @Override
+    public void afterPropertiesSet() {
+        executor.setCorePoolSize(properties.getPoolSize());
+        executor.setMaxPoolSize(properties.getPoolSize());
+        executor.setQueueCapacity(properties.getQueueCapacity());
+        executor.setThreadNamePrefix("page-load-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setTaskDecorator(task -> statementCounter.propagate(new DelegatingSecurityContextRunnable(task)));
+        executor.initialize();
+    }
+    
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+    
+    /**
+     * 开始加载一个页面的数据，截止时间从此刻算起
+     */
+    public PageLoad start() {
+        return new PageLoad(System.nanoTime() + properties.getDeadline().toNanos());
+    }
+    
+    /**
+     * 一次页面加载
+     */
+    public class PageLoad {
+        
+        private final long deadline;
+        
+        private final List<Section<?>> sections = new ArrayList<>();
+        
+        private PageLoad(long deadline) {
+            this.deadline = deadline;
+        }
+        
+        /**
+         * 提交一个查询，section 同时作为模型属性名；超时或失败时取 fallback
+         */
+        public <T> Section<T> add(String section, Supplier<T> query, T fallback) {
+            Section<T> added = new Section<>(section, CompletableFuture.supplyAsync(query, executor), fallback);
+            sections.add(added);
+            return added;
+        }
+        
+        /**
+         * 等待全部查询，返回不可用的部分
+         */
+        public List<String> join() {
+            List<String> unavailable = new ArrayList<>();
+            for (Section<?> section : sections) {
+                if (!section.await(deadline)) {
+                    unavailable.add(section.name);
+                }
+            }
+            return unavailable;
+        }
+        
+        /**
+         * 等待全部查询，结果和不可用的部分写入模型
+         */
+        public void into(Model model) {
+            List<String> unavailable = join();
+            for (Section<?> section : sections) {
+                model.addAttribute(section.name, section.get());
+            }
+            model.addAttribute(UNAVAILABLE_SECTIONS, unavailable);
+        }
+    }
+    
+    /**
+     * 页面的一部分数据
+     */
+    public class Section<T> {
+        
+        private final String name;
+        
+        private final CompletableFuture<T> future;
+        
+        private T value;
+        
+        private Section(String name, CompletableFuture<T> future, T fallback) {
+            this.name = name;
+            this.future = future;
+            this.value = fallback;
+        }
+        
+        private boolean await(long deadline) {
+            try {
+                value = future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                return true;
+            } catch (TimeoutException e) {
+                // 查询仍在执行，结果丢弃；连接在其事务结束后归还
+                log.warn("页面数据 {} 未在 {} 内加载完成，按暂不可用显示", name, properties.getDeadline());
+            } catch (ExecutionException e) {
+                log.warn("页面数据 {} 加载失败，按暂不可用显示", name, e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            registry.counter("dormitory.page-load.degraded", "section", name).increment();
+            return false;
+        }
+        
+        /**
+         * 查询结果，{@link PageLoad#join()} 之后调用；不可用时为默认值
+         */
+        public T get() {
+            return value;
+        }
+    }
+}
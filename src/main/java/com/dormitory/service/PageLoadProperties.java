@@ -0,0 +1,45 @@
+package com.dormitory.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 页面数据并行加载配置
+ */
+@ConfigurationProperties(prefix = "dormitory.page-load")
+public class PageLoadProperties {
+    
+    // 执行查询的线程数，不宜超过连接池大小的一半，留出连接给其他请求
+    private int poolSize = 4;
+    
+    // 等待执行的查询数上限，排满后由请求线程自己执行
+    private int queueCapacity = 100;
+    
+    // 从开始加载到渲染页面的最长等待时间，超时的部分显示为暂不可用
+    private Duration deadline = Duration.ofSeconds(2);
+    
+    public int getPoolSize() {
+        return poolSize;
+    }
+    
+    public void setPoolSize(int poolSize) {
+        this.poolSize = poolSize;
+    }
+    
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+    
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+    
+    public Duration getDeadline() {
+        return deadline;
+    }
+    
+    public void setDeadline(Duration deadline) {
+        this.deadline = deadline;
+    }
+}
@@ -3,15 +3,22 @@ package com.dormitory.service;
 import com.dormitory.entity.RepairRequest;
 import com.dormitory.entity.User;
 import com.dormitory.entity.Dormitory;
+import com.dormitory.event.RepairRequestChangedEvent;
+import com.dormitory.event.RepairRequestState;
 import com.dormitory.repository.RepairRequestRepository;
+import com.dormitory.repository.RepairRequestSpecifications;
 import com.dormitory.repository.UserRepository;
 import com.dormitory.repository.DormitoryRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -30,6 +37,9 @@ public class RepairRequestService {
     @Autowired
     private DormitoryRepository dormitoryRepository;
     
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
     /**
      * 创建维修申请
      */
@@ -46,12 +56,17 @@ public class RepairRequestService {
         Dormitory dormitory = dormitoryRepository.findById(repairRequest.getDormitory().getId())
                 .orElseThrow(() -> new RuntimeException("宿舍不存在"));
         
+        repairRequest.setStudent(student);
+        repairRequest.setDormitory(dormitory);
+        
         // 设置申请时间
         repairRequest.setRequestedAt(LocalDateTime.now());
         repairRequest.setCreatedAt(LocalDateTime.now());
         repairRequest.setUpdatedAt(LocalDateTime.now());
         
-        return repairRequestRepository.save(repairRequest);
+        RepairRequest saved = repairRequestRepository.save(repairRequest);
+        eventPublisher.publishEvent(RepairRequestChangedEvent.created(saved));
+        return saved;
     }
     
     /**
@@ -72,8 +87,10 @@ public class RepairRequestService {
             throw new RuntimeException("该用户不是管理员");
         }
         
+        RepairRequestState previous = RepairRequestState.of(repairRequest);
         repairRequest.assignToAdmin(admin);
         repairRequestRepository.save(repairRequest);
+        eventPublisher.publishEvent(RepairRequestChangedEvent.updated(repairRequest, previous));
     }
     
     /**
@@ -87,8 +104,10 @@ public class RepairRequestService {
             throw new RuntimeException("只能完成进行中的维修申请");
         }
         
+        RepairRequestState previous = RepairRequestState.of(repairRequest);
         repairRequest.complete(adminNotes, repairCost);
         repairRequestRepository.save(repairRequest);
+        eventPublisher.publishEvent(RepairRequestChangedEvent.updated(repairRequest, previous));
     }
     
     /**
@@ -102,8 +121,10 @@ public class RepairRequestService {
             throw new RuntimeException("已完成的维修申请不能取消");
         }
         
+        RepairRequestState previous = RepairRequestState.of(repairRequest);
         repairRequest.cancel(reason);
         repairRequestRepository.save(repairRequest);
+        eventPublisher.publishEvent(RepairRequestChangedEvent.updated(repairRequest, previous));
     }
     
     /**
@@ -114,12 +135,22 @@ public class RepairRequestService {
         return repairRequestRepository.findById(id);
     }
     
+    /**
+     * 根据ID查找维修申请，同时取出学生、宿舍和处理管理员（详情页显示用）
+     */
+    @Transactional(readOnly = true)
+    public Optional<RepairRequest> findDetailById(Long id) {
+        return repairRequestRepository.findDetailById(id);
+    }
+    
     /**
      * 根据学生查找维修申请
      */
     @Transactional(readOnly = true)
-    public List<RepairRequest> findByStudent(User student) {
-        return repairRequestRepository.findByStudentOrderByRequestedAtDesc(student);
+    public List<RepairRequestSummary> findByStudent(User student) {
+        return repairRequestRepository.findByStudentOrderByRequestedAtDesc(student).stream()
+                .map(RepairRequestSummary::new)
+                .toList();
     }
     
     /**
@@ -158,8 +189,10 @@ public class RepairRequestService {
      * 查找待处理的维修申请（按优先级排序）
      */
     @Transactional(readOnly = true)
-    public List<RepairRequest> findPendingRequestsOrderByPriority() {
-        return repairRequestRepository.findPendingRequestsOrderByPriority();
+    public List<RepairRequestSummary> findPendingRequestsOrderByPriority() {
+        return repairRequestRepository.findPendingRequestsOrderByPriority().stream()
+                .map(RepairRequestSummary::new)
+                .toList();
     }
     
     /**
@@ -174,8 +207,10 @@ public class RepairRequestService {
      * 查找高优先级的待处理申请
      */
     @Transactional(readOnly = true)
-    public List<RepairRequest> findHighPriorityPendingRequests() {
-        return repairRequestRepository.findHighPriorityPendingRequests();
+    public List<RepairRequestSummary> findHighPriorityPendingRequests() {
+        return repairRequestRepository.findHighPriorityPendingRequests().stream()
+                .map(RepairRequestSummary::new)
+                .toList();
     }
     
     /**
@@ -210,6 +245,14 @@ public class RepairRequestService {
         return repairRequestRepository.countByStatus();
     }
     
+    /**
+     * 统计指定状态的维修申请数量
+     */
+    @Transactional(readOnly = true)
+    public long countByStatus(RepairRequest.RepairStatus status) {
+        return repairRequestRepository.countRequestsByStatus(status);
+    }
+    
     /**
      * 统计各类型的维修申请数量
      */
@@ -242,6 +285,31 @@ public class RepairRequestService {
         return repairRequestRepository.countByAssignedAdmin();
     }
     
+    /**
+     * 分页查询维修申请，按关键词、状态、类型、优先级的顺序取第一个非空条件；可按申请时间（默认，倒序）或ID排序
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<RepairRequestSummary> findPage(RepairRequest.RepairStatus status,
+                                                     RepairRequest.RepairType type,
+                                                     RepairRequest.RepairPriority priority, String keyword,
+                                                     KeysetPageRequest pageRequest) {
+        Specification<RepairRequest> specification = null;
+        if (keyword != null && !keyword.trim().isEmpty()) {
+            specification = RepairRequestSpecifications.keyword(keyword);
+        } else if (status != null) {
+            specification = RepairRequestSpecifications.status(status);
+        } else if (type != null) {
+            specification = RepairRequestSpecifications.type(type);
+        } else if (priority != null) {
+            specification = RepairRequestSpecifications.priority(priority);
+        }
+        return KeysetSupport.scroll(repairRequestRepository,
+                        Specification.where(RepairRequestSpecifications.fetchDetails()).and(specification),
+                        pageRequest, Map.of("id", Long.class, "requestedAt", LocalDateTime.class),
+                        "requestedAt", Sort.Direction.DESC)
+                .map(RepairRequestSummary::new);
+    }
+    
     /**
      * 获取所有维修申请
      */
@@ -262,12 +330,15 @@ public class RepairRequestService {
             throw new RuntimeException("只能更新待处理的维修申请");
         }
         
+        RepairRequestState previous = RepairRequestState.of(repairRequest);
         repairRequest.setDescription(repairRequestDetails.getDescription());
         repairRequest.setType(repairRequestDetails.getType());
         repairRequest.setPriority(repairRequestDetails.getPriority());
         repairRequest.setUpdatedAt(LocalDateTime.now());
         
-        return repairRequestRepository.save(repairRequest);
+        RepairRequest saved = repairRequestRepository.save(repairRequest);
+        eventPublisher.publishEvent(RepairRequestChangedEvent.updated(saved, previous));
+        return saved;
     }
     
     /**
@@ -282,6 +353,7 @@ public class RepairRequestService {
             throw new RuntimeException("只能删除待处理的维修申请");
         }
         
-        repairRequestRepository.deleteById(id);
+        repairRequestRepository.delete(repairRequest);
+        eventPublisher.publishEvent(RepairRequestChangedEvent.deleted(repairRequest));
     }
 }
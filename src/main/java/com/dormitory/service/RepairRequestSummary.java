@@ -0,0 +1,94 @@
+package com.dormitory.service;
+
+import com.dormitory.entity.RepairRequest;
+
+import java.time.LocalDateTime;
+
+/**
+ * 维修申请列表行
+ *
+ * 只含页面显示的扁平字段，在服务层事务内由已抓取学生、宿舍和处理管理员的维修申请构造。
+ */
+public class RepairRequestSummary {
+    
+    private final Long id;
+    
+    private final String studentName;
+    
+    private final String buildingName;
+    
+    private final String roomNumber;
+    
+    private final String description;
+    
+    private final RepairRequest.RepairType type;
+    
+    private final RepairRequest.RepairPriority priority;
+    
+    private final RepairRequest.RepairStatus status;
+    
+    private final LocalDateTime requestedAt;
+    
+    private final LocalDateTime completedAt;
+    
+    private final String assignedAdminName;
+    
+    public RepairRequestSummary(RepairRequest repairRequest) {
+        this.id = repairRequest.getId();
+        this.studentName = repairRequest.getStudent().getRealName();
+        this.buildingName = repairRequest.getDormitory().getBuildingName();
+        this.roomNumber = repairRequest.getDormitory().getRoomNumber();
+        this.description = repairRequest.getDescription();
+        this.type = repairRequest.getType();
+        this.priority = repairRequest.getPriority();
+        this.status = repairRequest.getStatus();
+        this.requestedAt = repairRequest.getRequestedAt();
+        this.completedAt = repairRequest.getCompletedAt();
+        this.assignedAdminName = repairRequest.getAssignedAdmin() != null
+                ? repairRequest.getAssignedAdmin().getRealName() : null;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public String getStudentName() {
+        return studentName;
+    }
+    
+    public String getBuildingName() {
+        return buildingName;
+    }
+    
+    public String getRoomNumber() {
+        return roomNumber;
+    }
+    
+    public String getDescription() {
+        return description;
+    }
+    
+    public RepairRequest.RepairType getType() {
+        return type;
+    }
+    
+    public RepairRequest.RepairPriority getPriority() {
+        return priority;
+    }
+    
+    public RepairRequest.RepairStatus getStatus() {
+        return status;
+    }
+    
+    public LocalDateTime getRequestedAt() {
+        return requestedAt;
+    }
+    
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+    
+    public String getAssignedAdminName() {
+        return assignedAdminName;
+    }
+}
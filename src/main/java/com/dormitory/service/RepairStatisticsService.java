@@ -0,0 +1,370 @@
+package com.dormitory.service;
+
+import com.dormitory.entity.RepairRequest;
+import com.dormitory.entity.RepairStatistic;
+import com.dormitory.entity.User;
+import com.dormitory.event.DormitoryChangedEvent;
+import com.dormitory.event.DormitoryState;
+import com.dormitory.event.RepairRequestChangedEvent;
+import com.dormitory.event.RepairRequestState;
+import com.dormitory.repository.RepairRequestRepository;
+import com.dormitory.repository.RepairStatisticRepository;
+import com.dormitory.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * 维修申请统计服务
+ *
+ * 按状态、类型、优先级、宿舍楼、处理管理员维护维修申请数量。计数保存在 repair_statistics 表中，
+ * 与维修申请的变更在同一事务内增量更新；事务提交后同步更新内存镜像，统计页面直接读取镜像，
+ * 不再对 repair_requests 做分组扫描。定时用分组查询校验并修正计数表和镜像。
+ * 管理员维度按管理员ID计数（同名管理员分开统计），读取时换成姓名。
+ */
+@Service
+public class RepairStatisticsService {
+    
+    private static final Logger log = LoggerFactory.getLogger(RepairStatisticsService.class);
+    
+    @Autowired
+    private RepairStatisticRepository repairStatisticRepository;
+    
+    @Autowired
+    private RepairRequestRepository repairRequestRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private StatisticsVersionService statisticsVersionService;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    // 内存镜像：维度 -> (取值 -> 数量)，校验时整体替换
+    private volatile Map<RepairStatistic.Dimension, Map<String, AtomicLong>> mirror = emptyMirror();
+    
+    // 已应用到镜像的变更数量，校验期间有变更时跳过本次修正
+    private final AtomicLong changeSequence = new AtomicLong();
+    
+    private volatile boolean initialized;
+    
+    // 校验按差值修正计数表，两次校验同时进行会把同一个差值加两次
+    private final ReentrantLock verifyLock = new ReentrantLock();
+    
+    /**
+     * 统计各状态的维修申请数量
+     */
+    public List<Object[]> countByStatus() {
+        if (!initialized) {
+            return repairRequestRepository.countByStatus();
+        }
+        return rows(RepairStatistic.Dimension.STATUS, RepairRequest.RepairStatus::valueOf);
+    }
+    
+    /**
+     * 统计各类型的维修申请数量
+     */
+    public List<Object[]> countByType() {
+        if (!initialized) {
+            return repairRequestRepository.countByType();
+        }
+        return rows(RepairStatistic.Dimension.TYPE, RepairRequest.RepairType::valueOf);
+    }
+    
+    /**
+     * 统计各优先级的维修申请数量
+     */
+    public List<Object[]> countByPriority() {
+        if (!initialized) {
+            return repairRequestRepository.countByPriority();
+        }
+        return rows(RepairStatistic.Dimension.PRIORITY, RepairRequest.RepairPriority::valueOf);
+    }
+    
+    /**
+     * 统计各宿舍楼的维修申请数量
+     */
+    public List<Object[]> countByBuilding() {
+        if (!initialized) {
+            return repairRequestRepository.countByBuilding();
+        }
+        return rows(RepairStatistic.Dimension.BUILDING, name -> name);
+    }
+    
+    /**
+     * 统计各管理员的维修申请处理数量
+     */
+    public List<Object[]> countByAssignedAdmin() {
+        if (!initialized) {
+            return repairRequestRepository.countByAssignedAdmin();
+        }
+        // 管理员实体在二级缓存中，按ID取姓名不查库
+        return rows(RepairStatistic.Dimension.ADMIN, id -> userRepository.findById(Long.valueOf(id))
+                .map(User::getRealName)
+                .orElse(id));
+    }
+    
+    /**
+     * 维修申请变更：在发布事件的事务中更新计数表
+     */
+    @EventListener
+    public void updateCounters(RepairRequestChangedEvent event) {
+        LocalDateTime now = LocalDateTime.now();
+        deltas(event.getPrevious(), event.getCurrent())
+                .forEach((key, delta) -> addToTable(key.dimension(), key.value(), delta, now));
+    }
+    
+    /**
+     * 维修申请变更：事务提交后更新内存镜像
+     */
+    @TransactionalEventListener
+    @Order(StatisticsVersionService.DERIVED_DATA_ORDER)
+    public void updateMirror(RepairRequestChangedEvent event) {
+        deltas(event.getPrevious(), event.getCurrent())
+                .forEach((key, delta) -> addToMirror(key.dimension(), key.value(), delta));
+        changeSequence.incrementAndGet();
+    }
+    
+    /**
+     * 宿舍楼名变更：在发布事件的事务中把该宿舍的维修申请计数转到新楼名下
+     */
+    @EventListener
+    public void moveBuildingCounters(DormitoryChangedEvent event) {
+        if (!isBuildingRenamed(event)) {
+            return;
+        }
+        long count = repairRequestRepository.countByDormitoryId(event.getDormitoryId());
+        if (count > 0) {
+            LocalDateTime now = LocalDateTime.now();
+            addToTable(RepairStatistic.Dimension.BUILDING, event.getPrevious().getBuildingName(), -count, now);
+            addToTable(RepairStatistic.Dimension.BUILDING, event.getCurrent().getBuildingName(), count, now);
+        }
+    }
+    
+    /**
+     * 宿舍楼名变更：事务提交后更新内存镜像
+     */
+    @TransactionalEventListener
+    @Order(StatisticsVersionService.DERIVED_DATA_ORDER)
+    public void moveBuildingMirror(DormitoryChangedEvent event) {
+        if (!isBuildingRenamed(event)) {
+            return;
+        }
+        long count = repairRequestRepository.countByDormitoryId(event.getDormitoryId());
+        if (count > 0) {
+            addToMirror(RepairStatistic.Dimension.BUILDING, event.getPrevious().getBuildingName(), -count);
+            addToMirror(RepairStatistic.Dimension.BUILDING, event.getCurrent().getBuildingName(), count);
+            changeSequence.incrementAndGet();
+        }
+    }
+    
+    /**
+     * 用分组查询校验计数表，发现偏差时修正，并重建内存镜像
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${dormitory.repair-statistics.verify-interval:PT10M}",
+               fixedDelayString = "${dormitory.repair-statistics.verify-interval:PT10M}")
+    @Transactional
+    public void verify() {
+        verifyLock.lock();
+        try {
+            verifyLocked();
+        } finally {
+            verifyLock.unlock();
+        }
+    }
+    
+    private void verifyLocked() {
+        long sequence = changeSequence.get();
+        
+        Map<CounterKey, Long> expected = new LinkedHashMap<>();
+        // 枚举维度的计数行预先建好，避免并发提交时同时插入
+        for (RepairRequest.RepairStatus status : RepairRequest.RepairStatus.values()) {
+            expected.put(new CounterKey(RepairStatistic.Dimension.STATUS, status.name()), 0L);
+        }
+        for (RepairRequest.RepairType type : RepairRequest.RepairType.values()) {
+            expected.put(new CounterKey(RepairStatistic.Dimension.TYPE, type.name()), 0L);
+        }
+        for (RepairRequest.RepairPriority priority : RepairRequest.RepairPriority.values()) {
+            expected.put(new CounterKey(RepairStatistic.Dimension.PRIORITY, priority.name()), 0L);
+        }
+        putRows(expected, RepairStatistic.Dimension.STATUS, repairRequestRepository.countByStatus());
+        putRows(expected, RepairStatistic.Dimension.TYPE, repairRequestRepository.countByType());
+        putRows(expected, RepairStatistic.Dimension.PRIORITY, repairRequestRepository.countByPriority());
+        putRows(expected, RepairStatistic.Dimension.BUILDING, repairRequestRepository.countByBuilding());
+        putRows(expected, RepairStatistic.Dimension.ADMIN, repairRequestRepository.countByAssignedAdminId());
+        
+        Map<CounterKey, Long> stored = new HashMap<>();
+        for (RepairStatistic statistic : repairStatisticRepository.findAll()) {
+            stored.put(new CounterKey(statistic.getDimension(), statistic.getDimensionKey()),
+                    statistic.getRequestCount());
+        }
+        
+        if (initialized && changeSequence.get() != sequence) {
+            log.debug("维修统计校验期间数据发生变更，跳过本次修正");
+            return;
+        }
+        
+        // 按差值修正，不覆盖校验期间其他事务的累加
+        int drifted = 0;
+        LocalDateTime now = LocalDateTime.now();
+        for (Map.Entry<CounterKey, Long> entry : stored.entrySet()) {
+            long difference = expected.getOrDefault(entry.getKey(), 0L) - entry.getValue();
+            if (difference != 0) {
+                repairStatisticRepository.addToCount(entry.getKey().dimension(), entry.getKey().value(), difference, now);
+                drifted++;
+            }
+        }
+        for (Map.Entry<CounterKey, Long> entry : expected.entrySet()) {
+            if (!stored.containsKey(entry.getKey())) {
+                addToTable(entry.getKey().dimension(), entry.getKey().value(), entry.getValue(), now);
+                if (entry.getValue() != 0) {
+                    drifted++;
+                }
+            }
+        }
+        
+        Map<RepairStatistic.Dimension, Map<String, AtomicLong>> rebuilt = emptyMirror();
+        expected.forEach((key, count) -> rebuilt.get(key.dimension()).put(key.value(), new AtomicLong(count)));
+        mirror = rebuilt;
+        
+        if (drifted > 0 && initialized) {
+            log.warn("维修统计计数表有 {} 项与数据库不一致，已按数据库修正", drifted);
+            statisticsVersionService.bump(StatisticsVersionService.Dataset.REPAIRS);
+        }
+        initialized = true;
+    }
+    
+    private void addToTable(RepairStatistic.Dimension dimension, String value, long delta, LocalDateTime now) {
+        if (repairStatisticRepository.addToCount(dimension, value, delta, now) == 0) {
+            createRow(dimension, value);
+            repairStatisticRepository.addToCount(dimension, value, delta, now);
+        }
+    }
+    
+    /**
+     * 在独立的事务中建计数为 0 的计数行并立即提交
+     *
+     * 计数行在当前事务中插入时，另一事务同时为同一取值插入会违反唯一约束，连同维修申请一起回滚；
+     * 独立事务很短，同时插入的一方等另一方提交后失败，计数行已存在，忽略即可。
+     * 只在某个楼名或管理员第一次出现时占用第二个连接。
+     */
+    private void createRow(RepairStatistic.Dimension dimension, String value) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    repairStatisticRepository.saveAndFlush(new RepairStatistic(dimension, value, 0L)));
+        } catch (DataIntegrityViolationException e) {
+            log.debug("维修统计计数行 {}={} 已由其他事务创建", dimension, value);
+        }
+    }
+    
+    private void addToMirror(RepairStatistic.Dimension dimension, String value, long delta) {
+        mirror.get(dimension).computeIfAbsent(value, key -> new AtomicLong()).addAndGet(delta);
+    }
+    
+    private List<Object[]> rows(RepairStatistic.Dimension dimension, Function<String, Object> keyMapper) {
+        List<Object[]> rows = new ArrayList<>();
+        for (Map.Entry<String, AtomicLong> entry : mirror.get(dimension).entrySet()) {
+            long count = entry.getValue().get();
+            if (count > 0) {
+                rows.add(new Object[]{keyMapper.apply(entry.getKey()), count});
+            }
+        }
+        return rows;
+    }
+    
+    private static boolean isBuildingRenamed(DormitoryChangedEvent event) {
+        DormitoryState previous = event.getPrevious();
+        DormitoryState current = event.getCurrent();
+        return previous != null && current != null
+                && !Objects.equals(previous.getBuildingName(), current.getBuildingName());
+    }
+    
+    /**
+     * 计算一次变更对各维度计数的增减
+     */
+    private static Map<CounterKey, Long> deltas(RepairRequestState previous, RepairRequestState current) {
+        Map<CounterKey, Long> deltas = new LinkedHashMap<>();
+        if (previous != null) {
+            keys(previous).forEach(key -> deltas.merge(key, -1L, Long::sum));
+        }
+        if (current != null) {
+            keys(current).forEach(key -> deltas.merge(key, 1L, Long::sum));
+        }
+        deltas.values().removeIf(delta -> delta == 0);
+        return deltas;
+    }
+    
+    private static List<CounterKey> keys(RepairRequestState state) {
+        List<CounterKey> keys = new ArrayList<>(5);
+        if (state.getStatus() != null) {
+            keys.add(new CounterKey(RepairStatistic.Dimension.STATUS, state.getStatus().name()));
+        }
+        if (state.getType() != null) {
+            keys.add(new CounterKey(RepairStatistic.Dimension.TYPE, state.getType().name()));
+        }
+        if (state.getPriority() != null) {
+            keys.add(new CounterKey(RepairStatistic.Dimension.PRIORITY, state.getPriority().name()));
+        }
+        if (state.getBuildingName() != null) {
+            keys.add(new CounterKey(RepairStatistic.Dimension.BUILDING, state.getBuildingName()));
+        }
+        if (state.getAssignedAdminId() != null) {
+            keys.add(new CounterKey(RepairStatistic.Dimension.ADMIN, state.getAssignedAdminId().toString()));
+        }
+        return keys;
+    }
+    
+    private static void putRows(Map<CounterKey, Long> expected, RepairStatistic.Dimension dimension, List<Object[]> rows) {
+        for (Object[] row : rows) {
+            Object key = row[0];
+            if (key == null) {
+                continue;
+            }
+            String value = key instanceof Enum<?> constant ? constant.name() : key.toString();
+            expected.put(new CounterKey(dimension, value), ((Number) row[1]).longValue());
+        }
+    }
+    
+    private static Map<RepairStatistic.Dimension, Map<String, AtomicLong>> emptyMirror() {
+        Map<RepairStatistic.Dimension, Map<String, AtomicLong>> mirror = new EnumMap<>(RepairStatistic.Dimension.class);
+        for (RepairStatistic.Dimension dimension : RepairStatistic.Dimension.values()) {
+            mirror.put(dimension, new ConcurrentSkipListMap<>());
+        }
+        return mirror;
+    }
+    
+    /**
+     * 计数行的维度和取值
+     */
+    private record CounterKey(RepairStatistic.Dimension dimension, String value) {
+    }
+}
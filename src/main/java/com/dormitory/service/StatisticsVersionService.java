@@ -0,0 +1,130 @@
+package com.dormitory.service;
+
+import com.dormitory.event.AssignmentChangedEvent;
+import com.dormitory.event.DormitoryChangedEvent;
+import com.dormitory.event.RepairRequestChangedEvent;
+import com.dormitory.event.StatisticsChangedEvent;
+import com.dormitory.event.UserChangedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 统计数据版本服务
+ *
+ * 为每类统计数据维护版本号，相关数据的写操作提交后递增，统计接口据此生成 ETag。
+ * 版本号只保存在内存中，ETag 中带上启动时间，重启后旧的 ETag 全部失效。
+ * 版本号递增时发布 {@link StatisticsChangedEvent}，页面片段缓存据此清除相关片段。
+ * 事务提交后的监听器按 @Order 执行：内存镜像、仪表板快照等派生数据的监听器使用 {@link #DERIVED_DATA_ORDER}，
+ * 先于本服务的版本号递增（{@link #VERSION_ORDER}）执行，拿到新版本号或新 ETag 的请求一定读到更新后的数据。
+ */
+@Service
+public class StatisticsVersionService {
+    
+    /**
+     * 事务提交后更新派生数据（内存镜像、快照）的监听器顺序
+     */
+    public static final int DERIVED_DATA_ORDER = 0;
+    
+    /**
+     * 事务提交后递增版本号的监听器顺序，排在所有派生数据更新之后
+     */
+    public static final int VERSION_ORDER = Ordered.LOWEST_PRECEDENCE;
+    
+    private final long epoch = System.currentTimeMillis();
+    
+    private final Map<Dataset, AtomicLong> versions = new EnumMap<>(Dataset.class);
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    public StatisticsVersionService() {
+        for (Dataset dataset : Dataset.values()) {
+            versions.put(dataset, new AtomicLong());
+        }
+    }
+    
+    /**
+     * 当前版本号
+     */
+    public long getVersion(Dataset dataset) {
+        return versions.get(dataset).get();
+    }
+    
+    /**
+     * 指定版本对应的强 ETag
+     */
+    public String toETag(Dataset dataset, long version) {
+        return "\"" + dataset.name().toLowerCase() + "-" + epoch + "-" + version + "\"";
+    }
+    
+    /**
+     * 递增版本号，使客户端缓存的结果失效
+     */
+    public void bump(Dataset dataset) {
+        long version = versions.get(dataset).incrementAndGet();
+        eventPublisher.publishEvent(new StatisticsChangedEvent(dataset, version));
+    }
+    
+    /**
+     * 宿舍变更：宿舍统计变化；删除宿舍会级联删除分配记录；楼名变更时分配、维修按楼统计也变化
+     */
+    @TransactionalEventListener
+    @Order(VERSION_ORDER)
+    public void onDormitoryChanged(DormitoryChangedEvent event) {
+        bump(Dataset.DORMITORIES);
+        if (event.getCurrent() == null) {
+            bump(Dataset.ASSIGNMENTS);
+        } else if (event.getPrevious() != null
+                && !Objects.equals(event.getPrevious().getBuildingName(), event.getCurrent().getBuildingName())) {
+            bump(Dataset.ASSIGNMENTS);
+            bump(Dataset.REPAIRS);
+        }
+    }
+    
+    /**
+     * 宿舍分配变更
+     */
+    @TransactionalEventListener
+    @Order(VERSION_ORDER)
+    public void onAssignmentChanged(AssignmentChangedEvent event) {
+        bump(Dataset.ASSIGNMENTS);
+    }
+    
+    /**
+     * 维修申请变更
+     */
+    @TransactionalEventListener
+    @Order(VERSION_ORDER)
+    public void onRepairRequestChanged(RepairRequestChangedEvent event) {
+        bump(Dataset.REPAIRS);
+    }
+    
+    /**
+     * 用户变更：学生的专业、班级影响分配统计，管理员姓名影响维修处理统计
+     */
+    @TransactionalEventListener
+    @Order(VERSION_ORDER)
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.isStudent()) {
+            bump(Dataset.ASSIGNMENTS);
+        } else {
+            bump(Dataset.REPAIRS);
+        }
+    }
+    
+    /**
+     * 统计数据类别
+     */
+    public enum Dataset {
+        DORMITORIES, ASSIGNMENTS, REPAIRS
+    }
+}
@@ -3,16 +3,22 @@ package com.dormitory.service;
 import com.dormitory.entity.StudentDormitory;
 import com.dormitory.entity.User;
 import com.dormitory.entity.Dormitory;
+import com.dormitory.event.AssignmentChangedEvent;
 import com.dormitory.repository.StudentDormitoryRepository;
+import com.dormitory.repository.StudentDormitorySpecifications;
 import com.dormitory.repository.UserRepository;
 import com.dormitory.repository.DormitoryRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -34,6 +40,9 @@ public class StudentDormitoryService {
     @Autowired
     private DormitoryService dormitoryService;
     
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
     /**
      * 分配学生到宿舍
      */
@@ -51,8 +60,8 @@ public class StudentDormitoryService {
             throw new RuntimeException("该学生已有宿舍分配");
         }
         
-        // 检查宿舍是否存在且可用
-        Dormitory dormitory = dormitoryRepository.findById(dormitoryId)
+        // 检查宿舍是否存在且可用；锁定宿舍后再检查床位，并发分配同一宿舍时不会超员
+        Dormitory dormitory = dormitoryRepository.findByIdForUpdate(dormitoryId)
                 .orElseThrow(() -> new RuntimeException("宿舍不存在"));
         
         if (!dormitory.isAvailable()) {
@@ -71,6 +80,9 @@ public class StudentDormitoryService {
         // 更新宿舍入住人数
         dormitoryService.updateOccupancy(dormitoryId, 1);
         
+        eventPublisher.publishEvent(new AssignmentChangedEvent(assignment.getId(), studentId, dormitoryId,
+                null, assignment.getStatus()));
+        
         return assignment;
     }
     
@@ -83,11 +95,15 @@ public class StudentDormitoryService {
                 .orElseThrow(() -> new RuntimeException("该学生没有活跃的宿舍分配"));
         
         // 执行退宿
+        StudentDormitory.AssignmentStatus previousStatus = assignment.getStatus();
         assignment.checkOut(checkOutDate);
         studentDormitoryRepository.save(assignment);
         
         // 更新宿舍入住人数
         dormitoryService.updateOccupancy(assignment.getDormitory().getId(), -1);
+        
+        eventPublisher.publishEvent(new AssignmentChangedEvent(assignment.getId(), studentId,
+                assignment.getDormitory().getId(), previousStatus, assignment.getStatus()));
     }
     
     /**
@@ -106,6 +122,14 @@ public class StudentDormitoryService {
         return studentDormitoryRepository.findActiveByStudent(student);
     }
     
+    /**
+     * 根据学生查找当前活跃的分配（仪表板显示用）
+     */
+    @Transactional(readOnly = true)
+    public Optional<AssignmentSummary> findActiveSummaryByStudent(User student) {
+        return studentDormitoryRepository.findActiveByStudent(student).map(AssignmentSummary::new);
+    }
+    
     /**
      * 根据宿舍ID查找所有活跃的分配
      */
@@ -186,6 +210,14 @@ public class StudentDormitoryService {
         return studentDormitoryRepository.countActiveStudentsByClass();
     }
     
+    /**
+     * 统计各状态的分配记录数量
+     */
+    @Transactional(readOnly = true)
+    public List<Object[]> countAssignmentsByStatus() {
+        return studentDormitoryRepository.countAssignmentsByStatus();
+    }
+    
     /**
      * 查找即将到期的分配记录
      */
@@ -194,6 +226,20 @@ public class StudentDormitoryService {
         return studentDormitoryRepository.findLongTermAssignments(days);
     }
     
+    /**
+     * 分页查询分配记录，状态、宿舍楼、关键词可任意组合；可按入住日期（默认，倒序）或ID排序
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<AssignmentSummary> findPage(StudentDormitory.AssignmentStatus status, String building,
+                                                  String keyword, KeysetPageRequest pageRequest) {
+        Specification<StudentDormitory> specification = Specification
+                .where(StudentDormitorySpecifications.fetchStudentAndDormitory())
+                .and(StudentDormitorySpecifications.matching(status, building, keyword));
+        return KeysetSupport.scroll(studentDormitoryRepository, specification, pageRequest,
+                Map.of("id", Long.class, "checkInDate", LocalDate.class), "checkInDate", Sort.Direction.DESC)
+                .map(AssignmentSummary::new);
+    }
+    
     /**
      * 获取所有分配记录
      */
@@ -221,6 +267,7 @@ public class StudentDormitoryService {
             throw new RuntimeException("只能取消活跃的分配记录");
         }
         
+        StudentDormitory.AssignmentStatus previousStatus = assignment.getStatus();
         assignment.setStatus(StudentDormitory.AssignmentStatus.CANCELLED);
         assignment.setNotes(reason);
         assignment.setUpdatedAt(LocalDateTime.now());
@@ -228,5 +275,8 @@ public class StudentDormitoryService {
         
         // 更新宿舍入住人数
         dormitoryService.updateOccupancy(assignment.getDormitory().getId(), -1);
+        
+        eventPublisher.publishEvent(new AssignmentChangedEvent(assignment.getId(), assignment.getStudent().getId(),
+                assignment.getDormitory().getId(), previousStatus, assignment.getStatus()));
     }
 }
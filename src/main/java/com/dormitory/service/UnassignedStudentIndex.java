@@ -0,0 +1,254 @@
+package com.dormitory.service;
+
+import com.dormitory.event.AssignmentChangedEvent;
+import com.dormitory.event.UserChangedEvent;
+import com.dormitory.repository.StudentDormitoryRepository;
+import com.dormitory.repository.UserRepository;
+import org.roaringbitmap.longlong.LongIterator;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 未分配宿舍学生索引
+ *
+ * 以压缩位图维护"未分配宿舍的学生"集合，并按专业、班级维护学生位图，
+ * 取代每次执行 NOT IN 子查询。分配、退宿、取消分配以及用户增删改
+ * 在事务提交后增量更新索引；应用启动完成时从数据库全量构建一次。
+ */
+@Component
+public class UnassignedStudentIndex {
+    
+    private static final Logger log = LoggerFactory.getLogger(UnassignedStudentIndex.class);
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private StudentDormitoryRepository studentDormitoryRepository;
+    
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    
+    private State state = new State();
+    
+    // 重建期间到达的变更，重建完成后回放
+    private final Queue<Runnable> pendingChanges = new ArrayDeque<>();
+    
+    private boolean rebuilding;
+    
+    private volatile boolean ready;
+    
+    /**
+     * 应用启动完成后全量构建索引
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+    
+    /**
+     * 从数据库全量重建索引
+     */
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            rebuilding = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        
+        State rebuilt = new State();
+        try {
+            for (Object[] row : userRepository.findStudentIndexRows()) {
+                long id = (Long) row[0];
+                rebuilt.addStudent(id, (String) row[1], (String) row[2]);
+                rebuilt.unassigned.addLong(id);
+            }
+            for (Long studentId : studentDormitoryRepository.findActiveStudentIds()) {
+                rebuilt.unassigned.removeLong(studentId);
+            }
+        } finally {
+            lock.writeLock().lock();
+            try {
+                state = rebuilt;
+                Runnable change;
+                while ((change = pendingChanges.poll()) != null) {
+                    change.run();
+                }
+                rebuilding = false;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        
+        ready = true;
+        log.info("未分配宿舍学生索引构建完成，共 {} 名学生未分配", rebuilt.unassigned.getLongCardinality());
+    }
+    
+    /**
+     * 索引是否已可用
+     */
+    public boolean isReady() {
+        return ready;
+    }
+    
+    /**
+     * 宿舍分配变更
+     */
+    @TransactionalEventListener
+    public void onAssignmentChanged(AssignmentChangedEvent event) {
+        long studentId = event.getStudentId();
+        boolean active = event.isActive();
+        apply(() -> {
+            if (active) {
+                state.unassigned.removeLong(studentId);
+            } else if (state.students.contains(studentId)) {
+                state.unassigned.addLong(studentId);
+            }
+        });
+    }
+    
+    /**
+     * 用户变更
+     */
+    @TransactionalEventListener
+    public void onUserChanged(UserChangedEvent event) {
+        if (!event.isStudent()) {
+            return;
+        }
+        
+        long userId = event.getUserId();
+        switch (event.getChangeType()) {
+            case CREATED -> apply(() -> {
+                state.addStudent(userId, event.getMajor(), event.getClassName());
+                state.unassigned.addLong(userId);
+            });
+            case UPDATED -> apply(() -> {
+                state.removeStudent(userId, event.getPreviousMajor(), event.getPreviousClassName());
+                state.addStudent(userId, event.getMajor(), event.getClassName());
+            });
+            case DELETED -> apply(() -> {
+                state.removeStudent(userId, event.getPreviousMajor(), event.getPreviousClassName());
+                state.unassigned.removeLong(userId);
+            });
+        }
+    }
+    
+    /**
+     * 未分配宿舍的学生总数
+     */
+    public long count() {
+        lock.readLock().lock();
+        try {
+            return state.unassigned.getLongCardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * 分页查询未分配宿舍的学生ID（按ID升序），专业、班级为空时不过滤
+     */
+    public Page<Long> findIds(String major, String className, Pageable pageable) {
+        lock.readLock().lock();
+        try {
+            Roaring64NavigableMap matched = new Roaring64NavigableMap();
+            matched.or(state.unassigned);
+            if (major != null && !major.isEmpty()) {
+                matched.and(state.byMajor.getOrDefault(major, new Roaring64NavigableMap()));
+            }
+            if (className != null && !className.isEmpty()) {
+                matched.and(state.byClass.getOrDefault(className, new Roaring64NavigableMap()));
+            }
+            
+            long total = matched.getLongCardinality();
+            List<Long> ids = new ArrayList<>();
+            LongIterator iterator = matched.getLongIterator();
+            long skip = pageable.isPaged() ? pageable.getOffset() : 0;
+            int limit = pageable.isPaged() ? pageable.getPageSize() : Integer.MAX_VALUE;
+            while (iterator.hasNext() && ids.size() < limit) {
+                long id = iterator.next();
+                if (skip > 0) {
+                    skip--;
+                } else {
+                    ids.add(id);
+                }
+            }
+            return new PageImpl<>(ids, pageable, total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    private void apply(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            if (rebuilding) {
+                pendingChanges.add(change);
+            } else {
+                change.run();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * 索引数据
+     */
+    private static class State {
+        
+        private final Roaring64NavigableMap students = new Roaring64NavigableMap();
+        
+        private final Roaring64NavigableMap unassigned = new Roaring64NavigableMap();
+        
+        private final Map<String, Roaring64NavigableMap> byMajor = new HashMap<>();
+        
+        private final Map<String, Roaring64NavigableMap> byClass = new HashMap<>();
+        
+        void addStudent(long id, String major, String className) {
+            students.addLong(id);
+            if (major != null) {
+                byMajor.computeIfAbsent(major, k -> new Roaring64NavigableMap()).addLong(id);
+            }
+            if (className != null) {
+                byClass.computeIfAbsent(className, k -> new Roaring64NavigableMap()).addLong(id);
+            }
+        }
+        
+        void removeStudent(long id, String major, String className) {
+            students.removeLong(id);
+            remove(byMajor, major, id);
+            remove(byClass, className, id);
+        }
+        
+        private static void remove(Map<String, Roaring64NavigableMap> bitmaps, String key, long id) {
+            if (key == null) {
+                return;
+            }
+            Roaring64NavigableMap bitmap = bitmaps.get(key);
+            if (bitmap != null) {
+                bitmap.removeLong(id);
+                if (bitmap.isEmpty()) {
+                    bitmaps.remove(key);
+                }
+            }
+        }
+    }
+}
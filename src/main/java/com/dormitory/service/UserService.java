@@ -1,14 +1,28 @@
 package com.dormitory.service;
 
 import com.dormitory.entity.User;
+import com.dormitory.event.UserChangedEvent;
 import com.dormitory.repository.UserRepository;
+import com.dormitory.repository.UserSpecifications;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -16,7 +30,10 @@ import java.util.Optional;
  */
 @Service
 @Transactional
-public class UserService {
+public class UserService implements UserDetailsService {
+    
+    // 按ID批量加载时每批的数量
+    private static final int ID_BATCH_SIZE = 500;
     
     @Autowired
     private UserRepository userRepository;
@@ -24,6 +41,22 @@ public class UserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
     
+    @Autowired
+    private UnassignedStudentIndex unassignedStudentIndex;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    /**
+     * 根据用户名加载用户（Spring Security 认证使用）
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        return userRepository.findByUsername(username)
+                .orElseThrow(() -> new UsernameNotFoundException("用户不存在"));
+    }
+    
     /**
      * 创建用户
      */
@@ -49,7 +82,9 @@ public class UserService {
         user.setCreatedAt(LocalDateTime.now());
         user.setUpdatedAt(LocalDateTime.now());
         
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        eventPublisher.publishEvent(UserChangedEvent.created(saved));
+        return saved;
     }
     
     /**
@@ -79,6 +114,9 @@ public class UserService {
             throw new RuntimeException("学号已存在");
         }
         
+        String previousMajor = user.getMajor();
+        String previousClassName = user.getClassName();
+        
         // 更新用户信息
         user.setUsername(userDetails.getUsername());
         user.setRealName(userDetails.getRealName());
@@ -96,7 +134,9 @@ public class UserService {
         
         user.setUpdatedAt(LocalDateTime.now());
         
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        eventPublisher.publishEvent(UserChangedEvent.updated(saved, previousMajor, previousClassName));
+        return saved;
     }
     
     /**
@@ -141,6 +181,21 @@ public class UserService {
         return userRepository.findByStudentId(studentId);
     }
     
+    /**
+     * 分页查询用户列表，关键词优先于角色
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<User> findPage(User.Role role, String keyword, KeysetPageRequest pageRequest) {
+        Specification<User> specification = null;
+        if (keyword != null && !keyword.trim().isEmpty()) {
+            specification = UserSpecifications.keyword(keyword);
+        } else if (role != null) {
+            specification = UserSpecifications.role(role);
+        }
+        return KeysetSupport.scroll(userRepository, specification, pageRequest,
+                Map.of("id", Long.class), "id", Sort.Direction.ASC);
+    }
+    
     /**
      * 获取所有用户
      */
@@ -157,6 +212,14 @@ public class UserService {
         return userRepository.findByRole(role);
     }
     
+    /**
+     * 统计指定角色的用户数量
+     */
+    @Transactional(readOnly = true)
+    public long countByRole(User.Role role) {
+        return userRepository.countByRole(role);
+    }
+    
     /**
      * 根据班级查找学生
      */
@@ -178,7 +241,51 @@ public class UserService {
      */
     @Transactional(readOnly = true)
     public List<User> findStudentsWithoutDormitory() {
-        return userRepository.findStudentsWithoutDormitory();
+        if (!unassignedStudentIndex.isReady()) {
+            return userRepository.findStudentsWithoutDormitory();
+        }
+        return loadUsersInIdOrder(unassignedStudentIndex.findIds(null, null, Pageable.unpaged()).getContent());
+    }
+    
+    /**
+     * 分页查找未分配宿舍的学生，可按专业、班级过滤
+     */
+    @Transactional(readOnly = true)
+    public Page<User> findStudentsWithoutDormitory(String major, String className, Pageable pageable) {
+        if (!unassignedStudentIndex.isReady()) {
+            List<User> students = userRepository.findStudentsWithoutDormitory();
+            students.removeIf(u -> (major != null && !major.isEmpty() && !major.equals(u.getMajor()))
+                    || (className != null && !className.isEmpty() && !className.equals(u.getClassName())));
+            students.sort(Comparator.comparing(User::getId));
+            int from = (int) Math.min(pageable.getOffset(), students.size());
+            int to = (int) Math.min(from + (long) pageable.getPageSize(), students.size());
+            return new PageImpl<>(students.subList(from, to), pageable, students.size());
+        }
+        Page<Long> ids = unassignedStudentIndex.findIds(major, className, pageable);
+        return new PageImpl<>(loadUsersInIdOrder(ids.getContent()), pageable, ids.getTotalElements());
+    }
+    
+    /**
+     * 统计未分配宿舍的学生数量
+     */
+    @Transactional(readOnly = true)
+    public long countStudentsWithoutDormitory() {
+        if (!unassignedStudentIndex.isReady()) {
+            return userRepository.findStudentsWithoutDormitory().size();
+        }
+        return unassignedStudentIndex.count();
+    }
+    
+    /**
+     * 按ID分批加载用户并保持ID升序
+     */
+    private List<User> loadUsersInIdOrder(List<Long> ids) {
+        List<User> users = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i += ID_BATCH_SIZE) {
+            users.addAll(userRepository.findAllById(ids.subList(i, Math.min(i + ID_BATCH_SIZE, ids.size()))));
+        }
+        users.sort(Comparator.comparing(User::getId));
+        return users;
     }
     
     /**
@@ -193,10 +300,10 @@ public class UserService {
      * 删除用户
      */
     public void deleteUser(Long id) {
-        if (!userRepository.existsById(id)) {
-            throw new RuntimeException("用户不存在");
-        }
-        userRepository.deleteById(id);
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("用户不存在"));
+        userRepository.delete(user);
+        eventPublisher.publishEvent(UserChangedEvent.deleted(user));
     }
     
     /**
@@ -0,0 +1,209 @@
+package com.dormitory.view;
+
+import com.dormitory.event.StatisticsChangedEvent;
+import com.dormitory.service.StatisticsVersionService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.event.EventListener;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 页面片段缓存
+ *
+ * 保存模板中 dorm:cache 标记的片段渲染后的 HTML，按片段名和 key 区分，超出容量时淘汰最久未使用的。
+ * 片段声明依赖的统计数据类别（dorm:cache-tags），该类数据变化（{@link StatisticsChangedEvent}）时清除相关片段；
+ * 另外每个条目记下渲染开始时各类别的版本号，读取时版本号已变化的视为未命中，
+ * 避免渲染期间发生的修改被缓存到下一次修改。
+ * 指标：dormitory.fragment-cache.requests（fragment、result 标签）、dormitory.fragment-cache.hit.ratio（fragment 标签）、
+ * dormitory.fragment-cache.evictions（reason 标签）、dormitory.fragment-cache.size。
+ */
+public class FragmentCache {
+    
+    private final StatisticsVersionService statisticsVersionService;
+    
+    private final MeterRegistry registry;
+    
+    private final int maxEntries;
+    
+    // 按访问顺序排列，最久未使用的在前；LinkedHashMap 的读取也会调整顺序，读写都加锁
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    
+    private final ReentrantLock lock = new ReentrantLock();
+    
+    private final Map<String, FragmentStats> stats = new ConcurrentHashMap<>();
+    
+    private final Counter tagEvictions;
+    
+    private final Counter sizeEvictions;
+    
+    public FragmentCache(StatisticsVersionService statisticsVersionService, MeterRegistry registry, int maxEntries) {
+        this.statisticsVersionService = statisticsVersionService;
+        this.registry = registry;
+        this.maxEntries = maxEntries;
+        this.tagEvictions = registry.counter("dormitory.fragment-cache.evictions", "reason", "tag");
+        this.sizeEvictions = registry.counter("dormitory.fragment-cache.evictions", "reason", "size");
+        Gauge.builder("dormitory.fragment-cache.size", this, FragmentCache::size).register(registry);
+    }
+    
+    /**
+     * 读取片段，未缓存或依赖的数据已变化时返回 null
+     */
+    public String get(String fragment, String key) {
+        String html = null;
+        lock.lock();
+        try {
+            Entry entry = entries.get(new Key(fragment, key));
+            if (entry != null && entry.isCurrent(statisticsVersionService)) {
+                html = entry.html;
+            }
+        } finally {
+            lock.unlock();
+        }
+        statsFor(fragment).record(html != null);
+        return html;
+    }
+    
+    /**
+     * 渲染开始前取依赖类别的版本号，存入时一并保存
+     */
+    public long[] versions(Set<StatisticsVersionService.Dataset> tags) {
+        long[] versions = new long[tags.size()];
+        int i = 0;
+        for (StatisticsVersionService.Dataset tag : tags) {
+            versions[i++] = statisticsVersionService.getVersion(tag);
+        }
+        return versions;
+    }
+    
+    public void put(String fragment, String key, Set<StatisticsVersionService.Dataset> tags, long[] versions, String html) {
+        Entry entry = new Entry(tags.toArray(new StatisticsVersionService.Dataset[0]), versions, html);
+        if (!entry.isCurrent(statisticsVersionService)) {
+            return;
+        }
+        lock.lock();
+        try {
+            entries.put(new Key(fragment, key), entry);
+            Iterator<Entry> eldest = entries.values().iterator();
+            while (entries.size() > maxEntries) {
+                eldest.next();
+                eldest.remove();
+                sizeEvictions.increment();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * 统计数据变化后清除依赖该类别的片段
+     */
+    @EventListener
+    public void onStatisticsChanged(StatisticsChangedEvent event) {
+        lock.lock();
+        try {
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().dependsOn(event.getDataset())) {
+                    iterator.remove();
+                    tagEvictions.increment();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private FragmentStats statsFor(String fragment) {
+        return stats.computeIfAbsent(fragment, name -> new FragmentStats(name, registry));
+    }
+    
+    private record Key(String fragment, String key) {
+    }
+    
+    private static final class Entry {
+        
+        private final StatisticsVersionService.Dataset[] tags;
+        
+        private final long[] versions;
+        
+        private final String html;
+        
+        private Entry(StatisticsVersionService.Dataset[] tags, long[] versions, String html) {
+            this.tags = tags;
+            this.versions = versions;
+            this.html = html;
+        }
+        
+        private boolean isCurrent(StatisticsVersionService statisticsVersionService) {
+            for (int i = 0; i < tags.length; i++) {
+                if (statisticsVersionService.getVersion(tags[i]) != versions[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        
+        private boolean dependsOn(StatisticsVersionService.Dataset dataset) {
+            for (StatisticsVersionService.Dataset tag : tags) {
+                if (tag == dataset) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+    
+    /**
+     * 单个片段的命中统计
+     */
+    private static final class FragmentStats {
+        
+        private final AtomicLong hits = new AtomicLong();
+        
+        private final AtomicLong misses = new AtomicLong();
+        
+        private final Counter hitCounter;
+        
+        private final Counter missCounter;
+        
+        private FragmentStats(String fragment, MeterRegistry registry) {
+            hitCounter = registry.counter("dormitory.fragment-cache.requests", "fragment", fragment, "result", "hit");
+            missCounter = registry.counter("dormitory.fragment-cache.requests", "fragment", fragment, "result", "miss");
+            Gauge.builder("dormitory.fragment-cache.hit.ratio", this, FragmentStats::hitRatio)
+                    .tag("fragment", fragment)
+                    .register(registry);
+        }
+        
+        private void record(boolean hit) {
+            if (hit) {
+                hits.incrementAndGet();
+                hitCounter.increment();
+            } else {
+                misses.incrementAndGet();
+                missCounter.increment();
+            }
+        }
+        
+        private double hitRatio() {
+            long requests = hits.get() + misses.get();
+            return requests > 0 ? (double) hits.get() / requests : Double.NaN;
+        }
+    }
+}
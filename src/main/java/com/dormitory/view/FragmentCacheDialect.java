@@ -0,0 +1,43 @@
+package com.dormitory.view;
+
+import org.thymeleaf.dialect.AbstractProcessorDialect;
+import org.thymeleaf.processor.IProcessor;
+import org.thymeleaf.standard.processor.StandardXmlNsTagProcessor;
+import org.thymeleaf.templatemode.TemplateMode;
+
+import java.util.Set;
+
+/**
+ * 页面片段缓存方言
+ *
+ * 用法（属性写在片段的最外层元素上，该元素不要同时带 th:each）：
+ * <pre>
+ * &lt;div dorm:cache="buildingFilter" dorm:cache-key="${currentBuilding}" dorm:cache-tags="dormitories"&gt;...&lt;/div&gt;
+ * </pre>
+ * dorm:cache 为片段名（指标按片段名统计）；dorm:cache-key 为可选的表达式，结果不同的分别缓存，
+ * 片段内容随用户、角色、请求参数变化时必须写入 key；dorm:cache-tags 为依赖的统计数据类别
+ * （dormitories、assignments、repairs，逗号分隔），不写则只在容量不足时淘汰。
+ * 缓存的是渲染后的 HTML，片段内不要放按会话变化的内容（如表单的 CSRF 令牌）。
+ */
+public class FragmentCacheDialect extends AbstractProcessorDialect {
+    
+    public static final String PREFIX = "dorm";
+    
+    private final FragmentCache fragmentCache;
+    
+    private final FragmentCacheProperties properties;
+    
+    public FragmentCacheDialect(FragmentCache fragmentCache, FragmentCacheProperties properties) {
+        // 优先级高于标准方言（1000），在同一元素的 th:* 属性之前处理
+        super("Dormitory Fragment Cache", PREFIX, 100);
+        this.fragmentCache = fragmentCache;
+        this.properties = properties;
+    }
+    
+    @Override
+    public Set<IProcessor> getProcessors(String dialectPrefix) {
+        return Set.of(new FragmentCacheProcessor(dialectPrefix, fragmentCache, properties.isEnabled()),
+                // 输出时去掉 xmlns:dorm 声明
+                new StandardXmlNsTagProcessor(TemplateMode.HTML, dialectPrefix));
+    }
+}
@@ -0,0 +1,114 @@
+package com.dormitory.view;
+
+import com.dormitory.service.StatisticsVersionService;
+import org.thymeleaf.context.ITemplateContext;
+import org.thymeleaf.engine.AttributeName;
+import org.thymeleaf.engine.TemplateManager;
+import org.thymeleaf.engine.TemplateModel;
+import org.thymeleaf.model.IModel;
+import org.thymeleaf.model.IModelFactory;
+import org.thymeleaf.model.IProcessableElementTag;
+import org.thymeleaf.processor.element.AbstractAttributeModelProcessor;
+import org.thymeleaf.processor.element.IElementModelStructureHandler;
+import org.thymeleaf.standard.expression.StandardExpressions;
+import org.thymeleaf.templatemode.TemplateMode;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * dorm:cache 属性处理器
+ *
+ * 命中时用缓存的 HTML 替换整个元素，元素内的表达式（包括懒加载的模型属性）都不再求值；
+ * 未命中时就地渲染元素（使用当前上下文，局部变量照常可见），存入缓存后输出。
+ */
+class FragmentCacheProcessor extends AbstractAttributeModelProcessor {
+    
+    private static final String ATTRIBUTE = "cache";
+    
+    private static final String KEY_ATTRIBUTE = "cache-key";
+    
+    private static final String TAGS_ATTRIBUTE = "cache-tags";
+    
+    private final FragmentCache fragmentCache;
+    
+    private final boolean enabled;
+    
+    FragmentCacheProcessor(String dialectPrefix, FragmentCache fragmentCache, boolean enabled) {
+        super(TemplateMode.HTML, dialectPrefix, null, false, ATTRIBUTE, true, 0, true);
+        this.fragmentCache = fragmentCache;
+        this.enabled = enabled;
+    }
+    
+    @Override
+    protected void doProcess(ITemplateContext context, IModel model, AttributeName attributeName,
+                             String attributeValue, IElementModelStructureHandler structureHandler) {
+        IModelFactory modelFactory = context.getModelFactory();
+        IProcessableElementTag tag = (IProcessableElementTag) model.get(0);
+        String prefix = attributeName.getPrefix();
+        String keyExpression = tag.getAttributeValue(prefix, KEY_ATTRIBUTE);
+        String tagList = tag.getAttributeValue(prefix, TAGS_ATTRIBUTE);
+        // 未命中时元素会被重新解析处理，dorm:cache 也要去掉
+        for (String attribute : new String[] {ATTRIBUTE, KEY_ATTRIBUTE, TAGS_ATTRIBUTE}) {
+            tag = modelFactory.removeAttribute(tag, prefix, attribute);
+        }
+        model.replace(0, tag);
+        if (!enabled) {
+            return;
+        }
+        
+        String fragment = attributeValue.trim();
+        String key = keyExpression != null ? String.valueOf(evaluate(context, keyExpression)) : "";
+        String html = fragmentCache.get(fragment, key);
+        if (html == null) {
+            Set<StatisticsVersionService.Dataset> tags = parseTags(tagList);
+            long[] versions = fragmentCache.versions(tags);
+            html = render(context, model, tag);
+            fragmentCache.put(fragment, key, tags, versions, html);
+        }
+        model.reset();
+        model.add(modelFactory.createText(html));
+    }
+    
+    private static Object evaluate(ITemplateContext context, String expression) {
+        return StandardExpressions.getExpressionParser(context.getConfiguration())
+                .parseExpression(context, expression)
+                .execute(context);
+    }
+    
+    /**
+     * 元素（已去掉 dorm:* 属性）按原始标记重新解析，在当前上下文中处理
+     */
+    private static String render(ITemplateContext context, IModel model, IProcessableElementTag tag) {
+        StringWriter markup = new StringWriter();
+        StringWriter html = new StringWriter();
+        try {
+            model.write(markup);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        TemplateManager templateManager = context.getConfiguration().getTemplateManager();
+        TemplateModel parsed = templateManager.parseString(context.getTemplateData(), markup.toString(),
+                tag.getLine(), tag.getCol(), context.getTemplateMode(), false);
+        templateManager.process(parsed, context, html);
+        return html.toString();
+    }
+    
+    private static Set<StatisticsVersionService.Dataset> parseTags(String tagList) {
+        if (tagList == null || tagList.isBlank()) {
+            return Collections.emptySet();
+        }
+        Set<StatisticsVersionService.Dataset> tags = EnumSet.noneOf(StatisticsVersionService.Dataset.class);
+        for (String tag : tagList.split(",")) {
+            if (!tag.isBlank()) {
+                tags.add(StatisticsVersionService.Dataset.valueOf(tag.trim().toUpperCase(Locale.ROOT)));
+            }
+        }
+        return tags;
+    }
+}
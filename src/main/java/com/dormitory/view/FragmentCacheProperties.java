@@ -0,0 +1,32 @@
+package com.dormitory.view;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 页面片段缓存配置
+ */
+@ConfigurationProperties(prefix = "dormitory.fragment-cache")
+public class FragmentCacheProperties {
+    
+    // 关闭时 dorm:cache 只移除自身属性，片段每次照常渲染（修改模板时可关闭）
+    private boolean enabled = true;
+    
+    // 缓存的片段数上限（同一片段不同 key 各算一个），超出时淘汰最久未使用的
+    private int maxEntries = 1000;
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+    
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+    
+    public void setMaxEntries(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+}
@@ -0,0 +1,25 @@
+package com.dormitory.view;
+
+import org.thymeleaf.context.LazyContextVariable;
+
+import java.util.function.Supplier;
+
+/**
+ * 懒加载的模型属性
+ *
+ * 模板第一次用到时才调用 supplier（同一次渲染只调用一次）；只在缓存片段中用到的数据，片段命中时不再查询。
+ */
+public final class LazyAttributes {
+    
+    private LazyAttributes() {
+    }
+    
+    public static <T> LazyContextVariable<T> of(Supplier<T> supplier) {
+        return new LazyContextVariable<>() {
+            @Override
+            protected T loadValue() {
+                return supplier.get();
+            }
+        };
+    }
+}
@@ -0,0 +1,105 @@
+-- 基线表结构（与此前 Hibernate 按实体生成的结构一致）
+-- 语法兼顾 H2 和 MySQL 8
+
+create table users (
+    id            bigint       not null auto_increment,
+    username      varchar(255) not null,
+    password      varchar(255) not null,
+    real_name     varchar(255) not null,
+    email         varchar(255),
+    phone         varchar(11),
+    role          varchar(255) not null check (role in ('STUDENT', 'ADMIN')),
+    created_at    timestamp(6),
+    updated_at    timestamp(6),
+    student_id    varchar(255),
+    class_name    varchar(255),
+    major         varchar(255),
+    department    varchar(255),
+    position      varchar(255),
+    primary key (id),
+    constraint uk_users_username unique (username),
+    constraint uk_users_email unique (email),
+    constraint uk_users_student_id unique (student_id)
+);
+
+create table dormitories (
+    id                bigint       not null auto_increment,
+    building_name     varchar(255) not null,
+    room_number       varchar(255) not null,
+    capacity          integer      not null,
+    current_occupancy integer,
+    type              varchar(255) not null check (type in ('MALE', 'FEMALE', 'MIXED')),
+    monthly_rent      double precision,
+    description       varchar(500),
+    status            varchar(255) not null check (status in ('AVAILABLE', 'FULL', 'MAINTENANCE', 'CLOSED')),
+    created_at        timestamp(6),
+    updated_at        timestamp(6),
+    primary key (id)
+);
+
+create table student_dormitories (
+    id             bigint       not null auto_increment,
+    student_id     bigint       not null,
+    dormitory_id   bigint       not null,
+    check_in_date  date         not null,
+    check_out_date date,
+    status         varchar(255) not null check (status in ('ACTIVE', 'COMPLETED', 'CANCELLED')),
+    monthly_fee    double precision,
+    notes          varchar(500),
+    created_at     timestamp(6),
+    updated_at     timestamp(6),
+    primary key (id)
+);
+
+create table repair_requests (
+    id                bigint        not null auto_increment,
+    student_id        bigint        not null,
+    dormitory_id      bigint        not null,
+    description       varchar(1000) not null,
+    type              varchar(255)  not null check (type in ('PLUMBING', 'ELECTRICAL', 'FURNITURE', 'APPLIANCE', 'OTHER')),
+    status            varchar(255)  not null check (status in ('PENDING', 'IN_PROGRESS', 'COMPLETED', 'CANCELLED')),
+    priority          varchar(255)  not null check (priority in ('LOW', 'MEDIUM', 'HIGH', 'URGENT')),
+    admin_notes       varchar(1000),
+    repair_cost       double precision,
+    requested_at      timestamp(6),
+    assigned_at       timestamp(6),
+    completed_at      timestamp(6),
+    assigned_admin_id bigint,
+    created_at        timestamp(6),
+    updated_at        timestamp(6),
+    primary key (id)
+);
+
+create table repair_statistics (
+    id            bigint       not null auto_increment,
+    dimension     varchar(20)  not null check (dimension in ('STATUS', 'TYPE', 'PRIORITY', 'BUILDING', 'ADMIN')),
+    dimension_key varchar(100) not null,
+    request_count bigint       not null,
+    updated_at    timestamp(6),
+    primary key (id),
+    constraint uk_repair_statistics_dimension_key unique (dimension, dimension_key)
+);
+
+-- 宿舍按宿舍楼、房间号查找
+create index idx_dormitories_building_room on dormitories (building_name, room_number);
+
+-- 分配列表默认按入住日期倒序分页；状态区分度低，按此索引顺序扫描过滤即可，不单独建状态索引
+create index idx_student_dormitories_check_in on student_dormitories (check_in_date desc, id desc);
+
+-- 按宿舍楼过滤时先由宿舍楼定位宿舍，再按宿舍、状态、入住日期定位分配
+create index idx_student_dormitories_dormitory_status on student_dormitories (dormitory_id, status, check_in_date);
+
+alter table student_dormitories
+    add constraint fk_student_dormitories_student foreign key (student_id) references users (id);
+
+alter table student_dormitories
+    add constraint fk_student_dormitories_dormitory foreign key (dormitory_id) references dormitories (id);
+
+alter table repair_requests
+    add constraint fk_repair_requests_student foreign key (student_id) references users (id);
+
+alter table repair_requests
+    add constraint fk_repair_requests_dormitory foreign key (dormitory_id) references dormitories (id);
+
+alter table repair_requests
+    add constraint fk_repair_requests_assigned_admin foreign key (assigned_admin_id) references users (id);
@@ -0,0 +1,23 @@
+-- 热点查询索引
+
+-- 学生当前分配（首页、办理入住前的重复检查）：按学生定位后只需检查状态
+create index idx_student_dormitories_student_status on student_dormitories (student_id, status);
+
+-- 待处理列表按优先级、申请时间排序，高优先级列表和按状态计数也由此索引完成；
+-- 维修申请大多已完成，待处理和处理中的比例小，以状态开头区分度足够
+create index idx_repair_requests_status_priority_requested on repair_requests (status, priority, requested_at);
+
+-- 维修申请列表默认按申请时间倒序分页，按时间段查询同样走此索引
+create index idx_repair_requests_requested on repair_requests (requested_at desc, id desc);
+
+-- 学生的维修记录按申请时间倒序
+create index idx_repair_requests_student_requested on repair_requests (student_id, requested_at);
+
+-- 宿舍的维修记录和按宿舍计数（维修统计事件每次都会计数），计数只读索引
+create index idx_repair_requests_dormitory_requested on repair_requests (dormitory_id, requested_at);
+
+-- 可分配宿舍：条件列都在索引里，不回表即可排除已满的宿舍
+create index idx_dormitories_status_occupancy on dormitories (status, current_occupancy, capacity);
+
+-- 按宿舍楼、类型查可分配宿舍
+create index idx_dormitories_building_type_status on dormitories (building_name, type, status);
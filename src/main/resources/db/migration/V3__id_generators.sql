@@ -0,0 +1,14 @@
+-- 主键号段表：实体的表生成器每次取 50 个主键（pooled-lo，next_val 为下一个可用主键），
+-- 自增主键须逐条 INSERT 取回主键，改为预先分配后 Hibernate 才能批量写入。
+-- 批量导入数据的程序同样从这里预留号段（见 IdBlocks），不依赖列的自增值。
+create table id_generators (
+    sequence_name varchar(255) not null,
+    next_val      bigint       not null,
+    primary key (sequence_name)
+);
+
+insert into id_generators (sequence_name, next_val) select 'users', coalesce(max(id), 0) + 1 from users;
+insert into id_generators (sequence_name, next_val) select 'dormitories', coalesce(max(id), 0) + 1 from dormitories;
+insert into id_generators (sequence_name, next_val) select 'student_dormitories', coalesce(max(id), 0) + 1 from student_dormitories;
+insert into id_generators (sequence_name, next_val) select 'repair_requests', coalesce(max(id), 0) + 1 from repair_requests;
+insert into id_generators (sequence_name, next_val) select 'repair_statistics', coalesce(max(id), 0) + 1 from repair_statistics;
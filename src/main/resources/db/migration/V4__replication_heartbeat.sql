@@ -0,0 +1,8 @@
+-- 从库延迟检测：主库定时写入当前时间（毫秒），从库读到的时间与当前时间之差即复制延迟（见 ReplicaLagMonitor）
+create table replication_heartbeat (
+    id      integer not null,
+    beat_at bigint  not null,
+    primary key (id)
+);
+
+insert into replication_heartbeat (id, beat_at) values (1, 0);
@@ -0,0 +1,3 @@
+-- 维修统计的管理员维度改为按管理员ID计数（原先按姓名，同名管理员被合并）：删除按姓名的计数行，
+-- 启动时 RepairStatisticsService 校验会按ID重建
+delete from repair_statistics where dimension = 'ADMIN';
@@ -0,0 +1,97 @@
+package com.dormitory;
+
+import com.dormitory.entity.Dormitory;
+import com.dormitory.entity.RepairRequest;
+import com.dormitory.entity.User;
+import com.dormitory.service.DormitoryService;
+import com.dormitory.service.RepairRequestService;
+import com.dormitory.service.StudentDormitoryService;
+import com.dormitory.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 集成测试基类
+ *
+ * 启动完整应用（dev 配置：H2 内存库、Flyway 迁移和演示数据），继承本类的测试共用同一个应用上下文。
+ * 测试之间不回滚数据（事务提交后的事件监听器才会执行）：每个测试自己创建所需的学生、宿舍，
+ * 名称带序号互不冲突，只断言自己造成的变化。
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+public abstract class IntegrationTestSupport {
+    
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+    
+    @Autowired
+    protected MockMvc mockMvc;
+    
+    @Autowired
+    protected UserService userService;
+    
+    @Autowired
+    protected DormitoryService dormitoryService;
+    
+    @Autowired
+    protected StudentDormitoryService studentDormitoryService;
+    
+    @Autowired
+    protected RepairRequestService repairRequestService;
+    
+    /**
+     * 本次测试运行内唯一的名称
+     */
+    protected static String unique(String prefix) {
+        return prefix + SEQUENCE.incrementAndGet();
+    }
+    
+    protected User createStudent(String major, String className) {
+        String username = unique("stu");
+        User student = new User();
+        student.setUsername(username);
+        student.setPassword("student123");
+        student.setRealName("学生" + username);
+        student.setEmail(username + "@test.com");
+        student.setRole(User.Role.STUDENT);
+        student.setStudentId("T" + username);
+        student.setMajor(major);
+        student.setClassName(className);
+        return userService.createUser(student);
+    }
+    
+    protected User createAdmin() {
+        String username = unique("adm");
+        User admin = new User();
+        admin.setUsername(username);
+        admin.setPassword("admin123");
+        admin.setRealName("管理员" + username);
+        admin.setEmail(username + "@test.com");
+        admin.setRole(User.Role.ADMIN);
+        return userService.createUser(admin);
+    }
+    
+    protected Dormitory createDormitory(String buildingName, int capacity) {
+        Dormitory dormitory = new Dormitory();
+        dormitory.setBuildingName(buildingName);
+        dormitory.setRoomNumber(unique("R"));
+        dormitory.setCapacity(capacity);
+        dormitory.setType(Dormitory.DormitoryType.MALE);
+        dormitory.setMonthlyRent(500.0);
+        return dormitoryService.createDormitory(dormitory);
+    }
+    
+    protected RepairRequest createRepairRequest(User student, Dormitory dormitory, RepairRequest.RepairType type,
+                                                RepairRequest.RepairPriority priority) {
+        RepairRequest repairRequest = new RepairRequest();
+        repairRequest.setStudent(student);
+        repairRequest.setDormitory(dormitory);
+        repairRequest.setDescription("测试报修" + unique(""));
+        repairRequest.setType(type);
+        repairRequest.setPriority(priority);
+        return repairRequestService.createRepairRequest(repairRequest);
+    }
+}
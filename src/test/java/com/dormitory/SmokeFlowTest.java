@@ -0,0 +1,107 @@
+package com.dormitory;
+
+import com.dormitory.entity.Dormitory;
+import com.dormitory.entity.RepairRequest;
+import com.dormitory.entity.StudentDormitory;
+import com.dormitory.entity.User;
+import com.dormitory.service.RepairRequestSummary;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestBuilders.formLogin;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 冒烟流程：登录、宿舍分配和维修申请
+ *
+ * 与构建时的 NativeSmokeCheck 走同样的流程，但全部通过 MockMvc 的表单登录会话完成，不替换任何 Bean，
+ * 也可以在原生镜像中运行（mvn -Pnative,nativeTest test -Dtest=SmokeFlowTest）。
+ * 学生、宿舍由本测试创建，不依赖演示数据的ID。
+ */
+class SmokeFlowTest extends IntegrationTestSupport {
+    
+    @Test
+    void loginAssignmentAndRepair() throws Exception {
+        User student = createStudent("软件工程", "冒烟班");
+        String building = unique("冒烟楼");
+        Dormitory first = createDormitory(building, 4);
+        Dormitory second = createDormitory(building, 4);
+        User admin = userService.findByUsername("admin").orElseThrow();
+        
+        MockHttpSession adminSession = login("admin", "admin123");
+        MockHttpSession studentSession = login(student.getUsername(), "student123");
+        assertThat(page("/", adminSession)).contains(admin.getRealName());
+        assertThat(page("/", studentSession)).contains(student.getRealName());
+        
+        // 入住第一间，退宿后重新分配到第二间
+        String today = LocalDate.now().toString();
+        submit(post("/assignments/save").session(adminSession)
+                .param("studentId", student.getId().toString())
+                .param("dormitoryId", first.getId().toString())
+                .param("checkInDate", today));
+        StudentDormitory assignment = studentDormitoryService.findActiveByStudentId(student.getId()).orElseThrow();
+        assertThat(assignment.getDormitory().getId()).isEqualTo(first.getId());
+        
+        submit(post("/assignments/" + assignment.getId() + "/checkout").session(adminSession)
+                .param("checkOutDate", today));
+        assertThat(studentDormitoryService.findActiveByStudentId(student.getId())).isEmpty();
+        submit(post("/assignments/save").session(adminSession)
+                .param("studentId", student.getId().toString())
+                .param("dormitoryId", second.getId().toString())
+                .param("checkInDate", today));
+        assertThat(studentDormitoryService.findActiveByStudentId(student.getId()).orElseThrow()
+                .getDormitory().getId()).isEqualTo(second.getId());
+        assertThat(dormitoryService.findById(first.getId()).orElseThrow().getCurrentOccupancy()).isZero();
+        assertThat(dormitoryService.findById(second.getId()).orElseThrow().getCurrentOccupancy()).isEqualTo(1);
+        
+        // 为学生报修（/repair-requests/save 只对管理员开放，与 NativeSmokeCheck 一样由管理员提交），分配给管理员后完成
+        submit(post("/repair-requests/save").session(adminSession)
+                .param("student.id", student.getId().toString())
+                .param("dormitory.id", second.getId().toString())
+                .param("description", "水龙头漏水")
+                .param("type", "PLUMBING")
+                .param("priority", "HIGH"));
+        List<RepairRequestSummary> requests = repairRequestService.findByStudent(student);
+        assertThat(requests).hasSize(1);
+        Long requestId = requests.get(0).getId();
+        
+        submit(post("/repair-requests/" + requestId + "/assign").session(adminSession)
+                .param("adminId", admin.getId().toString()));
+        submit(post("/repair-requests/" + requestId + "/complete").session(adminSession)
+                .param("adminNotes", "已更换水龙头")
+                .param("repairCost", "30"));
+        assertThat(repairRequestService.findById(requestId).orElseThrow().getStatus())
+                .isEqualTo(RepairRequest.RepairStatus.COMPLETED);
+        assertThat(page("/", studentSession)).contains("PLUMBING", "COMPLETED");
+    }
+    
+    private MockHttpSession login(String username, String password) throws Exception {
+        MvcResult result = mockMvc.perform(formLogin().user(username).password(password))
+                .andExpect(redirectedUrl("/"))
+                .andReturn();
+        return (MockHttpSession) result.getRequest().getSession(false);
+    }
+    
+    private String page(String path, MockHttpSession session) throws Exception {
+        return mockMvc.perform(get(path).session(session))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+    }
+    
+    /**
+     * 表单提交成功或失败都重定向，结果由之后的查询核对
+     */
+    private void submit(MockHttpServletRequestBuilder request) throws Exception {
+        mockMvc.perform(request).andExpect(status().is3xxRedirection());
+    }
+}
@@ -0,0 +1,69 @@
+package com.dormitory.analytics;
+
+import com.dormitory.IntegrationTestSupport;
+import com.dormitory.entity.Dormitory;
+import com.dormitory.entity.RepairRequest;
+import com.dormitory.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 多维分析数据集：变更事件增量更新后与数据库一致
+ */
+class AnalyticsCubeServiceTest extends IntegrationTestSupport {
+    
+    @Autowired
+    private AnalyticsCubeService analyticsCubeService;
+    
+    @Test
+    void tracksAssignmentsAndDormitoryRename() {
+        String major = unique("分析专业");
+        User student = createStudent(major, "分析1班");
+        Dormitory dormitory = createDormitory(unique("分析楼"), 4);
+        studentDormitoryService.assignStudentToDormitory(student.getId(), dormitory.getId(), LocalDate.now());
+        
+        assertThat(rows(AnalyticsCubeService.ASSIGNMENTS, "building", Map.of("major", major)))
+                .containsExactly(List.of(dormitory.getBuildingName(), 1L));
+        
+        dormitory.setBuildingName(unique("改名楼"));
+        dormitoryService.updateDormitory(dormitory.getId(), dormitory);
+        assertThat(rows(AnalyticsCubeService.ASSIGNMENTS, "building", Map.of("major", major)))
+                .containsExactly(List.of(dormitory.getBuildingName(), 1L));
+        
+        studentDormitoryService.checkOutStudent(student.getId(), LocalDate.now());
+        assertThat(rows(AnalyticsCubeService.ASSIGNMENTS, "building", Map.of("major", major))).isEmpty();
+    }
+    
+    @Test
+    void adminRenameReloadsOnlyTheirRepairs() {
+        User admin = createAdmin();
+        User student = createStudent("分析专业", "分析2班");
+        Dormitory dormitory = createDormitory(unique("报修楼"), 4);
+        RepairRequest repairRequest = createRepairRequest(student, dormitory,
+                RepairRequest.RepairType.APPLIANCE, RepairRequest.RepairPriority.URGENT);
+        repairRequestService.assignRepairRequest(repairRequest.getId(), admin.getId());
+        
+        Map<String, String> building = Map.of("building", dormitory.getBuildingName());
+        assertThat(rows(AnalyticsCubeService.REPAIRS, "admin", building))
+                .containsExactly(List.of(admin.getRealName(), 1L));
+        
+        // 不触发全量重建：删除没有入住和报修的宿舍也一样
+        dormitoryService.deleteDormitory(createDormitory(unique("空楼"), 2).getId());
+        admin.setRealName(unique("新管理员"));
+        userService.updateUser(admin.getId(), admin);
+        assertThat(rows(AnalyticsCubeService.REPAIRS, "admin", building))
+                .containsExactly(List.of(admin.getRealName(), 1L));
+    }
+    
+    private List<List<Object>> rows(String cube, String dimension, Map<String, String> filters) {
+        return analyticsCubeService.query(cube, List.of(dimension), filters).getRows().stream()
+                .map(List::of)
+                .toList();
+    }
+}
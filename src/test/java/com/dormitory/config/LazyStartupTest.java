@@ -0,0 +1,57 @@
+package com.dormitory.config;
+
+import com.dormitory.controller.ExportController;
+import com.dormitory.monitor.PinnedThreadRecorder;
+import com.dormitory.service.DormitoryService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationInitializer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 延迟初始化启动：数据库迁移、连接池、EntityManagerFactory 和虚拟线程固定记录在启动时创建，其余 Bean 首次使用时才创建
+ *
+ * 使用单独的内存库，与其他集成测试的应用上下文互不影响。
+ */
+@SpringBootTest(properties = {
+        "spring.main.lazy-initialization=true",
+        "spring.datasource.url=jdbc:h2:mem:lazystartup"})
+class LazyStartupTest {
+    
+    @Autowired
+    private ConfigurableListableBeanFactory beanFactory;
+    
+    @Test
+    void filterKeepsOnlyInfrastructureEager() {
+        LazyInitializationExcludeFilter filter = StartupConfig.eagerInfrastructureFilter();
+        
+        assertThat(filter.isExcluded("dataSource", null, HikariDataSource.class)).isTrue();
+        assertThat(filter.isExcluded("flyway", null, Flyway.class)).isTrue();
+        assertThat(filter.isExcluded("flywayInitializer", null, FlywayMigrationInitializer.class)).isTrue();
+        assertThat(filter.isExcluded("entityManagerFactory", null, LocalContainerEntityManagerFactoryBean.class))
+                .isTrue();
+        assertThat(filter.isExcluded("pinnedThreadRecorder", null, PinnedThreadRecorder.class)).isTrue();
+        
+        assertThat(filter.isExcluded("dormitoryService", null, DormitoryService.class)).isFalse();
+        assertThat(filter.isExcluded("exportController", null, ExportController.class)).isFalse();
+    }
+    
+    @Test
+    void infrastructureCreatedAtStartup() {
+        assertThat(beanFactory.containsSingleton("dataSource")).isTrue();
+        assertThat(beanFactory.containsSingleton("flywayInitializer")).isTrue();
+        assertThat(beanFactory.containsSingleton("entityManagerFactory")).isTrue();
+        
+        // 导出接口启动时没有用到，首次获取时才创建
+        assertThat(beanFactory.containsSingleton("exportController")).isFalse();
+        assertThat(beanFactory.getBean(ExportController.class)).isNotNull();
+        assertThat(beanFactory.containsSingleton("exportController")).isTrue();
+    }
+}
@@ -0,0 +1,90 @@
+package com.dormitory.config;
+
+import com.dormitory.IntegrationTestSupport;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 静态资源缓存：页面引用带内容指纹的地址，长期缓存且不再验证；不带指纹的地址每次验证，未修改时返回 304；
+ * 浏览器接受 gzip 时返回构建时预压缩的版本
+ */
+class StaticResourceCacheTest extends IntegrationTestSupport {
+    
+    private static final Pattern STYLESHEET = Pattern.compile("href=\"(/css/style-[0-9a-f]{32}\\.css)\"");
+    
+    @Test
+    void fingerprintedUrlIsImmutable() throws Exception {
+        String page = mockMvc.perform(get("/login"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        Matcher matcher = STYLESHEET.matcher(page);
+        assertThat(matcher.find()).as("登录页引用带指纹的样式表").isTrue();
+        
+        MvcResult fingerprinted = mockMvc.perform(get(matcher.group(1)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "public, max-age=31536000, immutable"))
+                .andReturn();
+        MvcResult plain = mockMvc.perform(get("/css/style.css"))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertThat(fingerprinted.getResponse().getContentAsByteArray())
+                .isEqualTo(plain.getResponse().getContentAsByteArray());
+    }
+    
+    @Test
+    void unknownFingerprintIsNotImmutable() throws Exception {
+        // 另一节点构建的指纹：本节点找不到对应资源
+        mockMvc.perform(get("/css/style-0123456789abcdef0123456789abcdef.css"))
+                .andExpect(status().isNotFound())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"));
+    }
+    
+    @Test
+    void plainUrlRevalidates() throws Exception {
+        MvcResult result = mockMvc.perform(get("/js/app.js"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andReturn();
+        assertThat(result.getResponse().getHeaders(HttpHeaders.VARY)).contains(HttpHeaders.ACCEPT_ENCODING);
+        
+        mockMvc.perform(get("/js/app.js")
+                        .header(HttpHeaders.IF_MODIFIED_SINCE, result.getResponse().getHeader(HttpHeaders.LAST_MODIFIED)))
+                .andExpect(status().isNotModified());
+    }
+    
+    @Test
+    void gzipVersionServedWhenAccepted() throws Exception {
+        byte[] plain = mockMvc.perform(get("/css/style.css"))
+                .andReturn().getResponse().getContentAsByteArray();
+        MvcResult result = mockMvc.perform(get("/css/style.css").header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andReturn();
+        
+        byte[] compressed = result.getResponse().getContentAsByteArray();
+        assertThat(compressed.length).isLessThan(plain.length);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            assertThat(in.readAllBytes()).isEqualTo(plain);
+        }
+    }
+    
+    @Test
+    void pagesAreNotCached() throws Exception {
+        mockMvc.perform(get("/login"))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, no-store, max-age=0, must-revalidate"));
+    }
+}
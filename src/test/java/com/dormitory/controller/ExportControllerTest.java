@@ -0,0 +1,74 @@
+package com.dormitory.controller;
+
+import com.dormitory.IntegrationTestSupport;
+import com.dormitory.entity.Dormitory;
+import com.dormitory.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 数据导出：流式写出 CSV，客户端支持时 gzip 压缩
+ */
+class ExportControllerTest extends IntegrationTestSupport {
+    
+    @Test
+    void exportsAssignmentsAsCsv() throws Exception {
+        User student = createStudent("导出专业", "导出1班");
+        Dormitory dormitory = createDormitory(unique("导出楼"), 4);
+        studentDormitoryService.assignStudentToDormitory(student.getId(), dormitory.getId(), LocalDate.now());
+        
+        byte[] body = export("/admin/export/assignments", null);
+        String csv = new String(body, StandardCharsets.UTF_8);
+        assertThat(csv).startsWith("\uFEFFID,学号,学生姓名,专业,班级,宿舍楼,房间号");
+        assertThat(csv).contains("," + student.getStudentId() + "," + student.getRealName() + ",导出专业,导出1班,"
+                + dormitory.getBuildingName() + "," + dormitory.getRoomNumber() + ",");
+    }
+    
+    @Test
+    void compressesWhenAccepted() throws Exception {
+        User student = createStudent("导出专业", "导出2班");
+        
+        byte[] body = export("/admin/export/users", "gzip, deflate");
+        String csv = new String(new GZIPInputStream(new ByteArrayInputStream(body)).readAllBytes(), StandardCharsets.UTF_8);
+        assertThat(csv).contains("," + student.getUsername() + "," + student.getRealName() + ",STUDENT,");
+    }
+    
+    @Test
+    void rejectsUnknownDataset() throws Exception {
+        mockMvc.perform(get("/admin/export/passwords").with(user("admin").roles("ADMIN")))
+                .andExpect(status().isBadRequest());
+    }
+    
+    private byte[] export(String path, String acceptEncoding) throws Exception {
+        var builder = get(path).with(user("admin").roles("ADMIN"));
+        if (acceptEncoding != null) {
+            builder.header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        MvcResult started = mockMvc.perform(builder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult result = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT_ENCODING)))
+                .andReturn();
+        if (acceptEncoding != null) {
+            assertThat(result.getResponse().getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        }
+        return result.getResponse().getContentAsByteArray();
+    }
+}
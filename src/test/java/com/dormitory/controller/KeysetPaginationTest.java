@@ -0,0 +1,130 @@
+package com.dormitory.controller;
+
+import com.dormitory.IntegrationTestSupport;
+import com.dormitory.entity.Dormitory;
+import com.dormitory.entity.User;
+import com.dormitory.service.KeysetPage;
+import com.dormitory.service.KeysetPageRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 游标分页：前后翻页不重不漏，关键词中的 % 和 _ 按普通字符匹配，总数签名校验
+ */
+class KeysetPaginationTest extends IntegrationTestSupport {
+    
+    private User admin;
+    
+    // ASCII 楼名，翻页链接中不需要 URL 编码，便于替换
+    private String building;
+    
+    private List<Long> ids;
+    
+    @BeforeEach
+    void createDormitories() {
+        admin = userService.findByUsername("admin").orElseThrow();
+        building = unique("Paging");
+        ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ids.add(createDormitory(building, 4).getId());
+        }
+    }
+    
+    @Test
+    void pagesForwardAndBackward() {
+        List<Long> seen = new ArrayList<>();
+        KeysetPage<Dormitory> page = dormitoryService.findPage(building, null, null, null, request(null, null));
+        List<KeysetPage<Dormitory>> pages = new ArrayList<>();
+        while (true) {
+            pages.add(page);
+            page.getContent().forEach(dormitory -> seen.add(dormitory.getId()));
+            if (!page.isHasNext()) {
+                break;
+            }
+            page = dormitoryService.findPage(building, null, null, null, request(page.getNextCursor(), null));
+        }
+        assertThat(seen).containsExactlyElementsOf(ids);
+        assertThat(pages).hasSize(3);
+        assertThat(pages.get(0).getTotal()).isEqualTo(5);
+        
+        KeysetPage<Dormitory> previous = dormitoryService.findPage(building, null, null, null,
+                request(pages.get(2).getPreviousCursor(), null));
+        assertThat(previous.getContent()).extracting(Dormitory::getId).isEqualTo(ids.subList(2, 4));
+        assertThat(previous.isHasPrevious()).isTrue();
+    }
+    
+    @Test
+    void keywordWildcardsAreLiteral() {
+        Dormitory percent = dormitoryService.findById(ids.get(0)).orElseThrow();
+        percent.setDescription("空调节能50%以上");
+        dormitoryService.updateDormitory(percent.getId(), percent);
+        Dormitory digits = dormitoryService.findById(ids.get(1)).orElseThrow();
+        digits.setDescription("空调节能500度");
+        dormitoryService.updateDormitory(digits.getId(), digits);
+        Dormitory underscore = dormitoryService.findById(ids.get(2)).orElseThrow();
+        underscore.setDescription("编号A_1");
+        dormitoryService.updateDormitory(underscore.getId(), underscore);
+        Dormitory letter = dormitoryService.findById(ids.get(3)).orElseThrow();
+        letter.setDescription("编号AB1");
+        dormitoryService.updateDormitory(letter.getId(), letter);
+        
+        assertThat(keywordMatches("50%")).containsExactly(percent.getId());
+        assertThat(keywordMatches("A_1")).containsExactly(underscore.getId());
+        assertThat(keywordMatches("!")).isEmpty();
+        
+        User student = createStudent("通配专业", "通配1班");
+        KeysetPage<User> users = userService.findPage(null, "%" + student.getUsername().substring(1), request(null, null));
+        assertThat(users.getContent()).isEmpty();
+        assertThat(userService.findPage(null, student.getUsername(), request(null, null)).getContent())
+                .extracting(User::getId)
+                .containsExactly(student.getId());
+    }
+    
+    @Test
+    void signedTotalIsTrustedOnlyForTheSameFilter() throws Exception {
+        MvcResult first = list("/dormitories?building=" + building + "&size=2");
+        String nextUrl = (String) first.getModelAndView().getModel().get("nextUrl");
+        assertThat(nextUrl).contains("total=5.");
+        
+        // 签名有效时沿用第一页的总数，不再统计
+        createDormitory(building, 4);
+        assertThat(total(list(nextUrl))).isEqualTo(5);
+        
+        // 修改总数、去掉签名或换筛选条件时重新统计
+        assertThat(total(list(nextUrl.replace("total=5.", "total=9.")))).isEqualTo(6);
+        assertThat(total(list(nextUrl.replaceAll("total=5\\.[^&]*", "total=5")))).isEqualTo(6);
+        String otherBuilding = unique("Paging");
+        createDormitory(otherBuilding, 4);
+        assertThat(total(list(nextUrl.replace(building, otherBuilding)))).isEqualTo(1);
+    }
+    
+    private List<Long> keywordMatches(String keyword) {
+        return dormitoryService.findPage(building, null, null, keyword, request(null, null)).getContent().stream()
+                .map(Dormitory::getId)
+                .toList();
+    }
+    
+    private MvcResult list(String url) throws Exception {
+        return mockMvc.perform(get(URI.create(url)).with(user(admin)))
+                .andExpect(status().isOk())
+                .andReturn();
+    }
+    
+    private static long total(MvcResult result) {
+        return ((KeysetPage<?>) result.getModelAndView().getModel().get("page")).getTotal();
+    }
+    
+    private static KeysetPageRequest request(String cursor, Long total) {
+        return new KeysetPageRequest(cursor, 2, null, null, total);
+    }
+}
@@ -0,0 +1,54 @@
+package com.dormitory.controller;
+
+import com.dormitory.IntegrationTestSupport;
+import com.dormitory.entity.Dormitory;
+import com.dormitory.entity.RepairRequest;
+import com.dormitory.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 统计接口：同一版本带 If-None-Match 返回 304，数据变更后返回新的 ETag
+ */
+class StatisticsApiControllerTest extends IntegrationTestSupport {
+    
+    @Test
+    void conditionalGetFollowsVersion() throws Exception {
+        MvcResult first = mockMvc.perform(get("/api/v1/statistics/repairs").with(user("admin").roles("ADMIN")))
+                .andExpect(status().isOk())
+                .andReturn();
+        String eTag = first.getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(eTag).startsWith("\"repairs-");
+        
+        mockMvc.perform(get("/api/v1/statistics/repairs").with(user("admin").roles("ADMIN"))
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        
+        User student = createStudent("接口专业", "接口1班");
+        Dormitory dormitory = createDormitory(unique("接口楼"), 4);
+        createRepairRequest(student, dormitory, RepairRequest.RepairType.FURNITURE, RepairRequest.RepairPriority.MEDIUM);
+        
+        MvcResult changed = mockMvc.perform(get("/api/v1/statistics/repairs").with(user("admin").roles("ADMIN"))
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertThat(changed.getResponse().getHeader(HttpHeaders.ETAG)).isNotEqualTo(eTag);
+        assertThat(changed.getResponse().getContentAsString(StandardCharsets.UTF_8)).contains(dormitory.getBuildingName());
+    }
+    
+    @Test
+    void requiresAdmin() throws Exception {
+        mockMvc.perform(get("/api/v1/statistics/dormitories").with(user("student").roles("STUDENT")))
+                .andExpect(status().isForbidden());
+    }
+}
@@ -0,0 +1,113 @@
+package com.dormitory.dataset;
+
+import org.flywaydb.core.Flyway;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 数据集生成：按配置的数量写入，入住数据自洽，相同种子生成相同数据
+ *
+ * 每个测试在独立的 H2 内存库上执行迁移脚本后直接调用生成器，不启动应用。
+ */
+class DatasetGeneratorTest {
+    
+    private static final AtomicInteger DATABASES = new AtomicInteger();
+    
+    @Test
+    void writesConfiguredCounts() {
+        JdbcTemplate jdbcTemplate = emptyDatabase();
+        DatasetGenerator generator = generator(jdbcTemplate, properties());
+        assertThat(generator.isEmpty()).isTrue();
+        
+        generator.generate();
+        
+        // 演示数据：1 名管理员、4 名学生、6 间宿舍、4 条分配记录
+        assertThat(count(jdbcTemplate, "SELECT COUNT(*) FROM users WHERE role = 'ADMIN'")).isEqualTo(1 + 3);
+        assertThat(count(jdbcTemplate, "SELECT COUNT(*) FROM users WHERE role = 'STUDENT'")).isEqualTo(4 + 200);
+        assertThat(count(jdbcTemplate, "SELECT COUNT(*) FROM dormitories")).isEqualTo(6 + 60);
+        assertThat(count(jdbcTemplate, "SELECT COUNT(DISTINCT building_name) FROM dormitories "
+                + "WHERE building_name LIKE '%号楼'")).isEqualTo(4);
+        assertThat(count(jdbcTemplate, "SELECT COUNT(*) FROM repair_requests")).isEqualTo(500);
+        assertThat(count(jdbcTemplate, "SELECT COUNT(*) FROM student_dormitories")).isEqualTo(4 + 300);
+        assertThat(generator.isEmpty()).isFalse();
+    }
+    
+    @Test
+    void occupancyMatchesActiveAssignments() {
+        JdbcTemplate jdbcTemplate = emptyDatabase();
+        generator(jdbcTemplate, properties()).generate();
+        
+        assertThat(count(jdbcTemplate, "SELECT COUNT(*) FROM dormitories d WHERE d.current_occupancy <> "
+                + "(SELECT COUNT(*) FROM student_dormitories sd WHERE sd.dormitory_id = d.id AND sd.status = 'ACTIVE')"))
+                .isZero();
+        assertThat(count(jdbcTemplate, "SELECT COUNT(*) FROM dormitories WHERE current_occupancy > capacity")).isZero();
+        assertThat(count(jdbcTemplate, "SELECT COUNT(*) FROM dormitories "
+                + "WHERE status = 'FULL' AND current_occupancy < capacity")).isZero();
+        assertThat(count(jdbcTemplate, "SELECT COUNT(*) FROM (SELECT student_id FROM student_dormitories "
+                + "WHERE status = 'ACTIVE' GROUP BY student_id HAVING COUNT(*) > 1)")).isZero();
+        assertThat(count(jdbcTemplate, "SELECT COUNT(*) FROM repair_requests "
+                + "WHERE status = 'COMPLETED' AND (completed_at IS NULL OR assigned_admin_id IS NULL)")).isZero();
+    }
+    
+    @Test
+    void sameSeedSameData() {
+        JdbcTemplate first = emptyDatabase();
+        JdbcTemplate second = emptyDatabase();
+        generator(first, properties()).generate();
+        generator(second, properties()).generate();
+        
+        String students = "SELECT student_id, major, class_name FROM users WHERE role = 'STUDENT' ORDER BY id";
+        String assignments = "SELECT student_id, dormitory_id, status FROM student_dormitories ORDER BY id";
+        String repairs = "SELECT dormitory_id, description, type, priority FROM repair_requests ORDER BY id";
+        assertThat(rows(second, students)).isEqualTo(rows(first, students));
+        assertThat(rows(second, assignments)).isEqualTo(rows(first, assignments));
+        assertThat(rows(second, repairs)).isEqualTo(rows(first, repairs));
+    }
+    
+    /**
+     * 小规模配置；批大小不整除行数，覆盖最后一批不满的情况
+     */
+    private static DatasetProperties properties() {
+        DatasetProperties properties = new DatasetProperties();
+        properties.setBatchSize(64);
+        properties.setAdmins(3);
+        properties.setStudents(200);
+        properties.setBuildings(4);
+        properties.setRooms(60);
+        properties.setAssignments(300);
+        properties.setRepairRequests(500);
+        return properties;
+    }
+    
+    private static DatasetGenerator generator(JdbcTemplate jdbcTemplate, DatasetProperties properties) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(
+                new DataSourceTransactionManager(jdbcTemplate.getDataSource()));
+        return new DatasetGenerator(jdbcTemplate, transactionTemplate, new BCryptPasswordEncoder(4), properties);
+    }
+    
+    private static JdbcTemplate emptyDatabase() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:dataset" + DATABASES.incrementAndGet() + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load().migrate();
+        return new JdbcTemplate(dataSource);
+    }
+    
+    private static long count(JdbcTemplate jdbcTemplate, String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+    
+    private static List<Map<String, Object>> rows(JdbcTemplate jdbcTemplate, String sql) {
+        return jdbcTemplate.queryForList(sql);
+    }
+}
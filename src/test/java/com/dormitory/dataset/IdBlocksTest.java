@@ -0,0 +1,96 @@
+package com.dormitory.dataset;
+
+import com.dormitory.IntegrationTestSupport;
+import com.dormitory.entity.Dormitory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 主键号段：并发预留的号段互不重叠，直接插入的行与 Hibernate 表生成器分配的主键不冲突
+ */
+class IdBlocksTest extends IntegrationTestSupport {
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Test
+    void concurrentReservationsDoNotOverlap() throws Exception {
+        int threads = 4;
+        int reservations = 25;
+        int blockSize = 7;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<List<Long>>> results = new ArrayList<>();
+        try {
+            for (int t = 0; t < threads; t++) {
+                results.add(executor.submit(() -> {
+                    List<Long> firsts = new ArrayList<>();
+                    for (int i = 0; i < reservations; i++) {
+                        firsts.add(transactionTemplate.execute(
+                                status -> IdBlocks.reserve(jdbcTemplate, "repair_statistics", blockSize)));
+                    }
+                    return firsts;
+                }));
+            }
+            Set<Long> ids = new HashSet<>();
+            for (Future<List<Long>> result : results) {
+                for (long first : result.get(1, TimeUnit.MINUTES)) {
+                    for (long id = first; id < first + blockSize; id++) {
+                        assertThat(ids.add(id)).as("主键 %d 被重复预留", id).isTrue();
+                    }
+                }
+            }
+            assertThat(ids).hasSize(threads * reservations * blockSize);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    @Test
+    void directInsertsDoNotCollideWithHibernate() {
+        Dormitory before = createDormitory(unique("号段楼"), 4);
+        
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            rows.add(new Object[]{unique("号段楼"), "101", 4, 0, "MALE", 500.0, "AVAILABLE", now, now});
+        }
+        List<Object[]> withIds = transactionTemplate.execute(status -> {
+            List<Object[]> result = IdBlocks.withIds(jdbcTemplate, "dormitories", rows);
+            jdbcTemplate.batchUpdate("INSERT INTO dormitories (building_name, room_number, capacity, current_occupancy, "
+                    + "type, monthly_rent, status, created_at, updated_at, id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", result);
+            return result;
+        });
+        long first = (Long) withIds.get(0)[9];
+        try {
+            assertThat(withIds).extracting(row -> row[9]).containsExactly(first, first + 1, first + 2);
+            assertThat(first).isGreaterThan(before.getId());
+            
+            // Hibernate 继续使用已取得的号段，用完后从表中取新号段，都不会落在直接插入的主键上
+            for (int i = 0; i < 60; i++) {
+                Dormitory after = createDormitory(unique("号段楼"), 4);
+                assertThat(after.getId()).isNotIn(first, first + 1, first + 2);
+            }
+        } finally {
+            // 直接插入的行不经过 Hibernate，不会使缓存和统计失效，测试结束即删除，不影响其他测试的计数
+            jdbcTemplate.update("DELETE FROM dormitories WHERE id BETWEEN ? AND ?", first, first + 2);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.dormitory.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 连接许可：许可数等于连接池大小，连接关闭（只算一次）或取连接失败时归还
+ */
+class ConnectionLimitingDataSourceTest {
+    
+    private final DataSource target = mock(DataSource.class);
+    
+    private final Connection connection = mock(Connection.class);
+    
+    private ConnectionLimitingDataSource dataSource;
+    
+    @BeforeEach
+    void limitToTwo() throws SQLException {
+        when(target.getConnection()).thenReturn(connection);
+        dataSource = new ConnectionLimitingDataSource(target, "test", 2, Duration.ofMillis(50), new SimpleMeterRegistry());
+    }
+    
+    @Test
+    void waitsForPermitAndTimesOut() throws SQLException {
+        Connection first = dataSource.getConnection();
+        dataSource.getConnection();
+        
+        assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+        
+        first.close();
+        assertThat(dataSource.getConnection()).isNotNull();
+    }
+    
+    @Test
+    void repeatedCloseReleasesOnce() throws SQLException {
+        Connection first = dataSource.getConnection();
+        first.close();
+        first.close();
+        
+        dataSource.getConnection();
+        dataSource.getConnection();
+        assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+    }
+    
+    @Test
+    void failedAcquireReleasesPermit() throws SQLException {
+        when(target.getConnection()).thenThrow(new SQLException("连接池已满"));
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(dataSource::getConnection).hasMessage("连接池已满");
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.dormitory.datasource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 读写分离：只读事务走从库，写事务、刚写过的用户和从库延迟超限时走主库
+ *
+ * 主库、从库是两个独立的 H2 内存库，各有一行标记自己名字的数据；与 ReadReplicaConfig 一样在路由外包一层
+ * LazyConnectionDataSourceProxy，事务中查询标记即可知道实际用了哪个库。
+ */
+class ReadWriteRoutingDataSourceTest {
+    
+    private static final AtomicInteger DATABASES = new AtomicInteger();
+    
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    
+    private DataSource primary;
+    
+    private DataSource replica;
+    
+    private ReadWriteRoutingDataSource routingDataSource;
+    
+    private JdbcTemplate jdbcTemplate;
+    
+    private TransactionTemplate writeTransaction;
+    
+    private TransactionTemplate readOnlyTransaction;
+    
+    @BeforeEach
+    void createDatabases() {
+        primary = database("primary");
+        replica = database("replica");
+        routingDataSource = new ReadWriteRoutingDataSource(primary, replica, Duration.ofSeconds(5), registry);
+        routingDataSource.afterPropertiesSet();
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        writeTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+    
+    @AfterEach
+    void clearUser() {
+        SecurityContextHolder.clearContext();
+    }
+    
+    @Test
+    void readOnlyTransactionsUseReplica() {
+        assertThat(database(readOnlyTransaction)).isEqualTo("replica");
+        assertThat(database(writeTransaction)).isEqualTo("primary");
+        
+        assertThat(routed("replica", "read")).isEqualTo(1);
+        assertThat(routed("primary", "write")).isGreaterThanOrEqualTo(1);
+    }
+    
+    @Test
+    void userReadsOwnWritesFromPrimary() {
+        signIn("alice");
+        database(writeTransaction);
+        assertThat(database(readOnlyTransaction)).isEqualTo("primary");
+        assertThat(routed("primary", "sticky")).isEqualTo(1);
+        
+        signIn("bob");
+        assertThat(database(readOnlyTransaction)).isEqualTo("replica");
+    }
+    
+    @Test
+    void laggingReplicaFallsBackToPrimary() {
+        ReplicaProperties properties = new ReplicaProperties();
+        properties.setMaxLag(Duration.ofSeconds(3));
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(primary, replica, routingDataSource, properties, registry);
+        
+        // 从库的心跳停在 0：复制中断
+        monitor.check();
+        assertThat(routingDataSource.isReplicaAvailable()).isFalse();
+        assertThat(database(readOnlyTransaction)).isEqualTo("primary");
+        assertThat(routed("primary", "lag")).isEqualTo(1);
+        
+        // 模拟复制追上
+        new JdbcTemplate(replica).update("UPDATE replication_heartbeat SET beat_at = ? WHERE id = 1",
+                System.currentTimeMillis());
+        monitor.check();
+        assertThat(routingDataSource.isReplicaAvailable()).isTrue();
+        assertThat(database(readOnlyTransaction)).isEqualTo("replica");
+        assertThat(registry.get("dormitory.datasource.replica.lag").gauge().value()).isLessThan(3);
+    }
+    
+    private String database(TransactionTemplate transactionTemplate) {
+        return transactionTemplate.execute(status -> jdbcTemplate.queryForObject("SELECT name FROM marker", String.class));
+    }
+    
+    private double routed(String target, String reason) {
+        return registry.get("dormitory.datasource.routing").tags("target", target, "reason", reason).counter().count();
+    }
+    
+    private static void signIn(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated(username, null, List.of()));
+    }
+    
+    private static DataSource database(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:routing" + DATABASES.incrementAndGet() + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE marker (name VARCHAR(20))");
+        jdbcTemplate.update("INSERT INTO marker (name) VALUES (?)", name);
+        jdbcTemplate.execute("CREATE TABLE replication_heartbeat (id INTEGER PRIMARY KEY, beat_at BIGINT NOT NULL)");
+        jdbcTemplate.update("INSERT INTO replication_heartbeat (id, beat_at) VALUES (1, 0)");
+        return dataSource;
+    }
+}
@@ -0,0 +1,109 @@
+package com.dormitory.monitor;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 方法耗时统计：经 MethodTimingPostProcessor 代理的 Service 调用记入 Timer、行数分布和慢调用
+ */
+class MethodTimingsTest {
+    
+    private final MethodTimingProperties properties = new MethodTimingProperties();
+    
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    
+    private MethodTimings timings;
+    
+    private LookupService service;
+    
+    @BeforeEach
+    void proxyService() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("registry", registry);
+        timings = new MethodTimings(properties, beanFactory.getBeanProvider(MeterRegistry.class));
+        beanFactory.registerSingleton("timings", timings);
+        service = (LookupService) new MethodTimingPostProcessor(beanFactory.getBeanProvider(MethodTimings.class))
+                .postProcessAfterInitialization(new LookupService(), "lookupService");
+    }
+    
+    @Test
+    void recordsInvocationsAndRows() {
+        service.findByOwner(1L);
+        service.findByOwner(2L);
+        service.findFirst(3L);
+        
+        Timer timer = registry.get("dormitory.method.invocations")
+                .tags("layer", "service", "class", "LookupService", "method", "findByOwner").timer();
+        assertThat(timer.count()).isEqualTo(2);
+        assertThat(registry.get("dormitory.method.rows").tag("method", "findByOwner").summary().totalAmount())
+                .isEqualTo(6);
+        assertThat(registry.get("dormitory.method.rows").tag("method", "findFirst").summary().totalAmount())
+                .isEqualTo(1);
+        assertThat(timings.getMethods()).extracting(MethodTimings.MethodStats::getMethod)
+                .containsExactlyInAnyOrder("findByOwner", "findFirst");
+        assertThat(timings.getSlowCalls()).isEmpty();
+    }
+    
+    @Test
+    void slowCallsKeepArguments() {
+        properties.setSlowThreshold(Duration.ZERO);
+        properties.setSlowCallsRetained(1);
+        
+        service.findByOwner(1L);
+        service.findByOwner(2L);
+        
+        assertThat(timings.getSlowCalls()).singleElement().satisfies(call -> {
+            assertThat(call.call()).isEqualTo("LookupService.findByOwner(2)");
+            assertThat(call.rows()).isEqualTo(3);
+        });
+    }
+    
+    @Test
+    void slowCallsNeverKeepStringValues() {
+        properties.setSlowThreshold(Duration.ZERO);
+        
+        service.changePassword(1L, "old-secret", "new-secret-123");
+        
+        assertThat(timings.getSlowCalls()).singleElement().satisfies(call -> {
+            assertThat(call.call()).isEqualTo("LookupService.changePassword(1, String[10], String[14])");
+            assertThat(call.call()).doesNotContain("secret");
+        });
+    }
+    
+    @Test
+    void disabledRecordsNothing() {
+        properties.setEnabled(false);
+        
+        assertThat(service.findByOwner(1L)).hasSize(3);
+        
+        assertThat(registry.find("dormitory.method.invocations").timer()).isNull();
+        assertThat(timings.getMethods()).isEmpty();
+    }
+    
+    @Service
+    static class LookupService {
+        
+        public List<Long> findByOwner(Long ownerId) {
+            return List.of(ownerId, ownerId + 1, ownerId + 2);
+        }
+        
+        public Optional<Long> findFirst(Long ownerId) {
+            return Optional.of(ownerId);
+        }
+        
+        // 与 UserService.changePassword 相同的签名
+        public void changePassword(Long userId, String oldPassword, String newPassword) {
+        }
+    }
+}
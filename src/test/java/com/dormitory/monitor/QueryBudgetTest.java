@@ -0,0 +1,93 @@
+package com.dormitory.monitor;
+
+import com.dormitory.IntegrationTestSupport;
+import com.dormitory.entity.Dormitory;
+import com.dormitory.entity.RepairRequest;
+import com.dormitory.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 列表页和仪表板的SQL语句数不超过预算
+ *
+ * 每个列表都写入多于一页的行，关联若逐行加载，语句数会随行数增长而超出预算。
+ */
+class QueryBudgetTest extends IntegrationTestSupport {
+    
+    private static final int ROWS = 25;
+    
+    @Autowired
+    private QueryBudgetProperties properties;
+    
+    private User admin;
+    
+    private User student;
+    
+    @BeforeEach
+    void createRows() {
+        admin = userService.findByUsername("admin").orElseThrow();
+        String building = unique("预算楼");
+        for (int i = 0; i < ROWS; i++) {
+            User resident = createStudent("计算机科学", "预算班");
+            Dormitory dormitory = createDormitory(building, 4);
+            studentDormitoryService.assignStudentToDormitory(resident.getId(), dormitory.getId(), LocalDate.now());
+            RepairRequest repairRequest = createRepairRequest(resident, dormitory,
+                    RepairRequest.RepairType.ELECTRICAL, RepairRequest.RepairPriority.MEDIUM);
+            repairRequestService.assignRepairRequest(repairRequest.getId(), admin.getId());
+            student = resident;
+        }
+    }
+    
+    @Test
+    void adminDashboard() throws Exception {
+        assertWithinBudget(page("/", admin));
+    }
+    
+    @Test
+    void studentDashboard() throws Exception {
+        assertWithinBudget(page("/", student));
+    }
+    
+    @Test
+    void dormitoryList() throws Exception {
+        assertWithinBudget(page("/dormitories", admin));
+    }
+    
+    @Test
+    void assignmentList() throws Exception {
+        assertWithinBudget(page("/assignments", admin));
+    }
+    
+    @Test
+    void repairRequestList() throws Exception {
+        assertWithinBudget(page("/repair-requests", admin));
+    }
+    
+    @Test
+    void userList() throws Exception {
+        assertWithinBudget(page("/users", admin));
+    }
+    
+    private MvcResult page(String path, User user) throws Exception {
+        return mockMvc.perform(get(path).with(user(user)))
+                .andExpect(status().isOk())
+                .andReturn();
+    }
+    
+    private void assertWithinBudget(MvcResult result) {
+        Integer statements = (Integer) result.getRequest().getAttribute(QueryBudgetFilter.STATEMENTS_ATTRIBUTE);
+        assertThat(statements)
+                .as("%s 执行的SQL语句数", result.getRequest().getRequestURI())
+                .isNotNull()
+                .isLessThanOrEqualTo(properties.getMaxStatements());
+    }
+}
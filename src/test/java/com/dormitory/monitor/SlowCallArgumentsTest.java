@@ -0,0 +1,42 @@
+package com.dormitory.monitor;
+
+import com.dormitory.IntegrationTestSupport;
+import com.dormitory.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 慢调用记录不含密码：修改密码（两次 BCrypt）常超过慢调用阈值，日志和 methodtimings 端点中只出现参数长度
+ */
+class SlowCallArgumentsTest extends IntegrationTestSupport {
+    
+    @Autowired
+    private MethodTimingProperties properties;
+    
+    @Autowired
+    private MethodTimings timings;
+    
+    @Test
+    void changePasswordNeverRecordsPasswords() {
+        User student = createStudent("慢调用专业", "慢调用1班");
+        Duration threshold = properties.getSlowThreshold();
+        properties.setSlowThreshold(Duration.ZERO);
+        try {
+            userService.changePassword(student.getId(), "student123", "NewSecret#2024");
+        } finally {
+            properties.setSlowThreshold(threshold);
+        }
+        
+        assertThat(timings.getSlowCalls())
+                .filteredOn(call -> call.call().startsWith("UserService.changePassword("))
+                .isNotEmpty()
+                .allSatisfy(call -> assertThat(call.call())
+                        .doesNotContain("student123")
+                        .doesNotContain("NewSecret#2024")
+                        .endsWith("(" + student.getId() + ", String[10], String[14])"));
+    }
+}
@@ -0,0 +1,191 @@
+package com.dormitory.repository;
+
+import com.dormitory.IntegrationTestSupport;
+import com.dormitory.entity.Dormitory;
+import com.dormitory.entity.User;
+import com.dormitory.monitor.StatementCounter;
+import com.dormitory.service.KeysetPageRequest;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 热点查询使用迁移脚本（V1、V2）建立的复合索引
+ *
+ * 调用 Repository 方法，取 Hibernate 实际生成的SQL（参数保持为 ?）在 H2 上执行 EXPLAIN，
+ * 断言执行计划中出现对应的复合索引名；外键上的单列索引不算。查询被改写或索引被删后用不上索引时测试失败。
+ * 只按一个外键列查找时（学生的维修记录、按宿舍计数），H2 总是选用它为外键另建的同列单列索引，
+ * 这两条查询改为断言按该列走索引查找，且以该列开头的复合索引存在（MySQL 中由复合索引代替外键索引）。
+ */
+class QueryPlanTest extends IntegrationTestSupport {
+    
+    @Autowired
+    private CapturingStatementCounter statements;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Autowired
+    private StudentDormitoryRepository studentDormitoryRepository;
+    
+    @Autowired
+    private RepairRequestRepository repairRequestRepository;
+    
+    @Autowired
+    private DormitoryRepository dormitoryRepository;
+    
+    private User student;
+    
+    private Dormitory dormitory;
+    
+    @BeforeEach
+    void evictCaches() {
+        student = userService.findByUsername("student").orElseThrow();
+        dormitory = dormitoryRepository.findAll().get(0);
+        // 查询缓存命中时不执行SQL
+        entityManagerFactory.getCache().evictAll();
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+    }
+    
+    @Test
+    void activeAssignmentOfStudent() {
+        assertThat(plan(() -> studentDormitoryRepository.findActiveByStudentId(student.getId())))
+                .contains("idx_student_dormitories_student_status");
+    }
+    
+    @Test
+    void activeAssignmentsOfDormitory() {
+        assertThat(plan(() -> studentDormitoryRepository.findActiveByDormitoryId(dormitory.getId())))
+                .contains("idx_student_dormitories_dormitory_status");
+    }
+    
+    @Test
+    void assignmentListFirstPage() {
+        assertThat(plan(() -> studentDormitoryService.findPage(null, null, null, firstPage())))
+                .contains("idx_student_dormitories_check_in");
+    }
+    
+    @Test
+    void pendingRepairRequests() {
+        assertThat(plan(() -> repairRequestRepository.findPendingRequestsOrderByPriority()))
+                .contains("idx_repair_requests_status_priority_requested");
+        assertThat(plan(() -> repairRequestRepository.findHighPriorityPendingRequests()))
+                .contains("idx_repair_requests_status_priority_requested");
+    }
+    
+    @Test
+    void repairRequestListFirstPage() {
+        assertThat(plan(() -> repairRequestService.findPage(null, null, null, null, firstPage())))
+                .contains("idx_repair_requests_requested");
+    }
+    
+    @Test
+    void repairRequestsOfStudent() {
+        assertThat(plan(() -> repairRequestRepository.findByStudentOrderByRequestedAtDesc(student)))
+                .contains(": student_id = ?1");
+        assertThat(leadingColumn("idx_repair_requests_student_requested")).isEqualTo("student_id");
+    }
+    
+    @Test
+    void repairRequestCountOfDormitory() {
+        assertThat(plan(() -> repairRequestRepository.countByDormitoryId(dormitory.getId())))
+                .contains(": dormitory_id = ?1");
+        assertThat(leadingColumn("idx_repair_requests_dormitory_requested")).isEqualTo("dormitory_id");
+    }
+    
+    @Test
+    void availableDormitories() {
+        assertThat(plan(() -> dormitoryRepository.findAvailableDormitories()))
+                .contains("idx_dormitories_status_occupancy");
+        assertThat(plan(() -> dormitoryRepository.findAvailableDormitoriesByBuildingAndType(
+                dormitory.getBuildingName(), dormitory.getType())))
+                .contains("idx_dormitories_building_type_status");
+    }
+    
+    @Test
+    void dormitoryByBuildingAndRoom() {
+        assertThat(plan(() -> dormitoryRepository.findByBuildingNameAndRoomNumber(
+                dormitory.getBuildingName(), dormitory.getRoomNumber())))
+                .contains("idx_dormitories_building_room");
+    }
+    
+    private static KeysetPageRequest firstPage() {
+        return new KeysetPageRequest(null, null, null, null, null);
+    }
+    
+    /**
+     * 执行查询并返回其间所有语句的执行计划（小写）
+     */
+    private String plan(Runnable query) {
+        List<String> sqls = statements.capture(query);
+        assertThat(sqls).as("查询没有执行SQL").isNotEmpty();
+        return sqls.stream()
+                .map(sql -> jdbcTemplate.queryForList("EXPLAIN " + sql, String.class).get(0))
+                .collect(Collectors.joining("\n"))
+                .toLowerCase(Locale.ROOT);
+    }
+    
+    /**
+     * 索引的第一列（小写），索引不存在时为 null
+     */
+    private String leadingColumn(String indexName) {
+        List<String> columns = jdbcTemplate.queryForList("SELECT LOWER(COLUMN_NAME) "
+                + "FROM INFORMATION_SCHEMA.INDEX_COLUMNS WHERE LOWER(INDEX_NAME) = ? AND ORDINAL_POSITION = 1",
+                String.class, indexName);
+        return columns.isEmpty() ? null : columns.get(0);
+    }
+    
+    /**
+     * 在计数之外记录执行的SQL；替换容器中的 StatementCounter，注册为 Hibernate 的 StatementInspector
+     */
+    static class CapturingStatementCounter extends StatementCounter {
+        
+        private final ThreadLocal<List<String>> captured = new ThreadLocal<>();
+        
+        List<String> capture(Runnable query) {
+            List<String> sqls = new ArrayList<>();
+            captured.set(sqls);
+            try {
+                query.run();
+            } finally {
+                captured.remove();
+            }
+            return sqls;
+        }
+        
+        @Override
+        public String inspect(String sql) {
+            List<String> sqls = captured.get();
+            if (sqls != null) {
+                sqls.add(sql);
+            }
+            return super.inspect(sql);
+        }
+    }
+    
+    @TestConfiguration
+    static class CaptureConfig {
+        
+        @Bean
+        @Primary
+        CapturingStatementCounter capturingStatementCounter() {
+            return new CapturingStatementCounter();
+        }
+    }
+}
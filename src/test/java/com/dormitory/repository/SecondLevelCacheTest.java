@@ -0,0 +1,79 @@
+package com.dormitory.repository;
+
+import com.dormitory.IntegrationTestSupport;
+import com.dormitory.entity.Dormitory;
+import com.dormitory.entity.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 二级缓存：宿舍、用户按ID读取命中缓存，修改后读到新值；可用宿舍数走查询缓存，宿舍表修改后失效
+ */
+class SecondLevelCacheTest extends IntegrationTestSupport {
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    private Statistics statistics;
+    
+    @BeforeEach
+    void statistics() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+    
+    @Test
+    void dormitoryReadsHitCache() {
+        Dormitory dormitory = createDormitory(unique("缓存楼"), 4);
+        dormitoryService.findById(dormitory.getId());
+        
+        long hits = hits("dormitory");
+        Dormitory cached = dormitoryService.findById(dormitory.getId()).orElseThrow();
+        assertThat(hits("dormitory")).isGreaterThan(hits);
+        assertThat(cached.getMonthlyRent()).isEqualTo(500.0);
+        
+        cached.setMonthlyRent(650.0);
+        dormitoryService.updateDormitory(dormitory.getId(), cached);
+        assertThat(dormitoryService.findById(dormitory.getId()).orElseThrow().getMonthlyRent()).isEqualTo(650.0);
+        
+        assertThat(meterRegistry.get("hibernate.cache.requests").tags("region", "dormitory", "result", "hit")
+                .functionCounter().count()).isGreaterThan(hits);
+    }
+    
+    @Test
+    void userReadsHitCache() {
+        User student = createStudent("缓存专业", "缓存1班");
+        userService.findById(student.getId());
+        
+        long hits = hits("user");
+        assertThat(userService.findById(student.getId()).orElseThrow().getUsername()).isEqualTo(student.getUsername());
+        assertThat(hits("user")).isGreaterThan(hits);
+    }
+    
+    @Test
+    void availableCountUsesQueryCache() {
+        long available = dormitoryService.countAvailableDormitories();
+        long hits = statistics.getQueryCacheHitCount();
+        assertThat(dormitoryService.countAvailableDormitories()).isEqualTo(available);
+        assertThat(statistics.getQueryCacheHitCount()).isGreaterThan(hits);
+        
+        createDormitory(unique("缓存楼"), 2);
+        assertThat(dormitoryService.countAvailableDormitories()).isEqualTo(available + 1);
+    }
+    
+    private long hits(String region) {
+        CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+        assertThat(regionStatistics).as("缓存区域 " + region).isNotNull();
+        return regionStatistics.getHitCount();
+    }
+}
@@ -0,0 +1,36 @@
+package com.dormitory.security;
+
+import com.dormitory.IntegrationTestSupport;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
+
+/**
+ * 登录限流：同一用户名超出容量的尝试在校验密码之前被拒绝
+ */
+class LoginThrottleTest extends IntegrationTestSupport {
+    
+    @Autowired
+    private LoginThrottleProperties properties;
+    
+    @Test
+    void rejectsAttemptsBeyondUsernameCapacity() throws Exception {
+        String username = unique("nobody");
+        for (int i = 0; i < properties.getUsername().getCapacity(); i++) {
+            mockMvc.perform(post("/login").param("username", username).param("password", "wrong"))
+                    .andExpect(redirectedUrl("/login?error=true"));
+        }
+        
+        mockMvc.perform(post("/login").param("username", username.toUpperCase()).param("password", "wrong"))
+                .andExpect(redirectedUrl("/login?throttled=true"))
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+        
+        // 其他用户名不受影响
+        mockMvc.perform(post("/login").param("username", unique("nobody")).param("password", "wrong"))
+                .andExpect(redirectedUrl("/login?error=true"));
+    }
+}
@@ -0,0 +1,78 @@
+package com.dormitory.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 令牌桶与分段令牌桶表
+ */
+class TokenBucketTest {
+    
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+    
+    @Test
+    void allowsBurstThenRefillsOneTokenPerInterval() {
+        TokenBucket bucket = new TokenBucket(3, SECOND, 0);
+        assertThat(bucket.tryAcquire(0)).isTrue();
+        assertThat(bucket.tryAcquire(0)).isTrue();
+        assertThat(bucket.tryAcquire(0)).isTrue();
+        assertThat(bucket.tryAcquire(0)).isFalse();
+        assertThat(bucket.nanosUntilAvailable(0)).isEqualTo(SECOND);
+        
+        assertThat(bucket.tryAcquire(SECOND / 2)).isFalse();
+        assertThat(bucket.tryAcquire(SECOND)).isTrue();
+        assertThat(bucket.tryAcquire(SECOND)).isFalse();
+        
+        // 空闲足够久后补满，但不超过容量
+        long later = 10 * SECOND;
+        assertThat(bucket.nanosUntilAvailable(later)).isZero();
+        int acquired = 0;
+        while (bucket.tryAcquire(later)) {
+            acquired++;
+        }
+        assertThat(acquired).isEqualTo(3);
+    }
+    
+    @Test
+    void idleOnlyWhenFullAndUntouched() {
+        TokenBucket bucket = new TokenBucket(2, SECOND, 0);
+        bucket.tryAcquire(0);
+        assertThat(bucket.isIdle(0, 0)).isFalse();
+        assertThat(bucket.isIdle(SECOND, 5 * SECOND)).isFalse();
+        assertThat(bucket.isIdle(5 * SECOND, 5 * SECOND)).isTrue();
+    }
+    
+    @Test
+    void sameKeySharesBucketAndIdleBucketsAreEvicted() {
+        StripedBucketMap buckets = new StripedBucketMap(4, 100, SECOND, now -> new TokenBucket(1, SECOND, now));
+        TokenBucket bucket = buckets.bucketFor("alice", 0);
+        assertThat(buckets.bucketFor("alice", 0)).isSameAs(bucket);
+        assertThat(buckets.bucketFor("bob", 0)).isNotSameAs(bucket);
+        assertThat(buckets.size()).isEqualTo(2);
+        
+        bucket.tryAcquire(0);
+        assertThat(buckets.evictIdle(3 * SECOND)).isEqualTo(2);
+        assertThat(buckets.size()).isZero();
+    }
+    
+    @Test
+    void fullStripeEvictsAtMostOncePerIdleInterval() {
+        StripedBucketMap buckets = new StripedBucketMap(1, 2, SECOND, now -> new TokenBucket(1, SECOND, now));
+        buckets.bucketFor("alice", 0);
+        buckets.bucketFor("bob", 0);
+        
+        // 写满后第一个新键触发淘汰，没有空闲的桶，使用溢出令牌桶
+        TokenBucket overflow = buckets.bucketFor("random-1", SECOND / 2);
+        // 此时已有空闲的桶，但距上次淘汰不足一个空闲时长，不再扫描
+        assertThat(buckets.bucketFor("random-2", SECOND + SECOND / 5)).isSameAs(overflow);
+        assertThat(buckets.size()).isEqualTo(2);
+        
+        TokenBucket carol = buckets.bucketFor("carol", SECOND + SECOND / 2);
+        assertThat(carol).isNotSameAs(overflow);
+        assertThat(buckets.bucketFor("carol", SECOND + SECOND / 2)).isSameAs(carol);
+        assertThat(buckets.size()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,70 @@
+package com.dormitory.service;
+
+import com.dormitory.IntegrationTestSupport;
+import com.dormitory.entity.Dormitory;
+import com.dormitory.entity.User;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 并发分配同一宿舍：与迎新日压测（src/loadtest）中多名管理员争抢最后床位的场景相同，
+ * 结束后宿舍不超员，入住人数与活跃分配记录一致
+ */
+class ConcurrentAssignmentTest extends IntegrationTestSupport {
+    
+    private static final int CAPACITY = 2;
+    
+    private static final int ADMINS = 6;
+    
+    @Test
+    void lastBedsAreNotOverbooked() throws Exception {
+        Dormitory dormitory = createDormitory(unique("迎新楼"), CAPACITY);
+        List<User> newcomers = new ArrayList<>();
+        for (int i = 0; i < ADMINS; i++) {
+            newcomers.add(createStudent("迎新专业", "迎新1班"));
+        }
+        
+        ExecutorService executor = Executors.newFixedThreadPool(ADMINS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (User newcomer : newcomers) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        studentDormitoryService.assignStudentToDormitory(newcomer.getId(), dormitory.getId(),
+                                LocalDate.now());
+                        return true;
+                    } catch (RuntimeException e) {
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+            int assigned = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get(1, TimeUnit.MINUTES)) {
+                    assigned++;
+                }
+            }
+            assertThat(assigned).isEqualTo(CAPACITY);
+        } finally {
+            executor.shutdownNow();
+        }
+        
+        Dormitory reloaded = dormitoryService.findById(dormitory.getId()).orElseThrow();
+        assertThat(reloaded.getCurrentOccupancy()).isEqualTo(CAPACITY);
+        assertThat(reloaded.getStatus()).isEqualTo(Dormitory.DormitoryStatus.FULL);
+        assertThat(studentDormitoryService.findActiveByDormitoryId(dormitory.getId())).hasSize(CAPACITY);
+    }
+}
@@ -0,0 +1,136 @@
+package com.dormitory.service;
+
+import com.dormitory.IntegrationTestSupport;
+import com.dormitory.entity.Dormitory;
+import com.dormitory.entity.RepairRequest;
+import com.dormitory.entity.User;
+import com.dormitory.event.ChangeType;
+import com.dormitory.event.DormitoryChangedEvent;
+import com.dormitory.event.DormitoryState;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 仪表板快照：提交后立即反映变更，并发读取不会发布变更之前的快照，校验修正时不会发布不完整的入住统计
+ */
+class DashboardSnapshotServiceTest extends IntegrationTestSupport {
+    
+    @Autowired
+    private DashboardSnapshotService dashboardSnapshotService;
+    
+    @Test
+    void reflectsCommittedChanges() {
+        DashboardSnapshot before = dashboardSnapshotService.getSnapshot();
+        User student = createStudent("快照专业", "快照1班");
+        Dormitory dormitory = createDormitory(unique("快照楼"), 2);
+        createRepairRequest(student, dormitory, RepairRequest.RepairType.ELECTRICAL, RepairRequest.RepairPriority.LOW);
+        
+        DashboardSnapshot after = dashboardSnapshotService.getSnapshot();
+        assertThat(after.getVersion()).isGreaterThan(before.getVersion()).isEqualTo(dashboardSnapshotService.getVersion());
+        assertThat(after.getTotalStudents()).isEqualTo(before.getTotalStudents() + 1);
+        assertThat(after.getTotalDormitories()).isEqualTo(before.getTotalDormitories() + 1);
+        assertThat(after.getAvailableDormitories()).isEqualTo(before.getAvailableDormitories() + 1);
+        assertThat(after.getPendingRepairRequests()).isEqualTo(before.getPendingRepairRequests() + 1);
+        assertThat(after.getOccupancyStats())
+                .anySatisfy(row -> assertThat(row[0]).isEqualTo(dormitory.getBuildingName()));
+        
+        // 没有变更时返回同一个快照
+        assertThat(dashboardSnapshotService.getSnapshot()).isSameAs(after);
+    }
+    
+    @Test
+    void concurrentReadersNeverGoBackwards() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(6);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        try {
+            List<Future<?>> readers = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                readers.add(executor.submit(() -> {
+                    // 只新增学生，同一读取方看到的快照版本号和学生数都不应回退
+                    long lastVersion = -1;
+                    long lastStudents = -1;
+                    while (writing.get()) {
+                        DashboardSnapshot snapshot = dashboardSnapshotService.getSnapshot();
+                        assertThat(snapshot.getVersion()).isGreaterThanOrEqualTo(lastVersion);
+                        assertThat(snapshot.getTotalStudents()).isGreaterThanOrEqualTo(lastStudents);
+                        lastVersion = snapshot.getVersion();
+                        lastStudents = snapshot.getTotalStudents();
+                    }
+                    return null;
+                }));
+            }
+            List<Future<?>> writers = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                writers.add(executor.submit(() -> {
+                    for (int j = 0; j < 20; j++) {
+                        createStudent("并发专业", "并发1班");
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> writer : writers) {
+                writer.get(1, TimeUnit.MINUTES);
+            }
+            writing.set(false);
+            for (Future<?> reader : readers) {
+                reader.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            writing.set(false);
+            executor.shutdownNow();
+        }
+        
+        DashboardSnapshot snapshot = dashboardSnapshotService.getSnapshot();
+        assertThat(snapshot.getVersion()).isEqualTo(dashboardSnapshotService.getVersion());
+        assertThat(snapshot.getTotalStudents()).isEqualTo(userService.countByRole(User.Role.STUDENT));
+    }
+    
+    @Test
+    void verifyNeverPublishesPartialOccupancy() throws Exception {
+        int buildings = dormitoryService.getOccupancyRateByBuilding().size();
+        DashboardSnapshotService target = AopTestUtils.getTargetObject(dashboardSnapshotService);
+        DormitoryState drift = new DormitoryState(unique("漂移楼"), Dormitory.DormitoryType.MALE,
+                Dormitory.DormitoryStatus.AVAILABLE, 4, 1, true);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        AtomicBoolean verifying = new AtomicBoolean(true);
+        try {
+            List<Future<?>> readers = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                readers.add(executor.submit(() -> {
+                    while (verifying.get()) {
+                        DashboardSnapshot snapshot = ReflectionTestUtils.invokeMethod(target, "buildSnapshot", 0L);
+                        assertThat(snapshot.getOccupancyStats()).hasSizeGreaterThanOrEqualTo(buildings);
+                    }
+                    return null;
+                }));
+            }
+            // 计数器中多出一栋不存在的楼，校验时整体替换入住统计
+            for (int i = 0; i < 200; i++) {
+                dashboardSnapshotService.onDormitoryChanged(new DormitoryChangedEvent(null, ChangeType.CREATED,
+                        null, drift));
+                dashboardSnapshotService.verify();
+            }
+            verifying.set(false);
+            for (Future<?> reader : readers) {
+                reader.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            verifying.set(false);
+            executor.shutdownNow();
+        }
+        
+        assertThat(dashboardSnapshotService.getSnapshot().getOccupancyStats()).hasSize(buildings);
+    }
+}
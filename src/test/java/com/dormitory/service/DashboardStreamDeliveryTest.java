@@ -0,0 +1,149 @@
+package com.dormitory.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 仪表板推送的发送：慢连接不拖慢其他连接，发送超时的连接断开；推送频率配置超出范围时启动失败
+ */
+class DashboardStreamDeliveryTest {
+    
+    private final DashboardStreamProperties properties = new DashboardStreamProperties();
+    
+    private final AtomicLong version = new AtomicLong(1);
+    
+    // 只提供版本号和快照，学生数等于版本号
+    private final DashboardSnapshotService snapshots = new DashboardSnapshotService() {
+        
+        @Override
+        public long getVersion() {
+            return version.get();
+        }
+        
+        @Override
+        public DashboardSnapshot getSnapshot() {
+            long current = version.get();
+            return new DashboardSnapshot(current, current, 10, 5, 0, List.of(), List.of(), LocalDateTime.now());
+        }
+    };
+    
+    private final CountDownLatch release = new CountDownLatch(1);
+    
+    private DashboardStreamService service;
+    
+    @BeforeEach
+    void startService() {
+        properties.setMaxUpdatesPerSecond(50);
+        properties.setSendTimeout(Duration.ofMillis(500));
+        service = new DashboardStreamService(snapshots, new SimpleMeterRegistry(), properties);
+        service.afterPropertiesSet();
+    }
+    
+    @AfterEach
+    void stopService() {
+        release.countDown();
+        service.destroy();
+    }
+    
+    @Test
+    void slowClientDoesNotDelayOthers() throws Exception {
+        RecordingEmitter slow = new RecordingEmitter(release);
+        RecordingEmitter fast = new RecordingEmitter(null);
+        service.subscribe(slow);
+        service.subscribe(fast);
+        
+        await(() -> !fast.events.isEmpty());
+        assertThat(fast.events.get(0)).contains("event:snapshot", "totalStudents=1");
+        
+        // 快连接照常收到变化（增量，或上一次发送恰好未结束时的完整快照）
+        version.incrementAndGet();
+        await(() -> fast.events.stream().anyMatch(event -> event.contains("totalStudents=2")));
+        
+        // 慢连接卡在第一次发送，超时后断开
+        await(() -> service.getConnectionCount() == 1);
+        assertThat(slow.events).hasSize(1);
+        assertThat(slow.failed).isTrue();
+    }
+    
+    @Test
+    void updateRateMustBeBetweenOneAndThousand() {
+        ApplicationContextRunner runner = new ApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(ValidationAutoConfiguration.class))
+                .withUserConfiguration(PropertiesConfig.class);
+        
+        runner.withPropertyValues("dormitory.dashboard.stream.max-updates-per-second=0")
+                .run(context -> assertThat(context).hasFailed());
+        runner.withPropertyValues("dormitory.dashboard.stream.max-updates-per-second=1001")
+                .run(context -> assertThat(context).hasFailed());
+        runner.withPropertyValues("dormitory.dashboard.stream.max-updates-per-second=1000")
+                .run(context -> assertThat(context.getBean(DashboardStreamProperties.class).getFlushInterval())
+                        .isEqualTo(Duration.ofMillis(1)));
+    }
+    
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(condition.getAsBoolean()).as("等待超时").isTrue();
+    }
+    
+    @Configuration
+    @EnableConfigurationProperties(DashboardStreamProperties.class)
+    static class PropertiesConfig {
+    }
+    
+    /**
+     * 记录发送的事件；给定 release 时每次发送都等它放行，模拟网络很慢的连接
+     */
+    private static class RecordingEmitter extends SseEmitter {
+        
+        private final CountDownLatch release;
+        
+        private final List<String> events = new CopyOnWriteArrayList<>();
+        
+        private volatile boolean failed;
+        
+        RecordingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+        
+        @Override
+        public void send(SseEventBuilder builder) {
+            StringBuilder text = new StringBuilder();
+            builder.build().forEach(part -> text.append(part.getData()));
+            events.add(text.toString());
+            if (release != null) {
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+        
+        @Override
+        public void completeWithError(Throwable ex) {
+            failed = true;
+        }
+    }
+}
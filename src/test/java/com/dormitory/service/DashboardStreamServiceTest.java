@@ -0,0 +1,77 @@
+package com.dormitory.service;
+
+import com.dormitory.IntegrationTestSupport;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * 仪表板实时推送：新连接先收到完整快照，数据变更后由定时任务推送只含变化部分的增量
+ */
+class DashboardStreamServiceTest extends IntegrationTestSupport {
+    
+    @Autowired
+    private DashboardStreamService dashboardStreamService;
+    
+    @Autowired
+    private DashboardSnapshotService dashboardSnapshotService;
+    
+    @Test
+    void pushesSnapshotThenDelta() throws Exception {
+        int connections = dashboardStreamService.getConnectionCount();
+        MvcResult result = mockMvc.perform(get("/admin/dashboard/stream").with(user("admin").roles("ADMIN")))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MockHttpServletResponse response = result.getResponse();
+        try {
+            assertThat(dashboardStreamService.getConnectionCount()).isEqualTo(connections + 1);
+            String snapshot = awaitEvent(response, "snapshot");
+            assertThat(snapshot).contains("\"kpis\"", "\"occupancy\"", "\"repairs\"");
+            
+            createStudent("推送专业", "推送1班");
+            long totalStudents = dashboardSnapshotService.getSnapshot().getTotalStudents();
+            
+            String delta = awaitEvent(response, "delta");
+            assertThat(delta).contains("\"totalStudents\":" + totalStudents)
+                    .doesNotContain("\"totalDormitories\"");
+        } finally {
+            result.getRequest().getAsyncContext().complete();
+        }
+        assertThat(dashboardStreamService.getConnectionCount()).isEqualTo(connections);
+    }
+    
+    /**
+     * 等待定时推送写出指定名称的事件（每秒最多推送 max-updates-per-second 次），返回最后一个该事件的完整内容
+     */
+    private static String awaitEvent(MockHttpServletResponse response, String name) throws Exception {
+        long deadline = System.currentTimeMillis() + 10_000;
+        String event = lastEvent(response, name);
+        while (event == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+            event = lastEvent(response, name);
+        }
+        assertThat(event).as("没有收到 " + name + " 事件").isNotNull();
+        return event;
+    }
+    
+    /**
+     * 事件以空行结束，尚未写完时返回 null
+     */
+    private static String lastEvent(MockHttpServletResponse response, String name) throws Exception {
+        String content = response.getContentAsString(StandardCharsets.UTF_8);
+        int start = content.lastIndexOf("event:" + name + "\n");
+        if (start < 0) {
+            return null;
+        }
+        int end = content.indexOf("\n\n", start);
+        return end < 0 ? null : content.substring(start, end);
+    }
+}
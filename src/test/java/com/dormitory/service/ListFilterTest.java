@@ -0,0 +1,80 @@
+package com.dormitory.service;
+
+import com.dormitory.IntegrationTestSupport;
+import com.dormitory.entity.Dormitory;
+import com.dormitory.entity.StudentDormitory;
+import com.dormitory.entity.User;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 列表筛选：所有非空条件以 AND 组合
+ */
+class ListFilterTest extends IntegrationTestSupport {
+    
+    @Test
+    void assignmentFiltersAreCombined() {
+        String building = unique("筛选楼");
+        Dormitory first = createDormitory(building, 4);
+        Dormitory second = createDormitory(building, 4);
+        Dormitory elsewhere = createDormitory(unique("筛选楼"), 4);
+        User active = createStudent("筛选专业", "筛选1班");
+        User checkedOut = createStudent("筛选专业", "筛选1班");
+        User otherBuilding = createStudent("筛选专业", "筛选1班");
+        studentDormitoryService.assignStudentToDormitory(active.getId(), first.getId(), LocalDate.now());
+        studentDormitoryService.assignStudentToDormitory(checkedOut.getId(), second.getId(), LocalDate.now());
+        studentDormitoryService.checkOutStudent(checkedOut.getId(), LocalDate.now());
+        studentDormitoryService.assignStudentToDormitory(otherBuilding.getId(), elsewhere.getId(), LocalDate.now());
+        
+        assertThat(assignmentStudents(null, building, null))
+                .containsExactlyInAnyOrder(active.getId(), checkedOut.getId());
+        assertThat(assignmentStudents(StudentDormitory.AssignmentStatus.ACTIVE, building, null))
+                .containsExactly(active.getId());
+        assertThat(assignmentStudents(StudentDormitory.AssignmentStatus.COMPLETED, building, null))
+                .containsExactly(checkedOut.getId());
+        // 关键词匹配学号或房间号，同时受宿舍楼限制
+        assertThat(assignmentStudents(null, building, otherBuilding.getStudentId())).isEmpty();
+        assertThat(assignmentStudents(null, building, second.getRoomNumber())).containsExactly(checkedOut.getId());
+        assertThat(assignmentStudents(StudentDormitory.AssignmentStatus.ACTIVE, null, active.getStudentId()))
+                .containsExactly(active.getId());
+    }
+    
+    @Test
+    void dormitoryFiltersAreCombined() {
+        String building = unique("筛选楼");
+        Dormitory male = createDormitory(building, 2);
+        Dormitory female = createDormitory(building, 2);
+        female.setType(Dormitory.DormitoryType.FEMALE);
+        female.setDescription("靠近食堂");
+        dormitoryService.updateDormitory(female.getId(), female);
+        Dormitory maintenance = createDormitory(building, 2);
+        maintenance.setStatus(Dormitory.DormitoryStatus.MAINTENANCE);
+        dormitoryService.updateDormitory(maintenance.getId(), maintenance);
+        
+        assertThat(dormitories(building, Dormitory.DormitoryType.MALE, null, null))
+                .containsExactly(male.getId(), maintenance.getId());
+        assertThat(dormitories(building, Dormitory.DormitoryType.MALE, Dormitory.DormitoryStatus.AVAILABLE, null))
+                .containsExactly(male.getId());
+        assertThat(dormitories(building, null, null, "食堂")).containsExactly(female.getId());
+        assertThat(dormitories(building, Dormitory.DormitoryType.MALE, null, "食堂")).isEmpty();
+    }
+    
+    private List<Long> assignmentStudents(StudentDormitory.AssignmentStatus status, String building, String keyword) {
+        return studentDormitoryService.findPage(status, building, keyword, new KeysetPageRequest(null, 100, null, null, null))
+                .getContent().stream()
+                .map(AssignmentSummary::getStudentUserId)
+                .toList();
+    }
+    
+    private List<Long> dormitories(String building, Dormitory.DormitoryType type, Dormitory.DormitoryStatus status,
+                                   String keyword) {
+        return dormitoryService.findPage(building, type, status, keyword, new KeysetPageRequest(null, 100, null, null, null))
+                .getContent().stream()
+                .map(Dormitory::getId)
+                .toList();
+    }
+}
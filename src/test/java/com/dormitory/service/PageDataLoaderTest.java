@@ -0,0 +1,121 @@
+package com.dormitory.service;
+
+import com.dormitory.monitor.StatementCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.ui.ExtendedModelMap;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 页面数据并行加载：各部分并行执行，超过截止时间或失败的部分取默认值并记为不可用，查询线程继承登录信息和语句计数
+ */
+class PageDataLoaderTest {
+    
+    private final PageLoadProperties properties = new PageLoadProperties();
+    
+    private final StatementCounter statementCounter = new StatementCounter();
+    
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    
+    private PageDataLoader loader;
+    
+    @BeforeEach
+    void startLoader() {
+        properties.setPoolSize(4);
+        properties.setQueueCapacity(10);
+        properties.setDeadline(Duration.ofMillis(500));
+        loader = new PageDataLoader(properties, statementCounter, registry);
+        loader.afterPropertiesSet();
+    }
+    
+    @AfterEach
+    void stopLoader() {
+        loader.destroy();
+        SecurityContextHolder.clearContext();
+    }
+    
+    @Test
+    void sectionsRunInParallel() {
+        // 两部分互相等待对方开始，串行执行时都会等到超时
+        CountDownLatch started = new CountDownLatch(2);
+        PageDataLoader.PageLoad load = loader.start();
+        load.add("students", () -> awaitOther(started, 10L), 0L);
+        load.add("dormitories", () -> awaitOther(started, 20L), 0L);
+        
+        ExtendedModelMap model = new ExtendedModelMap();
+        load.into(model);
+        
+        assertThat(model.get("students")).isEqualTo(10L);
+        assertThat(model.get("dormitories")).isEqualTo(20L);
+        assertThat(model.get(PageDataLoader.UNAVAILABLE_SECTIONS)).isEqualTo(List.of());
+        assertThat(registry.find("dormitory.page-load.degraded").counter()).isNull();
+    }
+    
+    @Test
+    void slowAndFailedSectionsFallBack() {
+        CountDownLatch release = new CountDownLatch(1);
+        PageDataLoader.PageLoad load = loader.start();
+        PageDataLoader.Section<Long> fast = load.add("students", () -> 10L, 0L);
+        PageDataLoader.Section<Long> slow = load.add("repairs", () -> await(release, 30L), -1L);
+        PageDataLoader.Section<Long> failed = load.add("occupancy", () -> {
+            throw new IllegalStateException("查询失败");
+        }, -1L);
+        
+        long startedAt = System.nanoTime();
+        List<String> unavailable = load.join();
+        long waitedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+        release.countDown();
+        
+        assertThat(unavailable).containsExactly("repairs", "occupancy");
+        assertThat(fast.get()).isEqualTo(10L);
+        assertThat(slow.get()).isEqualTo(-1L);
+        assertThat(failed.get()).isEqualTo(-1L);
+        assertThat(waitedMillis).isBetween(400L, 2000L);
+        assertThat(registry.get("dormitory.page-load.degraded").tag("section", "repairs").counter().count()).isEqualTo(1);
+        assertThat(registry.get("dormitory.page-load.degraded").tag("section", "occupancy").counter().count())
+                .isEqualTo(1);
+    }
+    
+    @Test
+    void queriesSeeRequestUserAndCountStatements() {
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated("admin", null, List.of()));
+        statementCounter.start();
+        
+        PageDataLoader.PageLoad load = loader.start();
+        PageDataLoader.Section<String> user = load.add("user", () -> {
+            statementCounter.inspect("select 1");
+            statementCounter.inspect("select 2");
+            return SecurityContextHolder.getContext().getAuthentication().getName();
+        }, null);
+        load.join();
+        
+        assertThat(user.get()).isEqualTo("admin");
+        assertThat(statementCounter.stop()).isEqualTo(2);
+    }
+    
+    private static Long awaitOther(CountDownLatch started, Long value) {
+        started.countDown();
+        return await(started, value);
+    }
+    
+    private static Long await(CountDownLatch latch, Long value) {
+        try {
+            latch.await(2, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return value;
+    }
+}
@@ -0,0 +1,179 @@
+package com.dormitory.service;
+
+import com.dormitory.IntegrationTestSupport;
+import com.dormitory.entity.Dormitory;
+import com.dormitory.entity.RepairRequest;
+import com.dormitory.entity.RepairStatistic;
+import com.dormitory.entity.User;
+import com.dormitory.event.ChangeType;
+import com.dormitory.event.RepairRequestChangedEvent;
+import com.dormitory.event.RepairRequestState;
+import com.dormitory.repository.RepairRequestRepository;
+import com.dormitory.repository.RepairStatisticRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 维修统计：计数表和内存镜像与分组查询一致，校验修正计数表的偏差
+ */
+class RepairStatisticsServiceTest extends IntegrationTestSupport {
+    
+    @Autowired
+    private RepairStatisticsService repairStatisticsService;
+    
+    @Autowired
+    private RepairStatisticRepository repairStatisticRepository;
+    
+    @Autowired
+    private RepairRequestRepository repairRequestRepository;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Test
+    void mirrorFollowsChanges() {
+        User student = createStudent("统计专业", "统计1班");
+        Dormitory dormitory = createDormitory(unique("统计楼"), 4);
+        User admin = createAdmin();
+        RepairRequest first = createRepairRequest(student, dormitory,
+                RepairRequest.RepairType.PLUMBING, RepairRequest.RepairPriority.HIGH);
+        createRepairRequest(student, dormitory, RepairRequest.RepairType.ELECTRICAL, RepairRequest.RepairPriority.LOW);
+        repairRequestService.assignRepairRequest(first.getId(), admin.getId());
+        repairRequestService.completeRepairRequest(first.getId(), "已修好", 20.0);
+        
+        assertThat(counts(repairStatisticsService.countByBuilding())).containsEntry(dormitory.getBuildingName(), 2L);
+        assertThat(counts(repairStatisticsService.countByAssignedAdmin())).containsEntry(admin.getRealName(), 1L);
+        assertMatchesGroupBy();
+    }
+    
+    @Test
+    void verifyCorrectsDrift() {
+        User student = createStudent("统计专业", "统计2班");
+        Dormitory dormitory = createDormitory(unique("统计楼"), 4);
+        createRepairRequest(student, dormitory, RepairRequest.RepairType.FURNITURE, RepairRequest.RepairPriority.MEDIUM);
+        transactionTemplate.executeWithoutResult(status -> repairStatisticRepository.addToCount(
+                RepairStatistic.Dimension.BUILDING, dormitory.getBuildingName(), 5, LocalDateTime.now()));
+        assertThat(storedCount(RepairStatistic.Dimension.BUILDING, dormitory.getBuildingName())).isEqualTo(6);
+        
+        repairStatisticsService.verify();
+        
+        assertThat(storedCount(RepairStatistic.Dimension.BUILDING, dormitory.getBuildingName())).isEqualTo(1);
+        assertThat(counts(repairStatisticsService.countByBuilding())).containsEntry(dormitory.getBuildingName(), 1L);
+        assertMatchesGroupBy();
+    }
+    
+    @Test
+    void concurrentTransactionsCreateCounterRowOnce() throws Exception {
+        // 只有宿舍楼维度的变更：不经过预先建好的状态计数行，几个事务同时为新楼建计数行
+        String building = unique("新统计楼");
+        RepairRequestState state = new RepairRequestState(null, null, null, building, null, null, null);
+        int transactions = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(transactions);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int i = 0; i < transactions; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    transactionTemplate.executeWithoutResult(status -> {
+                        repairStatisticsService.updateCounters(new RepairRequestChangedEvent(
+                                null, ChangeType.CREATED, null, state));
+                        // 推迟提交，让其他事务在此期间也找不到已提交的计数行
+                        sleep(200);
+                    });
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get(1, TimeUnit.MINUTES);
+            }
+            assertThat(storedCount(RepairStatistic.Dimension.BUILDING, building)).isEqualTo(transactions);
+        } finally {
+            executor.shutdownNow();
+            // 计数行没有对应的维修申请，删除以免影响其他测试的校验
+            transactionTemplate.executeWithoutResult(status -> repairStatisticRepository.findAll().stream()
+                    .filter(statistic -> building.equals(statistic.getDimensionKey()))
+                    .forEach(repairStatisticRepository::delete));
+        }
+    }
+    
+    @Test
+    void adminsWithSameNameCountedSeparately() {
+        User student = createStudent("统计专业", "统计4班");
+        Dormitory dormitory = createDormitory(unique("统计楼"), 4);
+        User first = createAdmin();
+        User second = createAdmin();
+        second.setRealName(first.getRealName());
+        userService.updateUser(second.getId(), second);
+        
+        RepairRequest one = createRepairRequest(student, dormitory,
+                RepairRequest.RepairType.PLUMBING, RepairRequest.RepairPriority.LOW);
+        RepairRequest two = createRepairRequest(student, dormitory,
+                RepairRequest.RepairType.PLUMBING, RepairRequest.RepairPriority.LOW);
+        RepairRequest three = createRepairRequest(student, dormitory,
+                RepairRequest.RepairType.PLUMBING, RepairRequest.RepairPriority.LOW);
+        repairRequestService.assignRepairRequest(one.getId(), first.getId());
+        repairRequestService.assignRepairRequest(two.getId(), first.getId());
+        repairRequestService.assignRepairRequest(three.getId(), second.getId());
+        
+        assertThat(storedCount(RepairStatistic.Dimension.ADMIN, String.valueOf(first.getId()))).isEqualTo(2);
+        assertThat(storedCount(RepairStatistic.Dimension.ADMIN, String.valueOf(second.getId()))).isEqualTo(1);
+        assertThat(repairStatisticsService.countByAssignedAdmin())
+                .filteredOn(row -> first.getRealName().equals(row[0]))
+                .extracting(row -> ((Number) row[1]).longValue())
+                .containsExactlyInAnyOrder(2L, 1L);
+        assertThat(repairRequestRepository.countByAssignedAdmin())
+                .filteredOn(row -> first.getRealName().equals(row[0]))
+                .extracting(row -> ((Number) row[1]).longValue())
+                .containsExactlyInAnyOrder(2L, 1L);
+    }
+    
+    private void assertMatchesGroupBy() {
+        assertThat(counts(repairStatisticsService.countByStatus())).isEqualTo(counts(repairRequestRepository.countByStatus()));
+        assertThat(counts(repairStatisticsService.countByType())).isEqualTo(counts(repairRequestRepository.countByType()));
+        assertThat(counts(repairStatisticsService.countByPriority()))
+                .isEqualTo(counts(repairRequestRepository.countByPriority()));
+        assertThat(counts(repairStatisticsService.countByBuilding()))
+                .isEqualTo(counts(repairRequestRepository.countByBuilding()));
+        assertThat(counts(repairStatisticsService.countByAssignedAdmin()))
+                .isEqualTo(counts(repairRequestRepository.countByAssignedAdmin()));
+    }
+    
+    private long storedCount(RepairStatistic.Dimension dimension, String value) {
+        return repairStatisticRepository.findAll().stream()
+                .filter(statistic -> statistic.getDimension() == dimension && statistic.getDimensionKey().equals(value))
+                .findFirst().orElseThrow()
+                .getRequestCount();
+    }
+    
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private static Map<String, Long> counts(List<Object[]> rows) {
+        Map<String, Long> counts = new HashMap<>();
+        for (Object[] row : rows) {
+            counts.put(String.valueOf(row[0]), ((Number) row[1]).longValue());
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,74 @@
+package com.dormitory.service;
+
+import com.dormitory.IntegrationTestSupport;
+import com.dormitory.entity.Dormitory;
+import com.dormitory.entity.RepairRequest;
+import com.dormitory.entity.User;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 基准测试（src/jmh）中的业务热点路径
+ *
+ * ServiceBenchmarks 在同一批数据上反复办理入住后退宿、入住人数交替加一减一，依赖每轮操作后数据复原；
+ * 查询类基准依赖按关键字能查到数据（用户按用户名、姓名、邮箱、电话、学号查找，不含专业）。
+ */
+class ServiceHotPathsTest extends IntegrationTestSupport {
+    
+    @Test
+    void assignAndCheckOutRestoresDormitory() {
+        User student = createStudent("热点专业", "热点1班");
+        Dormitory dormitory = createDormitory(unique("热点楼"), 1);
+        
+        for (int i = 0; i < 3; i++) {
+            studentDormitoryService.assignStudentToDormitory(student.getId(), dormitory.getId(), LocalDate.now());
+            Dormitory occupied = dormitoryService.findById(dormitory.getId()).orElseThrow();
+            assertThat(occupied.getCurrentOccupancy()).isEqualTo(1);
+            assertThat(occupied.getStatus()).isEqualTo(Dormitory.DormitoryStatus.FULL);
+            
+            studentDormitoryService.checkOutStudent(student.getId(), LocalDate.now());
+            Dormitory restored = dormitoryService.findById(dormitory.getId()).orElseThrow();
+            assertThat(restored.getCurrentOccupancy()).isZero();
+            assertThat(restored.getStatus()).isEqualTo(Dormitory.DormitoryStatus.AVAILABLE);
+            assertThat(studentDormitoryService.findActiveByStudentId(student.getId())).isEmpty();
+        }
+    }
+    
+    @Test
+    void occupancyToggleRestoresDormitory() {
+        Dormitory dormitory = createDormitory(unique("热点楼"), 1);
+        
+        dormitoryService.updateOccupancy(dormitory.getId(), 1);
+        assertThat(dormitoryService.findById(dormitory.getId()).orElseThrow().getStatus())
+                .isEqualTo(Dormitory.DormitoryStatus.FULL);
+        assertThatThrownBy(() -> dormitoryService.updateOccupancy(dormitory.getId(), 1))
+                .hasMessage("入住人数超出范围");
+        
+        dormitoryService.updateOccupancy(dormitory.getId(), -1);
+        Dormitory restored = dormitoryService.findById(dormitory.getId()).orElseThrow();
+        assertThat(restored.getCurrentOccupancy()).isZero();
+        assertThat(restored.getStatus()).isEqualTo(Dormitory.DormitoryStatus.AVAILABLE);
+    }
+    
+    @Test
+    void searchesFindByKeyword() {
+        User student = createStudent("热点专业", "热点2班");
+        Dormitory dormitory = createDormitory(unique("热点楼"), 2);
+        RepairRequest repairRequest = createRepairRequest(student, dormitory,
+                RepairRequest.RepairType.PLUMBING, RepairRequest.RepairPriority.HIGH);
+        
+        assertThat(dormitoryService.searchDormitories(dormitory.getBuildingName()))
+                .extracting(Dormitory::getId).contains(dormitory.getId());
+        assertThat(userService.searchUsers(student.getRealName())).extracting(User::getId).contains(student.getId());
+        assertThat(repairRequestService.searchRepairRequests(repairRequest.getDescription()))
+                .extracting(RepairRequest::getId).contains(repairRequest.getId());
+        assertThat(repairRequestService.findPendingRequestsOrderByPriority())
+                .extracting(RepairRequestSummary::getId).contains(repairRequest.getId());
+        assertThat(dormitoryService.getOccupancyRateByBuilding())
+                .anySatisfy(row -> assertThat(row[0]).isEqualTo(dormitory.getBuildingName()));
+    }
+}
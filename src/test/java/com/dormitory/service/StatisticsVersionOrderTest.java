@@ -0,0 +1,68 @@
+package com.dormitory.service;
+
+import com.dormitory.IntegrationTestSupport;
+import com.dormitory.entity.Dormitory;
+import com.dormitory.entity.RepairRequest;
+import com.dormitory.entity.User;
+import com.dormitory.event.StatisticsChangedEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.PayloadApplicationEvent;
+import org.springframework.context.event.ApplicationEventMulticaster;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 版本号递增在派生数据更新之后：收到新版本号时，维修统计镜像和仪表板快照已经包含这次变更
+ */
+class StatisticsVersionOrderTest extends IntegrationTestSupport {
+    
+    @Autowired
+    private ApplicationEventMulticaster eventMulticaster;
+    
+    @Autowired
+    private RepairStatisticsService repairStatisticsService;
+    
+    @Autowired
+    private DashboardSnapshotService dashboardSnapshotService;
+    
+    @Test
+    void derivedDataIsUpdatedBeforeVersionBump() {
+        User student = createStudent("顺序专业", "顺序1班");
+        Dormitory dormitory = createDormitory(unique("顺序楼"), 4);
+        long pendingBefore = pending(repairStatisticsService.countByStatus());
+        long dashboardBefore = dashboardSnapshotService.getSnapshot().getPendingRepairRequests();
+        
+        // 版本号递增时（仍在事务提交后的回调中）读取统计
+        Map<String, Long> seen = new ConcurrentHashMap<>();
+        ApplicationListener<ApplicationEvent> listener = event -> {
+            if (event instanceof PayloadApplicationEvent<?> payload
+                    && payload.getPayload() instanceof StatisticsChangedEvent changed
+                    && changed.getDataset() == StatisticsVersionService.Dataset.REPAIRS) {
+                seen.put("mirror", pending(repairStatisticsService.countByStatus()));
+                seen.put("dashboard", dashboardSnapshotService.getSnapshot().getPendingRepairRequests());
+            }
+        };
+        eventMulticaster.addApplicationListener(listener);
+        try {
+            createRepairRequest(student, dormitory, RepairRequest.RepairType.PLUMBING, RepairRequest.RepairPriority.HIGH);
+        } finally {
+            eventMulticaster.removeApplicationListener(listener);
+        }
+        
+        assertThat(seen).containsEntry("mirror", pendingBefore + 1).containsEntry("dashboard", dashboardBefore + 1);
+    }
+    
+    private static long pending(List<Object[]> rows) {
+        return rows.stream()
+                .filter(row -> row[0] == RepairRequest.RepairStatus.PENDING)
+                .mapToLong(row -> ((Number) row[1]).longValue())
+                .sum();
+    }
+}
@@ -0,0 +1,84 @@
+package com.dormitory.service;
+
+import com.dormitory.IntegrationTestSupport;
+import com.dormitory.entity.Dormitory;
+import com.dormitory.entity.User;
+import com.dormitory.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 未分配宿舍学生索引：分配、退宿、新建学生后与 NOT IN 子查询的结果一致
+ */
+class UnassignedStudentIndexTest extends IntegrationTestSupport {
+    
+    @Autowired
+    private UnassignedStudentIndex unassignedStudentIndex;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Test
+    void tracksAssignmentAndCheckOut() {
+        User student = createStudent("测试专业", "测试1班");
+        Dormitory dormitory = createDormitory(unique("索引楼"), 4);
+        assertThat(unassignedIds()).contains(student.getId());
+        assertMatchesQuery();
+        
+        studentDormitoryService.assignStudentToDormitory(student.getId(), dormitory.getId(), LocalDate.now());
+        assertThat(unassignedIds()).doesNotContain(student.getId());
+        assertMatchesQuery();
+        
+        studentDormitoryService.checkOutStudent(student.getId(), LocalDate.now());
+        assertThat(unassignedIds()).contains(student.getId());
+        assertMatchesQuery();
+    }
+    
+    @Test
+    void filtersByMajorAndClass() {
+        String major = unique("专业");
+        User first = createStudent(major, "1班");
+        User second = createStudent(major, "2班");
+        createStudent(unique("专业"), "1班");
+        
+        assertThat(unassignedStudentIndex.findIds(major, null, Pageable.unpaged()).getContent())
+                .containsExactly(first.getId(), second.getId());
+        assertThat(unassignedStudentIndex.findIds(major, "2班", Pageable.unpaged()).getContent())
+                .containsExactly(second.getId());
+        Page<Long> secondPage = unassignedStudentIndex.findIds(major, null, PageRequest.of(1, 1));
+        assertThat(secondPage.getContent()).containsExactly(second.getId());
+        assertThat(secondPage.getTotalElements()).isEqualTo(2);
+    }
+    
+    @Test
+    void rebuildMatchesIncrementalState() {
+        createStudent("测试专业", "测试1班");
+        List<Long> incremental = unassignedIds();
+        
+        unassignedStudentIndex.rebuild();
+        
+        assertThat(unassignedIds()).isEqualTo(incremental);
+        assertMatchesQuery();
+    }
+    
+    private List<Long> unassignedIds() {
+        return unassignedStudentIndex.findIds(null, null, Pageable.unpaged()).getContent();
+    }
+    
+    private void assertMatchesQuery() {
+        List<Long> expected = userRepository.findStudentsWithoutDormitory().stream()
+                .map(User::getId)
+                .sorted()
+                .toList();
+        assertThat(unassignedIds()).isEqualTo(expected);
+        assertThat(unassignedStudentIndex.count()).isEqualTo(expected.size());
+    }
+}
@@ -0,0 +1,117 @@
+package com.dormitory.view;
+
+import com.dormitory.IntegrationTestSupport;
+import com.dormitory.entity.User;
+import com.dormitory.event.StatisticsChangedEvent;
+import com.dormitory.service.DashboardSnapshotService;
+import com.dormitory.service.StatisticsVersionService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.EnumSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 页面片段缓存：重复渲染命中缓存，依赖的统计数据变化后清除片段，页面显示新数据
+ */
+class FragmentCacheTest extends IntegrationTestSupport {
+    
+    private static final Set<StatisticsVersionService.Dataset> DORMITORIES =
+            EnumSet.of(StatisticsVersionService.Dataset.DORMITORIES);
+    
+    private static final Set<StatisticsVersionService.Dataset> REPAIRS =
+            EnumSet.of(StatisticsVersionService.Dataset.REPAIRS);
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Autowired
+    private DashboardSnapshotService dashboardSnapshotService;
+    
+    @Test
+    void dashboardCardsCachedUntilDataChanges() throws Exception {
+        User admin = createAdmin();
+        dashboard(admin);
+        double hits = requests("hit");
+        dashboard(admin);
+        assertThat(requests("hit")).isGreaterThan(hits);
+        
+        double evictions = meterRegistry.get("dormitory.fragment-cache.evictions").tag("reason", "tag").counter().count();
+        createStudent("片段专业", "片段1班");
+        assertThat(meterRegistry.get("dormitory.fragment-cache.evictions").tag("reason", "tag").counter().count())
+                .isGreaterThan(evictions);
+        
+        long totalStudents = dashboardSnapshotService.getSnapshot().getTotalStudents();
+        assertThat(dashboard(admin)).contains("id=\"kpi-totalStudents\">" + totalStudents + "<");
+    }
+    
+    @Test
+    void changedDatasetEvictsOnlyDependentFragments() {
+        StatisticsVersionService versions = new StatisticsVersionService();
+        FragmentCache cache = new FragmentCache(versions, new SimpleMeterRegistry(), 10);
+        ReflectionTestUtils.setField(versions, "eventPublisher",
+                (ApplicationEventPublisher) event -> cache.onStatisticsChanged((StatisticsChangedEvent) event));
+        
+        cache.put("buildingFilter", "", DORMITORIES, cache.versions(DORMITORIES), "<select/>");
+        cache.put("repairCards", "", REPAIRS, cache.versions(REPAIRS), "<div/>");
+        assertThat(cache.get("buildingFilter", "")).isEqualTo("<select/>");
+        
+        versions.bump(StatisticsVersionService.Dataset.DORMITORIES);
+        
+        assertThat(cache.get("buildingFilter", "")).isNull();
+        assertThat(cache.get("repairCards", "")).isEqualTo("<div/>");
+        assertThat(cache.size()).isEqualTo(1);
+    }
+    
+    @Test
+    void renderedBeforeChangeIsNotStored() {
+        StatisticsVersionService versions = new StatisticsVersionService();
+        ReflectionTestUtils.setField(versions, "eventPublisher", (ApplicationEventPublisher) event -> {
+        });
+        FragmentCache cache = new FragmentCache(versions, new SimpleMeterRegistry(), 10);
+        
+        // 渲染期间数据发生变化：存入时版本号已过期，不缓存
+        long[] renderedAt = cache.versions(DORMITORIES);
+        versions.bump(StatisticsVersionService.Dataset.DORMITORIES);
+        cache.put("buildingFilter", "", DORMITORIES, renderedAt, "<select/>");
+        
+        assertThat(cache.get("buildingFilter", "")).isNull();
+        assertThat(cache.size()).isZero();
+    }
+    
+    @Test
+    void evictsLeastRecentlyUsed() {
+        StatisticsVersionService versions = new StatisticsVersionService();
+        FragmentCache cache = new FragmentCache(versions, new SimpleMeterRegistry(), 2);
+        
+        cache.put("buildingFilter", "A栋", DORMITORIES, cache.versions(DORMITORIES), "A");
+        cache.put("buildingFilter", "B栋", DORMITORIES, cache.versions(DORMITORIES), "B");
+        cache.get("buildingFilter", "A栋");
+        cache.put("buildingFilter", "C栋", DORMITORIES, cache.versions(DORMITORIES), "C");
+        
+        assertThat(cache.get("buildingFilter", "A栋")).isEqualTo("A");
+        assertThat(cache.get("buildingFilter", "B栋")).isNull();
+        assertThat(cache.get("buildingFilter", "C栋")).isEqualTo("C");
+    }
+    
+    private String dashboard(User admin) throws Exception {
+        return mockMvc.perform(get("/").with(user(admin)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+    }
+    
+    private double requests(String result) {
+        return meterRegistry.get("dormitory.fragment-cache.requests")
+                .tags("fragment", "adminStatCards", "result", result).counter().count();
+    }
+}